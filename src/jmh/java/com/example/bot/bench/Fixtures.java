@@ -0,0 +1,154 @@
+package com.example.bot.bench;
+
+import com.example.bot.config.JournalProperties;
+import com.example.bot.config.OrderCacheProperties;
+import com.example.bot.config.OutboundProperties;
+import com.example.bot.config.PersistenceProperties;
+import com.example.bot.config.SessionProperties;
+import com.example.bot.config.StatsProperties;
+import com.example.bot.config.UiProperties;
+import com.example.bot.flow.InMemorySessionService;
+import com.example.bot.flow.SessionService;
+import com.example.bot.journal.OrderJournal;
+import com.example.bot.jpa.BotStateJpaRepository;
+import com.example.bot.jpa.OrderPersistence;
+import com.example.bot.jpa.OrderWriteBehind;
+import com.example.bot.orders.LocalOrderStateStore;
+import com.example.bot.orders.OrderRepository;
+import com.example.bot.orders.OrderService;
+import com.example.bot.outbound.OutboundSender;
+import com.example.bot.search.OrderSearchIndex;
+import com.example.bot.stats.OrderStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.FileSystemResource;
+import org.telegram.telegrambots.meta.generics.TelegramClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Сборка бинов для бенчмарков без Spring-контекста и без сети/БД.
+ * Жизненный цикл (@PostConstruct/@PreDestroy) вызывается так же, как это делает контейнер.
+ */
+public final class Fixtures {
+
+    private Fixtures() {}
+
+    public static final MeterRegistry METERS = new SimpleMeterRegistry();
+
+    /** TelegramClient, который ничего не отправляет и сразу "успешно" отвечает. */
+    public static TelegramClient telegramClient() {
+        return (TelegramClient) Proxy.newProxyInstance(Fixtures.class.getClassLoader(),
+                new Class<?>[]{TelegramClient.class}, (proxy, m, args) -> {
+                    if (m.getDeclaringClass() == Object.class) return objectMethod(proxy, m, args);
+                    return CompletableFuture.class.isAssignableFrom(m.getReturnType())
+                            ? CompletableFuture.completedFuture(null) : null;
+                });
+    }
+
+    /** Spring Data репозиторий, который ничего не хранит: save возвращает аргумент, выборки пусты. */
+    public static <T> T emptyRepository(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(Fixtures.class.getClassLoader(),
+                new Class<?>[]{type}, (proxy, m, args) -> {
+                    if (m.getDeclaringClass() == Object.class) return objectMethod(proxy, m, args);
+                    if (m.getName().equals("save")) return args[0];
+                    if (m.getReturnType() == Optional.class) return Optional.empty();
+                    if (java.util.List.class.isAssignableFrom(m.getReturnType())) return java.util.List.of();
+                    if (m.getReturnType() == int.class) return 0;
+                    return null;
+                }));
+    }
+
+    /** Персистенс без H2: write-through в репозиторий, который ничего не хранит. */
+    public static OrderPersistence persistence() {
+        OrderRepository repo = emptyRepository(OrderRepository.class);
+        PersistenceProperties props = new PersistenceProperties();
+        props.setMode(PersistenceProperties.Mode.WRITE_THROUGH);
+        OrderWriteBehind writeBehind = init(new OrderWriteBehind(null, null, props, METERS));
+        return init(new OrderPersistence(repo, writeBehind, METERS));
+    }
+
+    /** Журнал выключен — его fsync меряется отдельно, а не в каждом бенчмарке сервиса. */
+    public static OrderJournal journal() {
+        return init(new OrderJournal(new JournalProperties(), METERS));
+    }
+
+    public static OrderService orderService(int maxSize) {
+        OrderCacheProperties props = new OrderCacheProperties();
+        props.setMaxSize(maxSize);
+        return init(new OrderService(new LocalOrderStateStore(), persistence(), journal(), props, event -> { },
+                new OrderSearchIndex(), orderStats()));
+    }
+
+    public static OrderStats orderStats() {
+        return init(new OrderStats(persistence(), emptyRepository(BotStateJpaRepository.class), new StatsProperties()));
+    }
+
+    public static SessionService sessionService() {
+        return init(new InMemorySessionService(new SessionProperties()));
+    }
+
+    /** Отправитель без лимитов — меряем свой код, а не ожидание бакетов. */
+    public static OutboundSender outboundSender(TelegramClient client) {
+        OutboundProperties props = new OutboundProperties();
+        props.setGlobalRate(1e9);
+        props.setGlobalBurst(1_000_000);
+        props.setChatRate(1e9);
+        props.setChatBurst(1_000_000);
+        return init(new OutboundSender(client, props, METERS));
+    }
+
+    /** Тексты UI из bot-config.yml в корне проекта — те же, что в проде. */
+    public static UiProperties ui() {
+        try {
+            var env = new StandardEnvironment();
+            new YamlPropertySourceLoader().load("bot-config", new FileSystemResource("bot-config.yml"))
+                    .forEach(env.getPropertySources()::addLast);
+            return new Binder(ConfigurationPropertySources.get(env))
+                    .bind("ui", UiProperties.class)
+                    .orElseThrow(() -> new IllegalStateException("bot-config.yml has no 'ui' section"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static <T> T init(T bean) {
+        invokeAnnotated(bean, PostConstruct.class);
+        return bean;
+    }
+
+    public static void destroy(Object bean) {
+        invokeAnnotated(bean, PreDestroy.class);
+    }
+
+    private static void invokeAnnotated(Object bean, Class<? extends java.lang.annotation.Annotation> a) {
+        for (Method m : bean.getClass().getDeclaredMethods()) {
+            if (!m.isAnnotationPresent(a)) continue;
+            try {
+                m.setAccessible(true);
+                m.invoke(bean);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Lifecycle method " + m + " failed", e);
+            }
+        }
+    }
+
+    private static Object objectMethod(Object proxy, Method m, Object[] args) {
+        return switch (m.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> "stub";
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.bot.bench;
+
+import com.example.bot.orders.Order;
+import com.example.bot.orders.OrderService;
+import com.example.bot.orders.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Optional;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Черновики из всех ядер сразу: нажатие кнопки услуги, иногда — отмена или отправка заявки
+ * (с запоздалой отменой, которая заявку уже не трогает, и закрытием диспетчером).
+ * chats=1 — все потоки жмут в один чат (двойные нажатия), 100000 — каждый в свой, и пропускная
+ * способность должна расти с числом ядер: общего замка нет.
+ * После каждой итерации проверяется инвариант: черновик чата, который последним видел каждый поток,
+ * либо уже не черновик, либо именно на него смотрит указатель — второго (потерянного при гонке)
+ * черновика у чата нет.
+ */
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class OrderContentionBenchmark {
+
+    @Param({"1", "64", "100000"})
+    public int chats;
+
+    private OrderService service;
+    private final Queue<Cursor> cursors = new ConcurrentLinkedQueue<>();
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        final SplittableRandom rnd = new SplittableRandom(Thread.currentThread().threadId());
+        /** Последний черновик, полученный потоком, по номеру чата. */
+        String[] lastDraft;
+
+        @Setup
+        public void register(OrderContentionBenchmark b) {
+            lastDraft = new String[b.chats];
+            b.cursors.add(this);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        // закрытые заявки вытесняются первыми — черновики в кэше остаются
+        service = Fixtures.orderService(chats * 4);
+    }
+
+    @Benchmark
+    public Order tap(Cursor c) {
+        int i = c.rnd.nextInt(chats);
+        Order draft = service.beginOrUpdateDraft(chatId(i), "Выгул", "Обычный", null, null, null);
+        c.lastDraft[i] = draft.getId();
+        switch (c.rnd.nextInt(8)) {
+            case 0 -> service.cancelDraft(draft.getId());
+            case 1, 2 -> {
+                service.updateStatus(draft.getId(), OrderStatus.NEW);
+                service.cancelDraft(draft.getId());
+                service.updateStatus(draft.getId(), OrderStatus.COMPLETED);
+            }
+            default -> { }
+        }
+        return draft;
+    }
+
+    @TearDown(Level.Iteration)
+    public void verify() {
+        for (int i = 0; i < chats; i++) {
+            long chatId = chatId(i);
+            Optional<String> pointer = service.getActiveDraftId(chatId);
+            if (pointer.isPresent()) {
+                Order o = service.findById(pointer.get()).orElse(null);
+                if (o == null || o.getStatus() != OrderStatus.DRAFT || !Long.valueOf(chatId).equals(o.getChatId())) {
+                    throw new IllegalStateException("Chat " + chatId + " draft pointer " + pointer + " is at " + o);
+                }
+            }
+            for (Cursor c : cursors) {
+                String id = c.lastDraft[i];
+                if (id == null || pointer.equals(Optional.of(id))) continue;
+                Order o = service.findById(id).orElse(null);
+                if (o != null && o.getStatus() == OrderStatus.DRAFT) {
+                    throw new IllegalStateException("Chat " + chatId + " has draft " + o + " besides pointer " + pointer);
+                }
+            }
+        }
+    }
+
+    private static long chatId(int i) {
+        return 100_000_000L + i;
+    }
+}
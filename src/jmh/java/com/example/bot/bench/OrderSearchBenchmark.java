@@ -0,0 +1,82 @@
+package com.example.bot.bench;
+
+import com.example.bot.orders.Order;
+import com.example.bot.orders.OrderStatus;
+import com.example.bot.search.OrderSearchIndex;
+import com.example.bot.search.SearchHit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Запросы /find к индексу, заполненному заявками с описаниями «порода, район, кличка, пожелания».
+ * rare — два редких слова (пересечение коротких списков), common — слово почти из каждой заявки,
+ * fallback — слова, которые вместе не встречаются (объединение вместо пересечения).
+ */
+@State(Scope.Benchmark)
+public class OrderSearchBenchmark {
+
+    private static final String[] BREEDS = {"шпиц", "корги", "хаски", "лабрадор", "такса", "мопс", "бигль",
+            "овчарка", "пудель", "чихуахуа", "йоркширский терьер", "французский бульдог", "метис", "джек-рассел"};
+    private static final String[] DISTRICTS = {"Бутово", "Марьино", "Митино", "Строгино", "Выхино", "Люблино",
+            "Кунцево", "Сокольники", "Тушино", "Раменки", "Хамовники", "Измайлово"};
+    private static final String[] NAMES = {"Бублик", "Рекс", "Луна", "Булка", "Граф", "Тоша", "Ричи", "Джесси",
+            "Марс", "Жужа", "Лаки", "Соня", "Барни", "Кнопка", "Арчи", "Найда"};
+    private static final String[] NOTES = {"боится машин", "тянет поводок", "нужен намордник", "после операции",
+            "гулять два раза в день", "не любит других собак", "кормить вечером", "ключи у консьержа",
+            "пожилая собака", "щенок пяти месяцев", "нужно расчесать", "с собой дождевик"};
+
+    @Param({"100000", "500000"})
+    public int orders;
+
+    private OrderSearchIndex index;
+
+    @Setup
+    public void setup() {
+        index = new OrderSearchIndex();
+        SplittableRandom rnd = new SplittableRandom(42);
+        OffsetDateTime t0 = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        for (int i = 0; i < orders; i++) {
+            OffsetDateTime ts = t0.plusSeconds(i * 7L);
+            String description = "Собака " + pick(rnd, BREEDS) + " по кличке " + pick(rnd, NAMES) + ", район "
+                    + pick(rnd, DISTRICTS) + ", " + pick(rnd, NOTES) + ". Дом " + rnd.nextInt(1, 200)
+                    + ", кв. " + rnd.nextInt(1, 400);
+            index.index(Order.builder()
+                    .id("o-" + i)
+                    .chatId(100_000_000L + i % (orders / 10))
+                    .status(OrderStatus.NEW)
+                    .service(i % 3 == 0 ? "Передержка" : "Выгул")
+                    .subtype(i % 2 == 0 ? "Обычный" : "Индивидуальный")
+                    .description(description)
+                    .createdAt(ts)
+                    .updatedAt(ts)
+                    .build());
+        }
+    }
+
+    private static String pick(SplittableRandom rnd, String[] words) {
+        return words[rnd.nextInt(words.length)];
+    }
+
+    @Benchmark
+    public List<SearchHit> rare() {
+        return index.search("шпицы бутово бублик", 10);
+    }
+
+    @Benchmark
+    public List<SearchHit> common() {
+        return index.search("собака", 10);
+    }
+
+    @Benchmark
+    public List<SearchHit> fallback() {
+        return index.search("корги инопланетянин", 10);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.bot.bench;
+
+import com.example.bot.orders.Order;
+import com.example.bot.orders.OrderService;
+import com.example.bot.orders.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+
+/**
+ * OrderService на заполненном хранилище: 10 заказов на чат, каждый десятый чат с открытым черновиком.
+ * Кэш заказов не ограничивает объём — меряем сам сервис, а не дочитывание из H2.
+ */
+@State(Scope.Benchmark)
+public class OrderServiceBenchmark {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    @Param({"10000", "100000", "1000000"})
+    public int orders;
+
+    private OrderService service;
+    private long[] chats;
+    private String[] draftIds;
+    private final SplittableRandom rnd = new SplittableRandom(42);
+
+    @Setup
+    public void setup() {
+        service = Fixtures.orderService(orders * 2);
+        int chatCount = Math.max(1, orders / 10);
+        chats = new long[chatCount];
+        for (int i = 0; i < chatCount; i++) chats[i] = 100_000_000L + i;
+
+        OffsetDateTime t0 = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        for (int i = 0; i < orders; i++) {
+            OffsetDateTime ts = t0.plusSeconds(i * 7L);
+            service.save(Order.builder()
+                    .id("o-" + i)
+                    .chatId(chats[i % chatCount])
+                    .status(STATUSES[1 + rnd.nextInt(STATUSES.length - 1)])
+                    .service("Выгул")
+                    .subtype("Обычный")
+                    .createdAt(ts)
+                    .updatedAt(ts)
+                    .build());
+        }
+        int drafts = Math.max(1, chatCount / 10);
+        draftIds = new String[drafts];
+        for (int i = 0; i < drafts; i++) {
+            draftIds[i] = service.beginOrUpdateDraft(chats[i * 10 % chatCount], "Выгул", "Обычный",
+                    null, null, null).getId();
+        }
+    }
+
+    @Benchmark
+    public Order updateDraft() {
+        int i = rnd.nextInt(draftIds.length);
+        return service.beginOrUpdateDraft(chats[i * 10 % chats.length], null, "Активный",
+                "Собака крупная, тянет поводок", null, draftIds[i]);
+    }
+
+    /**
+     * Новый черновик с удалением — размер хранилища между итерациями не меняется.
+     * Чаты с черновиком из setup пропускаются: там черновик переиспользовался бы, а не создавался.
+     */
+    @Benchmark
+    public Order createDraft() {
+        int i = rnd.nextInt(chats.length);
+        if (i % 10 == 0) i = (i + 1) % chats.length;
+        long chatId = chats[i];
+        Order o = service.beginOrUpdateDraft(chatId, "Выгул", "Обычный", null, null, null);
+        service.cancelDraft(o.getId());
+        return o;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.bot.bench;
+
+import com.example.bot.config.UiProperties;
+import com.example.bot.orders.Order;
+import com.example.bot.orders.OrderStatus;
+import com.example.bot.ui.Menus;
+import com.example.bot.ui.UiTemplates;
+import com.example.bot.util.Reply;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+
+import static java.util.List.of;
+
+/** Сборка клавиатур, SendMessage и текстов по шаблонам из ui.messages. */
+@State(Scope.Benchmark)
+public class ReplyBenchmark {
+
+    private UiProperties ui;
+    private Menus menus;
+    private UiTemplates templates;
+    private Order order;
+    private final long chatId = 123_456_789L;
+
+    @Setup
+    public void setup() {
+        ui = Fixtures.ui();
+        menus = Fixtures.init(new Menus(ui));
+        templates = Fixtures.init(new UiTemplates(ui));
+        order = Order.builder().id("5b0f6c1e-3f7a-4c55-9a51-2f1d0f6f8b21").status(OrderStatus.NEW)
+                .service("Выгул").subtype("Активный").description("Собака крупная, тянет поводок").build();
+    }
+
+    /** Меню так, как его отправляют хэндлеры: клавиатура собрана заранее. */
+    @Benchmark
+    public SendMessage mainMenuCached() {
+        return Reply.text(chatId, ui.getMainMenu().getTitle(), menus.getMain());
+    }
+
+    @Benchmark
+    public String summaryTemplate() {
+        return templates.summary(order);
+    }
+
+    /** Прежний способ — цепочка replace() по сырому тексту из конфига. */
+    @Benchmark
+    public String summaryReplaceChain() {
+        return ui.getMessages().getSummary()
+                .replace("{id}", order.getId())
+                .replace("{status}", String.valueOf(order.getStatus()))
+                .replace("{service}", order.getService())
+                .replace("{subtypeSuffix}", " • " + order.getSubtype())
+                .replace("{description}", order.getDescription());
+    }
+
+    /** Сборка клавиатуры на каждое сообщение, как было до Menus. */
+    @Benchmark
+    public SendMessage mainMenu() {
+        var b = ui.getMainMenu().getButtons();
+        InlineKeyboardMarkup kb = Reply.buttons(of(
+                Reply.row(Reply.btn(b.getServices(), "SERVICES"), Reply.btn(b.getWork(), "WORK")),
+                Reply.row(Reply.btn(b.getCallManager(), "CALL_MANAGER"), Reply.btn(b.getGeneral(), "GENERAL"))
+        ));
+        return Reply.text(chatId, ui.getMainMenu().getTitle(), kb);
+    }
+
+    @Benchmark
+    public SendMessage faqMessage() {
+        InlineKeyboardMarkup kb = Reply.buttons(of(
+                Reply.row(Reply.btn("Стоимость", "GQ_COST"), Reply.btn("Оплата", "GQ_PAY")),
+                Reply.row(Reply.btn("Ключи", "GQ_KEYS"), Reply.btn("Аптечка", "GQ_MEDKIT")),
+                Reply.row(Reply.btn("Мытьё лап", "GQ_WASHPAWS"), Reply.btn("Кормление", "GQ_FEED")),
+                Reply.row(Reply.btn("Договор", "GQ_CONTRACT")),
+                Reply.row(Reply.btn("⬅️ Назад", "BACK_MAIN"))
+        ));
+        return Reply.text(chatId, "Частые вопросы:", kb);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.bot.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/** Тела вебхуков в том виде, в каком их присылает Telegram. */
+public final class Samples {
+
+    private Samples() {}
+
+    public static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static String command(long chatId, String text) {
+        return """
+                {"update_id":%d,"message":{"message_id":17,"date":1735689600,\
+                "from":{"id":%d,"is_bot":false,"first_name":"Анна","username":"anna","language_code":"ru"},\
+                "chat":{"id":%d,"first_name":"Анна","username":"anna","type":"private"},\
+                "text":"%s","entities":[{"offset":0,"length":%d,"type":"bot_command"}]}}"""
+                .formatted(chatId, chatId, chatId, text, text.indexOf(' ') < 0 ? text.length() : text.indexOf(' '));
+    }
+
+    public static String text(long chatId, String text) {
+        return """
+                {"update_id":%d,"message":{"message_id":18,"date":1735689601,\
+                "from":{"id":%d,"is_bot":false,"first_name":"Анна","username":"anna","language_code":"ru"},\
+                "chat":{"id":%d,"first_name":"Анна","username":"anna","type":"private"},\
+                "text":"%s"}}"""
+                .formatted(chatId, chatId, chatId, text);
+    }
+
+    public static String callback(long chatId, String data) {
+        return """
+                {"update_id":%d,"callback_query":{"id":"4382%d","chat_instance":"-81723","data":"%s",\
+                "from":{"id":%d,"is_bot":false,"first_name":"Анна","username":"anna","language_code":"ru"},\
+                "message":{"message_id":16,"date":1735689599,\
+                "from":{"id":1000,"is_bot":true,"first_name":"DogCare","username":"dogcare_bot"},\
+                "chat":{"id":%d,"first_name":"Анна","username":"anna","type":"private"},\
+                "text":"Выберите раздел:","reply_markup":{"inline_keyboard":[\
+                [{"text":"Услуги","callback_data":"SERVICES"}],\
+                [{"text":"Работа у нас","callback_data":"WORK"}],\
+                [{"text":"Связаться с диспетчером","callback_data":"CALL_MANAGER"}]]}}}}"""
+                .formatted(chatId, chatId, data, chatId, chatId);
+    }
+
+    public static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static Update update(String json) {
+        try {
+            return MAPPER.readValue(json, Update.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.bot.bench;
+
+import com.example.bot.flow.ConversationSession;
+import com.example.bot.flow.SessionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.SplittableRandom;
+
+/**
+ * SessionService.get из нескольких потоков.
+ * chats=16 — все потоки бьются в несколько полос таблицы, 100000 — нагрузка размазана.
+ */
+@Threads(8)
+@State(Scope.Benchmark)
+public class SessionServiceBenchmark {
+
+    @Param({"16", "100000"})
+    public int chats;
+
+    private SessionService sessions;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        final SplittableRandom rnd = new SplittableRandom(Thread.currentThread().threadId());
+    }
+
+    @Setup
+    public void setup() {
+        sessions = Fixtures.sessionService();
+        for (int i = 0; i < chats; i++) sessions.get(chatId(i));
+    }
+
+    @Benchmark
+    public ConversationSession get(Cursor c) {
+        return sessions.get(chatId(c.rnd.nextInt(chats)));
+    }
+
+    @Benchmark
+    public ConversationSession getAndSave(Cursor c) {
+        ConversationSession s = sessions.get(chatId(c.rnd.nextInt(chats)));
+        sessions.save(s);
+        return s;
+    }
+
+    private static long chatId(int i) {
+        return 100_000_000L + i;
+    }
+}
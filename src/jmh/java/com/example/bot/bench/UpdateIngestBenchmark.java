@@ -0,0 +1,61 @@
+package com.example.bot.bench;
+
+import com.example.bot.core.UpdateEnvelope;
+import com.example.bot.core.UpdatePreDecoder;
+import com.example.bot.util.Updates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.io.IOException;
+
+/**
+ * Приём тела вебхука до передачи в очередь: полное связывание Update против предразбора.
+ * Смотреть в первую очередь на gc.alloc.rate.norm (байт на апдейт) — профилировщик gc включён в профиле jmh.
+ */
+@State(Scope.Benchmark)
+public class UpdateIngestBenchmark {
+
+    @Param({"command", "callback", "edited"})
+    public String kind;
+
+    private byte[] body;
+    private UpdatePreDecoder preDecoder;
+
+    @Setup
+    public void setup() {
+        long chatId = 123_456_789L;
+        body = Samples.bytes(switch (kind) {
+            case "command" -> Samples.command(chatId, "/start");
+            case "callback" -> Samples.callback(chatId, "SERVICES");
+            // отредактированные сообщения ни один хэндлер не обрабатывает — их можно отбросить сразу
+            case "edited" -> Samples.text(chatId, "Нужен выгул на час").replace("\"message\"", "\"edited_message\"");
+            default -> throw new IllegalArgumentException(kind);
+        });
+        preDecoder = Fixtures.init(new UpdatePreDecoder(Samples.MAPPER));
+    }
+
+    /** Как было: Jackson строит весь Update, затем из него достаются тип и чат. */
+    @Benchmark
+    public void bindFirst(Blackhole bh) throws IOException {
+        Update u = Samples.MAPPER.readValue(body, Update.class);
+        bh.consume(Updates.type(u));
+        bh.consume(Updates.chatId(u));
+    }
+
+    /** Предразбор: только то, что нужно для маршрутизации и очереди чата. */
+    @Benchmark
+    public UpdateEnvelope preDecode() throws IOException {
+        return preDecoder.decode(body);
+    }
+
+    /** Предразбор и связывание — путь апдейта, который дошёл до хэндлера. */
+    @Benchmark
+    public Update preDecodeThenBind() throws IOException {
+        return preDecoder.decode(body).update();
+    }
+}
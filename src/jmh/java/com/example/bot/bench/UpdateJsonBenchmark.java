@@ -0,0 +1,36 @@
+package com.example.bot.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.io.IOException;
+
+/** Десериализация тела вебхука в Update — то, что делает контроллер на каждый запрос. */
+@State(Scope.Benchmark)
+public class UpdateJsonBenchmark {
+
+    @Param({"command", "text", "callback"})
+    public String kind;
+
+    private byte[] body;
+
+    @Setup
+    public void setup() {
+        long chatId = 123_456_789L;
+        body = Samples.bytes(switch (kind) {
+            case "command" -> Samples.command(chatId, "/start");
+            case "text" -> Samples.text(chatId, "Нужен выгул на час, собака крупная, тянет поводок");
+            case "callback" -> Samples.callback(chatId, "SERVICES");
+            default -> throw new IllegalArgumentException(kind);
+        });
+    }
+
+    @Benchmark
+    public Update deserialize() throws IOException {
+        return Samples.MAPPER.readValue(body, Update.class);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.bot.bench;
+
+import com.example.bot.config.BotProperties;
+import com.example.bot.config.FlowProperties;
+import com.example.bot.config.HandlerOrderProperties;
+import com.example.bot.config.UiProperties;
+import com.example.bot.core.BotExceptionHandler;
+import com.example.bot.core.UpdateRouter;
+import com.example.bot.flow.SessionService;
+import com.example.bot.handlers.AdminListOrdersCommand;
+import com.example.bot.handlers.AdminSetStatusCommand;
+import com.example.bot.handlers.CallbackMenuHandler;
+import com.example.bot.handlers.HelpCommand;
+import com.example.bot.handlers.StartCommand;
+import com.example.bot.handlers.TextInputHandler;
+import com.example.bot.orders.OrderService;
+import com.example.bot.outbound.OutboundSender;
+import com.example.bot.ui.Menus;
+import com.example.bot.ui.UiTemplates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.generics.TelegramClient;
+
+import java.util.List;
+
+/**
+ * UpdateRouter.consume с настоящими хэндлерами: поиск хэндлера, обработка и постановка ответа
+ * в очередь OutboundSender. TelegramClient — заглушка, сеть не участвует.
+ */
+@State(Scope.Benchmark)
+public class UpdateRouterBenchmark {
+
+    private static final int CHATS = 1024;
+
+    @Param({"command", "callback", "text"})
+    public String kind;
+
+    private UpdateRouter router;
+    private OutboundSender sender;
+    private Update[] updates;
+    private int next;
+
+    @Setup
+    public void setup() {
+        TelegramClient client = Fixtures.telegramClient();
+        sender = Fixtures.outboundSender(client);
+        OrderService orders = Fixtures.orderService(100_000);
+        SessionService sessions = Fixtures.sessionService();
+        UiProperties ui = Fixtures.ui();
+        BotProperties bot = new BotProperties();
+        bot.setAllowedUserIds(List.of());
+        FlowProperties flow = new FlowProperties();
+        HandlerOrderProperties orderProps = new HandlerOrderProperties();
+
+        Menus menus = Fixtures.init(new Menus(ui));
+        UiTemplates templates = Fixtures.init(new UiTemplates(ui));
+        StartCommand start = new StartCommand(sender, ui, menus, orderProps);
+        router = Fixtures.init(new UpdateRouter(List.of(
+                start,
+                new HelpCommand(sender, orderProps),
+                new AdminListOrdersCommand(sender, orders, bot),
+                new AdminSetStatusCommand(sender, orders, bot),
+                new CallbackMenuHandler(sender, start, orders, sessions, ui, flow, menus, templates),
+                new TextInputHandler(sender, sessions, orders, templates, menus)
+        ), new BotExceptionHandler(), bot, client, Fixtures.METERS));
+
+        updates = new Update[CHATS];
+        for (int i = 0; i < CHATS; i++) {
+            long chatId = 100_000_000L + i;
+            updates[i] = Samples.update(switch (kind) {
+                case "command" -> Samples.command(chatId, "/start");
+                case "callback" -> Samples.callback(chatId, "SERVICES");
+                case "text" -> Samples.text(chatId, "Нужен выгул на час");
+                default -> throw new IllegalArgumentException(kind);
+            });
+        }
+    }
+
+    @Benchmark
+    public void consume() {
+        router.consume(updates[next++ & (CHATS - 1)]);
+    }
+
+    /** Дать отправителю разобрать очередь, чтобы она не росла от итерации к итерации. */
+    @TearDown(Level.Iteration)
+    public void drain() throws InterruptedException {
+        while (sender.stats().queued() > 0) Thread.sleep(10);
+    }
+
+    @TearDown
+    public void stop() {
+        Fixtures.destroy(sender);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.bot.loadtest;
+
+import java.util.Arrays;
+
+/** Все замеры шага в одном массиве; перцентили — сортировкой в конце шага. */
+final class LatencyRecorder {
+
+    private long[] values = new long[1 << 16];
+    private int size;
+
+    synchronized void record(long nanos) {
+        if (size == values.length) values = Arrays.copyOf(values, size * 2);
+        values[size++] = nanos;
+    }
+
+    synchronized Snapshot snapshot() {
+        long[] sorted = Arrays.copyOf(values, size);
+        Arrays.sort(sorted);
+        return new Snapshot(sorted);
+    }
+
+    record Snapshot(long[] sorted) {
+        int count() {
+            return sorted.length;
+        }
+
+        /** Перцентиль в миллисекундах; 0, если замеров нет. */
+        double ms(double percentile) {
+            if (sorted.length == 0) return 0;
+            int i = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(i, sorted.length - 1))] / 1_000_000.0;
+        }
+
+        double maxMs() {
+            return sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0;
+        }
+    }
+}
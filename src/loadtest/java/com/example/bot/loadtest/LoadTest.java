@@ -0,0 +1,150 @@
+package com.example.bot.loadtest;
+
+import com.example.bot.BotApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Нагрузочный прогон целиком на одной машине, без сети наружу:
+ * заглушка Bot API + бот (в этом же процессе, H2 в памяти) + генератор вебхуков.
+ * <p>
+ * Частоты проходятся ступенями; по каждой печатается фактическая частота, доля 503/ошибок,
+ * перцентили ответа вебхука и времени до ответа бота в чат. Запуск: {@code mvn -Ploadtest verify}.
+ * Параметры — системные свойства loadtest.* (см. профиль loadtest в pom.xml).
+ */
+public final class LoadTest {
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        List<Double> rates = new ArrayList<>();
+        for (String r : prop("loadtest.rates", "50,100,200,400,800").split(",")) {
+            rates.add(Double.parseDouble(r.trim()));
+        }
+        Duration step = Duration.parse("PT" + prop("loadtest.step", "30s").toUpperCase(Locale.ROOT));
+        Duration warmup = Duration.parse("PT" + prop("loadtest.warmup", "10s").toUpperCase(Locale.ROOT));
+        int users = Integer.parseInt(prop("loadtest.users", "2000"));
+        int botPort = Integer.parseInt(prop("loadtest.bot-port", "18080"));
+        int apiPort = Integer.parseInt(prop("loadtest.api-port", "18081"));
+        long apiLatencyMs = Long.parseLong(prop("loadtest.api-latency-ms", "20"));
+        double api429 = Double.parseDouble(prop("loadtest.api-429-rate", "0"));
+        String outboundRate = prop("loadtest.outbound-rate", "100000");
+        Path reportFile = Path.of(prop("loadtest.report", "target/loadtest-report.txt"));
+
+        long adminId = 1L;
+        String secret = "loadtest";
+        ReplyTracker replies = new ReplyTracker();
+        StubBotApi api = new StubBotApi(apiPort, replies, apiLatencyMs, api429);
+        api.start();
+
+        Map<String, Object> config = new HashMap<>();
+        config.put("server.port", botPort);
+        config.put("spring.datasource.url",
+                "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE");
+        // база в памяти — журнал тоже каждый раз новый, иначе поднимет заказы прошлого прогона
+        config.put("bot.journal.dir", Files.createTempDirectory("loadtest-journal").toString());
+        config.put("telegram.bot.token", "100000:loadtest");
+        config.put("telegram.bot.username", "dogcare_bot");
+        config.put("telegram.bot.api-url", "http://127.0.0.1:" + apiPort);
+        config.put("telegram.bot.allowed-user-ids", adminId);
+        config.put("telegram.webhook.url", "");
+        config.put("telegram.webhook.secret-token", secret);
+        config.put("telegram.ingest.mode", "webhook");
+        // реальный Telegram не даст больше ~30 сообщений/с, но здесь меряем сам бот, а не лимит
+        config.put("bot.outbound.global-rate", outboundRate);
+        config.put("bot.outbound.global-burst", outboundRate);
+        config.put("bot.outbound.chat-rate", outboundRate);
+        config.put("bot.outbound.chat-burst", outboundRate);
+        config.put("logging.level.root", "WARN");
+        config.put("logging.level.com.example.bot", "WARN");
+
+        ConfigurableApplicationContext app = new SpringApplicationBuilder(BotApplication.class)
+                .properties(config)
+                .run();
+        int exit = 0;
+        try {
+            URI webhook = URI.create("http://127.0.0.1:" + botPort
+                    + app.getEnvironment().getProperty("telegram.webhook.path", "/webhook/telegram"));
+            TrafficGenerator gen = new TrafficGenerator(webhook, secret, users, adminId, 50, replies);
+
+            System.out.printf("Warm-up %s at %.0f/s%n", warmup, rates.get(0));
+            gen.run(rates.get(0), warmup);
+            replies.swap();
+            api.drainCalls();
+
+            List<String> lines = new ArrayList<>();
+            lines.add(header());
+            for (double rate : rates) {
+                var r = gen.run(rate, step);
+                // ответы бота, которые ещё в очереди, засчитываются этой ступени
+                Thread.sleep(1_000);
+                var reply = replies.swap();
+                Map<String, Long> calls = api.drainCalls();
+                String line = row(r, reply, calls, step);
+                lines.add(line);
+                System.out.println(line);
+                if (r.errors() + r.busy() > r.sent() / 10) {
+                    lines.add("stopped: more than 10% of requests failed at " + (long) rate + "/s");
+                    break;
+                }
+            }
+            report(reportFile, lines, users, step, apiLatencyMs, api429);
+        } catch (Exception e) {
+            e.printStackTrace();
+            exit = 1;
+        } finally {
+            app.close();
+            api.stop();
+        }
+        System.exit(exit);
+    }
+
+    private static String header() {
+        return String.format("%8s %8s %9s %7s %6s %6s | %-37s | %-28s | %s",
+                "target/s", "sent", "actual/s", "ok%", "503", "err",
+                "webhook ms  p50 / p90 / p99 / p99.9 / max", "reply ms  p50 / p99 / max", "Bot API calls/s");
+    }
+
+    private static String row(TrafficGenerator.StepResult r, LatencyRecorder.Snapshot reply,
+                              Map<String, Long> calls, Duration step) {
+        var w = r.webhook();
+        StringBuilder api = new StringBuilder();
+        double sec = step.toMillis() / 1000.0;
+        calls.forEach((m, n) -> api.append(m).append('=').append(String.format(Locale.ROOT, "%.0f", n / sec)).append(' '));
+        return String.format(Locale.ROOT, "%8.0f %8d %9.1f %6.2f%% %6d %6d | %7.1f %6.1f %6.1f %7.1f %7.1f | %7.1f %7.1f %7.1f (%d) | %s",
+                r.targetRate(), r.sent(), r.achievedRate(), r.sent() == 0 ? 0 : 100.0 * r.ok() / r.sent(),
+                r.busy(), r.errors(),
+                w.ms(50), w.ms(90), w.ms(99), w.ms(99.9), w.maxMs(),
+                reply.ms(50), reply.ms(99), reply.maxMs(), reply.count(),
+                api.toString().trim());
+    }
+
+    private static void report(Path file, List<String> lines, int users, Duration step,
+                               long apiLatencyMs, double api429) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), true, StandardCharsets.UTF_8)) {
+            out.printf("users=%d step=%s api-latency=%dms api-429-rate=%.3f cpus=%d%n",
+                    users, step, apiLatencyMs, api429, Runtime.getRuntime().availableProcessors());
+            lines.forEach(out::println);
+        }
+        System.out.println("Report: " + file.toAbsolutePath());
+    }
+
+    private static String prop(String name, String def) {
+        String v = System.getProperty(name);
+        return v == null || v.isBlank() ? def : v;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.bot.loadtest;
+
+/** Тела вебхуков в формате Telegram; пользователь и чат совпадают (личная переписка). */
+final class Payloads {
+
+    private Payloads() {}
+
+    static String message(int updateId, long chatId, String text) {
+        String entities = text.startsWith("/")
+                ? ",\"entities\":[{\"offset\":0,\"length\":" + commandLength(text) + ",\"type\":\"bot_command\"}]"
+                : "";
+        return "{\"update_id\":" + updateId + ",\"message\":{\"message_id\":" + updateId
+                + ",\"date\":" + now() + ",\"from\":" + user(chatId)
+                + ",\"chat\":{\"id\":" + chatId + ",\"first_name\":\"Load\",\"type\":\"private\"}"
+                + ",\"text\":\"" + text + "\"" + entities + "}}";
+    }
+
+    static String callback(int updateId, long chatId, String data) {
+        return "{\"update_id\":" + updateId + ",\"callback_query\":{\"id\":\"" + updateId + "\""
+                + ",\"from\":" + user(chatId) + ",\"chat_instance\":\"" + chatId + "\""
+                + ",\"message\":{\"message_id\":" + (updateId - 1) + ",\"date\":" + now()
+                + ",\"chat\":{\"id\":" + chatId + ",\"first_name\":\"Load\",\"type\":\"private\"}"
+                + ",\"text\":\"Выберите раздел:\"}"
+                + ",\"data\":\"" + data + "\"}}";
+    }
+
+    private static String user(long id) {
+        return "{\"id\":" + id + ",\"is_bot\":false,\"first_name\":\"Load\",\"language_code\":\"ru\"}";
+    }
+
+    private static int commandLength(String text) {
+        int sp = text.indexOf(' ');
+        return sp < 0 ? text.length() : sp;
+    }
+
+    private static long now() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.bot.loadtest;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Время от отправки апдейта до первого ответа бота в тот же чат (sendMessage в заглушке Bot API).
+ * Генератор и заглушка работают в одном процессе, поэтому часы у них общие.
+ */
+final class ReplyTracker {
+
+    private final ConcurrentMap<Long, Long> sentAt = new ConcurrentHashMap<>();
+    private volatile LatencyRecorder current = new LatencyRecorder();
+
+    void sent(long chatId, long nanos) {
+        sentAt.put(chatId, nanos);
+    }
+
+    void replied(long chatId) {
+        Long t = sentAt.remove(chatId);
+        if (t != null) current.record(System.nanoTime() - t);
+    }
+
+    /** Закрыть шаг: вернуть его замеры и начать новые. */
+    LatencyRecorder.Snapshot swap() {
+        LatencyRecorder done = current;
+        current = new LatencyRecorder();
+        sentAt.clear();
+        return done.snapshot();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.bot.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Локальная заглушка Telegram Bot API: POST /bot&lt;token&gt;/&lt;method&gt;.
+ * Отвечает правдоподобными результатами, может добавлять задержку и отвечать 429,
+ * считает вызовы по методам.
+ */
+final class StubBotApi {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ReplyTracker replies;
+    private final long latencyMs;
+    private final double tooManyRequestsRate;
+    private final ConcurrentMap<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private final AtomicInteger messageIds = new AtomicInteger();
+
+    StubBotApi(int port, ReplyTracker replies, long latencyMs, double tooManyRequestsRate) throws IOException {
+        this.replies = replies;
+        this.latencyMs = latencyMs;
+        this.tooManyRequestsRate = tooManyRequestsRate;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+    }
+
+    void start() {
+        server.start();
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    /** Вызовы по методам с прошлого снимка. */
+    Map<String, Long> drainCalls() {
+        Map<String, Long> out = new TreeMap<>();
+        calls.forEach((m, n) -> out.put(m, n.sumThenReset()));
+        out.values().removeIf(n -> n == 0);
+        return out;
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        try (ex; InputStream in = ex.getRequestBody()) {
+            byte[] body = in.readAllBytes();
+            String path = ex.getRequestURI().getPath();
+            String method = path.substring(path.lastIndexOf('/') + 1);
+            calls.computeIfAbsent(method, k -> new LongAdder()).increment();
+
+            if (latencyMs > 0) Thread.sleep(latencyMs);
+            if (tooManyRequestsRate > 0 && ThreadLocalRandom.current().nextDouble() < tooManyRequestsRate) {
+                respond(ex, 429, "{\"ok\":false,\"error_code\":429,"
+                        + "\"description\":\"Too Many Requests: retry after 1\",\"parameters\":{\"retry_after\":1}}");
+                return;
+            }
+            respond(ex, 200, "{\"ok\":true,\"result\":" + result(method, body) + "}");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String result(String method, byte[] body) {
+        switch (method) {
+            case "sendMessage", "editMessageText", "sendDocument" -> {
+                long chatId = chatId(body);
+                if (method.equals("sendMessage")) replies.replied(chatId);
+                return "{\"message_id\":" + messageIds.incrementAndGet()
+                        + ",\"date\":" + System.currentTimeMillis() / 1000
+                        + ",\"chat\":{\"id\":" + chatId + ",\"type\":\"private\"},\"text\":\"ok\"}";
+            }
+            case "getMe" -> {
+                return "{\"id\":1000,\"is_bot\":true,\"first_name\":\"DogCare\",\"username\":\"dogcare_bot\"}";
+            }
+            case "getUpdates" -> {
+                return "[]";
+            }
+            default -> {
+                return "true";
+            }
+        }
+    }
+
+    /** chat_id из JSON-тела; multipart (sendDocument) в нагрузке не встречается — там 0. */
+    private static long chatId(byte[] body) {
+        try {
+            JsonNode n = JSON.readTree(body).get("chat_id");
+            return n == null ? 0 : n.asLong();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void respond(HttpExchange ex, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.bot.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор вебхук-трафика с заданной частотой (open loop: следующий запрос уходит по расписанию,
+ * а не после ответа на предыдущий, и задержка считается от запланированного момента —
+ * иначе тормозящий сервер занижал бы собственные перцентили).
+ * <p>
+ * Каждый пользователь проходит сценарий меню по кругу: /start → Услуги → Выгул → тип → описание → в меню.
+ * Часть апдейтов — /orders от администратора.
+ */
+final class TrafficGenerator {
+
+    private static final String[] DESCRIPTIONS = {
+            "Лабрадор, 3 года, дружелюбный. Выгул утром с 8 до 9, район Сокол.",
+            "Шпиц, 7 лет, боится самокатов. Нужно 2 раза в день, м. Чистые пруды.",
+            "Овчарка, 1 год, тянет поводок. Активный выгул вечером, Крылатское."
+    };
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(2))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final URI webhook;
+    private final String secret;
+    private final long adminId;
+    private final int adminEvery;
+    private final ReplyTracker replies;
+
+    private final int[] userStep;
+    private final AtomicInteger updateIds = new AtomicInteger(1);
+    private int nextUser;
+
+    TrafficGenerator(URI webhook, String secret, int users, long adminId, int adminEvery, ReplyTracker replies) {
+        this.webhook = webhook;
+        this.secret = secret;
+        this.userStep = new int[users];
+        this.adminId = adminId;
+        this.adminEvery = adminEvery;
+        this.replies = replies;
+    }
+
+    record StepResult(double targetRate, long sent, double achievedRate, long ok, long busy, long errors,
+                      LatencyRecorder.Snapshot webhook) {}
+
+    StepResult run(double rate, Duration duration) throws InterruptedException {
+        LatencyRecorder latency = new LatencyRecorder();
+        LongAdder ok = new LongAdder();
+        LongAdder busy = new LongAdder();
+        LongAdder errors = new LongAdder();
+        AtomicInteger inFlight = new AtomicInteger();
+
+        long interval = (long) (1_000_000_000L / rate);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long sent = 0;
+        for (long at = start; at < end; at += interval) {
+            long wait = at - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+            final long scheduled = at;
+            inFlight.incrementAndGet();
+            http.sendAsync(request(scheduled, sent), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((resp, err) -> {
+                        latency.record(System.nanoTime() - scheduled);
+                        if (err != null) errors.increment();
+                        else if (resp.statusCode() == 200) ok.increment();
+                        else if (resp.statusCode() == 503) busy.increment();
+                        else errors.increment();
+                        inFlight.decrementAndGet();
+                    });
+            sent++;
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) Thread.sleep(10);
+        if (inFlight.get() > 0) {
+            System.err.println("Step " + rate + "/s: " + inFlight.get() + " requests still in flight after 30s");
+        }
+        return new StepResult(rate, sent, sent / elapsed, ok.sum(), busy.sum(), errors.sum(), latency.snapshot());
+    }
+
+    private HttpRequest request(long scheduledNanos, long seq) {
+        int updateId = updateIds.getAndIncrement();
+        String json;
+        long chatId;
+        if (adminEvery > 0 && seq % adminEvery == adminEvery - 1) {
+            chatId = adminId;
+            json = Payloads.message(updateId, chatId, "/orders 20");
+        } else {
+            int user = nextUser;
+            nextUser = (user + 1) % userStep.length;
+            chatId = 200_000_000L + user;
+            json = nextOfScenario(user, updateId, chatId);
+        }
+        replies.sent(chatId, scheduledNanos);
+        return HttpRequest.newBuilder(webhook)
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .header("X-Telegram-Bot-Api-Secret-Token", secret)
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private String nextOfScenario(int user, int updateId, long chatId) {
+        int step = userStep[user];
+        userStep[user] = (step + 1) % 6;
+        return switch (step) {
+            case 0 -> Payloads.message(updateId, chatId, "/start");
+            case 1 -> Payloads.callback(updateId, chatId, "SERVICES");
+            case 2 -> Payloads.callback(updateId, chatId, "S_WALK");
+            case 3 -> Payloads.callback(updateId, chatId, user % 2 == 0 ? "WALK_NORMAL" : "WALK_ACTIVE");
+            case 4 -> Payloads.message(updateId, chatId, DESCRIPTIONS[user % DESCRIPTIONS.length]);
+            default -> Payloads.callback(updateId, chatId, "BACK_MAIN");
+        };
+    }
+}
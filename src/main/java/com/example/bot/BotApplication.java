@@ -5,14 +5,17 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import com.example.bot.config.BotProperties;
 import com.example.bot.config.FlowProperties;
 import com.example.bot.config.WebhookProperties;
 
 @SpringBootApplication
 @org.springframework.boot.autoconfigure.domain.EntityScan(basePackageClasses = com.example.bot.jpa.OrderEntity.class)
-@org.springframework.data.jpa.repository.config.EnableJpaRepositories(basePackageClasses = com.example.bot.orders.OrderRepository.class)
+@org.springframework.data.jpa.repository.config.EnableJpaRepositories(basePackageClasses = {
+        com.example.bot.orders.OrderRepository.class, com.example.bot.jpa.OrderJpaRepository.class})
 @ConfigurationPropertiesScan(basePackages = "com.example.bot.config")
+@EnableScheduling
 
 public class BotApplication {
     public static void main(String[] args) {
@@ -0,0 +1,51 @@
+package com.example.bot.broadcast;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * /actuator/broadcasts — последние рассылки; /actuator/broadcasts/{id} — прогресс одной.
+ * POST {"text": "..."} начинает рассылку, DELETE /actuator/broadcasts/{id} останавливает.
+ * Изменяющие операции доступны только при management.endpoint.broadcasts.access=unrestricted.
+ */
+@Component
+@Endpoint(id = "broadcasts")
+@RequiredArgsConstructor
+public class BroadcastEndpoint {
+
+    private final BroadcastService broadcasts;
+
+    @ReadOperation
+    public List<BroadcastProgress> recent() {
+        return broadcasts.recent();
+    }
+
+    @ReadOperation
+    public BroadcastProgress progress(@Selector long id) {
+        return broadcasts.get(id).orElse(null);
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> start(String text) {
+        try {
+            return new WebEndpointResponse<>(broadcasts.start(text, null), WebEndpointResponse.STATUS_OK);
+        } catch (IllegalArgumentException e) {
+            return new WebEndpointResponse<>(e.getMessage(), WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(e.getMessage(), 409);
+        }
+    }
+
+    @DeleteOperation
+    public BroadcastProgress cancel(@Selector long id) {
+        return broadcasts.cancel(id).orElse(null);
+    }
+}
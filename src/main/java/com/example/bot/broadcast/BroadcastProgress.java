@@ -0,0 +1,34 @@
+package com.example.bot.broadcast;
+
+import com.example.bot.jpa.BroadcastEntity;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Состояние рассылки на момент последней зафиксированной порции.
+ *
+ * @param delivered  сообщение принято Telegram
+ * @param blocked    403: пользователь заблокировал бота или удалил аккаунт
+ * @param failed     прочие ошибки (после повторов на 429)
+ * @param lastChatId последний обработанный чат аудитории
+ */
+public record BroadcastProgress(long id,
+                                BroadcastEntity.Status status,
+                                long delivered,
+                                long failed,
+                                long blocked,
+                                Long lastChatId,
+                                OffsetDateTime createdAt,
+                                OffsetDateTime updatedAt,
+                                String text) {
+
+    static BroadcastProgress of(BroadcastEntity e) {
+        return new BroadcastProgress(e.getId(), e.getStatus(), e.getDelivered(), e.getFailed(), e.getBlocked(),
+                e.getLastChatId(), e.getCreatedAt(), e.getUpdatedAt(), e.getText());
+    }
+
+    public String summary() {
+        return "Рассылка #" + id + " (" + status + "): доставлено " + delivered
+                + ", заблокировали бота " + blocked + ", ошибок " + failed;
+    }
+}
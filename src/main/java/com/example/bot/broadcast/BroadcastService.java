@@ -0,0 +1,268 @@
+package com.example.bot.broadcast;
+
+import com.example.bot.config.BroadcastProperties;
+import com.example.bot.jpa.BroadcastEntity;
+import com.example.bot.jpa.BroadcastJpaRepository;
+import com.example.bot.jpa.OrderPersistence;
+import com.example.bot.outbound.OutboundSender;
+import com.example.bot.util.Reply;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Рассылка сообщения всем клиентам — каждому chat_id, у которого есть заказ.
+ * <p>
+ * Аудитория читается из H2 порциями по keyset-курсору chat_id, отправка идёт через полосу рассылок
+ * {@link OutboundSender#submitBulk}, которая не отнимает у ответов пользователям их долю лимита.
+ * После каждой порции прогресс (последний chat_id и счётчики) пишется в таблицу broadcasts,
+ * поэтому после рестарта рассылка продолжается, а не начинается заново: повторно может уйти
+ * не больше одной незафиксированной порции. Одновременно идёт одна рассылка.
+ * Перед отправкой порция занимается в БД (сдвигом version), так что при нескольких репликах
+ * каждую порцию шлёт одна из них.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BroadcastService {
+
+    private final BroadcastJpaRepository repo;
+    private final OrderPersistence orders;
+    private final OutboundSender sender;
+    private final BroadcastProperties props;
+    private final MeterRegistry meterRegistry;
+
+    private Counter delivered;
+    private Counter failed;
+    private Counter blocked;
+
+    // текущая рассылка; замена — под монитором сервиса
+    private volatile Runner current;
+    private volatile boolean running;
+
+    @PostConstruct
+    void init() {
+        delivered = counter("delivered");
+        failed = counter("failed");
+        blocked = counter("blocked");
+        running = true;
+        // рассылка, прерванная остановкой, продолжается с зафиксированного места
+        repo.findByStatus(BroadcastEntity.Status.RUNNING).stream().findFirst().ifPresent(b -> {
+            log.info("Resuming broadcast #{} after chat {}", b.getId(), b.getLastChatId());
+            launch(b);
+        });
+    }
+
+    private Counter counter(String outcome) {
+        return Counter.builder("bot.broadcast.messages").tag("outcome", outcome).register(meterRegistry);
+    }
+
+    /**
+     * Начать рассылку.
+     * @throws IllegalArgumentException пустой или слишком длинный текст
+     * @throws IllegalStateException    уже идёт другая рассылка, в том числе оставшаяся в RUNNING без потока
+     */
+    public synchronized BroadcastProgress start(String text, Long requestedBy) {
+        if (text == null || text.isBlank()) throw new IllegalArgumentException("Broadcast text is empty");
+        if (text.length() > 4096) throw new IllegalArgumentException("Broadcast text is longer than 4096 characters");
+        Optional<BroadcastProgress> active = active();
+        if (active.isPresent()) throw new IllegalStateException("Broadcast #" + active.get().id() + " is already running");
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        BroadcastEntity b = repo.save(BroadcastEntity.builder()
+                .text(text)
+                .status(BroadcastEntity.Status.RUNNING)
+                .requestedBy(requestedBy)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        log.info("Broadcast #{} started by {}", b.getId(), requestedBy);
+        launch(b);
+        return BroadcastProgress.of(b);
+    }
+
+    /** Остановить рассылку; уже отправленное не отзывается. */
+    public synchronized Optional<BroadcastProgress> cancel(long id) {
+        Runner r = current;
+        if (r != null && r.id == id) {
+            r.canceled = true;
+            return get(id);
+        }
+        // рассылка из RUNNING, которую никто не ведёт (например, её вела остановленная реплика)
+        return repo.findById(id).map(b -> {
+            if (b.getStatus() == BroadcastEntity.Status.RUNNING) {
+                b.setStatus(BroadcastEntity.Status.CANCELED);
+                b.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
+                b = repo.save(b);
+            }
+            return BroadcastProgress.of(b);
+        });
+    }
+
+    /**
+     * Текущая рассылка, если идёт: своя или оставшаяся в RUNNING в БД — упавшая с ошибкой
+     * (продолжится после рестарта) или начатая другой репликой. Её же останавливает /broadcast stop.
+     */
+    public Optional<BroadcastProgress> active() {
+        Runner r = current;
+        if (r != null) return get(r.id);
+        return repo.findByStatus(BroadcastEntity.Status.RUNNING).stream().findFirst().map(BroadcastProgress::of);
+    }
+
+    public Optional<BroadcastProgress> get(long id) {
+        return repo.findById(id).map(BroadcastProgress::of);
+    }
+
+    /** Последние рассылки, новые первыми. */
+    public List<BroadcastProgress> recent() {
+        return repo.findTop20ByOrderByIdDesc().stream().map(BroadcastProgress::of).toList();
+    }
+
+    private void launch(BroadcastEntity b) {
+        Runner r = new Runner(b.getId());
+        current = r;
+        r.thread = Thread.ofPlatform().daemon().name("broadcast-" + b.getId()).unstarted(() -> run(r, b));
+        r.thread.start();
+    }
+
+    private void run(Runner r, BroadcastEntity b) {
+        try {
+            while (running && !r.canceled) {
+                List<Long> chats = orders.chatIdsAfter(b.getLastChatId(), props.getBatchSize());
+                if (chats.isEmpty()) {
+                    b.setStatus(BroadcastEntity.Status.DONE);
+                    break;
+                }
+                // вторая реплика могла поднять ту же RUNNING-рассылку: порцию шлёт только та, что её заняла
+                if (!claim(b)) {
+                    log.warn("Broadcast #{} batch after chat {} is claimed by another instance, leaving it",
+                            r.id, b.getLastChatId());
+                    return;
+                }
+                boolean complete = sendBatch(b, chats);
+                b.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
+                b = repo.save(b);
+                if (!complete) return;   // остановка приложения — остаток порции уйдёт после рестарта
+            }
+            if (r.canceled) b.setStatus(BroadcastEntity.Status.CANCELED);
+            if (b.getStatus() == BroadcastEntity.Status.RUNNING) return;
+            b.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
+            b = repo.save(b);
+            BroadcastProgress p = BroadcastProgress.of(b);
+            log.info("{}", p.summary());
+            if (b.getRequestedBy() != null) sender.send(Reply.text(b.getRequestedBy(), p.summary()));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.warn("Broadcast #{} is updated by another instance, leaving it", r.id);
+        } catch (Exception e) {
+            // остаётся RUNNING и продолжится после рестарта
+            log.error("Broadcast #{} stopped after chat {}", r.id, b.getLastChatId(), e);
+        } finally {
+            synchronized (this) {
+                if (current == r) current = null;
+            }
+        }
+    }
+
+    /** Поднять version рассылки в БД до отправки порции; false — её уже сдвинул кто-то другой. */
+    private boolean claim(BroadcastEntity b) {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        if (repo.claim(b.getId(), b.getVersion(), BroadcastEntity.Status.RUNNING, now) == 0) return false;
+        b.setVersion(b.getVersion() + 1);
+        b.setUpdatedAt(now);
+        return true;
+    }
+
+    /**
+     * Отправить порцию и учесть результаты. Прогресс сдвигается только по непрерывному началу
+     * завершённых отправок. false — ожидание прервано остановкой, порция учтена частично.
+     */
+    private boolean sendBatch(BroadcastEntity b, List<Long> chats) {
+        List<CompletableFuture<Outcome>> calls = new ArrayList<>(chats.size());
+        for (Long chatId : chats) {
+            SendMessage m = SendMessage.builder().chatId(chatId).text(b.getText()).build();   // без разметки: текст как есть
+            calls.add(sender.submitBulk(chatId, m).handle((res, err) -> outcome(chatId, err)));
+        }
+        boolean complete = true;
+        try {
+            CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get();
+        } catch (InterruptedException e) {
+            complete = false;
+        } catch (ExecutionException e) {
+            // не бывает: handle() не завершается исключением
+        }
+        for (int i = 0; i < calls.size(); i++) {
+            Outcome o = calls.get(i).getNow(null);
+            if (o == null) break;
+            switch (o) {
+                case DELIVERED -> b.setDelivered(b.getDelivered() + 1);
+                case BLOCKED -> b.setBlocked(b.getBlocked() + 1);
+                case FAILED -> b.setFailed(b.getFailed() + 1);
+            }
+            b.setLastChatId(chats.get(i));
+        }
+        return complete;
+    }
+
+    private Outcome outcome(Long chatId, Throwable err) {
+        if (err == null) {
+            delivered.increment();
+            return Outcome.DELIVERED;
+        }
+        Throwable e = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+        if (e instanceof TelegramApiRequestException re && re.getErrorCode() != null && re.getErrorCode() == 403) {
+            blocked.increment();
+            return Outcome.BLOCKED;
+        }
+        failed.increment();
+        log.debug("Broadcast to chat {} failed: {}", chatId, e.toString());
+        return Outcome.FAILED;
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        Runner r = current;
+        if (r == null) return;
+        try {
+            r.thread.join(props.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (r.thread.isAlive()) {
+            r.thread.interrupt();
+            try {
+                r.thread.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private enum Outcome { DELIVERED, BLOCKED, FAILED }
+
+    private static final class Runner {
+        final long id;
+        volatile boolean canceled;
+        Thread thread;
+
+        Runner(long id) {
+            this.id = id;
+        }
+    }
+}
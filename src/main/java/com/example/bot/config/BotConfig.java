@@ -1,17 +1,75 @@
 package com.example.bot.config;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.telegram.telegrambots.client.okhttp.OkHttpTelegramClient;
+import org.telegram.telegrambots.meta.TelegramUrl;
 import org.telegram.telegrambots.meta.generics.TelegramClient;
 
+import java.net.URI;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
 @Configuration
 @RequiredArgsConstructor
 public class BotConfig {
 
+    /** Асинхронные вызовы OkHttp выполняются на виртуальных потоках — ожидание ответа ничего не держит. */
+    @Bean
+    public Dispatcher telegramHttpDispatcher(BotProperties props) {
+        var http = props.getHttp();
+        Dispatcher d = new Dispatcher(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("tg-http-", 0).factory()));
+        d.setMaxRequests(http.getMaxRequests());
+        d.setMaxRequestsPerHost(http.getMaxRequestsPerHost());
+        return d;
+    }
+
+    @Bean
+    public ConnectionPool telegramConnectionPool(BotProperties props) {
+        var http = props.getHttp();
+        return new ConnectionPool(http.getMaxIdleConnections(), http.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Bean
+    public OkHttpClient telegramHttpClient(BotProperties props, Dispatcher telegramHttpDispatcher,
+                                           ConnectionPool telegramConnectionPool) {
+        var http = props.getHttp();
+        log.info("Telegram HTTP: maxRequests={} perHost={} idle={} keepAlive={} read={}",
+                http.getMaxRequests(), http.getMaxRequestsPerHost(), http.getMaxIdleConnections(),
+                http.getKeepAlive(), http.getReadTimeout());
+        return new OkHttpClient.Builder()
+                .dispatcher(telegramHttpDispatcher)
+                .connectionPool(telegramConnectionPool)
+                .connectTimeout(http.getConnectTimeout())
+                .readTimeout(http.getReadTimeout())
+                .writeTimeout(http.getWriteTimeout())
+                .callTimeout(http.getCallTimeout())
+                .build();
+    }
+
     @Bean
-    public TelegramClient telegramClient(BotProperties props) {
-        return new OkHttpTelegramClient(props.getToken());
+    public TelegramClient telegramClient(BotProperties props, OkHttpClient telegramHttpClient) {
+        String apiUrl = props.getApiUrl();
+        if (apiUrl == null || apiUrl.isBlank()) {
+            return new OkHttpTelegramClient(telegramHttpClient, props.getToken());
+        }
+        log.info("Telegram Bot API at {}", apiUrl);
+        return new OkHttpTelegramClient(telegramHttpClient, props.getToken(), telegramUrl(apiUrl));
+    }
+
+    /** "http://host:port" -> TelegramUrl; порт по умолчанию — от схемы. */
+    static TelegramUrl telegramUrl(String apiUrl) {
+        URI uri = URI.create(apiUrl.trim());
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            throw new IllegalStateException("telegram.bot.api-url must look like http(s)://host[:port], got: " + apiUrl);
+        }
+        int port = uri.getPort() != -1 ? uri.getPort() : ("https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80);
+        return new TelegramUrl(uri.getScheme(), uri.getHost(), port, false);
     }
-}
\ No newline at end of file
+}
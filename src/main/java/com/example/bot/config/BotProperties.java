@@ -2,7 +2,9 @@ package com.example.bot.config;
 
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.telegram.telegrambots.meta.api.objects.User;
 
+import java.time.Duration;
 import java.util.List;
 
 @Data
@@ -11,4 +13,36 @@ public class BotProperties {
     private String token;
     private String username;
     private List<Long> allowedUserIds;
-}
\ No newline at end of file
+    /**
+     * Адрес Bot API, например http://127.0.0.1:18081 — локальная заглушка для нагрузочных тестов
+     * или свой telegram-bot-api сервер. Пусто — https://api.telegram.org.
+     */
+    private String apiUrl;
+    /** HTTP-клиент к Bot API. */
+    private Http http = new Http();
+
+    /** Можно ли пользователю админ-команды. Пустой allowedUserIds — можно всем (локальный запуск). */
+    public boolean isAdmin(User from) {
+        if (allowedUserIds == null || allowedUserIds.isEmpty()) return true;
+        return from != null && allowedUserIds.contains(from.getId());
+    }
+
+    /**
+     * Все вызовы идут на один хост, поэтому реальный предел параллельности — maxRequestsPerHost.
+     */
+    @Data
+    public static class Http {
+        /** Одновременных запросов всего / к одному хосту; остальные ждут в очереди OkHttp. */
+        private int maxRequests = 64;
+        private int maxRequestsPerHost = 32;
+        /** Сколько простаивающих keep-alive соединений держать и как долго. */
+        private int maxIdleConnections = 16;
+        private Duration keepAlive = Duration.ofMinutes(5);
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        /** Должен быть больше telegram.ingest.timeout, иначе long polling будет обрываться. */
+        private Duration readTimeout = Duration.ofSeconds(15);
+        private Duration writeTimeout = Duration.ofSeconds(10);
+        /** Ограничение на весь вызов целиком; 0 — нет. */
+        private Duration callTimeout = Duration.ZERO;
+    }
+}
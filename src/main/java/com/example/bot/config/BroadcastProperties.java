@@ -0,0 +1,24 @@
+package com.example.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Массовые рассылки (prefix = bot.broadcast). Темп задаёт bot.outbound.bulk-rate.
+ */
+@Data
+@ConfigurationProperties(prefix = "bot.broadcast")
+public class BroadcastProperties {
+
+    /**
+     * Чатов в одной порции: порция читается из H2, отправляется и только потом фиксируется в прогрессе.
+     * Больше — реже запись в H2, но больше повторов при падении и дольше ждёт ответ в чат,
+     * чьё сообщение рассылки стоит в очереди.
+     */
+    private int batchSize = 50;
+
+    /** Сколько ждать завершения текущей порции при остановке приложения. */
+    private Duration shutdownTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,34 @@
+package com.example.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Режим обработки входящих апдейтов (prefix = bot.dispatch).
+ */
+@Data
+@ConfigurationProperties(prefix = "bot.dispatch")
+public class DispatchProperties {
+
+    /**
+     * SYNC — хэндлеры выполняются прямо в потоке вебхука (как было изначально);
+     * ASYNC — вебхук сразу отвечает, апдейт уходит в очередь своего чата на виртуальных потоках.
+     */
+    private Mode mode = Mode.ASYNC;
+
+    /** Сколько апдейтов может ждать обработки, прежде чем вебхук начнёт отвечать 503. */
+    private int maxPending = 10_000;
+
+    /**
+     * Сколько последних update_id помнить для отсева повторных доставок (округляется вверх до степени двойки).
+     * 0 — не отсеивать.
+     */
+    private int dedupWindow = 65_536;
+
+    /** Сколько ждать дообработки очередей при остановке приложения. */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    public enum Mode { SYNC, ASYNC }
+}
@@ -0,0 +1,16 @@
+package com.example.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Выгрузка заказов: GET /export/orders и /export (prefix = bot.export).
+ */
+@Data
+@ConfigurationProperties(prefix = "bot.export")
+public class ExportProperties {
+    /** Bearer-токен HTTP-выгрузки; пусто — выгрузка по HTTP выключена. */
+    private String token;
+    /** Предел файла, отправляемого в чат (Bot API принимает до 50 МБ). */
+    private long maxDocumentBytes = 50L * 1024 * 1024;
+}
@@ -0,0 +1,39 @@
+package com.example.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Откуда бот получает апдейты (prefix = telegram.ingest).
+ */
+@Data
+@ConfigurationProperties(prefix = "telegram.ingest")
+public class IngestProperties {
+
+    /**
+     * WEBHOOK — Telegram сам присылает каждый апдейт на telegram.webhook.url (нужен публичный HTTPS);
+     * POLLING — бот забирает апдейты пачками через getUpdates, входящий трафик не нужен.
+     */
+    private Mode mode = Mode.WEBHOOK;
+
+    /** Максимум апдейтов за один getUpdates (1..100). */
+    private int limit = 100;
+
+    /**
+     * Long polling: сколько Telegram держит запрос, если апдейтов нет.
+     * Должно быть меньше telegram.bot.http.read-timeout, иначе запрос оборвётся по таймауту клиента.
+     */
+    private Duration timeout = Duration.ofSeconds(8);
+
+    /** Типы апдейтов для getUpdates; пусто — как настроено у бота в Telegram. */
+    private List<String> allowedUpdates = List.of();
+
+    /** Пауза после ошибки; удваивается при повторных ошибках до maxBackoff. */
+    private Duration backoff = Duration.ofSeconds(1);
+    private Duration maxBackoff = Duration.ofSeconds(30);
+
+    public enum Mode { WEBHOOK, POLLING }
+}
@@ -0,0 +1,40 @@
+package com.example.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Журнал событий заказов (prefix = bot.journal).
+ */
+@Data
+@ConfigurationProperties(prefix = "bot.journal")
+public class JournalProperties {
+
+    private boolean enabled = false;
+
+    /** Каталог сегментов и снапшотов. */
+    private String dir = "./journal";
+
+    /** Размер одного сегмента; файл отображается в память целиком. */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * GROUP — запись ждёт fsync, один fsync на всех, кто успел записаться за commitDelay;
+     * ASYNC — fsync идёт в фоне, запись не ждёт (при падении ОС теряется до commitDelay + время fsync).
+     */
+    private Sync sync = Sync.GROUP;
+
+    /** Сколько фоновый поток ждёт попутчиков перед fsync. */
+    private Duration commitDelay = Duration.ofMillis(2);
+
+    /** Сжимать журнал в снапшот, когда закрытых сегментов накопилось столько. */
+    private int compactAfterSegments = 4;
+
+    /** Завершённые заказы, не менявшиеся дольше этого, при сжатии выпадают из снапшота (в H2 они остаются). */
+    private Duration retention = Duration.ofDays(30);
+
+    public enum Sync { GROUP, ASYNC }
+}
@@ -0,0 +1,26 @@
+package com.example.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Уведомления о заказах (prefix = bot.notify). Чат администраторов — telegram.flow.adminChatId.
+ */
+@Data
+@ConfigurationProperties(prefix = "bot.notify")
+public class NotifyProperties {
+
+    /** Сообщать клиенту, что статус его заявки изменился. */
+    private boolean customerStatus = true;
+
+    /**
+     * Окно сводки новых заявок: первая заявка после затишья уходит администраторам сразу,
+     * пришедшие за окно после неё — одним сообщением в конце окна.
+     */
+    private Duration digestWindow = Duration.ofSeconds(30);
+
+    /** Заявок построчно в сводке; остальные — только числом. */
+    private int digestMaxLines = 20;
+}
@@ -0,0 +1,21 @@
+package com.example.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Ограничения in-memory кэша заказов (prefix = bot.order-cache).
+ * Вытесненные заказы не теряются — они дочитываются из H2 при следующем обращении.
+ */
+@Data
+@ConfigurationProperties(prefix = "bot.order-cache")
+public class OrderCacheProperties {
+    /** Максимум заказов в памяти. */
+    private int maxSize = 100_000;
+    /** Через сколько без обращений вытесняется завершённый (COMPLETED/CANCELED) заказ. */
+    private Duration terminalIdle = Duration.ofMinutes(10);
+    /** Через сколько без обращений вытесняется любой другой заказ. */
+    private Duration openIdle = Duration.ofHours(24);
+}
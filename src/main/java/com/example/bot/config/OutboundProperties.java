@@ -0,0 +1,34 @@
+package com.example.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Лимиты исходящих вызовов Telegram API (prefix = bot.outbound).
+ * Дефолты — по официальным рекомендациям: ~30 сообщений/сек всего и ~1/сек в один чат.
+ */
+@Data
+@ConfigurationProperties(prefix = "bot.outbound")
+public class OutboundProperties {
+    /** Глобальный лимит, сообщений в секунду. */
+    private double globalRate = 30;
+    /** Сколько сообщений можно отправить пачкой сверх глобального темпа. */
+    private int globalBurst = 30;
+    /** Лимит на один чат, сообщений в секунду. */
+    private double chatRate = 1;
+    /** Короткий всплеск в один чат (например, "черновик удалён" + главное меню). */
+    private int chatBurst = 3;
+    /**
+     * Потолок массовых рассылок, сообщений в секунду. Держится ниже globalRate: разница —
+     * гарантированный запас для ответов пользователям, пока идёт рассылка.
+     */
+    private double bulkRate = 20;
+    /** Потоки, выполняющие вызовы API. */
+    private int workers = 4;
+    /** Сколько раз повторять вызов после 429 Too Many Requests. */
+    private int maxRetries = 3;
+    /** Сколько ждать отправки очереди при остановке. */
+    private Duration shutdownTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,37 @@
+package com.example.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Как заказы пишутся в H2 (prefix = bot.persistence).
+ */
+@Data
+@ConfigurationProperties(prefix = "bot.persistence")
+public class PersistenceProperties {
+
+    /**
+     * WRITE_THROUGH — JPA save в потоке запроса (как было);
+     * WRITE_BEHIND — изменения копятся в памяти по id заказа и пишутся пачками.
+     */
+    private Mode mode = Mode.WRITE_BEHIND;
+
+    /** Как часто проверять, не пора ли сбросить накопленное. */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /** Максимальный возраст незаписанного изменения. */
+    private Duration maxStaleness = Duration.ofSeconds(1);
+
+    /** Сбросить сразу, как только накопилось столько заказов; это же — размер JDBC batch. */
+    private int batchSize = 200;
+
+    /**
+     * Предел очереди незаписанных заказов. Дальше новый заказ пишет вызывающий поток (как
+     * write-through), и пока БД недоступна, её ошибки видны сразу, а память не растёт.
+     */
+    private int maxPending = 10_000;
+
+    public enum Mode { WRITE_THROUGH, WRITE_BEHIND }
+}
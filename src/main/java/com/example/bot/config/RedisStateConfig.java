@@ -0,0 +1,39 @@
+package com.example.bot.config;
+
+import com.example.bot.redis.StateInvalidationBus;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/** Подписка реплик на канал сброса near-cache (только при bot.state.store=redis). */
+@Configuration
+@ConditionalOnProperty(prefix = "bot.state", name = "store", havingValue = "redis")
+@RequiredArgsConstructor
+public class RedisStateConfig {
+
+    private final JournalProperties journalProps;
+
+    /** Журнал локален: реплика, поднятая из своего журнала, разошлась бы с общим состоянием в Redis. */
+    @PostConstruct
+    void checkJournalDisabled() {
+        if (journalProps.isEnabled()) {
+            throw new IllegalStateException("bot.state.store=redis requires bot.journal.enabled=false "
+                    + "(BOT_JOURNAL_ENABLED=false): the order journal is local to one instance");
+        }
+    }
+
+    @Bean
+    public RedisMessageListenerContainer stateInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                   StateInvalidationBus bus,
+                                                                   StateProperties props) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(bus, new ChannelTopic(props.getChannel()));
+        return container;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Полнотекстовый поиск заказов /find (prefix = bot.search).
+ */
+@Data
+@ConfigurationProperties(prefix = "bot.search")
+public class SearchProperties {
+    /** Построить индекс по всей таблице заказов при старте (в фоне). */
+    private boolean loadOnStart = true;
+    /** Строк за один запрос к БД при построении. */
+    private int pageSize = 1000;
+    /** Сколько заказов показывает /find. */
+    private int resultLimit = 10;
+}
@@ -0,0 +1,18 @@
+package com.example.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Время жизни сессий диалога (prefix = bot.session).
+ */
+@Data
+@ConfigurationProperties(prefix = "bot.session")
+public class SessionProperties {
+    /** Сессия удаляется после такого простоя. */
+    private Duration ttl = Duration.ofMinutes(30);
+    /** Шаг колеса таймеров — с такой точностью истекают сессии. */
+    private Duration tick = Duration.ofSeconds(1);
+}
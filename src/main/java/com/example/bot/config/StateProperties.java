@@ -0,0 +1,41 @@
+package com.example.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Где живут сессии и оперативное состояние заказов (prefix = bot.state).
+ */
+@Data
+@ConfigurationProperties(prefix = "bot.state")
+public class StateProperties {
+
+    /**
+     * MEMORY — в памяти процесса, один экземпляр бота;
+     * REDIS — общее хранилище для нескольких реплик за балансировщиком (spring.data.redis.*).
+     * Для REDIS и H2 должна быть общей (сервер БД), а журнал заказов — выключен: он локален.
+     */
+    private Store store = Store.MEMORY;
+
+    /** Redis: ключи бота начинаются с этого префикса. */
+    private String keyPrefix = "bot:";
+
+    /** Redis: канал, по которому реплики сообщают друг другу об изменениях. */
+    private String channel = "bot:state:invalidate";
+
+    /**
+     * Redis: сколько локальная копия (near-cache) отдаётся без обращения к Redis.
+     * Обычно её раньше сбрасывает сообщение из канала; срок страхует от потерянных сообщений.
+     */
+    private Duration nearCacheTtl = Duration.ofSeconds(5);
+
+    /** Redis: максимум сессий в near-cache. */
+    private int nearCacheMaxSize = 10_000;
+
+    /** Redis: попыток оптимистичного обновления заказа (WATCH/MULTI) при конкурентной записи. */
+    private int maxUpdateAttempts = 5;
+
+    public enum Store { MEMORY, REDIS }
+}
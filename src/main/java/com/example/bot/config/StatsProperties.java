@@ -0,0 +1,18 @@
+package com.example.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Счётчики заказов для /stats и /actuator/orderstats (prefix = bot.stats).
+ */
+@Data
+@ConfigurationProperties(prefix = "bot.stats")
+public class StatsProperties {
+    /** Пересчитать счётчики по H2 при старте. */
+    private boolean rebuildOnStart = true;
+    /** Сколько последних часов хранить по часам. */
+    private int hours = 48;
+    /** Сколько последних дней хранить по дням. */
+    private int days = 30;
+}
@@ -3,6 +3,9 @@ package com.example.bot.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Все тексты/кнопки/сообщения UI из bot-config.yml (prefix = ui)
  */
@@ -63,6 +66,13 @@ public class UiProperties {
         private String draftHeader;
         private String draftTip;
         private String summary;
+        // уведомления; дефолты — чтобы старый внешний bot-config.yml не ронял старт
+        private String statusChanged = "Заявка `{id}` ({service}{subtypeSuffix}): {status}";
+        private String newOrder = "Новая заявка `{id}`\nУслуга: {service}{subtypeSuffix}\nЧат: {chatId}\n\n{description}";
+        private String newOrdersDigest = "Новых заявок: {count}";
+        private String newOrdersDigestLine = "• `{id}` — {service}{subtypeSuffix}";
+        /** Названия статусов для клиента; нет в списке — имя константы. */
+        private Map<String, String> statuses = new LinkedHashMap<>();
     }
 
     @Data
@@ -0,0 +1,26 @@
+package com.example.bot.config;
+
+import com.example.bot.orders.OrderStatus;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Загрузка заказов из H2 в память при старте (prefix = bot.warmup).
+ */
+@Data
+@ConfigurationProperties(prefix = "bot.warmup")
+public class WarmupProperties {
+    private boolean enabled = true;
+    /** Грузить только заказы, созданные за это окно; пусто — все. */
+    private Duration window;
+    /** Грузить только эти статусы; пусто — все. */
+    private Set<OrderStatus> statuses = EnumSet.noneOf(OrderStatus.class);
+    /** Строк за один запрос к БД. */
+    private int pageSize = 1000;
+    /** Потоков, раскладывающих страницы по индексам. */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+}
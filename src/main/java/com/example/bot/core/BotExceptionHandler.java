@@ -11,4 +11,9 @@ public class BotExceptionHandler {
         var id = (update == null ? null : update.getUpdateId());
         log.error("Error while processing updateId={}", id, e);
     }
+
+    public void handle(UpdateEnvelope envelope, Exception e) {
+        var id = (envelope == null ? null : envelope.updateId());
+        log.error("Error while processing updateId={}", id, e);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.example.bot.core;
+
+import com.example.bot.config.DispatchProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Отсев повторных доставок одного и того же апдейта.
+ * <p>
+ * update_id растут монотонно, поэтому хватает скользящего окна из последних N id:
+ * кольцевой битсет, где бит id — {@code id & (N-1)}. При движении окна вперёд освобождаемые
+ * биты обнуляются. Id старше окна считается не повтором, а новой нумерацией
+ * (Telegram выбирает случайный update_id после недели без апдейтов) — окно перестраивается с него.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UpdateDeduplicator {
+
+    private final DispatchProperties props;
+    private final MeterRegistry meterRegistry;
+
+    private long[] bits;
+    private int mask;
+    private long maxId = Long.MIN_VALUE;   // самый новый принятый id; MIN_VALUE — ещё ничего не было
+    private long dropped;
+    private Counter duplicates;
+
+    @PostConstruct
+    void init() {
+        int window = props.getDedupWindow();
+        if (window > 0) {
+            int size = Math.max(64, Integer.highestOneBit(window - 1) << 1);
+            bits = new long[size >>> 6];
+            mask = size - 1;
+        }
+        duplicates = meterRegistry.counter("bot.updates.duplicates");
+        log.info("Update dedup window={}", bits == null ? 0 : mask + 1);
+    }
+
+    /**
+     * Отметить апдейт как полученный.
+     * @return false — этот update_id уже был в окне, апдейт нужно пропустить.
+     */
+    public synchronized boolean firstSeen(long updateId) {
+        if (bits == null) return true;
+        if (maxId == Long.MIN_VALUE || updateId <= maxId - (mask + 1)) {
+            reset(updateId);
+            return true;
+        }
+        if (updateId > maxId) {
+            advance(updateId);
+        } else if (isSet(updateId)) {
+            dropped++;
+            duplicates.increment();
+            return false;
+        }
+        set(updateId);
+        return true;
+    }
+
+    /** Забыть id, который был отмечен, но не принят в обработку — его повторная доставка пройдёт. */
+    public synchronized void forget(long updateId) {
+        if (bits == null || maxId == Long.MIN_VALUE) return;
+        if (updateId > maxId - (mask + 1) && updateId <= maxId) {
+            bits[(int) (updateId & mask) >>> 6] &= ~(1L << updateId);
+        }
+    }
+
+    /** Сколько повторов отброшено с момента старта. */
+    public synchronized long dropped() {
+        return dropped;
+    }
+
+    private void reset(long updateId) {
+        if (maxId != Long.MIN_VALUE) {
+            log.info("update_id jumped from {} to {}, dedup window restarted", maxId, updateId);
+        }
+        Arrays.fill(bits, 0L);
+        maxId = updateId;
+        set(updateId);
+    }
+
+    /** Сдвинуть окно до updateId, обнулив биты id, вышедших из окна. */
+    private void advance(long updateId) {
+        long gap = updateId - maxId;
+        if (gap > mask) {
+            Arrays.fill(bits, 0L);
+        } else {
+            for (long id = maxId + 1; id <= updateId; id++) {
+                bits[(int) (id & mask) >>> 6] &= ~(1L << id);
+            }
+        }
+        maxId = updateId;
+    }
+
+    private boolean isSet(long id) {
+        return (bits[(int) (id & mask) >>> 6] & (1L << id)) != 0;
+    }
+
+    private void set(long id) {
+        bits[(int) (id & mask) >>> 6] |= 1L << id;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.bot.core;
+
+import com.example.bot.config.DispatchProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Точка входа апдейтов в обработку.
+ * В режиме ASYNC апдейты одного чата выполняются строго по очереди (своя "полоса" на чат),
+ * разные чаты — параллельно, каждый дренаж полосы идёт на своём виртуальном потоке.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UpdateDispatcher {
+
+    private final UpdateRouter router;
+    private final UpdateDeduplicator dedup;
+    private final DispatchProperties props;
+
+    // chatId -> очередь ещё не обработанных апдейтов; пустые полосы удаляются
+    private final ConcurrentMap<Long, ChatLane> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        if (props.getMode() == DispatchProperties.Mode.ASYNC) {
+            executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("upd-", 0).factory());
+        }
+        log.info("UpdateDispatcher mode={} maxPending={}", props.getMode(), props.getMaxPending());
+    }
+
+    /** Принять уже связанный Update (getUpdates). */
+    public boolean dispatch(Update update) {
+        return dispatch(UpdateEnvelope.of(update));
+    }
+
+    /**
+     * Принять апдейт в обработку.
+     * Повторная доставка уже принятого апдейта и апдейт, который не нужен ни одному хэндлеру,
+     * подтверждаются, но не обрабатываются.
+     * @return false — если очередь переполнена и апдейт не принят (Telegram доставит его повторно).
+     */
+    public boolean dispatch(UpdateEnvelope update) {
+        Integer updateId = update.updateId();
+        if (updateId != null && !dedup.firstSeen(updateId)) {
+            log.debug("Drop duplicate upd#{}", updateId);
+            return true;
+        }
+        if (!router.admit(update)) {
+            return true;
+        }
+        if (executor == null) {
+            router.consume(update);
+            return true;
+        }
+        if (pending.incrementAndGet() > props.getMaxPending()) {
+            pending.decrementAndGet();
+            if (updateId != null) dedup.forget(updateId);
+            log.warn("Dispatch queue is full ({}), reject upd#{}", props.getMaxPending(), updateId);
+            return false;
+        }
+
+        Long chatId = update.chatId();
+        if (chatId == null) {
+            // порядок не важен — просто отдельная задача
+            submit(() -> {
+                try {
+                    router.consume(update);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            });
+            return true;
+        }
+
+        boolean[] start = new boolean[1];
+        lanes.compute(chatId, (k, lane) -> {
+            if (lane == null) lane = new ChatLane();
+            lane.queue.addLast(update);
+            if (!lane.running) {
+                lane.running = true;
+                start[0] = true;
+            }
+            return lane;
+        });
+        if (start[0]) {
+            submit(() -> drain(chatId));
+        }
+        return true;
+    }
+
+    /** Сколько апдейтов принято, но ещё не обработано. */
+    public int pending() {
+        return pending.get();
+    }
+
+    /** Сколько чатов сейчас имеют непустую очередь. */
+    public int activeLanes() {
+        return lanes.size();
+    }
+
+    private void drain(long chatId) {
+        UpdateEnvelope next;
+        while ((next = poll(chatId)) != null) {
+            try {
+                router.consume(next);
+            } finally {
+                pending.decrementAndGet();
+            }
+        }
+    }
+
+    /** Забрать следующий апдейт чата; при пустой очереди полоса удаляется атомарно. */
+    private UpdateEnvelope poll(long chatId) {
+        UpdateEnvelope[] out = new UpdateEnvelope[1];
+        lanes.compute(chatId, (k, lane) -> {
+            if (lane == null) return null;
+            out[0] = lane.queue.pollFirst();
+            return out[0] == null ? null : lane;
+        });
+        return out[0];
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // приложение останавливается — дорабатываем в текущем потоке
+            log.warn("Dispatcher is shutting down, running task inline");
+            task.run();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor == null) return;
+        executor.shutdown();
+        try {
+            long ms = props.getShutdownTimeout().toMillis();
+            if (!executor.awaitTermination(ms, TimeUnit.MILLISECONDS)) {
+                log.warn("Dispatcher stopped with {} unprocessed updates", pending.get());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    /** Очередь апдейтов одного чата. Доступ только внутри lanes.compute(). */
+    private static final class ChatLane {
+        final ArrayDeque<UpdateEnvelope> queue = new ArrayDeque<>(4);
+        boolean running;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.bot.core;
+
+import com.example.bot.util.Updates;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Апдейт в том объёме, который нужен для маршрутизации: тип, update_id, чат, текст/callback data.
+ * <p>
+ * Из вебхука приходит с сырым JSON, и полный {@link Update} связывается Jackson'ом только при первом
+ * вызове {@link #update()} — то есть только для апдейтов, которые дошли до хэндлера.
+ * Не потокобезопасен: после постановки в очередь им владеет один поток обработки.
+ */
+public final class UpdateEnvelope {
+
+    private final Integer updateId;
+    private final String type;
+    private final Long chatId;
+    private final String text;
+    private final String data;
+
+    private byte[] raw;
+    private ObjectReader reader;
+    private Update update;
+
+    UpdateEnvelope(Integer updateId, String type, Long chatId, String text, String data,
+                   byte[] raw, ObjectReader reader) {
+        this.updateId = updateId;
+        this.type = type;
+        this.chatId = chatId;
+        this.text = text;
+        this.data = data;
+        this.raw = raw;
+        this.reader = reader;
+    }
+
+    /** Обёртка над уже связанным Update (getUpdates, тесты). */
+    public static UpdateEnvelope of(Update u) {
+        String text = null;
+        String data = null;
+        if (u.hasMessage() && u.getMessage().hasText()) {
+            text = u.getMessage().getText();
+        } else if (u.hasCallbackQuery()) {
+            data = u.getCallbackQuery().getData();
+        }
+        UpdateEnvelope e = new UpdateEnvelope(u.getUpdateId(), Updates.type(u), Updates.chatId(u), text, data, null, null);
+        e.update = u;
+        return e;
+    }
+
+    /** Полный Update; при первом обращении связывается из сырого JSON. */
+    public Update update() {
+        if (update == null) {
+            try {
+                update = reader.readValue(raw);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot bind upd#" + updateId, e);
+            }
+            raw = null;
+            reader = null;
+        }
+        return update;
+    }
+
+    public boolean isBound() {
+        return update != null;
+    }
+
+    public Integer updateId() {
+        return updateId;
+    }
+
+    /** message / callback_query / edited_message / inline_query / other — как {@link Updates#type}. */
+    public String type() {
+        return type;
+    }
+
+    public Long chatId() {
+        return chatId;
+    }
+
+    /** Текст сообщения (для message); null у остальных типов. */
+    public String text() {
+        return text;
+    }
+
+    /** callback_data (для callback_query). */
+    public String data() {
+        return data;
+    }
+}
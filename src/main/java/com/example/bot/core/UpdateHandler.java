@@ -2,8 +2,37 @@ package com.example.bot.core;
 
 import org.telegram.telegrambots.meta.api.objects.Update;
 
+import java.util.Set;
+
 public interface UpdateHandler {
     boolean supports(Update update);
     void handle(Update update) throws Exception;
     default int order() { return 0; }
+
+    /** Команды вида "/start", которые обслуживает хэндлер; по ним UpdateRouter строит индекс. */
+    default Set<String> commands() { return Set.of(); }
+
+    /** Точные значения callback_data, которые обслуживает хэндлер. */
+    default Set<String> callbackKeys() { return Set.of(); }
+
+    /**
+     * Префиксы callback_data с параметром после двоеточия: "ORD:" ловит "ORD:42:n".
+     * Точное совпадение из callbackKeys() проверяется раньше префикса.
+     */
+    default Set<String> callbackPrefixes() { return Set.of(); }
+
+    /**
+     * Опрашивать ли supports() для апдейтов, не найденных в индексе.
+     * По умолчанию — только у хэндлеров, не объявивших ни команд, ни callback-ключей.
+     */
+    default boolean fallback() {
+        return commands().isEmpty() && callbackKeys().isEmpty() && callbackPrefixes().isEmpty();
+    }
+
+    /**
+     * Типы апдейтов (как в Updates.type: "message", "callback_query", ...), которые fallback-хэндлер
+     * вообще может принять. Пусто — любые. Апдейты, которые не нужны ни одному хэндлеру,
+     * отбрасываются до разбора JSON в Update.
+     */
+    default Set<String> updateTypes() { return Set.of(); }
 }
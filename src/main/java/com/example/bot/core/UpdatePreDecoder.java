@@ -0,0 +1,130 @@
+package com.example.bot.core;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.io.IOException;
+
+/**
+ * Быстрый разбор тела вебхука потоковым парсером без построения объектов.
+ * Достаёт update_id, тип апдейта, id чата и текст/callback data, всё остальное пропускает
+ * через skipChildren(). Полный Update потом связывается из тех же байт, если понадобится.
+ */
+@Component
+@RequiredArgsConstructor
+public class UpdatePreDecoder {
+
+    private final ObjectMapper objectMapper;
+
+    private JsonFactory factory;
+    private ObjectReader updateReader;
+
+    @PostConstruct
+    void init() {
+        factory = objectMapper.getFactory();
+        updateReader = objectMapper.readerFor(Update.class);
+    }
+
+    /** @throws IOException если тело — не JSON-объект */
+    public UpdateEnvelope decode(byte[] body) throws IOException {
+        Integer updateId = null;
+        String type = null;
+        Scan scan = new Scan();
+        try (JsonParser p = factory.createParser(body)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Update must be a JSON object");
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken v = p.nextToken();
+                if ("update_id".equals(field)) {
+                    updateId = p.getIntValue();
+                } else if (type == null && v == JsonToken.START_OBJECT) {
+                    type = typeOf(field);
+                    switch (type) {
+                        case "message", "edited_message" -> scanMessage(p, scan);
+                        case "callback_query" -> scanCallback(p, scan);
+                        default -> p.skipChildren();
+                    }
+                } else {
+                    p.skipChildren();
+                }
+            }
+        }
+        return new UpdateEnvelope(updateId, type != null ? type : "other", scan.chatId,
+                "message".equals(type) ? scan.text : null, scan.data, body, updateReader);
+    }
+
+    /** Те же значения, что у Updates.type(): метки метрик не должны зависеть от способа разбора. */
+    private static String typeOf(String field) {
+        return switch (field) {
+            case "message" -> "message";
+            case "callback_query" -> "callback_query";
+            case "edited_message" -> "edited_message";
+            case "inline_query" -> "inline_query";
+            default -> "other";
+        };
+    }
+
+    private static void scanMessage(JsonParser p, Scan scan) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken v = p.nextToken();
+            if ("chat".equals(field) && v == JsonToken.START_OBJECT) {
+                scan.chatId = scanId(p);
+            } else if ("text".equals(field) && v == JsonToken.VALUE_STRING) {
+                scan.text = p.getText();
+            } else {
+                p.skipChildren();
+            }
+        }
+    }
+
+    private static void scanCallback(JsonParser p, Scan scan) throws IOException {
+        Long fromId = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken v = p.nextToken();
+            if ("data".equals(field) && v == JsonToken.VALUE_STRING) {
+                scan.data = p.getText();
+            } else if ("message".equals(field) && v == JsonToken.START_OBJECT) {
+                scanMessage(p, scan);
+                scan.text = null;
+            } else if ("from".equals(field) && v == JsonToken.START_OBJECT) {
+                fromId = scanId(p);
+            } else {
+                p.skipChildren();
+            }
+        }
+        // как Updates.chatId(): без сообщения (inline-кнопка) чат — это сам пользователь
+        if (scan.chatId == null) scan.chatId = fromId;
+    }
+
+    /** Поле "id" текущего объекта; парсер остаётся на его END_OBJECT. */
+    private static Long scanId(JsonParser p) throws IOException {
+        Long id = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken v = p.nextToken();
+            if ("id".equals(field) && v == JsonToken.VALUE_NUMBER_INT) {
+                id = p.getLongValue();
+            } else {
+                p.skipChildren();
+            }
+        }
+        return id;
+    }
+
+    private static final class Scan {
+        Long chatId;
+        String text;
+        String data;
+    }
+}
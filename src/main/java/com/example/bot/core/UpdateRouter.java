@@ -1,6 +1,9 @@
 package com.example.bot.core;
 
 import com.example.bot.config.BotProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,7 +12,12 @@ import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.generics.TelegramClient;
 
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
@@ -20,10 +28,29 @@ public class UpdateRouter {
     private final BotExceptionHandler exceptionHandler;
     private final BotProperties props;
     private final TelegramClient client;
+    private final MeterRegistry meterRegistry;
 
     // итоговый предсортированный и неизменяемый список
     private List<UpdateHandler> orderedHandlers;
 
+    // индекс: команда ("/start") -> хэндлер, callback_data -> хэндлер
+    private Map<String, UpdateHandler> byCommand;
+    private Map<String, UpdateHandler> byCallback;
+    // префикс callback_data до ':' включительно ("ORD:") -> хэндлер
+    private Map<String, UpdateHandler> byCallbackPrefix;
+    // хэндлеры, для которых по-прежнему нужен supports(), в порядке order()
+    private List<UpdateHandler> fallbackHandlers;
+    // те же fallback-хэндлеры, разложенные по типу апдейта
+    private Map<String, List<UpdateHandler>> fallbackByType;
+
+    // метрики, созданные заранее, чтобы не искать их в реестре на каждом апдейте
+    private Map<UpdateHandler, Timer> successTimers;
+    private Map<String, Counter> updatesByType;
+    private Counter unhandled;
+
+    // значения Updates.type()
+    private static final List<String> TYPES = List.of("message", "callback_query", "edited_message", "inline_query", "other");
+
     @PostConstruct
     void init() {
         this.orderedHandlers = List.copyOf(
@@ -35,39 +62,182 @@ public class UpdateRouter {
                                 .thenComparing(h -> h.getClass().getName()))
                         .toList()
         );
+        // список уже отсортирован, поэтому при конфликте ключа побеждает хэндлер с меньшим order
+        Map<String, UpdateHandler> commands = new HashMap<>();
+        Map<String, UpdateHandler> callbacks = new HashMap<>();
+        Map<String, UpdateHandler> prefixes = new HashMap<>();
+        for (UpdateHandler h : orderedHandlers) {
+            for (String c : h.commands()) {
+                index(commands, normalizeCommand(c), h, "command");
+            }
+            for (String k : h.callbackKeys()) {
+                index(callbacks, k, h, "callback");
+            }
+            for (String p : h.callbackPrefixes()) {
+                if (p.indexOf(':') != p.length() - 1) {
+                    throw new IllegalStateException("Callback prefix must end with a single ':': '" + p + "'");
+                }
+                index(prefixes, p, h, "callback prefix");
+            }
+        }
+        this.byCommand = Map.copyOf(commands);
+        this.byCallback = Map.copyOf(callbacks);
+        this.byCallbackPrefix = Map.copyOf(prefixes);
+        this.fallbackHandlers = orderedHandlers.stream().filter(UpdateHandler::fallback).toList();
+        Map<String, List<UpdateHandler>> byType = new HashMap<>();
+        for (String type : TYPES) {
+            byType.put(type, fallbackHandlers.stream()
+                    .filter(h -> h.updateTypes().isEmpty() || h.updateTypes().contains(type))
+                    .toList());
+        }
+        this.fallbackByType = Map.copyOf(byType);
+
+        Map<UpdateHandler, Timer> timers = new IdentityHashMap<>();
+        for (UpdateHandler h : orderedHandlers) {
+            timers.put(h, handlerTimer(h, "success"));
+        }
+        this.successTimers = timers;
+        Map<String, Counter> counters = new HashMap<>();
+        for (String type : TYPES) {
+            counters.put(type, meterRegistry.counter("bot.updates", "type", type));
+        }
+        this.updatesByType = Map.copyOf(counters);
+        this.unhandled = meterRegistry.counter("bot.updates.unhandled");
+
         if (log.isInfoEnabled()) {
             log.info("UpdateRouter initialized with {} handlers:", orderedHandlers.size());
             for (UpdateHandler h : orderedHandlers) {
                 log.info("  {} -> order={}", h.getClass().getSimpleName(), h.order());
             }
+            log.info("Dispatch index: commands={} callbacks={} prefixes={} fallback={}", byCommand.keySet(),
+                    byCallback.keySet(), byCallbackPrefix.keySet(),
+                    fallbackHandlers.stream().map(h -> h.getClass().getSimpleName()).toList());
         }
     }
 
+    private static void index(Map<String, UpdateHandler> map, String key, UpdateHandler h, String kind) {
+        UpdateHandler prev = map.putIfAbsent(key, h);
+        if (prev != null && prev != h) {
+            log.warn("Duplicate {} '{}': {} (order={}) wins over {} (order={})", kind, key,
+                    prev.getClass().getSimpleName(), prev.order(), h.getClass().getSimpleName(), h.order());
+        }
+    }
+
+    /** Обработать уже связанный Update (без очередей и отсева повторов). */
     public void consume(Update update) {
-        final String info = brief(update);
+        if (update == null) return;
+        UpdateEnvelope e = UpdateEnvelope.of(update);
+        if (admit(e)) consume(e);
+    }
+
+    /**
+     * Ранняя проверка по полям конверта, до связывания Update: нужен ли апдейт хоть одному хэндлеру.
+     * Каждый апдейт проходит через неё ровно один раз — здесь же он считается в метриках.
+     */
+    public boolean admit(UpdateEnvelope e) {
+        Counter c = updatesByType.get(e.type());
+        if (c != null) c.increment();
+        if (indexed(e) != null || !fallbacks(e.type()).isEmpty()) {
+            return true;
+        }
+        unhandled.increment();
+        if (log.isDebugEnabled()) log.debug("Drop {}: no handler accepts {}", brief(e), e.type());
+        return false;
+    }
+
+    public void consume(UpdateEnvelope e) {
         final long t0 = System.nanoTime();
         try {
-            UpdateHandler target = null;
-            for (UpdateHandler h : orderedHandlers) {    // уже предсортированный список
-                if (supportsSafe(h, update)) {
-                    target = h;
-                    break;
-                }
-            }
+            UpdateHandler target = resolve(e);
             if (target != null) {
-                log.info("Dispatch {} -> {}", info, target.getClass().getSimpleName());
-                target.handle(update);
+                if (log.isInfoEnabled()) log.info("Dispatch {} -> {}", brief(e), target.getClass().getSimpleName());
+                invoke(target, e.update());
             } else {
-                log.debug("No handler matched {}", info);
+                unhandled.increment();
+                if (log.isDebugEnabled()) log.debug("No handler matched {}", brief(e));
             }
-        } catch (Exception e) {
-            exceptionHandler.handle(update, e);
+        } catch (Exception ex) {
+            exceptionHandler.handle(e, ex);
         } finally {
-            long dt = System.nanoTime() - t0;
-            log.debug("Route done {} in {} ms", info, dt / 1_000_000.0);
+            if (log.isDebugEnabled()) {
+                log.debug("Route done {} in {} ms", brief(e), (System.nanoTime() - t0) / 1_000_000.0);
+            }
         }
     }
 
+    private void invoke(UpdateHandler h, Update u) throws Exception {
+        long t0 = System.nanoTime();
+        try {
+            h.handle(u);
+            successTimers.get(h).record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            handlerTimer(h, "error").record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+            meterRegistry.counter("bot.handler.errors",
+                    "handler", h.getClass().getSimpleName(),
+                    "exception", e.getClass().getSimpleName()).increment();
+            throw e;
+        }
+    }
+
+    private Timer handlerTimer(UpdateHandler h, String outcome) {
+        return Timer.builder("bot.handler.latency")
+                .tag("handler", h.getClass().getSimpleName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /** Сначала O(1) поиск по индексу, затем — цепочка supports() только для fallback-хэндлеров этого типа. */
+    private UpdateHandler resolve(UpdateEnvelope e) {
+        UpdateHandler h = indexed(e);
+        if (h != null) return h;
+        List<UpdateHandler> candidates = fallbacks(e.type());
+        if (candidates.isEmpty()) return null;
+        Update u = e.update();
+        for (UpdateHandler c : candidates) {    // уже предсортированный список
+            if (supportsSafe(c, u)) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    private UpdateHandler indexed(UpdateEnvelope e) {
+        if (e.data() != null) {
+            UpdateHandler h = byCallback.get(e.data());
+            if (h != null || byCallbackPrefix.isEmpty()) return h;
+            int colon = e.data().indexOf(':');
+            return colon > 0 ? byCallbackPrefix.get(e.data().substring(0, colon + 1)) : null;
+        }
+        if (e.text() != null) {
+            String cmd = commandOf(e.text());
+            return cmd != null ? byCommand.get(cmd) : null;
+        }
+        return null;
+    }
+
+    private List<UpdateHandler> fallbacks(String type) {
+        List<UpdateHandler> list = fallbackByType.get(type);
+        return list != null ? list : fallbackHandlers;
+    }
+
+    /** "/Start@my_bot arg" -> "/start"; null, если текст не команда. */
+    static String commandOf(String text) {
+        int from = 0;
+        int len = text.length();
+        while (from < len && Character.isWhitespace(text.charAt(from))) from++;
+        if (from >= len || text.charAt(from) != '/') return null;
+        int to = from + 1;
+        while (to < len && !Character.isWhitespace(text.charAt(to)) && text.charAt(to) != '@') to++;
+        return to - from > 1 ? text.substring(from, to).toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String normalizeCommand(String c) {
+        String n = commandOf(c.startsWith("/") ? c : "/" + c);
+        if (n == null) throw new IllegalStateException("Bad command declaration: '" + c + "'");
+        return n;
+    }
+
     private boolean supportsSafe(UpdateHandler h, Update u) {
         try {
             return h.supports(u);
@@ -77,32 +247,19 @@ public class UpdateRouter {
         }
     }
 
-    private String brief(Update u) {
-        if (u == null) return "update=null";
-        try {
-            StringBuilder sb = new StringBuilder();
-            sb.append("upd#").append(u.getUpdateId());
-            if (u.hasCallbackQuery()) {
-                var cq = u.getCallbackQuery();
-                Long chatId = cq != null && cq.getMessage() != null ? cq.getMessage().getChatId() : null;
-                String data = cq != null ? cq.getData() : null;
-                sb.append(" cb chat=").append(chatId)
-                        .append(" data=\"").append(safeText(data)).append("\"");
-            } else if (u.hasMessage()) {
-                var m = u.getMessage();
-                sb.append(" msg chat=").append(m.getChatId());
-                if (m.hasText()) {
-                    sb.append(" text=\"").append(safeText(m.getText())).append("\"");
-                }
-            } else if (u.hasInlineQuery()) {
-                sb.append(" inline q=\"").append(safeText(u.getInlineQuery().getQuery())).append("\"");
-            } else {
-                sb.append(" type=other");
+    private static String brief(UpdateEnvelope e) {
+        StringBuilder sb = new StringBuilder(64);
+        sb.append("upd#").append(e.updateId());
+        switch (e.type()) {
+            case "callback_query" -> sb.append(" cb chat=").append(e.chatId())
+                    .append(" data=\"").append(safeText(e.data())).append("\"");
+            case "message" -> {
+                sb.append(" msg chat=").append(e.chatId());
+                if (e.text() != null) sb.append(" text=\"").append(safeText(e.text())).append("\"");
             }
-            return sb.toString();
-        } catch (Exception ex) {
-            return "upd#? (brief-failed)";
+            default -> sb.append(' ').append(e.type()).append(" chat=").append(e.chatId());
         }
+        return sb.toString();
     }
 
     private static String safeText(String s) {
@@ -0,0 +1,25 @@
+package com.example.bot.export;
+
+/** Формат выгрузки заказов. */
+public enum ExportFormat {
+    /** CSV (RFC 4180) с BOM — Excel сразу открывает кириллицу. */
+    CSV("csv", "text/csv"),
+    /** По JSON-объекту заказа на строку. */
+    JSONL("jsonl", "application/x-ndjson");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+}
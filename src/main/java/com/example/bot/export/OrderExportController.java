@@ -0,0 +1,78 @@
+package com.example.bot.export;
+
+import com.example.bot.config.ExportProperties;
+import com.example.bot.orders.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * GET /export/orders?from=2026-09&amp;to=2026-09&amp;status=COMPLETED&amp;format=csv&amp;gzip=true —
+ * выгрузка заказов для бухгалтерии. Доступ по заголовку {@code Authorization: Bearer <bot.export.token>};
+ * без настроенного токена выгрузка выключена. Файл пишется в ответ по мере чтения курсора БД.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class OrderExportController {
+
+    private final OrderExporter exporter;
+    private final ExportProperties props;
+
+    @GetMapping("/export/orders")
+    public ResponseEntity<StreamingResponseBody> orders(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String auth,
+                                                        @RequestParam(required = false) String from,
+                                                        @RequestParam(required = false) String to,
+                                                        @RequestParam(required = false) Set<String> status,
+                                                        @RequestParam(defaultValue = "csv") String format,
+                                                        @RequestParam(defaultValue = "false") boolean gzip) {
+        String token = props.getToken();
+        if (token == null || token.isBlank()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (auth == null || !MessageDigest.isEqual(("Bearer " + token).getBytes(StandardCharsets.UTF_8),
+                auth.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("Reject order export: bad token");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        OrderExportFilter filter;
+        ExportFormat fmt;
+        try {
+            Set<OrderStatus> statuses = EnumSet.noneOf(OrderStatus.class);
+            if (status != null) {
+                for (String s : status) {
+                    for (String part : s.split(",")) {
+                        if (!part.isBlank()) statuses.add(OrderStatus.valueOf(part.strip().toUpperCase(Locale.ROOT)));
+                    }
+                }
+            }
+            filter = new OrderExportFilter(OrderExportFilter.bound(from, false), OrderExportFilter.bound(to, true), statuses);
+            fmt = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String name = "orders_" + filter.label() + "." + fmt.extension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : new MediaType(MediaType.parseMediaType(fmt.contentType()), StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(name).build().toString())
+                .body(out -> exporter.export(filter, fmt, gzip, out));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.bot.export;
+
+import com.example.bot.orders.OrderStatus;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Какие заказы выгружать: created_at в [from, to) и статус из statuses.
+ * Пустые границы и пустой набор статусов — без ограничения (без обеих границ попадают и заказы без created_at).
+ */
+public record OrderExportFilter(OffsetDateTime from, OffsetDateTime to, Set<OrderStatus> statuses) {
+
+    public OrderExportFilter {
+        statuses = statuses == null || statuses.isEmpty() ? EnumSet.allOf(OrderStatus.class) : EnumSet.copyOf(statuses);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Empty period: " + from + " .. " + to);
+        }
+    }
+
+    /**
+     * Граница периода: 2026-09-01 (начало дня UTC), 2026-09 (начало месяца) или полная дата-время ISO.
+     * @param end true — для верхней границы день и месяц включаются целиком
+     * @throws IllegalArgumentException не дата
+     */
+    public static OffsetDateTime bound(String s, boolean end) {
+        if (s == null || s.isBlank()) return null;
+        try {
+            if (s.length() == 7) {
+                YearMonth m = YearMonth.parse(s);
+                return (end ? m.plusMonths(1) : m).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+            }
+            if (s.length() == 10) {
+                LocalDate d = LocalDate.parse(s);
+                return (end ? d.plusDays(1) : d).atStartOfDay().atOffset(ZoneOffset.UTC);
+            }
+            return OffsetDateTime.parse(s);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Bad date: " + s, e);
+        }
+    }
+
+    /** Короткое описание для имени файла и логов: 2026-09-01_2026-10-01 или all. */
+    public String label() {
+        if (from == null && to == null) return "all";
+        return (from != null ? from.toLocalDate().toString() : "start") + "_" + (to != null ? to.toLocalDate().toString() : "now");
+    }
+}
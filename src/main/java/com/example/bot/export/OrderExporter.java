@@ -0,0 +1,189 @@
+package com.example.bot.export;
+
+import com.example.bot.jpa.OrderEntity;
+import com.example.bot.jpa.OrderWriteBehind;
+import com.example.bot.orders.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Выгрузка заказов в CSV или JSONL прямо из курсора БД в поток вывода.
+ * Строка читается, пишется и сразу отпускается (detach из контекста JPA), поэтому память не
+ * растёт с числом заказов. Перед чтением сбрасываются незаписанные изменения write-behind.
+ * <p>
+ * Условия запроса строятся только из заданных границ: без периода выгружаются и заказы без
+ * created_at, без статусов — заказы с любым статусом.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderExporter {
+
+    private static final String CSV_HEADER = "id,chat_id,status,service,subtype,description,created_at,updated_at";
+    private static final int BUFFER = 64 * 1024;
+    private static final int FETCH_SIZE = 500;
+
+    private final OrderWriteBehind writeBehind;
+    private final ObjectMapper mapper;
+    private final TransactionTemplate tx;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    // курсор живёт внутри транзакции только на чтение
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    void init() {
+        readOnly = new TransactionTemplate(tx.getTransactionManager());
+        readOnly.setReadOnly(true);
+    }
+
+    /**
+     * Записать заказы по фильтру в out; out не закрывается.
+     * @return сколько заказов записано
+     */
+    public long export(OrderExportFilter filter, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        long t0 = System.nanoTime();
+        if (writeBehind.enabled()) writeBehind.flush();
+        long rows;
+        try {
+            rows = readOnly.execute(status -> {
+                try {
+                    return write(filter, format, gzip, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Exported {} orders as {}{} ({}, statuses={}) in {} ms", rows, format, gzip ? "+gzip" : "",
+                filter.label(), filter.statuses(), (System.nanoTime() - t0) / 1_000_000);
+        return rows;
+    }
+
+    private long write(OrderExportFilter filter, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        // out не закрываем (его закрывает владелец), gzip только завершаем
+        GZIPOutputStream gz = gzip ? new GZIPOutputStream(out, BUFFER) : null;
+        Writer w = new BufferedWriter(new OutputStreamWriter(gz != null ? gz : out, StandardCharsets.UTF_8), BUFFER);
+        ObjectWriter json = mapper.writer();
+        long rows = 0;
+        if (format == ExportFormat.CSV) {
+            w.write('\uFEFF');   // BOM: Excel иначе читает UTF-8 как ANSI
+            w.write(CSV_HEADER + "\r\n");
+        }
+        try (Stream<OrderEntity> stream = stream(filter)) {
+            for (Iterator<OrderEntity> it = stream.iterator(); it.hasNext(); ) {
+                OrderEntity e = it.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsv(w, e);
+                } else {
+                    w.write(json.writeValueAsString(e.toModel()));
+                    w.write('\n');
+                }
+                em.detach(e);
+                rows++;
+            }
+        }
+        w.flush();
+        if (gz != null) gz.finish();
+        out.flush();
+        return rows;
+    }
+
+    /**
+     * Курсор по заказам фильтра по возрастанию (createdAt, id). Строки приходят с сервера порциями
+     * по fetch size; читать внутри транзакции и закрыть поток.
+     */
+    private Stream<OrderEntity> stream(OrderExportFilter filter) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<OrderEntity> cq = cb.createQuery(OrderEntity.class);
+        Root<OrderEntity> o = cq.from(OrderEntity.class);
+        Path<OffsetDateTime> createdAt = o.get("createdAt");
+
+        List<Predicate> where = new ArrayList<>(3);
+        if (filter.statuses().size() < OrderStatus.values().length) where.add(o.get("status").in(filter.statuses()));
+        if (filter.from() != null) where.add(cb.greaterThanOrEqualTo(createdAt, filter.from()));
+        if (filter.to() != null) where.add(cb.lessThan(createdAt, filter.to()));
+        cq.select(o).where(where.toArray(Predicate[]::new));
+        cq.orderBy(cb.asc(createdAt), cb.asc(o.get("id")));
+        return em.createQuery(cq)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private static void writeCsv(Writer w, OrderEntity e) throws IOException {
+        field(w, e.getId());
+        w.write(',');
+        if (e.getChatId() != null) w.write(Long.toString(e.getChatId()));
+        w.write(',');
+        if (e.getStatus() != null) w.write(e.getStatus().name());
+        w.write(',');
+        field(w, e.getService());
+        w.write(',');
+        field(w, e.getSubtype());
+        w.write(',');
+        field(w, e.getDescription());
+        w.write(',');
+        time(w, e.getCreatedAt());
+        w.write(',');
+        time(w, e.getUpdatedAt());
+        w.write("\r\n");
+    }
+
+    private static void time(Writer w, OffsetDateTime t) throws IOException {
+        if (t != null) w.write(t.toString());
+    }
+
+    /**
+     * Поле CSV: в кавычках, если есть запятая, кавычка или перенос строки.
+     * Текст клиента, начинающийся с = + - @, табуляции или возврата каретки, предваряется апострофом —
+     * Excel не выполнит его как формулу.
+     */
+    private static void field(Writer w, String s) throws IOException {
+        if (s == null || s.isEmpty()) return;
+        char first = s.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') s = "'" + s;
+        boolean quote = false;
+        for (int i = 0; i < s.length() && !quote; i++) {
+            char c = s.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            w.write(s);
+            return;
+        }
+        w.write('"');
+        w.write(s.replace("\"", "\"\""));
+        w.write('"');
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.bot.flow;
+
+import java.util.Arrays;
+
+/**
+ * Колесо таймеров для истечения сессий: кольцо корзин по тикам, в корзине — chatId.
+ * Горизонт колеса не меньше TTL, поэтому в корзине в каждый момент лежат записи ровно одного тика,
+ * и обработка тика трогает только сессии, у которых наступил срок проверки.
+ * <p>
+ * Записи "ленивые": касание сессии колесо не трогает, при срабатывании сессия либо
+ * удаляется, либо переставляется на свой новый срок.
+ */
+final class ExpiryWheel {
+
+    private final long tickSec;
+    private final LongList[] buckets;
+    private long lastTick;
+
+    ExpiryWheel(long tickSec, long horizonSec, long nowSec) {
+        this.tickSec = Math.max(1, tickSec);
+        int n = (int) (horizonSec / this.tickSec) + 2;
+        this.buckets = new LongList[n];
+        for (int i = 0; i < n; i++) buckets[i] = new LongList();
+        this.lastTick = nowSec / this.tickSec;
+    }
+
+    /** Поставить проверку сессии на первый тик после deadlineSec; возвращает номер тика. */
+    synchronized long schedule(long chatId, long deadlineSec) {
+        long t = Math.max(Math.floorDiv(deadlineSec, tickSec) + 1, lastTick + 1);
+        // дальше горизонта не ставим: сработает раньше и просто переставится
+        t = Math.min(t, lastTick + buckets.length - 1);
+        buckets[(int) Math.floorMod(t, (long) buckets.length)].add(chatId);
+        return t;
+    }
+
+    /**
+     * Продвинуть колесо до nowSec и забрать наступившие записи.
+     * Результат — пары [chatId, tick, chatId, tick, ...].
+     */
+    synchronized LongList advance(long nowSec) {
+        long now = nowSec / tickSec;
+        LongList due = new LongList();
+        // записи стоят не дальше lastTick + length - 1, так что после долгой паузы
+        // достаточно одного прохода по всем корзинам
+        long to = Math.min(now, lastTick + buckets.length - 1);
+        for (long t = lastTick + 1; t <= to; t++) {
+            LongList b = buckets[(int) Math.floorMod(t, (long) buckets.length)];
+            for (int i = 0; i < b.size(); i++) {
+                due.add(b.get(i));
+                due.add(t);
+            }
+            b.clear();
+        }
+        lastTick = Math.max(lastTick, now);
+        return due;
+    }
+
+    /** Минимальный растущий список long. */
+    static final class LongList {
+        private long[] a = new long[8];
+        private int size;
+
+        void add(long v) {
+            if (size == a.length) a = Arrays.copyOf(a, size * 2);
+            a[size++] = v;
+        }
+
+        long get(int i) {
+            return a[i];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+            if (a.length > 1024) a = new long[8];   // не держим память после всплеска
+        }
+    }
+}
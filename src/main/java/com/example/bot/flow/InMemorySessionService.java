@@ -0,0 +1,140 @@
+package com.example.bot.flow;
+
+import com.example.bot.config.SessionProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * In-memory хранение сессий диалога — для одного экземпляра бота (bot.state.store=memory).
+ * TTL по неактивности — bot.session.ttl (30 минут по умолчанию).
+ * Истечение — через колесо таймеров: тик трогает только сессии, у которых подошёл срок.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "bot.state", name = "store", havingValue = "memory", matchIfMissing = true)
+@RequiredArgsConstructor
+public class InMemorySessionService implements SessionService {
+
+    private final SessionProperties props;
+
+    // chatId -> session
+    private final SessionTable sessions = new SessionTable();
+
+    private long ttlSec;
+    private ExpiryWheel wheel;
+
+    @PostConstruct
+    void init() {
+        ttlSec = props.getTtl().toSeconds();
+        wheel = new ExpiryWheel(props.getTick().toSeconds(), ttlSec, nowSec());
+        log.info("Sessions: ttl={} tick={}", props.getTtl(), props.getTick());
+    }
+
+    @Override
+    public ConversationSession get(long chatId) {
+        long nowSec = nowSec();
+        SessionTable.Stripe st = sessions.stripe(chatId);
+        synchronized (st) {
+            ConversationSession existing = st.get(chatId);
+            if (existing == null || isExpired(existing, nowSec)) {
+                ConversationSession s = ConversationSession.of(chatId);
+                s.setLastActivityTs(nowSec);
+                st.put(chatId, s);
+                ensureScheduled(st, chatId, nowSec);
+                log.debug("Create new session for chat {}", chatId);
+                return s;
+            }
+            existing.setLastActivityTs(nowSec);
+            return existing;
+        }
+    }
+
+    @Override
+    public void save(ConversationSession s) {
+        if (s == null) return;
+        long nowSec = nowSec();
+        s.setLastActivityTs(nowSec);
+        long chatId = s.getChatId();
+        SessionTable.Stripe st = sessions.stripe(chatId);
+        synchronized (st) {
+            st.put(chatId, s);
+            ensureScheduled(st, chatId, nowSec);
+        }
+    }
+
+    @Override
+    public void reset(long chatId) {
+        SessionTable.Stripe st = sessions.stripe(chatId);
+        synchronized (st) {
+            st.remove(chatId);
+        }
+    }
+
+    @Override
+    public Optional<ConversationSession> find(long chatId) {
+        long nowSec = nowSec();
+        SessionTable.Stripe st = sessions.stripe(chatId);
+        synchronized (st) {
+            ConversationSession s = st.get(chatId);
+            if (s == null) return Optional.empty();
+            if (isExpired(s, nowSec)) {
+                st.remove(chatId);
+                return Optional.empty();
+            }
+            return Optional.of(s);
+        }
+    }
+
+    @Override
+    public int size() {
+        return sessions.size();
+    }
+
+    private boolean isExpired(ConversationSession s, long nowSec) {
+        long last = Optional.ofNullable(s.getLastActivityTs()).orElse(0L);
+        return (nowSec - last) > ttlSec;
+    }
+
+    /** Сессия уже стоит в колесе — перепроверится, когда сработает; иначе ставим. Под блокировкой страйпа. */
+    private void ensureScheduled(SessionTable.Stripe st, long chatId, long lastSec) {
+        if (st.tickOf(chatId) != SessionTable.NOT_SCHEDULED) return;
+        st.setTick(chatId, wheel.schedule(chatId, lastSec + ttlSec));
+    }
+
+    /** Тик колеса: проверяем только сессии, чей срок наступил. */
+    @Scheduled(fixedDelayString = "${bot.session.tick:1s}")
+    public void expireDue() {
+        long nowSec = nowSec();
+        ExpiryWheel.LongList due = wheel.advance(nowSec);
+        int expired = 0;
+        for (int i = 0; i < due.size(); i += 2) {
+            long chatId = due.get(i);
+            long tick = due.get(i + 1);
+            SessionTable.Stripe st = sessions.stripe(chatId);
+            synchronized (st) {
+                // запись устарела: сессию сбросили/пересоздали и переставили на другой тик
+                if (st.tickOf(chatId) != tick) continue;
+                ConversationSession s = st.get(chatId);
+                if (isExpired(s, nowSec)) {
+                    st.remove(chatId);
+                    expired++;
+                } else {
+                    st.setTick(chatId, wheel.schedule(chatId, s.getLastActivityTs() + ttlSec));
+                }
+            }
+        }
+        if (expired > 0 && log.isDebugEnabled()) {
+            log.debug("Expired {} sessions, {} checked, {} left", expired, due.size() / 2, sessions.size());
+        }
+    }
+
+    private static long nowSec() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
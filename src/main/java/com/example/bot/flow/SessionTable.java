@@ -0,0 +1,130 @@
+package com.example.bot.flow;
+
+/**
+ * Хранилище сессий с ключом-примитивом long (без boxing chatId и без Map.Entry на сессию).
+ * Разбито на страйпы; каждый страйп — open addressing с линейным пробированием.
+ * Методы Stripe вызываются только под synchronized (stripe).
+ */
+final class SessionTable {
+
+    static final long NOT_SCHEDULED = Long.MIN_VALUE;
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    SessionTable() {
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Stripe();
+    }
+
+    Stripe stripe(long chatId) {
+        return stripes[(int) (mix(chatId) >>> 58)];   // старшие 6 бит — номер страйпа
+    }
+
+    /** Приблизительное число сессий (страйпы читаются без блокировки). */
+    int size() {
+        int n = 0;
+        for (Stripe s : stripes) n += s.size;
+        return n;
+    }
+
+    private static long mix(long x) {
+        x = (x ^ (x >>> 33)) * 0xff51afd7ed558ccdL;
+        x = (x ^ (x >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return x ^ (x >>> 33);
+    }
+
+    static final class Stripe {
+        private long[] keys = new long[16];
+        private ConversationSession[] vals = new ConversationSession[16];
+        // тик колеса, в котором сессия сейчас стоит на проверку
+        private long[] ticks = new long[16];
+        private volatile int size;
+
+        ConversationSession get(long key) {
+            int i = find(key);
+            return i < 0 ? null : vals[i];
+        }
+
+        long tickOf(long key) {
+            int i = find(key);
+            return i < 0 ? NOT_SCHEDULED : ticks[i];
+        }
+
+        void setTick(long key, long tick) {
+            int i = find(key);
+            if (i >= 0) ticks[i] = tick;
+        }
+
+        /** Положить/заменить сессию; у новой записи тик NOT_SCHEDULED, у существующей — сохраняется. */
+        void put(long key, ConversationSession value) {
+            int i = find(key);
+            if (i >= 0) {
+                vals[i] = value;
+                return;
+            }
+            if ((size + 1) * 2 > keys.length) resize();
+            insert(key, value, NOT_SCHEDULED);
+            size++;
+        }
+
+        ConversationSession remove(long key) {
+            int i = find(key);
+            if (i < 0) return null;
+            ConversationSession old = vals[i];
+            removeAt(i);
+            size--;
+            return old;
+        }
+
+        private int find(long key) {
+            int mask = keys.length - 1;
+            for (int i = (int) mix(key) & mask; vals[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) return i;
+            }
+            return -1;
+        }
+
+        private void insert(long key, ConversationSession value, long tick) {
+            int mask = keys.length - 1;
+            int i = (int) mix(key) & mask;
+            while (vals[i] != null) i = (i + 1) & mask;
+            keys[i] = key;
+            vals[i] = value;
+            ticks[i] = tick;
+        }
+
+        /** Удаление со сдвигом назад — без "надгробий", цепочки пробирования остаются короткими. */
+        private void removeAt(int hole) {
+            int mask = keys.length - 1;
+            int j = hole;
+            while (true) {
+                j = (j + 1) & mask;
+                if (vals[j] == null) break;
+                int home = (int) mix(keys[j]) & mask;
+                boolean between = hole <= j ? (hole < home && home <= j) : (home > hole || home <= j);
+                if (!between) {
+                    keys[hole] = keys[j];
+                    vals[hole] = vals[j];
+                    ticks[hole] = ticks[j];
+                    hole = j;
+                }
+            }
+            keys[hole] = 0;
+            vals[hole] = null;
+            ticks[hole] = 0;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            ConversationSession[] oldVals = vals;
+            long[] oldTicks = ticks;
+            keys = new long[oldKeys.length * 2];
+            vals = new ConversationSession[oldKeys.length * 2];
+            ticks = new long[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldVals[i] != null) insert(oldKeys[i], oldVals[i], oldTicks[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.bot.handlers;
+
+import com.example.bot.broadcast.BroadcastProgress;
+import com.example.bot.broadcast.BroadcastService;
+import com.example.bot.config.BotProperties;
+import com.example.bot.core.UpdateHandler;
+import com.example.bot.outbound.OutboundSender;
+import com.example.bot.util.Reply;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.Set;
+
+/**
+ * /broadcast &lt;текст&gt; — разослать текст всем клиентам; /broadcast — ход текущей рассылки;
+ * /broadcast stop — остановить её. Итог приходит в чат, из которого рассылку запустили.
+ */
+@Component
+@Order(27)
+@RequiredArgsConstructor
+public class AdminBroadcastCommand implements UpdateHandler {
+
+    private static final String COMMAND = "/broadcast";
+    private static final String USAGE = "Usage: /broadcast <text> | /broadcast stop";
+
+    private final OutboundSender sender;
+    private final BroadcastService broadcasts;
+    private final BotProperties props;
+
+    @Override
+    public boolean supports(Update u) {
+        return u.hasMessage() && u.getMessage().hasText()
+                && u.getMessage().getText().startsWith(COMMAND);
+    }
+
+    @Override
+    public Set<String> commands() {
+        return Set.of(COMMAND);
+    }
+
+    @Override
+    public void handle(Update u) {
+        long chatId = u.getMessage().getChatId();
+        if (!props.isAdmin(u.getMessage().getFrom())) {
+            sender.send(Reply.text(chatId, "Нет прав"));
+            return;
+        }
+        // текст рассылки — всё после команды, с переносами строк как есть
+        String text = u.getMessage().getText().substring(COMMAND.length()).strip();
+        if (text.isEmpty()) {
+            sender.send(Reply.text(chatId, broadcasts.active().map(BroadcastProgress::summary)
+                    .orElse("Рассылок сейчас нет.\n" + USAGE)));
+            return;
+        }
+        if (text.equalsIgnoreCase("stop")) {
+            sender.send(Reply.text(chatId, broadcasts.active()
+                    .flatMap(p -> broadcasts.cancel(p.id()))
+                    .map(p -> "Останавливаю рассылку #" + p.id())
+                    .orElse("Рассылок сейчас нет.")));
+            return;
+        }
+        try {
+            BroadcastProgress p = broadcasts.start(text, chatId);
+            sender.send(Reply.text(chatId, "Рассылка #" + p.id() + " запущена, итог пришлю сюда."));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            sender.send(Reply.text(chatId, e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.bot.handlers;
+
+import com.example.bot.config.BotProperties;
+import com.example.bot.config.ExportProperties;
+import com.example.bot.core.UpdateHandler;
+import com.example.bot.export.ExportFormat;
+import com.example.bot.export.OrderExportFilter;
+import com.example.bot.export.OrderExporter;
+import com.example.bot.orders.OrderStatus;
+import com.example.bot.outbound.OutboundSender;
+import com.example.bot.ui.UiTemplates;
+import com.example.bot.util.Reply;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.send.SendDocument;
+import org.telegram.telegrambots.meta.api.objects.InputFile;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * /export [2026-09 | с по] [STATUS...] [csv|jsonl] [gz] — выгрузка заказов файлом в чат.
+ * Файл пишется из курсора БД во временный файл (повтор после 429 перечитывает его) и удаляется
+ * после отправки. Больше лимита Bot API — только через GET /export/orders.
+ * Выгрузка идёт в отдельном потоке, по одной за раз: поток апдейтов не ждёт курсор БД,
+ * а файл приходит, когда готов.
+ */
+@Slf4j
+@Component
+@Order(30)
+@RequiredArgsConstructor
+public class AdminExportCommand implements UpdateHandler {
+
+    private static final String COMMAND = "/export";
+    private static final String USAGE = "Usage: /export [YYYY-MM | YYYY-MM-DD [YYYY-MM-DD]] [STATUS...] [csv|jsonl] [gz]";
+
+    private final OutboundSender sender;
+    private final OrderExporter exporter;
+    private final ExportProperties exportProps;
+    private final BotProperties props;
+
+    private ExecutorService worker;
+
+    @PostConstruct
+    void init() {
+        worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "order-export");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        worker.shutdownNow();
+    }
+
+    @Override
+    public boolean supports(Update u) {
+        return u.hasMessage() && u.getMessage().hasText()
+                && u.getMessage().getText().startsWith(COMMAND);
+    }
+
+    @Override
+    public Set<String> commands() {
+        return Set.of(COMMAND);
+    }
+
+    @Override
+    public void handle(Update u) {
+        long chatId = u.getMessage().getChatId();
+        if (!props.isAdmin(u.getMessage().getFrom())) {
+            sender.send(Reply.text(chatId, "Нет прав"));
+            return;
+        }
+        String from = null;
+        String to = null;
+        Set<OrderStatus> statuses = EnumSet.noneOf(OrderStatus.class);
+        ExportFormat format = ExportFormat.CSV;
+        boolean gzip = false;
+        OrderExportFilter filter;
+        try {
+            String[] p = u.getMessage().getText().trim().split("\\s+");
+            for (int i = 1; i < p.length; i++) {
+                String arg = p[i];
+                if (arg.equalsIgnoreCase("gz")) {
+                    gzip = true;
+                } else if (arg.equalsIgnoreCase("csv") || arg.equalsIgnoreCase("jsonl")) {
+                    format = ExportFormat.valueOf(arg.toUpperCase(Locale.ROOT));
+                } else if (!arg.isEmpty() && Character.isDigit(arg.charAt(0))) {
+                    if (from == null) from = arg;
+                    else if (to == null) to = arg;
+                    else throw new IllegalArgumentException("Too many dates");
+                } else {
+                    statuses.add(OrderStatus.valueOf(arg.toUpperCase(Locale.ROOT)));
+                }
+            }
+            // одна дата или месяц — весь этот период
+            filter = new OrderExportFilter(OrderExportFilter.bound(from, false),
+                    OrderExportFilter.bound(to != null ? to : from, true), statuses);
+        } catch (IllegalArgumentException e) {
+            sender.send(Reply.text(chatId, USAGE));
+            return;
+        }
+
+        ExportFormat fmt = format;
+        boolean gz = gzip;
+        // подтверждение уходит до постановки в очередь, чтобы не обогнать файл
+        sender.send(Reply.text(chatId, "Готовлю выгрузку, пришлю файл"));
+        try {
+            worker.execute(() -> export(chatId, filter, fmt, gz));
+        } catch (RejectedExecutionException e) {
+            sender.send(Reply.text(chatId, "Выгрузка не удалась: бот останавливается"));
+        }
+    }
+
+    private void export(long chatId, OrderExportFilter filter, ExportFormat format, boolean gzip) {
+        String name = "orders_" + filter.label() + "." + format.extension() + (gzip ? ".gz" : "");
+        Path file = null;
+        try {
+            file = Files.createTempFile("orders-export-", "." + format.extension());
+            long rows;
+            try (OutputStream out = Files.newOutputStream(file)) {
+                rows = exporter.export(filter, format, gzip, out);
+            }
+            long size = Files.size(file);
+            if (size > exportProps.getMaxDocumentBytes()) {
+                sender.send(Reply.text(chatId, "Файл " + size / (1024 * 1024) + " МБ — больше лимита Telegram. "
+                        + "Сузьте период, добавьте gz или выгрузите через GET /export/orders."));
+                Files.deleteIfExists(file);
+                return;
+            }
+            Path sent = file;
+            sender.sendDocument(chatId, SendDocument.builder()
+                            .chatId(chatId)
+                            .document(new InputFile(file.toFile(), name))
+                            .caption("Заказов: " + rows)
+                            .build())
+                    .whenComplete((m, err) -> {
+                        try {
+                            Files.deleteIfExists(sent);
+                        } catch (IOException e) {
+                            log.warn("Cannot delete export file {}", sent, e);
+                        }
+                        if (err != null) sender.send(Reply.text(chatId, "Не удалось отправить файл: " + UiTemplates.escapeMarkdown(String.valueOf(err.getMessage()))));
+                    });
+        } catch (Exception e) {
+            log.error("Order export for chat {} failed", chatId, e);
+            sender.send(Reply.text(chatId, "Выгрузка не удалась, подробности в логе"));
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    // временный каталог почистит ОС
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.bot.handlers;
+
+import com.example.bot.config.BotProperties;
+import com.example.bot.config.SearchProperties;
+import com.example.bot.core.UpdateHandler;
+import com.example.bot.orders.Order;
+import com.example.bot.orders.OrderService;
+import com.example.bot.outbound.OutboundSender;
+import com.example.bot.search.OrderSearchIndex;
+import com.example.bot.ui.UiTemplates;
+import com.example.bot.util.Reply;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * /find &lt;слова&gt; — поиск заявок по описанию клиента, услуге и подтипу: порода, район, кличка.
+ * Слова сравниваются по основе («шпицы» найдёт «шпица»); сначала заявки со всеми словами запроса.
+ */
+@Component
+@org.springframework.core.annotation.Order(28)
+@RequiredArgsConstructor
+public class AdminFindCommand implements UpdateHandler {
+
+    private static final String COMMAND = "/find";
+    private static final String USAGE = "Usage: /find <words>";
+    private static final int SNIPPET = 80;
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd.MM HH:mm").withZone(ZoneOffset.UTC);
+
+    private final OutboundSender sender;
+    private final OrderService orders;
+    private final OrderSearchIndex index;
+    private final SearchProperties searchProps;
+    private final BotProperties props;
+
+    @Override
+    public boolean supports(Update u) {
+        return u.hasMessage() && u.getMessage().hasText()
+                && u.getMessage().getText().startsWith(COMMAND);
+    }
+
+    @Override
+    public Set<String> commands() {
+        return Set.of(COMMAND);
+    }
+
+    @Override
+    public void handle(Update u) {
+        long chatId = u.getMessage().getChatId();
+        if (!props.isAdmin(u.getMessage().getFrom())) {
+            sender.send(Reply.text(chatId, "Нет прав"));
+            return;
+        }
+        String query = u.getMessage().getText().substring(COMMAND.length()).strip();
+        if (query.isEmpty()) {
+            sender.send(Reply.text(chatId, USAGE));
+            return;
+        }
+        long t0 = System.nanoTime();
+        List<Order> found = orders.search(query, searchProps.getResultLimit());
+        long ms = (System.nanoTime() - t0) / 1_000_000;
+        String note = index.building() ? "\n_Индекс ещё строится, найдено не всё._" : "";
+        if (found.isEmpty()) {
+            sender.send(Reply.text(chatId, "Ничего не нашлось (" + ms + " мс)" + note));
+            return;
+        }
+        sender.send(Reply.text(chatId, render(found, ms) + note));
+    }
+
+    private static String render(List<Order> found, long ms) {
+        StringBuilder sb = new StringBuilder("*Найдено (").append(ms).append(" мс):*\n");
+        for (Order o : found) {
+            sb.append("• `").append(o.getId()).append("` `").append(o.getStatus()).append("` — ")
+              .append(UiTemplates.escapeMarkdown(o.getService()))
+              .append(o.getSubtype() != null ? (" • " + UiTemplates.escapeMarkdown(o.getSubtype())) : "")
+              .append(", чат ").append(o.getChatId());
+            if (o.getCreatedAt() != null) sb.append(", ").append(DATE.format(o.getCreatedAt()));
+            sb.append("\n");
+            String d = snippet(o.getDescription());
+            if (d != null) sb.append("  ").append(UiTemplates.escapeMarkdown(d)).append("\n");
+        }
+        return sb.toString();
+    }
+
+    /** Начало описания одной строкой. */
+    private static String snippet(String description) {
+        if (description == null || description.isBlank()) return null;
+        String s = description.strip().replaceAll("\\s+", " ");
+        return s.length() <= SNIPPET ? s : s.substring(0, SNIPPET) + "…";
+    }
+}
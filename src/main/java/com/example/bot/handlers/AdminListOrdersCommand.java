@@ -3,52 +3,213 @@ package com.example.bot.handlers;
 import com.example.bot.config.BotProperties;
 import com.example.bot.core.UpdateHandler;
 import com.example.bot.orders.Order;
+import com.example.bot.orders.OrderCursor;
+import com.example.bot.orders.OrderPage;
+import com.example.bot.orders.OrderQuery;
 import com.example.bot.orders.OrderService;
+import com.example.bot.orders.OrderStatus;
+import com.example.bot.outbound.OutboundSender;
+import com.example.bot.ui.UiTemplates;
 import com.example.bot.util.Reply;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
+import org.telegram.telegrambots.meta.api.methods.ParseMode;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
 import org.telegram.telegrambots.meta.api.objects.Update;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
-import org.telegram.telegrambots.meta.generics.TelegramClient;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
 
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * /orders [N] [open|STATUS] [svc:Услуга] [chat:id] — заявки из H2 страницами с кнопками «новее/старше».
+ * <p>
+ * Листание идёт по keyset-курсору (createdAt, id), поэтому глубокие страницы не дороже первой.
+ * Фильтр и границы текущей страницы хранятся на сервере под коротким токеном — в callback_data
+ * (не больше 64 байт) уходит только он. Токены живут в ограниченном LRU: после рестарта
+ * или вытеснения кнопка просит повторить /orders.
+ */
 @Component
 @org.springframework.core.annotation.Order(26)
 @RequiredArgsConstructor
 public class AdminListOrdersCommand implements UpdateHandler {
-    private final TelegramClient client;
+
+    static final String PREFIX = "ORD:";
+    private static final int MAX_VIEWS = 512;
+    private static final String USAGE = "Usage: /orders [N] [open|STATUS] [svc:<service>] [chat:<id>]";
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd.MM HH:mm").withZone(ZoneOffset.UTC);
+
+    private final OutboundSender sender;
     private final OrderService orders;
     private final BotProperties props;
 
+    private final AtomicLong tokens = new AtomicLong();
+    // токен -> открытый список; доступ под монитором самой карты
+    private final Map<String, View> views = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, View> eldest) {
+            return size() > MAX_VIEWS;
+        }
+    };
+
     @Override
     public boolean supports(Update u) {
+        if (u.hasCallbackQuery()) {
+            String data = u.getCallbackQuery().getData();
+            return data != null && data.startsWith(PREFIX);
+        }
         return u.hasMessage() && u.getMessage().hasText()
                 && u.getMessage().getText().startsWith("/orders");
     }
 
     @Override
-    public void handle(Update u) throws TelegramApiException {
-        Long uid = u.getMessage().getFrom()!=null ? u.getMessage().getFrom().getId() : null;
-        if (props.getAllowedUserIds()!=null && !props.getAllowedUserIds().isEmpty()
-                && (uid==null || !props.getAllowedUserIds().contains(uid))) {
-            client.execute(Reply.text(u.getMessage().getChatId(), "Нет прав"));
+    public Set<String> commands() {
+        return Set.of("/orders");
+    }
+
+    @Override
+    public Set<String> callbackPrefixes() {
+        return Set.of(PREFIX);
+    }
+
+    @Override
+    public void handle(Update u) {
+        if (u.hasCallbackQuery()) {
+            turnPage(u.getCallbackQuery());
+            return;
+        }
+        long chatId = u.getMessage().getChatId();
+        if (!props.isAdmin(u.getMessage().getFrom())) {
+            sender.send(Reply.text(chatId, "Нет прав"));
+            return;
+        }
+        int limit = 10;
+        Set<OrderStatus> statuses = Set.of();
+        String service = null;
+        Long filterChat = null;
+        String[] p = u.getMessage().getText().trim().split("\\s+");
+        try {
+            for (int i = 1; i < p.length; i++) {
+                String arg = p[i];
+                if (arg.length() <= 4 && arg.chars().allMatch(Character::isDigit)) {
+                    limit = Math.max(1, Math.min(50, Integer.parseInt(arg)));
+                } else if (arg.equalsIgnoreCase("open")) {
+                    statuses = OrderStatus.OPEN;
+                } else if (arg.regionMatches(true, 0, "svc:", 0, 4) && arg.length() > 4) {
+                    service = arg.substring(4).replace('_', ' ');
+                } else if (arg.regionMatches(true, 0, "chat:", 0, 5)) {
+                    filterChat = Long.parseLong(arg.substring(5));
+                } else {
+                    statuses = EnumSet.of(OrderStatus.valueOf(arg.toUpperCase(Locale.ROOT)));
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            sender.send(Reply.text(chatId, USAGE));
             return;
         }
-        String[] p = u.getMessage().getText().trim().split("\s+");
-        int limit = (p.length>=2) ? Math.max(1, Math.min(50, Integer.parseInt(p[1]))) : 10;
 
-        List<Order> list = orders.latest(limit);
-        if (list.isEmpty()) {
-            client.execute(Reply.text(u.getMessage().getChatId(), "Заявок пока нет"));
+        OrderQuery query = new OrderQuery(statuses, service, filterChat);
+        OrderPage page = orders.page(query, null, true, limit);
+        if (page.items().isEmpty()) {
+            sender.send(Reply.text(chatId, "Заявок пока нет"));
+            return;
+        }
+        String token = Long.toString(tokens.incrementAndGet(), 36);
+        remember(token, new View(query, limit, page.first(), page.last()));
+        sender.send(Reply.text(chatId, render(query, page), keyboard(token, page)));
+    }
+
+    private void turnPage(CallbackQuery cq) {
+        if (!props.isAdmin(cq.getFrom())) {
+            answer(cq, "Нет прав");
             return;
         }
-        StringBuilder sb = new StringBuilder("*Последние заявки:*\n");
-        for (Order o : list) {
-            sb.append("• `").append(o.getId()).append("` ").append(o.getStatus()).append(" — ")
-              .append(o.getService()).append(o.getSubtype()!=null?(" • "+o.getSubtype()):"")
-              .append("\n");
+        // ORD:<token>:n — новее, ORD:<token>:o — старше
+        String[] p = cq.getData().split(":");
+        View view = p.length == 3 ? view(p[1]) : null;
+        if (view == null || cq.getMessage() == null) {
+            answer(cq, "Список устарел — запросите /orders заново");
+            return;
+        }
+        boolean older = p[2].equals("o");
+        OrderPage page = orders.page(view.query(), older ? view.last() : view.first(), older, view.limit());
+        if (page.items().isEmpty()) {
+            answer(cq, older ? "Старше заявок нет" : "Новее заявок нет");
+            return;
+        }
+        remember(p[1], new View(view.query(), view.limit(), page.first(), page.last()));
+
+        long chatId = cq.getMessage().getChatId();
+        sender.submit(chatId, EditMessageText.builder()
+                .chatId(chatId)
+                .messageId(cq.getMessage().getMessageId())
+                .text(render(view.query(), page))
+                .parseMode(ParseMode.MARKDOWN)
+                .replyMarkup(keyboard(p[1], page))
+                .build());
+        answer(cq, null);
+    }
+
+    /** Ответ на callback гасит «часики» на кнопке; к чату не привязан, чтобы не ждать его очередь. */
+    private void answer(CallbackQuery cq, String text) {
+        sender.submit(null, AnswerCallbackQuery.builder()
+                .callbackQueryId(cq.getId())
+                .text(text)
+                .build());
+    }
+
+    private void remember(String token, View view) {
+        synchronized (views) {
+            views.put(token, view);
         }
-        client.execute(Reply.text(u.getMessage().getChatId(), sb.toString()));
     }
+
+    private View view(String token) {
+        synchronized (views) {
+            return views.get(token);
+        }
+    }
+
+    private static String render(OrderQuery query, OrderPage page) {
+        StringBuilder sb = new StringBuilder("*Заявки");
+        List<String> filters = new ArrayList<>(3);
+        if (!query.statuses().isEmpty()) {
+            filters.add(query.statuses().equals(OrderStatus.OPEN) ? "open" : query.statuses().toString());
+        }
+        if (query.service() != null) filters.add("svc:" + query.service());
+        if (query.chatId() != null) filters.add("chat:" + query.chatId());
+        if (!filters.isEmpty()) sb.append(" (").append(UiTemplates.escapeMarkdown(String.join(", ", filters))).append(')');
+        sb.append(":*\n");
+        for (Order o : page.items()) {
+            sb.append("• `").append(o.getId()).append("` `").append(o.getStatus()).append("` — ")
+              .append(UiTemplates.escapeMarkdown(o.getService()))
+              .append(o.getSubtype() != null ? (" • " + UiTemplates.escapeMarkdown(o.getSubtype())) : "")
+              .append(", чат ").append(o.getChatId());
+            if (o.getCreatedAt() != null) sb.append(", ").append(DATE.format(o.getCreatedAt()));
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+
+    private static InlineKeyboardMarkup keyboard(String token, OrderPage page) {
+        List<InlineKeyboardButton> buttons = new ArrayList<>(2);
+        if (page.hasNewer()) buttons.add(Reply.btn("« Новее", PREFIX + token + ":n"));
+        if (page.hasOlder()) buttons.add(Reply.btn("Старше »", PREFIX + token + ":o"));
+        if (buttons.isEmpty()) return null;
+        return Reply.buttons(List.of(Reply.row(buttons.toArray(InlineKeyboardButton[]::new))));
+    }
+
+    /** Открытый список: фильтр, размер страницы и границы показанной страницы. */
+    private record View(OrderQuery query, int limit, OrderCursor first, OrderCursor last) {}
 }
@@ -1,16 +1,18 @@
 package com.example.bot.handlers;
 
+import com.example.bot.config.BotProperties;
 import com.example.bot.core.UpdateHandler;
 import com.example.bot.orders.OrderService;
 import com.example.bot.orders.OrderStatus;
+import com.example.bot.outbound.OutboundSender;
 import com.example.bot.util.Reply;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
-import org.telegram.telegrambots.meta.generics.TelegramClient;
 import org.telegram.telegrambots.meta.api.objects.Update;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+import java.util.Set;
 
 @Component
 @Order(15)
@@ -18,8 +20,9 @@ import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 @Slf4j
 public class AdminSetStatusCommand implements UpdateHandler {
 
-    private final TelegramClient client;
+    private final OutboundSender sender;
     private final OrderService orders;
+    private final BotProperties props;
 
     @Override
     public boolean supports(Update u) {
@@ -28,11 +31,20 @@ public class AdminSetStatusCommand implements UpdateHandler {
     }
 
     @Override
-    public void handle(Update u) throws TelegramApiException {
+    public Set<String> commands() {
+        return Set.of("/set_status");
+    }
+
+    @Override
+    public void handle(Update u) {
         long chatId = u.getMessage().getChatId();
+        if (!props.isAdmin(u.getMessage().getFrom())) {
+            sender.send(Reply.text(chatId, "Нет прав"));
+            return;
+        }
         String[] parts = u.getMessage().getText().trim().split("\\s+");
         if (parts.length < 3) {
-            client.execute(Reply.text(chatId,
+            sender.send(Reply.text(chatId,
                     "Usage: /set_status <orderId> <status>\n" +
                             "Statuses: DRAFT, NEW, IN_PROGRESS, COMPLETED, CANCELED"));
             return;
@@ -44,16 +56,16 @@ public class AdminSetStatusCommand implements UpdateHandler {
         try {
             status = OrderStatus.valueOf(statusRaw.toUpperCase());
         } catch (IllegalArgumentException ex) {
-            client.execute(Reply.text(chatId,
+            sender.send(Reply.text(chatId,
                     "Unknown status: " + statusRaw + "\nAllowed: DRAFT, NEW, IN_PROGRESS, COMPLETED, CANCELED"));
             return;
         }
 
         var opt = orders.updateStatus(orderId, status);
         if (opt.isPresent()) {
-            client.execute(Reply.text(chatId, "OK: status of " + orderId + " -> " + status));
+            sender.send(Reply.text(chatId, "OK: status of " + orderId + " -> " + status));
         } else {
-            client.execute(Reply.text(chatId, "Order not found: " + orderId));
+            sender.send(Reply.text(chatId, "Order not found: " + orderId));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.example.bot.handlers;
+
+import com.example.bot.config.BotProperties;
+import com.example.bot.core.UpdateHandler;
+import com.example.bot.orders.OrderStatus;
+import com.example.bot.outbound.OutboundSender;
+import com.example.bot.stats.OrderStats;
+import com.example.bot.stats.OrderStatsSnapshot;
+import com.example.bot.ui.UiTemplates;
+import com.example.bot.util.Reply;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * /stats — сводка по заявкам из счётчиков {@link OrderStats}: статусы, поток по часам и дням,
+ * популярные услуги, доля брошенных черновиков. Таблицу заказов не читает.
+ */
+@Component
+@Order(29)
+@RequiredArgsConstructor
+public class AdminStatsCommand implements UpdateHandler {
+
+    private static final String COMMAND = "/stats";
+    private static final int TOP_SERVICES = 10;
+    private static final String BARS = "▁▂▃▄▅▆▇█";
+
+    private final OutboundSender sender;
+    private final OrderStats stats;
+    private final BotProperties props;
+
+    @Override
+    public boolean supports(Update u) {
+        return u.hasMessage() && u.getMessage().hasText()
+                && u.getMessage().getText().startsWith(COMMAND);
+    }
+
+    @Override
+    public Set<String> commands() {
+        return Set.of(COMMAND);
+    }
+
+    @Override
+    public void handle(Update u) {
+        long chatId = u.getMessage().getChatId();
+        if (!props.isAdmin(u.getMessage().getFrom())) {
+            sender.send(Reply.text(chatId, "Нет прав"));
+            return;
+        }
+        sender.send(Reply.text(chatId, render(stats.snapshot())));
+    }
+
+    static String render(OrderStatsSnapshot s) {
+        StringBuilder sb = new StringBuilder("*Заявки*\n");
+        List<String> statuses = new ArrayList<>();
+        for (Map.Entry<OrderStatus, Long> e : s.byStatus().entrySet()) {
+            // в именах статусов есть '_' — в Markdown это курсив, поэтому кодом
+            if (e.getValue() != 0) statuses.add("`" + e.getKey() + "` " + e.getValue());
+        }
+        sb.append("Сейчас: ").append(statuses.isEmpty() ? "нет" : String.join(", ", statuses)).append('\n');
+
+        List<OrderStatsSnapshot.Bucket> days = s.daily();
+        List<OrderStatsSnapshot.Bucket> hours = s.hourly();
+        sb.append("За 24 ч: ").append(sum(hours, 24))
+          .append(" · сегодня: ").append(sum(days, 1))
+          .append(" · вчера: ").append(sum(days, 2) - sum(days, 1))
+          .append(" · за 7 дн: ").append(sum(days, 7))
+          .append(" · за ").append(days.size()).append(" дн: ").append(sum(days, days.size())).append('\n');
+        sb.append("По часам (24 ч, UTC): ").append(sparkline(hours.subList(Math.max(0, hours.size() - 24), hours.size()))).append('\n');
+
+        if (!s.byService().isEmpty()) {
+            sb.append("Услуги:\n");
+            s.byService().entrySet().stream().limit(TOP_SERVICES).forEach(e ->
+                    sb.append("• ").append(UiTemplates.escapeMarkdown(e.getKey())).append(" — ").append(e.getValue()).append('\n'));
+        }
+        long started = s.draftsSubmitted() + s.draftsCanceled();
+        sb.append("Брошено черновиков за ").append(days.size()).append(" дн: ")
+          .append(Math.round(s.abandonmentRate() * 100)).append("% (")
+          .append(s.draftsCanceled()).append(" из ").append(started).append(')');
+        if (s.since() != null) sb.append("\n_Счётчики ведутся с ").append(s.since().toLocalDate()).append(", без пересчёта по базе._");
+        return sb.toString();
+    }
+
+    /** Сумма последних n интервалов. */
+    private static long sum(List<OrderStatsSnapshot.Bucket> buckets, int n) {
+        long total = 0;
+        for (int i = Math.max(0, buckets.size() - n); i < buckets.size(); i++) total += buckets.get(i).count();
+        return total;
+    }
+
+    private static String sparkline(List<OrderStatsSnapshot.Bucket> buckets) {
+        long max = 0;
+        for (OrderStatsSnapshot.Bucket b : buckets) max = Math.max(max, b.count());
+        StringBuilder sb = new StringBuilder(buckets.size());
+        for (OrderStatsSnapshot.Bucket b : buckets) {
+            int i = max == 0 ? 0 : (int) ((b.count() * (BARS.length() - 1) + max - 1) / max);
+            sb.append(BARS.charAt(Math.max(0, Math.min(BARS.length() - 1, i))));
+        }
+        return sb.toString();
+    }
+}
@@ -7,26 +7,29 @@ import com.example.bot.flow.FlowState;
 import com.example.bot.flow.SessionService;
 import com.example.bot.orders.Order;
 import com.example.bot.orders.OrderService;
+import com.example.bot.outbound.OutboundSender;
+import com.example.bot.ui.Menus;
+import com.example.bot.ui.UiTemplates;
 import com.example.bot.util.Reply;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.meta.api.objects.Update;
-import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
-import org.telegram.telegrambots.meta.generics.TelegramClient;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
-import static java.util.List.of;
+import java.util.Set;
 
 @Component
 @org.springframework.core.annotation.Order(20)
 @RequiredArgsConstructor
 public class CallbackMenuHandler implements UpdateHandler {
 
-    private final TelegramClient client;
+    private final OutboundSender sender;
+    private final StartCommand startCommand;
     private final OrderService orderService;
     private final SessionService sessionService;
     private final UiProperties ui;
     private final FlowProperties flow;
+    private final Menus menus;
+    private final UiTemplates templates;
 
     @Override
     public boolean supports(Update u) {
@@ -34,14 +37,31 @@ public class CallbackMenuHandler implements UpdateHandler {
     }
 
     @Override
-    public void handle(Update u) throws TelegramApiException {
+    public Set<String> callbackKeys() {
+        return Set.of("SERVICES", "BACK_MAIN", "S_WALK", "WALK_NORMAL", "WALK_ACTIVE",
+                "CANCEL_DRAFT", "CALL_MANAGER", "GENERAL");
+    }
+
+    /** Остальные колбэки тоже наши — отвечаем "неизвестная команда". */
+    @Override
+    public boolean fallback() {
+        return true;
+    }
+
+    @Override
+    public Set<String> updateTypes() {
+        return Set.of("callback_query");
+    }
+
+    @Override
+    public void handle(Update u) {
         var cq = u.getCallbackQuery();
         long chatId = cq.getMessage().getChatId();
         String data = cq.getData();
 
         switch (data) {
             case "SERVICES" -> showServices(chatId);
-            case "BACK_MAIN" -> new StartCommand(client, ui).handle(u);
+            case "BACK_MAIN" -> startCommand.showMainMenu(chatId);
             case "S_WALK" -> showWalk(chatId);
             case "WALK_NORMAL" -> askDescription(chatId, "Выгул", "Обычный");
             case "WALK_ACTIVE" -> askDescription(chatId, "Выгул", "Активный");
@@ -54,37 +74,24 @@ public class CallbackMenuHandler implements UpdateHandler {
                 s.setState(FlowState.IDLE);
                 s.setCurrentOrderId(null);
                 sessionService.save(s);
-                client.execute(Reply.text(chatId, "Черновик удалён. Вы в главном меню."));
-                new StartCommand(client, ui).handle(u);
+                // подтверждение и меню одним сообщением: на один запрос к Telegram меньше, порядок не нарушится
+                startCommand.showMainMenu(chatId, "Черновик удалён.");
             }
             case "CALL_MANAGER" -> sendContact(chatId);
             case "GENERAL" -> showGeneralFaq(chatId);
-            default -> client.execute(Reply.text(chatId, "Неизвестная команда. Вернуться в /start?"));
+            default -> sender.send(Reply.text(chatId, "Неизвестная команда. Вернуться в /start?"));
         }
     }
 
-    private void showServices(long chatId) throws TelegramApiException {
-        var b = ui.getServicesMenu().getButtons();
-        InlineKeyboardMarkup kb = Reply.buttons(of(
-                Reply.row(Reply.btn(b.getWalk(), "S_WALK")),
-                Reply.row(Reply.btn(b.getBoarding(), "S_BOARDING")),
-                Reply.row(Reply.btn(b.getNanny(), "S_NANNY")),
-                Reply.row(Reply.btn(b.getBack(), "BACK_MAIN"))
-        ));
-        client.execute(Reply.text(chatId, ui.getServicesMenu().getTitle(), kb));
+    private void showServices(long chatId) {
+        sender.send(Reply.text(chatId, ui.getServicesMenu().getTitle(), menus.getServices()));
     }
 
-    private void showWalk(long chatId) throws TelegramApiException {
-        var b = ui.getWalkMenu().getButtons();
-        InlineKeyboardMarkup kb = Reply.buttons(of(
-                Reply.row(Reply.btn(b.getNormal(), "WALK_NORMAL"), Reply.btn(b.getActive(), "WALK_ACTIVE")),
-                Reply.row(Reply.btn(b.getBack(), "SERVICES")),
-                Reply.row(Reply.btn(b.getCancel(), "CANCEL_DRAFT"))
-        ));
-        client.execute(Reply.text(chatId, ui.getWalkMenu().getTitle(), kb));
+    private void showWalk(long chatId) {
+        sender.send(Reply.text(chatId, ui.getWalkMenu().getTitle(), menus.getWalk()));
     }
 
-    private void askDescription(long chatId, String service, String subtype) throws TelegramApiException {
+    private void askDescription(long chatId, String service, String subtype) {
         Order draft = orderService.beginOrUpdateDraft(chatId, service, subtype, null, null, null);
 
         var s = sessionService.get(chatId);
@@ -94,22 +101,10 @@ public class CallbackMenuHandler implements UpdateHandler {
         s.setCurrentOrderId(draft.getId());
         sessionService.save(s);
 
-        String subtypeSuffix = draft.getSubtype() != null ? " • " + draft.getSubtype() : "";
-        String header = ui.getMessages().getDraftHeader()
-                .replace("{id}", draft.getId())
-                .replace("{service}", draft.getService())
-                .replace("{subtypeSuffix}", subtypeSuffix);
-
-        InlineKeyboardMarkup kb = Reply.buttons(of(
-                Reply.row(Reply.btn("⬅️ В меню", "BACK_MAIN")),
-                Reply.row(Reply.btn(ui.getWalkMenu().getButtons().getCancel(), "CANCEL_DRAFT")),
-                Reply.row(Reply.btn("📲 Связаться с диспетчером", "CALL_MANAGER"))
-        ));
-
-        client.execute(Reply.text(chatId, header + "\n\n" + ui.getMessages().getDraftTip(), kb));
+        sender.send(Reply.text(chatId, templates.draftPrompt(draft), menus.getDraftActions()));
     }
 
-    private void sendContact(long chatId) throws TelegramApiException {
+    private void sendContact(long chatId) {
         String contact = flow.getDispatcherContact(); // например, "@dog_dispatcher"
         String form = flow.getJobFormUrl();           // например, ссылка на анкету
         StringBuilder sb = new StringBuilder();
@@ -122,22 +117,11 @@ public class CallbackMenuHandler implements UpdateHandler {
         if (sb.length() == 0) {
             sb.append("Свяжитесь с нами в чате — поможем подобрать услугу.");
         }
-        InlineKeyboardMarkup kb = Reply.buttons(of(
-                Reply.row(Reply.btn("⬅️ Назад", "BACK_MAIN"))
-        ));
-        client.execute(Reply.text(chatId, sb.toString(), kb));
+        sender.send(Reply.text(chatId, sb.toString(), menus.getBack()));
     }
 
-    private void showGeneralFaq(long chatId) throws TelegramApiException {
-        var f = ui.getFaq();
-        InlineKeyboardMarkup kb = Reply.buttons(of(
-                Reply.row(Reply.btn("Стоимость", "GQ_COST"), Reply.btn("Оплата", "GQ_PAY")),
-                Reply.row(Reply.btn("Ключи", "GQ_KEYS"), Reply.btn("Аптечка", "GQ_MEDKIT")),
-                Reply.row(Reply.btn("Мытьё лап", "GQ_WASHPAWS"), Reply.btn("Кормление", "GQ_FEED")),
-                Reply.row(Reply.btn("Договор", "GQ_CONTRACT")),
-                Reply.row(Reply.btn("⬅️ Назад", "BACK_MAIN"))
-        ));
-        client.execute(Reply.text(chatId, "Частые вопросы:", kb));
+    private void showGeneralFaq(long chatId) {
+        sender.send(Reply.text(chatId, "Частые вопросы:", menus.getFaq()));
 
         // Обработка конкретных GQ_* может быть в этом же классе (через supports/handle) или отдельным
         // Для простоты: пусть пользователь нажимает — вернём текст в другом месте или добавь switch здесь.
@@ -2,18 +2,19 @@ package com.example.bot.handlers;
 
 import com.example.bot.config.HandlerOrderProperties;
 import com.example.bot.core.UpdateHandler;
+import com.example.bot.outbound.OutboundSender;
 import com.example.bot.util.Reply;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.meta.api.objects.Update;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
-import org.telegram.telegrambots.meta.generics.TelegramClient;
+
+import java.util.Set;
 
 @Component
 @RequiredArgsConstructor
 public class HelpCommand implements UpdateHandler {
 
-    private final TelegramClient client;
+    private final OutboundSender sender;
     private final HandlerOrderProperties orderProps;
 
     @Override
@@ -22,6 +23,11 @@ public class HelpCommand implements UpdateHandler {
                 && u.getMessage().getText().trim().startsWith("/help");
     }
 
+    @Override
+    public Set<String> commands() {
+        return Set.of("/help");
+    }
+
     /** Порядок берём из конфига: bot.handler-order.help (дефолт 20). */
     @Override
     public int order() {
@@ -29,9 +35,9 @@ public class HelpCommand implements UpdateHandler {
     }
 
     @Override
-    public void handle(Update u) throws TelegramApiException {
+    public void handle(Update u) {
         long chatId = u.getMessage().getChatId();
         String text = "Команды:\n/start — меню\n/help — помощь";
-        client.execute(Reply.text(chatId, text));
+        sender.send(Reply.text(chatId, text));
     }
 }
\ No newline at end of file
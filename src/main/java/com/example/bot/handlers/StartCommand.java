@@ -3,22 +3,24 @@ package com.example.bot.handlers;
 import com.example.bot.config.HandlerOrderProperties;
 import com.example.bot.config.UiProperties;
 import com.example.bot.core.UpdateHandler;
+import com.example.bot.outbound.OutboundSender;
+import com.example.bot.ui.Menus;
 import com.example.bot.util.Reply;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.meta.api.objects.Update;
-import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
-import org.telegram.telegrambots.meta.generics.TelegramClient;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.api.objects.message.Message;
 
-import static java.util.List.of;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 @RequiredArgsConstructor
 public class StartCommand implements UpdateHandler {
 
-    private final TelegramClient client;
+    private final OutboundSender sender;
     private final UiProperties ui;
+    private final Menus menus;
     private final HandlerOrderProperties orderProps;
 
     @Override
@@ -27,21 +29,30 @@ public class StartCommand implements UpdateHandler {
                 && u.getMessage().getText().trim().startsWith("/start");
     }
 
+    @Override
+    public Set<String> commands() {
+        return Set.of("/start");
+    }
+
     @Override
     public int order() {
         return orderProps.orderOf("start", 10);
     }
 
     @Override
-    public void handle(Update u) throws TelegramApiException {
-        long chatId = u.getMessage().getChatId();
+    public void handle(Update u) {
+        showMainMenu(u.getMessage().getChatId());
+    }
 
-        var b = ui.getMainMenu().getButtons();
-        InlineKeyboardMarkup kb = Reply.buttons(of(
-                Reply.row(Reply.btn(b.getServices(), "SERVICES"), Reply.btn(b.getWork(), "WORK")),
-                Reply.row(Reply.btn(b.getCallManager(), "CALL_MANAGER"), Reply.btn(b.getGeneral(), "GENERAL"))
-        ));
+    /** Главное меню; используется и из колбэков "назад". */
+    public CompletableFuture<Message> showMainMenu(long chatId) {
+        return showMainMenu(chatId, null);
+    }
 
-        client.execute(Reply.text(chatId, ui.getMainMenu().getTitle(), kb));
+    /** Главное меню с пояснением над ним — одно сообщение вместо "подтверждение + меню". */
+    public CompletableFuture<Message> showMainMenu(long chatId, String notice) {
+        String title = ui.getMainMenu().getTitle();
+        String text = notice == null ? title : notice + "\n\n" + title;
+        return sender.send(Reply.text(chatId, text, menus.getMain()));
     }
 }
\ No newline at end of file
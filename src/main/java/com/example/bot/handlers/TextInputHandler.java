@@ -1,21 +1,21 @@
 package com.example.bot.handlers;
 
-import com.example.bot.config.UiProperties;
 import com.example.bot.core.UpdateHandler;
 import com.example.bot.flow.FlowState;
 import com.example.bot.flow.SessionService;
 import com.example.bot.orders.Order;
 import com.example.bot.orders.OrderService;
+import com.example.bot.outbound.OutboundSender;
+import com.example.bot.ui.Menus;
+import com.example.bot.ui.UiTemplates;
 import com.example.bot.util.Reply;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.meta.api.objects.Update;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
-import org.telegram.telegrambots.meta.generics.TelegramClient;
 import com.example.bot.orders.OrderStatus;
 
-import java.util.List;
+import java.util.Set;
 
 @Component
 @org.springframework.core.annotation.Order(40)
@@ -23,10 +23,11 @@ import java.util.List;
 @Slf4j
 public class TextInputHandler implements UpdateHandler {
 
-    private final TelegramClient client;
+    private final OutboundSender sender;
     private final SessionService sessionService;
     private final OrderService orderService;
-    private final UiProperties ui;
+    private final UiTemplates templates;
+    private final Menus menus;
 
     @Override
     public boolean supports(Update u) {
@@ -34,7 +35,12 @@ public class TextInputHandler implements UpdateHandler {
     }
 
     @Override
-    public void handle(Update u) throws TelegramApiException {
+    public Set<String> updateTypes() {
+        return Set.of("message");
+    }
+
+    @Override
+    public void handle(Update u) {
         long chatId = u.getMessage().getChatId();
         String text = u.getMessage().getText().trim();
 
@@ -60,18 +66,6 @@ public class TextInputHandler implements UpdateHandler {
         sessionService.save(s);
 
         // Итоговое сообщение
-        String subtypeSuffix = finalOrder.getSubtype() != null ? " • " + finalOrder.getSubtype() : "";
-        String summary = ui.getMessages().getSummary()
-                .replace("{id}", finalOrder.getId())
-                .replace("{status}", String.valueOf(finalOrder.getStatus()))
-                .replace("{service}", finalOrder.getService())
-                .replace("{subtypeSuffix}", subtypeSuffix)
-                .replace("{description}", finalOrder.getDescription());
-
-        var kb = Reply.buttons(List.of(
-                Reply.row(Reply.btn("⬅️ В меню", "BACK_MAIN"))
-        ));
-
-        client.execute(Reply.text(chatId, summary, kb));
+        sender.send(Reply.text(chatId, templates.summary(finalOrder), menus.getToMainMenu()));
     }
 }
\ No newline at end of file
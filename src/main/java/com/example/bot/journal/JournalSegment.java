@@ -0,0 +1,113 @@
+package com.example.bot.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Сегмент журнала: файл фиксированного размера, целиком отображённый в память.
+ * Запись — копирование кадра в отображение без системного вызова; на диск данные попадают
+ * через {@link #force(int, int)}. Все обращения к буферу абсолютные, поэтому fsync уже
+ * записанного диапазона может идти параллельно с записью следующих кадров.
+ * Дописывает только один поток (под замком журнала).
+ */
+final class JournalSegment {
+
+    final Path path;
+    final long firstSeq;
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    private int position;
+    private long lastSeq;
+
+    private JournalSegment(Path path, long firstSeq, FileChannel channel, MappedByteBuffer map) {
+        this.path = path;
+        this.firstSeq = firstSeq;
+        this.channel = channel;
+        this.map = map;
+        this.lastSeq = firstSeq - 1;
+    }
+
+    static String fileName(long firstSeq) {
+        return String.format("segment-%020d.log", firstSeq);
+    }
+
+    static long firstSeqOf(Path file) {
+        String n = file.getFileName().toString();
+        return Long.parseLong(n.substring("segment-".length(), n.length() - ".log".length()));
+    }
+
+    /** Новый пустой сегмент (файл создаётся разреженным и заполнен нулями). */
+    static JournalSegment create(Path dir, long firstSeq, int size) throws IOException {
+        Path path = dir.resolve(fileName(firstSeq));
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new JournalSegment(path, firstSeq, ch, ch.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    /**
+     * Открыть последний сегмент после рестарта: найти конец данных и продолжить запись с него.
+     * Оборванный при падении кадр затирается следующей записью.
+     */
+    static JournalSegment recover(Path path, int minSize) throws IOException {
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int size = (int) Math.max(ch.size(), minSize);
+        JournalSegment s = new JournalSegment(path, firstSeqOf(path), ch, ch.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        s.position = OrderEventCodec.scan(s.map, size, e -> {
+            if (e.seq() != s.lastSeq + 1) return false;
+            s.lastSeq = e.seq();
+            return true;
+        });
+        s.terminate();
+        return s;
+    }
+
+    /** Дописать кадр с номером seq; false — не помещается, пора открывать следующий сегмент. */
+    boolean append(ByteBuffer frame, long seq) {
+        int len = frame.remaining();
+        if (position + len > map.capacity()) return false;
+        map.put(position, frame, frame.position(), len);
+        position += len;
+        lastSeq = seq;
+        terminate();
+        return true;
+    }
+
+    /** Явный конец данных за последним кадром — хвост от прежнего оборванного кадра не прочитается. */
+    private void terminate() {
+        if (position + 4 <= map.capacity()) map.putInt(position, 0);
+    }
+
+    /** Сбросить на диск диапазон [from, to) байт. */
+    void force(int from, int to) {
+        if (to > from) map.force(from, to - from);
+    }
+
+    /** Прочитать кадры до limit (для активного сегмента — до уже записанной позиции). */
+    void scan(int limit, OrderEventCodec.Visitor visitor) {
+        OrderEventCodec.scan(map.duplicate(), limit, visitor);
+    }
+
+    int position() {
+        return position;
+    }
+
+    long lastSeq() {
+        return lastSeq;
+    }
+
+    boolean isEmpty() {
+        return lastSeq < firstSeq;
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // отображение остаётся валидным и после закрытия канала
+        }
+    }
+}
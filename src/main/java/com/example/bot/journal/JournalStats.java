@@ -0,0 +1,19 @@
+package com.example.bot.journal;
+
+/**
+ * Состояние журнала заказов.
+ *
+ * @param segments       сегментов на диске, включая активный
+ * @param lastSeq        номер последнего записанного события
+ * @param durableSeq     номер последнего события, уже прошедшего fsync
+ * @param snapshotSeq    до какого события свёрнут снапшот; -1 — снапшота нет
+ * @param activeBytes    занято в активном сегменте
+ */
+public record JournalStats(boolean enabled,
+                           int segments,
+                           long lastSeq,
+                           long durableSeq,
+                           long snapshotSeq,
+                           int activeBytes,
+                           long failures) {
+}
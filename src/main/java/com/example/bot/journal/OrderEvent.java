@@ -0,0 +1,45 @@
+package com.example.bot.journal;
+
+import com.example.bot.orders.Order;
+import com.example.bot.orders.OrderStatus;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Одна запись журнала.
+ * <ul>
+ *   <li>UPSERT — полное состояние заказа (создание, правка черновика);</li>
+ *   <li>STATUS — только смена статуса, без остальных полей;</li>
+ *   <li>DELETE — заказ удалён (отменённый черновик); в снапшоте — надгробие удалённого заказа;</li>
+ *   <li>SNAPSHOT — состояние заказа вместе с историей статусов, только в файлах снапшота;
+ *       at — время последнего события заказа.</li>
+ * </ul>
+ */
+record OrderEvent(Type type,
+                  long seq,
+                  OffsetDateTime at,
+                  String orderId,
+                  Order order,
+                  OrderStatus from,
+                  OrderStatus to,
+                  List<StatusChange> history) {
+
+    enum Type { UPSERT, STATUS, DELETE, SNAPSHOT }
+
+    static OrderEvent upsert(long seq, OffsetDateTime at, Order o) {
+        return new OrderEvent(Type.UPSERT, seq, at, o.getId(), o, null, o.getStatus(), List.of());
+    }
+
+    static OrderEvent status(long seq, OffsetDateTime at, String id, OrderStatus from, OrderStatus to) {
+        return new OrderEvent(Type.STATUS, seq, at, id, null, from, to, List.of());
+    }
+
+    static OrderEvent delete(long seq, OffsetDateTime at, String id) {
+        return new OrderEvent(Type.DELETE, seq, at, id, null, null, null, List.of());
+    }
+
+    static OrderEvent snapshot(long seq, OffsetDateTime at, Order o, List<StatusChange> history) {
+        return new OrderEvent(Type.SNAPSHOT, seq, at, o.getId(), o, null, o.getStatus(), history);
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.bot.journal;
+
+import com.example.bot.orders.Order;
+import com.example.bot.orders.OrderStatus;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Двоичный формат журнала.
+ * <p>
+ * Кадр: {@code int длина | int crc32c | payload}. Нулевая длина — конец данных
+ * (сегменты создаются заполненными нулями). Кадр с неверной длиной или CRC считается
+ * оборванным при падении хвостом — чтение на нём останавливается.
+ * <p>
+ * Payload: {@code byte тип | long seq | long at | str id | ...поля типа}.
+ * Время — микросекунды UTC (как TIMESTAMP(6) в H2), строки — UTF-8 с длиной, null — длина -1.
+ * Тип пишется как ordinal, поэтому константы {@link OrderEvent.Type} не переставлять.
+ */
+final class OrderEventCodec {
+
+    static final int HEADER = 8;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final OrderEvent.Type[] TYPES = OrderEvent.Type.values();
+
+    private ByteBuffer buf = ByteBuffer.allocate(1024);
+
+    /** Закодировать событие в кадр; буфер переиспользуется и действителен до следующего вызова. */
+    ByteBuffer encode(OrderEvent e) {
+        buf.clear();
+        buf.position(HEADER);
+        putByte((byte) e.type().ordinal());
+        putLong(e.seq());
+        putLong(micros(e.at()));
+        putString(e.orderId());
+        switch (e.type()) {
+            case UPSERT -> putOrder(e.order());
+            case STATUS -> {
+                putString(name(e.from()));
+                putString(name(e.to()));
+            }
+            case DELETE -> { }
+            case SNAPSHOT -> {
+                putOrder(e.order());
+                ensure(4);
+                buf.putInt(e.history().size());
+                for (StatusChange c : e.history()) {
+                    putString(name(c.from()));
+                    putString(name(c.to()));
+                    putLong(micros(c.at()));
+                }
+            }
+        }
+        int len = buf.position() - HEADER;
+        CRC32C crc = new CRC32C();
+        crc.update(buf.array(), HEADER, len);
+        buf.putInt(0, len);
+        buf.putInt(4, (int) crc.getValue());
+        return buf.flip();
+    }
+
+    /**
+     * Пройти по кадрам в buf[0, limit). Возвращает позицию сразу за последним принятым кадром.
+     * Визитор может остановить чтение, вернув false (например, при разрыве последовательности seq).
+     */
+    static int scan(ByteBuffer buf, int limit, Visitor visitor) {
+        int pos = 0;
+        CRC32C crc = new CRC32C();
+        while (pos + HEADER <= limit) {
+            int len = buf.getInt(pos);
+            if (len <= 0 || len > limit - pos - HEADER) break;
+            ByteBuffer payload = buf.slice(pos + HEADER, len);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buf.getInt(pos + 4)) break;
+            OrderEvent e;
+            try {
+                e = decode(payload);
+            } catch (BufferUnderflowException | IllegalArgumentException ex) {
+                break;
+            }
+            if (!visitor.accept(e)) break;
+            pos += HEADER + len;
+        }
+        return pos;
+    }
+
+    static OrderEvent decode(ByteBuffer in) {
+        OrderEvent.Type type = TYPES[in.get()];
+        long seq = in.getLong();
+        OffsetDateTime at = time(in.getLong());
+        String id = getString(in);
+        return switch (type) {
+            case UPSERT -> new OrderEvent(type, seq, at, id, getOrder(in, id), null, null, List.of());
+            case STATUS -> {
+                OrderStatus from = status(getString(in));
+                OrderStatus to = status(getString(in));
+                yield new OrderEvent(type, seq, at, id, null, from, to, List.of());
+            }
+            case DELETE -> new OrderEvent(type, seq, at, id, null, null, null, List.of());
+            case SNAPSHOT -> {
+                Order o = getOrder(in, id);
+                int n = in.getInt();
+                List<StatusChange> history = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    history.add(new StatusChange(status(getString(in)), status(getString(in)), time(in.getLong())));
+                }
+                yield new OrderEvent(type, seq, at, id, o, null, null, history);
+            }
+        };
+    }
+
+    private void putOrder(Order o) {
+        putLong(o.getChatId() != null ? o.getChatId() : NULL_LONG);
+        putString(name(o.getStatus()));
+        putString(o.getService());
+        putString(o.getSubtype());
+        putString(o.getDescription());
+        putLong(micros(o.getCreatedAt()));
+        putLong(micros(o.getUpdatedAt()));
+    }
+
+    private static Order getOrder(ByteBuffer in, String id) {
+        long chatId = in.getLong();
+        return Order.builder()
+                .id(id)
+                .chatId(chatId != NULL_LONG ? chatId : null)
+                .status(status(getString(in)))
+                .service(getString(in))
+                .subtype(getString(in))
+                .description(getString(in))
+                .createdAt(time(in.getLong()))
+                .updatedAt(time(in.getLong()))
+                .build();
+    }
+
+    private void putByte(byte b) {
+        ensure(1);
+        buf.put(b);
+    }
+
+    private void putLong(long v) {
+        ensure(8);
+        buf.putLong(v);
+    }
+
+    private void putString(String s) {
+        if (s == null) {
+            ensure(4);
+            buf.putInt(-1);
+            return;
+        }
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        ensure(4 + b.length);
+        buf.putInt(b.length);
+        buf.put(b);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int len = in.getInt();
+        if (len < 0) return null;
+        byte[] b = new byte[len];
+        in.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private void ensure(int n) {
+        if (buf.remaining() >= n) return;
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + n));
+        buf.flip();
+        bigger.put(buf);
+        buf = bigger;
+    }
+
+    private static String name(OrderStatus s) {
+        return s != null ? s.name() : null;
+    }
+
+    private static OrderStatus status(String s) {
+        return s != null ? OrderStatus.valueOf(s) : null;
+    }
+
+    private static long micros(OffsetDateTime t) {
+        if (t == null) return NULL_LONG;
+        return t.toEpochSecond() * 1_000_000L + t.getNano() / 1_000;
+    }
+
+    private static OffsetDateTime time(long micros) {
+        if (micros == NULL_LONG) return null;
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L)
+                .atOffset(ZoneOffset.UTC);
+    }
+
+    @FunctionalInterface
+    interface Visitor {
+        boolean accept(OrderEvent e);
+    }
+}
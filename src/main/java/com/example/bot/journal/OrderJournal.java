@@ -0,0 +1,651 @@
+package com.example.bot.journal;
+
+import com.example.bot.config.JournalProperties;
+import com.example.bot.orders.Order;
+import com.example.bot.orders.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Журнал событий заказов: append-only сегменты, отображённые в память, и снапшоты.
+ * <p>
+ * Каждое изменение в OrderService — короткая запись в журнал (смена статуса — только статус,
+ * а не весь заказ), которая попадает на диск групповым fsync: фоновый поток собирает всё,
+ * что успели записать за commitDelay, и сбрасывает одним вызовом. Из журнала при старте
+ * восстанавливается память OrderService — без сканирования H2; он же хранит историю статусов.
+ * <p>
+ * Закрытые сегменты периодически сворачиваются в снапшот «последнее состояние + история
+ * статусов» по каждому живому заказу, после чего удаляются — журнал не растёт бесконечно.
+ * H2 остаётся основным хранилищем: журнал знает только о заказах, прошедших через него
+ * (или попавших в начальный снапшот при первом запуске).
+ * <p>
+ * Удалённые заказы остаются в журнале надгробиями на срок retention — по ним после падения
+ * удаление доводится до H2. Файл {@code generation} хранит поколение, которое warm start
+ * сверяет с записью в H2: запись в журнал упала — файл удаляется, и следующий старт пойдёт из H2.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderJournal {
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final String GENERATION = "generation";
+
+    private final JournalProperties props;
+    private final MeterRegistry meterRegistry;
+
+    // запись и состояние сегментов — под lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+    private final OrderEventCodec codec = new OrderEventCodec();
+    private final List<Sealed> sealed = new ArrayList<>();
+    private JournalSegment active;
+    private Snapshot snapshot;
+    private long seq;          // последний выданный номер события
+    private int syncedPos;     // сколько байт активного сегмента уже на диске
+    private volatile long durableSeq;
+    private volatile boolean hasState;
+    private volatile Long generation;
+
+    // сжатие и чтение всего журнала не пересекаются: сжатие удаляет файлы
+    private final ReentrantLock compactLock = new ReentrantLock();
+    private final AtomicBoolean compactScheduled = new AtomicBoolean();
+    private final AtomicLong failures = new AtomicLong();
+
+    private Path dir;
+    private int segmentSize;
+    private volatile boolean running;
+    private Thread syncer;
+    private ExecutorService compactor;
+
+    private Timer syncTimer;
+    private DistributionSummary groupSize;
+    private Map<OrderEvent.Type, Counter> events;
+
+    @PostConstruct
+    void init() {
+        if (!props.isEnabled()) {
+            log.info("Order journal disabled");
+            return;
+        }
+        dir = Path.of(props.getDir());
+        segmentSize = (int) Math.min(Integer.MAX_VALUE - 8, props.getSegmentSize().toBytes());
+        try {
+            open();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open order journal in " + dir.toAbsolutePath(), e);
+        }
+        syncTimer = Timer.builder("orders.journal.sync").publishPercentileHistogram().register(meterRegistry);
+        groupSize = DistributionSummary.builder("orders.journal.group.size")
+                .description("Событий на один fsync").register(meterRegistry);
+        events = new EnumMap<>(OrderEvent.Type.class);
+        for (OrderEvent.Type t : OrderEvent.Type.values()) {
+            if (t != OrderEvent.Type.SNAPSHOT) events.put(t, meterRegistry.counter("orders.journal.events", "type", t.name()));
+        }
+        running = true;
+        syncer = Thread.ofPlatform().daemon().name("order-journal-sync").start(this::syncLoop);
+        compactor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "order-journal-compact");
+            t.setDaemon(true);
+            return t;
+        });
+        log.info("Order journal opened in {}: seq={}, snapshot={}, {} sealed segments, sync={}",
+                dir.toAbsolutePath(), seq, snapshot != null ? snapshot.seq() : "none", sealed.size(), props.getSync());
+    }
+
+    public boolean enabled() {
+        return props.isEnabled();
+    }
+
+    /** Есть ли в журнале что восстанавливать (иначе warm start идёт из H2 и засевает журнал). */
+    public boolean hasState() {
+        return props.isEnabled() && hasState;
+    }
+
+    /** Поколение, с которым журнал был согласован с H2; null — не согласован (или запись в него падала). */
+    public Long generation() {
+        return props.isEnabled() ? generation : null;
+    }
+
+    /**
+     * Запомнить поколение после того, как журнал засеян из H2 и совпадает с ней.
+     * @return false — записать не удалось, следующий старт снова пойдёт из H2
+     */
+    public boolean markInSync(long gen) {
+        if (!props.isEnabled()) return false;
+        Path tmp = dir.resolve(GENERATION + ".tmp");
+        try {
+            Files.writeString(tmp, Long.toString(gen));
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ch.force(true);
+            }
+            Files.move(tmp, dir.resolve(GENERATION), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            syncDir();
+            generation = gen;
+            return true;
+        } catch (IOException e) {
+            failures.incrementAndGet();
+            log.warn("Cannot write journal generation, next start will warm up from H2", e);
+            return false;
+        }
+    }
+
+    /** Журнал пропустил изменение, которое H2 получила: больше ему не верим. */
+    private void invalidate() {
+        if (generation == null) return;
+        generation = null;
+        try {
+            Files.deleteIfExists(dir.resolve(GENERATION));
+            syncDir();
+        } catch (IOException e) {
+            log.warn("Cannot delete journal generation", e);
+        }
+        log.warn("Order journal marked out of sync with H2, next start will warm up from H2");
+    }
+
+    /** Заказ создан или изменён целиком. */
+    public void upserted(Order o) {
+        append(OrderEvent.Type.UPSERT, s -> OrderEvent.upsert(s, now(), o));
+    }
+
+    public void statusChanged(String orderId, OrderStatus from, OrderStatus to, OffsetDateTime at) {
+        append(OrderEvent.Type.STATUS, s -> OrderEvent.status(s, at != null ? at : now(), orderId, from, to));
+    }
+
+    public void deleted(String orderId) {
+        append(OrderEvent.Type.DELETE, s -> OrderEvent.delete(s, now(), orderId));
+    }
+
+    private void append(OrderEvent.Type type, Function<Long, OrderEvent> event) {
+        if (!running) return;
+        lock.lock();
+        try {
+            if (!running) return;
+            long mySeq = seq + 1;
+            ByteBuffer frame = codec.encode(event.apply(mySeq));
+            if (frame.remaining() + 4 > segmentSize) {
+                failures.incrementAndGet();
+                invalidate();
+                log.warn("Journal event {} for order is larger than a segment ({} bytes), skipped", type, frame.remaining());
+                return;
+            }
+            if (!active.append(frame, mySeq)) {
+                roll();
+                active.append(frame, mySeq);
+            }
+            seq = mySeq;
+            events.get(type).increment();
+            appended.signal();
+            if (props.getSync() == JournalProperties.Sync.GROUP) {
+                while (durableSeq < mySeq && syncer.isAlive()) {
+                    synced.await(1, TimeUnit.SECONDS);
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            failures.incrementAndGet();
+            invalidate();
+            log.warn("Journal append of {} failed", type, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Закрыть заполненный сегмент и начать следующий. Под lock. */
+    private void roll() throws IOException {
+        JournalSegment old = active;
+        old.force(syncedPos, old.position());   // редкость — можно и под замком
+        old.close();
+        sealed.add(new Sealed(old.path, old.firstSeq, old.lastSeq()));
+        active = JournalSegment.create(dir, old.lastSeq() + 1, segmentSize);
+        syncedPos = 0;
+        if (old.lastSeq() > durableSeq) durableSeq = old.lastSeq();
+        synced.signalAll();
+        if (sealed.size() >= props.getCompactAfterSegments() && compactScheduled.compareAndSet(false, true)) {
+            compactor.execute(this::compact);
+        }
+    }
+
+    /** Групповой fsync: ждём записей, даём набежать попутчикам, сбрасываем один раз на всех. */
+    private void syncLoop() {
+        long delay = props.getCommitDelay().toNanos();
+        while (true) {
+            lock.lock();
+            try {
+                while (running && seq == durableSeq) appended.await();
+                if (!running && seq == durableSeq) return;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            if (delay > 0 && running) LockSupport.parkNanos(delay);
+
+            JournalSegment seg;
+            int from;
+            int to;
+            long target;
+            lock.lock();
+            try {
+                seg = active;
+                from = syncedPos;
+                to = seg.position();
+                target = seq;
+            } finally {
+                lock.unlock();
+            }
+            long t0 = System.nanoTime();
+            try {
+                seg.force(from, to);
+            } catch (UncheckedIOException e) {
+                failures.incrementAndGet();
+                invalidate();
+                log.warn("Journal fsync failed", e);
+            }
+            syncTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+            lock.lock();
+            try {
+                if (active == seg && to > syncedPos) syncedPos = to;
+                if (target > durableSeq) {
+                    groupSize.record(target - durableSeq);
+                    durableSeq = target;
+                }
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Текущее состояние всех заказов из журнала: снапшот плюс события после него,
+     * вместе с надгробиями удалённых. Вызывается при старте, до приёма апдейтов.
+     */
+    public List<ReplayedOrder> replay() {
+        return fold(id -> true).values().stream().map(e -> new ReplayedOrder(e.id, e.order, e.lastAt)).toList();
+    }
+
+    /** История статусов заказа (аудит); пусто, если журнал о заказе не знает. */
+    public List<StatusChange> history(String orderId) {
+        if (!props.isEnabled() || orderId == null) return List.of();
+        Entry e = fold(orderId::equals).get(orderId);
+        return e != null && e.order != null ? List.copyOf(e.history) : List.of();
+    }
+
+    /**
+     * Первый запуск с журналом: записать снапшот уже загруженных из H2 заказов,
+     * чтобы следующий старт обошёлся без H2. Вызывается до приёма апдейтов.
+     * @return false — снапшот не записан
+     */
+    public boolean seed(Collection<Order> orders) {
+        if (!props.isEnabled()) return false;
+        compactLock.lock();
+        try {
+            long upto;
+            lock.lock();
+            try {
+                upto = seq;
+            } finally {
+                lock.unlock();
+            }
+            List<Entry> entries = new ArrayList<>(orders.size());
+            for (Order o : orders) {
+                OffsetDateTime at = o.getUpdatedAt() != null ? o.getUpdatedAt() : o.getCreatedAt();
+                entries.add(new Entry(o.getId(), o, new ArrayList<>(List.of(new StatusChange(null, o.getStatus(), at))), at));
+            }
+            Snapshot next = writeSnapshot(upto, entries);
+            Snapshot prev;
+            lock.lock();
+            try {
+                prev = snapshot;
+                snapshot = next;
+            } finally {
+                lock.unlock();
+            }
+            if (prev != null && !prev.path().equals(next.path())) Files.deleteIfExists(prev.path());
+            hasState = true;
+            log.info("Order journal seeded with {} orders at seq {}", entries.size(), upto);
+            return true;
+        } catch (IOException e) {
+            failures.incrementAndGet();
+            log.warn("Journal seed failed, next start will warm up from H2 again", e);
+            return false;
+        } finally {
+            compactLock.unlock();
+        }
+    }
+
+    public JournalStats stats() {
+        if (!props.isEnabled()) return new JournalStats(false, 0, 0, 0, -1, 0, 0);
+        lock.lock();
+        try {
+            return new JournalStats(true, sealed.size() + 1, seq, durableSeq,
+                    snapshot != null ? snapshot.seq() : -1, active.position(), failures.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Свернуть снапшот и закрытые сегменты в новый снапшот, затем удалить их. */
+    private void compact() {
+        compactLock.lock();
+        try {
+            List<Sealed> batch;
+            Snapshot base;
+            lock.lock();
+            try {
+                batch = List.copyOf(sealed);
+                base = snapshot;
+            } finally {
+                lock.unlock();
+            }
+            if (batch.isEmpty()) return;
+            long t0 = System.nanoTime();
+            long baseSeq = base != null ? base.seq() : 0;
+            Map<String, Entry> state = new HashMap<>();
+            if (base != null) scanFile(base.path(), e -> apply(state, e));
+            for (Sealed s : batch) {
+                scanFile(s.path(), e -> {
+                    if (e.seq() > baseSeq) apply(state, e);
+                });
+            }
+            int before = state.size();
+            OffsetDateTime cutoff = now().minus(props.getRetention());
+            state.values().removeIf(e -> e.lastAt != null && e.lastAt.isBefore(cutoff)
+                    && (e.order == null || e.order.getStatus() != null && e.order.getStatus().isTerminal()));
+            long upto = batch.get(batch.size() - 1).lastSeq();
+            Snapshot next = writeSnapshot(upto, state.values());
+            lock.lock();
+            try {
+                sealed.removeAll(batch);
+                snapshot = next;
+            } finally {
+                lock.unlock();
+            }
+            if (base != null) Files.deleteIfExists(base.path());
+            for (Sealed s : batch) Files.deleteIfExists(s.path());
+            log.info("Order journal compacted {} segments up to seq {}: {} orders in snapshot ({} expired) in {} ms",
+                    batch.size(), upto, state.size(), before - state.size(), (System.nanoTime() - t0) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            failures.incrementAndGet();
+            log.warn("Journal compaction failed, will retry after the next segment", e);
+        } finally {
+            compactScheduled.set(false);
+            compactLock.unlock();
+        }
+    }
+
+    /** Свернуть весь журнал (снапшот + сегменты) по заказам, прошедшим фильтр. */
+    private Map<String, Entry> fold(Predicate<String> ids) {
+        compactLock.lock();
+        try {
+            Snapshot base;
+            List<Sealed> segments;
+            JournalSegment tail;
+            int tailEnd;
+            lock.lock();
+            try {
+                base = snapshot;
+                segments = List.copyOf(sealed);
+                tail = active;
+                tailEnd = active.position();
+            } finally {
+                lock.unlock();
+            }
+            long baseSeq = base != null ? base.seq() : 0;
+            Map<String, Entry> state = new HashMap<>();
+            if (base != null) {
+                scanFile(base.path(), e -> {
+                    if (ids.test(e.orderId())) apply(state, e);
+                });
+            }
+            for (Sealed s : segments) {
+                scanFile(s.path(), e -> {
+                    if (e.seq() > baseSeq && ids.test(e.orderId())) apply(state, e);
+                });
+            }
+            tail.scan(tailEnd, e -> {
+                if (e.seq() > baseSeq && ids.test(e.orderId())) apply(state, e);
+                return true;
+            });
+            return state;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read order journal", e);
+        } finally {
+            compactLock.unlock();
+        }
+    }
+
+    private static void apply(Map<String, Entry> state, OrderEvent e) {
+        String id = e.orderId();
+        switch (e.type()) {
+            case SNAPSHOT -> state.put(id, new Entry(id, e.order(), new ArrayList<>(e.history()), e.at()));
+            case UPSERT -> {
+                Entry cur = state.get(id);
+                OrderStatus to = e.order().getStatus();
+                if (cur == null || cur.order == null) {
+                    state.put(id, new Entry(id, e.order(), new ArrayList<>(List.of(new StatusChange(null, to, e.at()))), e.at()));
+                } else {
+                    if (cur.order.getStatus() != to) cur.history.add(new StatusChange(cur.order.getStatus(), to, e.at()));
+                    cur.order = e.order();
+                    cur.lastAt = e.at();
+                }
+            }
+            case STATUS -> {
+                // заказ, которого нет в журнале, был дочитан из H2 — его состояние берётся оттуда
+                Entry cur = state.get(id);
+                if (cur == null || cur.order == null) return;
+                cur.history.add(new StatusChange(cur.order.getStatus(), e.to(), e.at()));
+                cur.order = cur.order.toBuilder().status(e.to()).updatedAt(e.at()).build();
+                cur.lastAt = e.at();
+            }
+            case DELETE -> state.put(id, new Entry(id, null, new ArrayList<>(), e.at()));
+        }
+    }
+
+    private static void scanFile(Path file, Consumer<OrderEvent> consumer) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            int size = (int) ch.size();
+            if (size == 0) return;
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            OrderEventCodec.scan(map, size, e -> {
+                consumer.accept(e);
+                return true;
+            });
+        }
+    }
+
+    private Snapshot writeSnapshot(long upto, Collection<Entry> entries) throws IOException {
+        Path target = dir.resolve(snapshotName(upto));
+        Path tmp = dir.resolve(snapshotName(upto) + ".tmp");
+        OrderEventCodec snapshotCodec = new OrderEventCodec();
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(ch), 1 << 16);
+            for (Entry e : entries) {
+                ByteBuffer frame = snapshotCodec.encode(e.order != null
+                        ? OrderEvent.snapshot(upto, e.lastAt, e.order, e.history)
+                        : OrderEvent.delete(upto, e.lastAt, e.id));
+                out.write(frame.array(), 0, frame.limit());
+            }
+            out.flush();
+            ch.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDir();
+        return new Snapshot(target, upto);
+    }
+
+    /** Найти снапшот и сегменты, продолжить запись в последний сегмент. */
+    private void open() throws IOException {
+        Files.createDirectories(dir);
+        try (Stream<Path> tmp = Files.list(dir)) {
+            for (Path p : tmp.filter(p -> p.getFileName().toString().endsWith(".tmp")).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+        List<Path> snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        if (!snapshots.isEmpty()) {
+            Path newest = snapshots.get(snapshots.size() - 1);
+            snapshot = new Snapshot(newest, snapshotSeqOf(newest));
+            for (Path p : snapshots.subList(0, snapshots.size() - 1)) Files.deleteIfExists(p);
+        }
+        long snapSeq = snapshot != null ? snapshot.seq() : 0;
+        List<Path> segments = list("segment-", ".log");
+        for (int i = 0; i < segments.size() - 1; i++) {
+            long first = JournalSegment.firstSeqOf(segments.get(i));
+            long last = JournalSegment.firstSeqOf(segments.get(i + 1)) - 1;
+            if (last <= snapSeq) {
+                Files.deleteIfExists(segments.get(i));    // уже в снапшоте: упали между снапшотом и удалением
+            } else {
+                sealed.add(new Sealed(segments.get(i), first, last));
+            }
+        }
+        hasState = snapshot != null || !segments.isEmpty();
+        Path gen = dir.resolve(GENERATION);
+        if (Files.exists(gen)) {
+            try {
+                generation = Long.parseLong(Files.readString(gen).trim());
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring malformed journal generation file {}", gen);
+            }
+        }
+        if (segments.isEmpty()) {
+            active = JournalSegment.create(dir, snapSeq + 1, segmentSize);
+        } else {
+            active = JournalSegment.recover(segments.get(segments.size() - 1), segmentSize);
+        }
+        seq = Math.max(active.lastSeq(), snapSeq);
+        if (active.lastSeq() != seq) {
+            // снапшот новее хвоста (не должно случаться) — начинаем чистый сегмент, чтобы не было разрыва seq
+            JournalSegment stale = active;
+            stale.close();
+            if (stale.isEmpty()) Files.deleteIfExists(stale.path);
+            active = JournalSegment.create(dir, seq + 1, segmentSize);
+        }
+        durableSeq = seq;
+    }
+
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> {
+                String n = p.getFileName().toString();
+                return n.startsWith(prefix) && n.endsWith(suffix);
+            }).sorted().toList();   // номера с ведущими нулями — лексикографический порядок совпадает с числовым
+        }
+    }
+
+    private void syncDir() {
+        // переименование переживёт падение ОС только после fsync каталога (на Windows не поддерживается)
+        try (FileChannel d = FileChannel.open(dir, StandardOpenOption.READ)) {
+            d.force(true);
+        } catch (IOException | UncheckedIOException ignored) {
+        }
+    }
+
+    private static String snapshotName(long seq) {
+        return String.format(SNAPSHOT_PREFIX + "%020d" + SNAPSHOT_SUFFIX, seq);
+    }
+
+    private static long snapshotSeqOf(Path p) {
+        String n = p.getFileName().toString();
+        return Long.parseLong(n.substring(SNAPSHOT_PREFIX.length(), n.length() - SNAPSHOT_SUFFIX.length()));
+    }
+
+    private static OffsetDateTime now() {
+        return OffsetDateTime.now(ZoneOffset.UTC);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (!running) return;
+        lock.lock();
+        try {
+            running = false;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            syncer.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            active.force(0, active.position());
+            active.close();
+        } finally {
+            lock.unlock();
+        }
+        log.info("Order journal closed at seq {}, failures={}", seq, failures.get());
+    }
+
+    private record Snapshot(Path path, long seq) {}
+
+    private record Sealed(Path path, long firstSeq, long lastSeq) {}
+
+    /** Свёрнутое состояние заказа при чтении журнала; order == null — заказ удалён. */
+    private static final class Entry {
+        final String id;
+        Order order;
+        final List<StatusChange> history;
+        OffsetDateTime lastAt;
+
+        Entry(String id, Order order, List<StatusChange> history, OffsetDateTime lastAt) {
+            this.id = id;
+            this.order = order;
+            this.history = history;
+            this.lastAt = lastAt;
+        }
+    }
+}
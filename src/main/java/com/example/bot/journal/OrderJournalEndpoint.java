@@ -0,0 +1,28 @@
+package com.example.bot.journal;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/** /actuator/orderjournal — состояние журнала; /actuator/orderjournal/{id} — история статусов заказа. */
+@Component
+@Endpoint(id = "orderjournal")
+@RequiredArgsConstructor
+public class OrderJournalEndpoint {
+
+    private final OrderJournal journal;
+
+    @ReadOperation
+    public JournalStats stats() {
+        return journal.stats();
+    }
+
+    @ReadOperation
+    public List<StatusChange> history(@Selector String orderId) {
+        return journal.history(orderId);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.bot.journal;
+
+import com.example.bot.orders.Order;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Состояние заказа, восстановленное из журнала.
+ * @param order     последнее состояние; null — заказ удалён (надгробие)
+ * @param changedAt время последнего события заказа в журнале
+ */
+public record ReplayedOrder(String id, Order order, OffsetDateTime changedAt) {
+
+    public boolean deleted() {
+        return order == null;
+    }
+}
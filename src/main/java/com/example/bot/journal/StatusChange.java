@@ -0,0 +1,12 @@
+package com.example.bot.journal;
+
+import com.example.bot.orders.OrderStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Запись аудита: смена статуса заказа.
+ * @param from прежний статус; null — заказ появился в журнале в статусе to
+ */
+public record StatusChange(OrderStatus from, OrderStatus to, OffsetDateTime at) {
+}
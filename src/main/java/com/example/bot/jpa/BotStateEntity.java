@@ -0,0 +1,17 @@
+package com.example.bot.jpa;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/** Служебные значения бота, которые должны переживать рестарт (например, offset getUpdates). */
+@Entity
+@Table(name = "bot_state")
+@Data @NoArgsConstructor @AllArgsConstructor
+public class BotStateEntity {
+
+    @Id
+    private String name;
+
+    @Column(name = "state_value")   // VALUE — ключевое слово H2
+    private Long value;
+}
@@ -0,0 +1,20 @@
+package com.example.bot.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface BotStateJpaRepository extends JpaRepository<BotStateEntity, String> {
+
+    List<BotStateEntity> findByNameStartingWith(String prefix);
+
+    /** Атомарно прибавить delta к значению; 0 — строки ещё нет. */
+    @Transactional
+    @Modifying
+    @Query("update BotStateEntity s set s.value = s.value + :delta where s.name = :name")
+    int increment(@Param("name") String name, @Param("delta") long delta);
+}
@@ -0,0 +1,41 @@
+package com.example.bot.jpa;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/** Рассылка и её прогресс (таблица broadcasts, V3). */
+@Entity
+@Table(name = "broadcasts")
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class BroadcastEntity {
+
+    public enum Status { RUNNING, DONE, CANCELED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Lob
+    private String text;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    /** Чат администратора, которому уйдёт итог. */
+    private Long requestedBy;
+
+    /** Последний чат аудитории, чья отправка завершена; null — рассылка ещё не начиналась. */
+    private Long lastChatId;
+
+    private long delivered;
+    private long failed;
+    private long blocked;
+
+    private OffsetDateTime createdAt;
+    private OffsetDateTime updatedAt;
+
+    /** Две реплики не поведут одну рассылку: вторая споткнётся на сохранении прогресса. */
+    @Version
+    private long version;
+}
@@ -0,0 +1,29 @@
+package com.example.bot.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface BroadcastJpaRepository extends JpaRepository<BroadcastEntity, Long> {
+
+    List<BroadcastEntity> findByStatus(BroadcastEntity.Status status);
+
+    List<BroadcastEntity> findTop20ByOrderByIdDesc();
+
+    /**
+     * Занять следующую порцию рассылки: поднять version, только если её не сдвинул никто другой
+     * и рассылка всё ещё RUNNING. 0 — порцию ведёт другая реплика (или рассылку остановили).
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update BroadcastEntity b set b.version = b.version + 1, b.updatedAt = :now
+            where b.id = :id and b.version = :version and b.status = :status""")
+    int claim(@Param("id") long id, @Param("version") long version,
+              @Param("status") BroadcastEntity.Status status, @Param("now") OffsetDateTime now);
+}
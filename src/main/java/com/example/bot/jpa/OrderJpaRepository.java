@@ -1,10 +1,34 @@
 package com.example.bot.jpa;
 
+import com.example.bot.orders.OrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderJpaRepository extends JpaRepository<OrderEntity, String> {
-    List<OrderEntity> findTop50ByOrderByCreatedAtDesc();
-    List<OrderEntity> findTop50ByChatIdOrderByCreatedAtDesc(Long chatId);
-}
\ No newline at end of file
+
+    /** Страница заказов по возрастанию (createdAt, id) строго после курсора (afterTs, afterId). */
+    @Query("""
+            select o from OrderEntity o
+            where o.status in :statuses
+              and (o.createdAt > :afterTs or (o.createdAt = :afterTs and o.id > :afterId))
+            order by o.createdAt asc, o.id asc""")
+    List<OrderEntity> findPageAfter(@Param("statuses") Collection<OrderStatus> statuses,
+                                    @Param("afterTs") OffsetDateTime afterTs,
+                                    @Param("afterId") String afterId,
+                                    Limit limit);
+
+    /** Заказы без createdAt (сравнение с курсором их отбрасывает) — по возрастанию id строго после afterId. */
+    @Query("""
+            select o from OrderEntity o
+            where o.status in :statuses and o.createdAt is null and o.id > :afterId
+            order by o.id asc""")
+    List<OrderEntity> findUndatedPageAfter(@Param("statuses") Collection<OrderStatus> statuses,
+                                           @Param("afterId") String afterId,
+                                           Limit limit);
+}
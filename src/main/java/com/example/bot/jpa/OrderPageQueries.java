@@ -0,0 +1,16 @@
+package com.example.bot.jpa;
+
+import com.example.bot.orders.OrderCursor;
+import com.example.bot.orders.OrderQuery;
+
+import java.util.List;
+
+/** Keyset-выборки заказов с произвольным набором фильтров. */
+public interface OrderPageQueries {
+
+    /**
+     * До limit заказов по фильтру, строго старше (older=true, от новых к старым)
+     * или строго новее (older=false, от старых к новым) курсора. Курсор null — с самого начала.
+     */
+    List<OrderEntity> findPage(OrderQuery query, OrderCursor cursor, boolean older, int limit);
+}
@@ -0,0 +1,96 @@
+package com.example.bot.jpa;
+
+import com.example.bot.orders.OrderCursor;
+import com.example.bot.orders.OrderQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Реализация {@link OrderPageQueries} на Criteria API.
+ * <p>
+ * Условие курсора записано как {@code created_at <= ts AND (created_at < ts OR id < :id)}:
+ * первая часть даёт диапазон по индексу (…, created_at, id) из миграции V2, вторая лишь отсекает
+ * строки с тем же created_at — поэтому стоимость страницы не зависит от её номера.
+ * <p>
+ * Заказы без created_at считаются самыми старыми (как в индексе OrderService) и идут после всех
+ * остальных, между собой — по id. Их выбирает отдельный запрос {@code created_at IS NULL AND id < :id}:
+ * с диапазоном в одном условии через OR индекс бы не использовался.
+ */
+public class OrderPageQueriesImpl implements OrderPageQueries {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<OrderEntity> findPage(OrderQuery query, OrderCursor cursor, boolean older, int limit) {
+        boolean undatedCursor = cursor != null && cursor.createdAt() == null;
+        List<OrderEntity> rows = new ArrayList<>(Math.min(limit, 64));
+        if (older) {
+            if (!undatedCursor) rows.addAll(dated(query, cursor, true, limit));
+            if (rows.size() < limit) rows.addAll(undated(query, undatedCursor ? cursor.id() : null, true, limit - rows.size()));
+        } else {
+            if (cursor == null || undatedCursor) rows.addAll(undated(query, cursor != null ? cursor.id() : null, false, limit));
+            if (rows.size() < limit) rows.addAll(dated(query, undatedCursor ? null : cursor, false, limit - rows.size()));
+        }
+        return rows;
+    }
+
+    private List<OrderEntity> dated(OrderQuery query, OrderCursor cursor, boolean older, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<OrderEntity> cq = cb.createQuery(OrderEntity.class);
+        Root<OrderEntity> o = cq.from(OrderEntity.class);
+        Path<OffsetDateTime> createdAt = o.get("createdAt");
+        Path<String> id = o.get("id");
+
+        List<Predicate> where = filters(cb, o, query);
+        if (cursor != null) {
+            OffsetDateTime ts = cursor.createdAt();
+            if (older) {
+                where.add(cb.lessThanOrEqualTo(createdAt, ts));
+                where.add(cb.or(cb.lessThan(createdAt, ts), cb.lessThan(id, cursor.id())));
+            } else {
+                where.add(cb.greaterThanOrEqualTo(createdAt, ts));
+                where.add(cb.or(cb.greaterThan(createdAt, ts), cb.greaterThan(id, cursor.id())));
+            }
+        } else {
+            where.add(cb.isNotNull(createdAt));
+        }
+        cq.select(o).where(where.toArray(Predicate[]::new));
+        cq.orderBy(older
+                ? List.of(cb.desc(createdAt), cb.desc(id))
+                : List.of(cb.asc(createdAt), cb.asc(id)));
+        return em.createQuery(cq).setMaxResults(limit).getResultList();
+    }
+
+    /** Заказы без created_at строго старше (older) или новее курсора по id; afterId null — с края. */
+    private List<OrderEntity> undated(OrderQuery query, String afterId, boolean older, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<OrderEntity> cq = cb.createQuery(OrderEntity.class);
+        Root<OrderEntity> o = cq.from(OrderEntity.class);
+        Path<String> id = o.get("id");
+
+        List<Predicate> where = filters(cb, o, query);
+        where.add(cb.isNull(o.get("createdAt")));
+        if (afterId != null) where.add(older ? cb.lessThan(id, afterId) : cb.greaterThan(id, afterId));
+        cq.select(o).where(where.toArray(Predicate[]::new));
+        cq.orderBy(older ? cb.desc(id) : cb.asc(id));
+        return em.createQuery(cq).setMaxResults(limit).getResultList();
+    }
+
+    private static List<Predicate> filters(CriteriaBuilder cb, Root<OrderEntity> o, OrderQuery query) {
+        List<Predicate> where = new ArrayList<>();
+        if (!query.statuses().isEmpty()) where.add(o.get("status").in(query.statuses()));
+        if (query.service() != null) where.add(cb.equal(o.get("service"), query.service()));
+        if (query.chatId() != null) where.add(cb.equal(o.get("chatId"), query.chatId()));
+        return where;
+    }
+}
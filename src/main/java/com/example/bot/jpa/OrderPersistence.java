@@ -1,10 +1,20 @@
 package com.example.bot.jpa;
 
 import com.example.bot.orders.Order;
+import com.example.bot.orders.OrderCursor;
+import com.example.bot.orders.OrderPage;
+import com.example.bot.orders.OrderQuery;
 import com.example.bot.orders.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,20 +23,105 @@ import java.util.Optional;
 public class OrderPersistence {
 
     private final OrderRepository repo;
+    private final OrderWriteBehind writeBehind;
+    private final MeterRegistry meterRegistry;
+
+    // задержка прямых обращений к H2 (write-behind меряет свои пачки сам)
+    private Timer saveTimer;
+    private Timer deleteTimer;
+    private Timer findTimer;
+    private Timer pageTimer;
+    private Timer audienceTimer;
+    private Timer statsTimer;
+
+    @PostConstruct
+    void init() {
+        saveTimer = timer("save");
+        deleteTimer = timer("delete");
+        findTimer = timer("find");
+        pageTimer = timer("page");
+        audienceTimer = timer("audience");
+        statsTimer = timer("stats");
+    }
+
+    private Timer timer(String op) {
+        return Timer.builder("orders.persistence.latency").tag("op", op)
+                .publishPercentileHistogram().register(meterRegistry);
+    }
+
+    public boolean writeBehindEnabled() {
+        return writeBehind.enabled();
+    }
 
     public void saveFromModel(Order m) {
-        repo.save(OrderEntity.fromModel(m));
+        if (writeBehind.enabled()) {
+            writeBehind.save(m);
+        } else {
+            saveTimer.record(() -> repo.save(OrderEntity.fromModel(m)));
+        }
     }
 
     public void deleteById(String id) {
-        repo.deleteById(id);
+        if (writeBehind.enabled()) {
+            writeBehind.delete(id);
+        } else {
+            deleteTimer.record(() -> repo.deleteById(id));
+        }
     }
 
     public Optional<Order> findById(String id) {
-        return repo.findById(id).map(OrderEntity::toModel);
+        // незаписанные изменения новее того, что лежит в БД
+        var pending = writeBehind.pending(id);
+        if (pending != null) {
+            return pending.deleted() ? Optional.empty() : Optional.of(pending.entity().toModel());
+        }
+        return findTimer.record(() -> repo.findById(id)).map(OrderEntity::toModel);
     }
 
     public List<Order> findByChatId(Long chatId) {
+        if (writeBehind.enabled()) writeBehind.flush();
         return repo.findByChatId(chatId).stream().map(OrderEntity::toModel).toList();
     }
-}
\ No newline at end of file
+
+    /**
+     * Страница заказов из H2 по keyset-курсору (createdAt, id), всегда от новых к старым.
+     * @param cursor граница предыдущей страницы; null — самые новые
+     * @param older  true — страница старше курсора, false — новее
+     */
+    public OrderPage findPage(OrderQuery query, OrderCursor cursor, boolean older, int limit) {
+        if (writeBehind.enabled()) writeBehind.flush();
+        // лишняя строка говорит, есть ли что-то дальше, без отдельного count(*)
+        List<OrderEntity> rows = pageTimer.record(() -> repo.findPage(query, cursor, older, limit + 1));
+        boolean more = rows.size() > limit;
+        List<Order> items = new ArrayList<>(Math.min(rows.size(), limit));
+        for (int i = 0; i < rows.size() && i < limit; i++) {
+            items.add(rows.get(i).toModel());
+        }
+        if (older) {
+            return new OrderPage(items, cursor != null, more);
+        }
+        Collections.reverse(items);
+        return new OrderPage(items, more, true);
+    }
+
+    /**
+     * Очередная порция аудитории рассылки: различные chat_id из orders по возрастанию, строго после
+     * afterChatId (null — с начала). Вся аудитория в память не загружается.
+     */
+    public List<Long> chatIdsAfter(Long afterChatId, int limit) {
+        long after = afterChatId != null ? afterChatId : Long.MIN_VALUE;
+        return audienceTimer.record(() -> repo.findChatIdsAfter(after, Limit.of(limit)));
+    }
+
+    /** Число заказов по (status, service, subtype): строки {OrderStatus, String, String, Long}. */
+    public List<Object[]> countByStatusAndService() {
+        if (writeBehind.enabled()) writeBehind.flush();
+        return statsTimer.record(repo::countByStatusAndService);
+    }
+
+    /** Отправленные заявки по часу создания начиная с since: строки {номер часа от эпохи, число}. */
+    public List<Object[]> countSubmittedByHour(OffsetDateTime since) {
+        if (writeBehind.enabled()) writeBehind.flush();
+        return statsTimer.record(() -> repo.countSubmittedByHour(since));
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.bot.jpa;
+
+import com.example.bot.config.PersistenceProperties;
+import com.example.bot.orders.Order;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Отложенная запись заказов в H2.
+ * Изменения одного заказа схлопываются (в БД уходит только последнее состояние),
+ * сброс — одним JDBC batch в одной транзакции: по таймеру, по размеру и при остановке.
+ * Очередь ограничена max-pending: когда она полна (обычно БД недоступна), новый заказ пишет
+ * сам вызывающий поток, как при write-through, и ошибка БД достаётся ему, а не копится в памяти.
+ * <p>
+ * Вместе с каждым batch в bot_state пишется отметка {@link #SYNCED_AT_KEY}: всё, что стояло в очереди
+ * к её моменту, уже в H2. По ней warm start после падения находит изменения, оставшиеся только в журнале.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderWriteBehind {
+
+    private static final String UPSERT = """
+            MERGE INTO orders (id, chat_id, status, service, subtype, description, created_at, updated_at)
+            KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)""";
+    private static final String DELETE = "DELETE FROM orders WHERE id = ?";
+    private static final String SYNCED_AT = "MERGE INTO bot_state (name, state_value) KEY (name) VALUES (?, ?)";
+
+    /** Ключ отметки в bot_state: epoch millis начала последнего записанного batch. */
+    public static final String SYNCED_AT_KEY = "writebehind.synced_at";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final PersistenceProperties props;
+    private final MeterRegistry meterRegistry;
+
+    // id -> последнее незаписанное состояние
+    private final ConcurrentMap<String, Pending> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong backpressured = new AtomicLong();
+
+    private ExecutorService flusher;
+    private Timer flushTimer;
+
+    @PostConstruct
+    void init() {
+        if (!enabled()) return;
+        flushTimer = Timer.builder("orders.persistence.latency").tag("op", "flush_batch")
+                .publishPercentileHistogram().register(meterRegistry);
+        flusher = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "order-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        log.info("Order write-behind enabled: maxStaleness={} batchSize={} maxPending={}",
+                props.getMaxStaleness(), props.getBatchSize(), props.getMaxPending());
+    }
+
+    public boolean enabled() {
+        return props.getMode() == PersistenceProperties.Mode.WRITE_BEHIND;
+    }
+
+    public void save(Order o) {
+        enqueue(o.getId(), OrderEntity.fromModel(o));
+    }
+
+    public void delete(String id) {
+        enqueue(id, null);
+    }
+
+    /** Незаписанное состояние заказа или null, если всё уже в БД. */
+    public Pending pending(String id) {
+        return pending.get(id);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    public long writtenCount() {
+        return written.get();
+    }
+
+    public long failureCount() {
+        return failures.get();
+    }
+
+    /** Сколько раз очередь была полна и запись выполнил вызывающий поток. */
+    public long backpressureCount() {
+        return backpressured.get();
+    }
+
+    private void enqueue(String id, OrderEntity entity) {
+        // изменение уже ожидающего заказа очередь не растит
+        if (pending.size() >= props.getMaxPending() && !pending.containsKey(id)) drainForCapacity();
+        long now = System.nanoTime();
+        // время первого незаписанного изменения сохраняется — от него считается staleness
+        pending.merge(id, new Pending(entity, now), (old, fresh) -> new Pending(entity, old.sinceNanos()));
+        if (pending.size() >= props.getBatchSize() && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bot.persistence.flush-interval:200ms}")
+    public void tick() {
+        if (!enabled() || pending.isEmpty()) return;
+        long now = System.nanoTime();
+        long maxAge = props.getMaxStaleness().toNanos() - props.getFlushInterval().toNanos();
+        boolean due = pending.size() >= props.getBatchSize()
+                || pending.values().stream().anyMatch(p -> now - p.sinceNanos() >= maxAge);
+        if (due) flush();
+    }
+
+    /**
+     * Очередь полна: записать накопленное в потоке вызывающего. Пока пишет другой поток — ждём его.
+     * Если БД не приняла запись, исключение уходит вызывающему и изменение в очередь не попадает —
+     * так же, как при ошибке write-through. Проверка размера не атомарна: очередь может превысить предел
+     * на число одновременно пишущих потоков.
+     */
+    private void drainForCapacity() {
+        backpressured.incrementAndGet();
+        flushLock.lock();
+        try {
+            if (pending.size() < props.getMaxPending()) return;
+            log.warn("Write-behind queue is full ({} orders), writing in the caller thread", pending.size());
+            write();
+        } catch (RuntimeException ex) {
+            failures.incrementAndGet();
+            throw ex;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** Записать всё накопленное. Возвращает число записанных заказов; при ошибке БД — 0, повтор позже. */
+    public int flush() {
+        flushLock.lock();
+        try {
+            return write();
+        } catch (Exception ex) {
+            failures.incrementAndGet();
+            log.warn("Write-behind flush of {} orders failed, will retry", pending.size(), ex);
+            return 0;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** Один batch из всего накопленного; вызывается под flushLock, ошибку БД пробрасывает. */
+    private int write() {
+        if (pending.isEmpty()) return 0;
+        // отметка берётся до снимка очереди: всё, что поставлено раньше, попадёт в этот batch
+        long syncedAt = System.currentTimeMillis();
+        List<Map.Entry<String, Pending>> batch = new ArrayList<>(pending.entrySet());
+        List<Object[]> upserts = new ArrayList<>(batch.size());
+        List<Object[]> deletes = new ArrayList<>();
+        for (var e : batch) {
+            OrderEntity o = e.getValue().entity();
+            if (o == null) {
+                deletes.add(new Object[]{e.getKey()});
+            } else {
+                upserts.add(new Object[]{o.getId(), o.getChatId(),
+                        o.getStatus() != null ? o.getStatus().name() : null,
+                        o.getService(), o.getSubtype(), o.getDescription(),
+                        o.getCreatedAt(), o.getUpdatedAt()});
+            }
+        }
+        long t0 = System.nanoTime();
+        tx.executeWithoutResult(s -> {
+            if (!upserts.isEmpty()) jdbc.batchUpdate(UPSERT, upserts);
+            if (!deletes.isEmpty()) jdbc.batchUpdate(DELETE, deletes);
+            jdbc.update(SYNCED_AT, SYNCED_AT_KEY, syncedAt);
+        });
+        // убираем только то, что не успело измениться во время записи
+        for (var e : batch) {
+            pending.remove(e.getKey(), e.getValue());
+        }
+        written.addAndGet(batch.size());
+        flushTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        if (log.isDebugEnabled()) {
+            log.debug("Write-behind flushed {} upserts, {} deletes in {} ms",
+                    upserts.size(), deletes.size(), (System.nanoTime() - t0) / 1_000_000.0);
+        }
+        return batch.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (!enabled()) return;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // несколько попыток: при временной ошибке БД не хочется терять хвост
+        for (int attempt = 0; attempt < 3 && !pending.isEmpty(); attempt++) {
+            flush();
+        }
+        if (!pending.isEmpty()) {
+            log.error("Write-behind stopped with {} unsaved orders: {}", pending.size(), pending.keySet());
+        } else {
+            log.info("Write-behind flushed on shutdown, total written={} failures={}", written.get(), failures.get());
+        }
+    }
+
+    /**
+     * Незаписанное изменение.
+     * @param entity    снимок заказа; null — заказ удалён
+     * @param sinceNanos когда появилось первое незаписанное изменение
+     */
+    public record Pending(OrderEntity entity, long sinceNanos) {
+        public boolean deleted() {
+            return entity == null;
+        }
+    }
+}
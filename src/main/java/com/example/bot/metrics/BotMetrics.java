@@ -0,0 +1,77 @@
+package com.example.bot.metrics;
+
+import com.example.bot.core.UpdateDispatcher;
+import com.example.bot.flow.SessionService;
+import com.example.bot.jpa.OrderWriteBehind;
+import com.example.bot.orders.OrderService;
+import com.example.bot.outbound.OutboundSender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gauge'и и счётчики, которые читаются из состояния сервисов при скрейпе.
+ * Задержки (хэндлеры, Telegram API, H2) пишутся таймерами прямо в местах вызова.
+ */
+@Component
+@RequiredArgsConstructor
+public class BotMetrics implements MeterBinder {
+
+    private final SessionService sessions;
+    private final OrderService orders;
+    private final OrderWriteBehind writeBehind;
+    private final OutboundSender outbound;
+    private final UpdateDispatcher dispatcher;
+    private final Dispatcher telegramHttpDispatcher;
+    private final ConnectionPool telegramConnectionPool;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("bot.sessions.active", sessions, SessionService::size)
+                .description("Сессии диалога в памяти").register(registry);
+
+        Gauge.builder("bot.dispatch.pending", dispatcher, UpdateDispatcher::pending)
+                .description("Апдейты, принятые и ещё не обработанные").register(registry);
+        Gauge.builder("bot.dispatch.lanes", dispatcher, UpdateDispatcher::activeLanes)
+                .description("Чаты с непустой очередью апдейтов").register(registry);
+
+        Gauge.builder("orders.store.size", orders, o -> o.cacheStats().size())
+                .description("Заказы в памяти").register(registry);
+        Gauge.builder("orders.drafts.active", orders, OrderService::activeDraftCount).register(registry);
+        FunctionCounter.builder("orders.cache.requests", orders, o -> o.cacheStats().hits())
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("orders.cache.requests", orders, o -> o.cacheStats().misses())
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("orders.cache.loads", orders, o -> o.cacheStats().loads()).register(registry);
+        FunctionCounter.builder("orders.cache.evictions", orders, o -> o.cacheStats().evictions())
+                .tag("cause", "size").register(registry);
+        FunctionCounter.builder("orders.cache.evictions", orders, o -> o.cacheStats().expirations())
+                .tag("cause", "idle").register(registry);
+
+        Gauge.builder("orders.writebehind.pending", writeBehind, OrderWriteBehind::pendingCount).register(registry);
+        FunctionCounter.builder("orders.writebehind.written", writeBehind, OrderWriteBehind::writtenCount).register(registry);
+        FunctionCounter.builder("orders.writebehind.failures", writeBehind, OrderWriteBehind::failureCount).register(registry);
+        FunctionCounter.builder("orders.writebehind.backpressure", writeBehind, OrderWriteBehind::backpressureCount).register(registry);
+
+        Gauge.builder("telegram.outbound.queued", outbound, s -> s.stats().queued()).register(registry);
+        Gauge.builder("telegram.outbound.ready", outbound, s -> s.stats().ready()).register(registry);
+        FunctionCounter.builder("telegram.outbound.throttled", outbound, s -> s.stats().throttledByChat())
+                .tag("scope", "chat").register(registry);
+        FunctionCounter.builder("telegram.outbound.throttled", outbound, s -> s.stats().throttledGlobal())
+                .tag("scope", "global").register(registry);
+        Gauge.builder("telegram.http.calls", telegramHttpDispatcher, Dispatcher::runningCallsCount)
+                .tag("state", "running").register(registry);
+        Gauge.builder("telegram.http.calls", telegramHttpDispatcher, Dispatcher::queuedCallsCount)
+                .tag("state", "queued").register(registry);
+        Gauge.builder("telegram.http.connections", telegramConnectionPool, ConnectionPool::connectionCount)
+                .tag("state", "total").register(registry);
+        Gauge.builder("telegram.http.connections", telegramConnectionPool, ConnectionPool::idleConnectionCount)
+                .tag("state", "idle").register(registry);
+        FunctionCounter.builder("telegram.outbound.retries", outbound, s -> s.stats().retried()).register(registry);
+    }
+}
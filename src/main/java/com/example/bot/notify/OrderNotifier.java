@@ -0,0 +1,120 @@
+package com.example.bot.notify;
+
+import com.example.bot.config.FlowProperties;
+import com.example.bot.config.NotifyProperties;
+import com.example.bot.orders.Order;
+import com.example.bot.orders.OrderChangedEvent;
+import com.example.bot.orders.OrderStatus;
+import com.example.bot.outbound.OutboundSender;
+import com.example.bot.ui.UiTemplates;
+import com.example.bot.util.Reply;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Уведомления по {@link OrderChangedEvent}:
+ * <ul>
+ *   <li>клиенту — смена статуса уже оформленной заявки;</li>
+ *   <li>администраторам (telegram.flow.adminChatId) — новая заявка. При наплыве заявки
+ *       собираются в одну сводку за bot.notify.digest-window, чтобы не засыпать чат.</li>
+ * </ul>
+ * Слушатель выполняется в потоке, изменившем заказ, поэтому только рендерит текст и ставит его
+ * в очередь {@link OutboundSender}; отправка и ожидание лимитов идут в его воркерах.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderNotifier {
+
+    private final OutboundSender sender;
+    private final UiTemplates templates;
+    private final FlowProperties flow;
+    private final NotifyProperties props;
+    private final MeterRegistry meterRegistry;
+
+    private Counter statusSent;
+    private Counter alertsSent;
+    private Counter digestsSent;
+
+    // сводка новых заявок; всё под монитором digestLock
+    private final Object digestLock = new Object();
+    private final List<Order> pending = new ArrayList<>();
+    private int pendingTotal;
+    private boolean windowOpen;
+    private long windowEndsNanos;
+
+    @PostConstruct
+    void init() {
+        statusSent = counter("status");
+        alertsSent = counter("new_order");
+        digestsSent = counter("digest");
+        if (flow.getAdminChatId() == null) {
+            log.info("telegram.flow.adminChatId is not set: new order alerts are off");
+        }
+    }
+
+    private Counter counter(String kind) {
+        return Counter.builder("bot.notify.sent").tag("kind", kind).register(meterRegistry);
+    }
+
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent e) {
+        Order o = e.order();
+        if (e.submitted()) {
+            newOrder(o);
+        } else if (props.isCustomerStatus() && o.getChatId() != null
+                && e.from() != OrderStatus.DRAFT && o.getStatus() != OrderStatus.DRAFT) {
+            sender.send(Reply.text(o.getChatId(), templates.statusChanged(o)));
+            statusSent.increment();
+        }
+    }
+
+    private void newOrder(Order o) {
+        Long admin = flow.getAdminChatId();
+        if (admin == null) return;
+        synchronized (digestLock) {
+            if (windowOpen) {
+                if (pending.size() < props.getDigestMaxLines()) pending.add(o);
+                pendingTotal++;
+                return;
+            }
+            windowOpen = true;
+            windowEndsNanos = System.nanoTime() + props.getDigestWindow().toNanos();
+        }
+        sender.send(Reply.text(admin, templates.newOrder(o)));
+        alertsSent.increment();
+    }
+
+    /** Конец окна: накопленное уходит одной сводкой и открывает следующее окно; пусто — затишье. */
+    @Scheduled(fixedDelayString = "${bot.notify.digest-tick:1s}")
+    public void flushDigest() {
+        Long admin = flow.getAdminChatId();
+        List<Order> batch;
+        int total;
+        synchronized (digestLock) {
+            if (!windowOpen || System.nanoTime() - windowEndsNanos < 0) return;
+            if (pendingTotal == 0) {
+                windowOpen = false;
+                return;
+            }
+            batch = new ArrayList<>(pending);
+            total = pendingTotal;
+            pending.clear();
+            pendingTotal = 0;
+            windowEndsNanos = System.nanoTime() + props.getDigestWindow().toNanos();
+        }
+        if (admin == null) return;
+        String text = total == 1 && !batch.isEmpty() ? templates.newOrder(batch.get(0)) : templates.newOrdersDigest(batch, total);
+        sender.send(Reply.text(admin, text));
+        digestsSent.increment();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.bot.orders;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Полосатые замки по chatId: изменения заказов одного чата (двойное нажатие кнопки, ответ
+ * наперегонки с отменой) идут по очереди, а разные чаты почти никогда не ждут друг друга.
+ * ReentrantLock, а не synchronized: апдейты обрабатываются в виртуальных потоках, и монитор
+ * прикрепил бы поток к несущему на время записи в журнал и H2.
+ */
+final class ChatLocks {
+
+    private static final int STRIPES = 1024;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    ChatLocks() {
+        for (int i = 0; i < STRIPES; i++) locks[i] = new ReentrantLock();
+    }
+
+    /** Замок чата; заказы без чата делят одну полосу. */
+    ReentrantLock of(Long chatId) {
+        long x = chatId != null ? chatId : 0L;
+        x = (x ^ (x >>> 33)) * 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        return locks[(int) (x >>> 54)];   // старшие 10 бит — номер полосы
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.bot.orders;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/** Один экземпляр бота: общего уровня нет, указатели на черновики — в памяти. */
+@Component
+@ConditionalOnProperty(prefix = "bot.state", name = "store", havingValue = "memory", matchIfMissing = true)
+public class LocalOrderStateStore implements OrderStateStore {
+
+    /** Индекс активного черновика по чату. */
+    private final ConcurrentMap<Long, String> activeDraftByChat = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean shared() {
+        return false;
+    }
+
+    @Override
+    public long nearCacheTtlNanos() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public Order get(String orderId) {
+        return null;
+    }
+
+    @Override
+    public void put(Order o) {
+    }
+
+    @Override
+    public void remove(String orderId) {
+    }
+
+    @Override
+    public Order update(String orderId, Supplier<Order> load, UnaryOperator<Order> change) {
+        return null;
+    }
+
+    @Override
+    public String activeDraft(long chatId) {
+        return activeDraftByChat.get(chatId);
+    }
+
+    @Override
+    public void setActiveDraft(long chatId, String orderId) {
+        activeDraftByChat.put(chatId, orderId);
+    }
+
+    @Override
+    public boolean putDraftIfPointer(long chatId, String expected, Order draft) {
+        return expected == null
+                ? activeDraftByChat.putIfAbsent(chatId, draft.getId()) == null
+                : activeDraftByChat.replace(chatId, expected, draft.getId());
+    }
+
+    @Override
+    public void clearActiveDraft(long chatId, String orderId) {
+        activeDraftByChat.remove(chatId, orderId);
+    }
+
+    @Override
+    public void mergeActiveDraft(long chatId, String orderId, BinaryOperator<String> pick) {
+        activeDraftByChat.merge(chatId, orderId, pick);
+    }
+
+    @Override
+    public int activeDraftCount() {
+        return activeDraftByChat.size();
+    }
+
+    @Override
+    public void onInvalidate(Consumer<String> listener) {
+        // изменения приходят только от этого же экземпляра
+    }
+}
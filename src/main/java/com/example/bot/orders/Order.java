@@ -1,20 +1,24 @@
 package com.example.bot.orders;
 
 import lombok.*;
+import lombok.extern.jackson.Jacksonized;
 import java.io.Serializable;
 import java.time.OffsetDateTime;
 
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-@Builder
+/**
+ * Неизменяемый снимок заказа: кэш, индексы и обработчики делят один объект без блокировок.
+ * Изменение — новый снимок через {@code toBuilder()}, публикует его {@link OrderService}.
+ */
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
 public class Order implements Serializable {
-    private String id;
-    private Long chatId;
-    private OrderStatus status;
-    private String service;
-    private String subtype;
-    private String description;
-    private OffsetDateTime createdAt;
-    private OffsetDateTime updatedAt;
-}
\ No newline at end of file
+    String id;
+    Long chatId;
+    OrderStatus status;
+    String service;
+    String subtype;
+    String description;
+    OffsetDateTime createdAt;
+    OffsetDateTime updatedAt;
+}
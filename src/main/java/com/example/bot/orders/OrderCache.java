@@ -0,0 +1,191 @@
+package com.example.bot.orders;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+/**
+ * Ограниченное хранилище заказов OrderService.
+ * <p>
+ * При переполнении (с небольшим запасом, чтобы не чистить на каждой вставке) вытесняются
+ * сначала завершённые заказы, затем — давно не использованные. Отдельно по таймеру
+ * вытесняются простаивающие: завершённые быстро, остальные — через долгий срок.
+ */
+final class OrderCache {
+
+    private static final Comparator<Candidate> EVICTION_ORDER = Comparator
+            .comparing((Candidate c) -> !c.terminal())   // завершённые — первыми
+            .thenComparingLong(Candidate::lastAccessNanos);
+
+    private final ConcurrentHashMap<String, Node> map = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final int slack;
+    private final long terminalIdleNanos;
+    private final long openIdleNanos;
+    private final ReentrantLock evictLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    OrderCache(int maxSize, long terminalIdleNanos, long openIdleNanos) {
+        this.maxSize = Math.max(1, maxSize);
+        this.slack = Math.max(16, this.maxSize / 20);
+        this.terminalIdleNanos = terminalIdleNanos;
+        this.openIdleNanos = openIdleNanos;
+    }
+
+    Order get(String id) {
+        Node n = map.get(id);
+        if (n == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        n.lastAccessNanos = System.nanoTime();
+        return n.order;
+    }
+
+    /** Текущая копия без учёта в статистике и без продления жизни. */
+    Order peek(String id) {
+        Node n = map.get(id);
+        return n != null ? n.order : null;
+    }
+
+    /**
+     * Как get, но копия старше maxAgeNanos (с момента записи в кэш) считается промахом —
+     * так кэш работает near-cache перед общим хранилищем.
+     */
+    Order get(String id, long maxAgeNanos) {
+        if (maxAgeNanos == Long.MAX_VALUE) return get(id);
+        Node n = map.get(id);
+        long now = System.nanoTime();
+        if (n == null || now - n.storedNanos > maxAgeNanos) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        n.lastAccessNanos = now;
+        return n.order;
+    }
+
+    void put(String id, Order o) {
+        map.put(id, new Node(o));
+        evictIfFull();
+    }
+
+    /** Положить, если отсутствует; возвращает уже лежащий заказ или null. */
+    Order putIfAbsent(String id, Order o) {
+        Node prev = map.putIfAbsent(id, new Node(o));
+        if (prev == null) evictIfFull();
+        return prev != null ? prev.order : null;
+    }
+
+    Order remove(String id) {
+        Node n = map.remove(id);
+        return n != null ? n.order : null;
+    }
+
+    Order computeIfPresent(String id, BiFunction<String, Order, Order> fn) {
+        Node n = map.computeIfPresent(id, (k, cur) -> {
+            Order next = fn.apply(k, cur.order);
+            if (next == null) return null;
+            if (next == cur.order) {
+                cur.lastAccessNanos = System.nanoTime();
+                return cur;
+            }
+            return new Node(next);
+        });
+        return n != null ? n.order : null;
+    }
+
+    /** Отметить промах, закрытый чтением из БД. */
+    void recordLoad() {
+        loads.increment();
+    }
+
+    int size() {
+        return map.size();
+    }
+
+    /** Слабо согласованный обход текущих заказов. */
+    Iterable<Order> values() {
+        return () -> map.values().stream().map(n -> n.order).iterator();
+    }
+
+    OrderCacheStats stats() {
+        return new OrderCacheStats(map.size(), maxSize, hits.sum(), misses.sum(), loads.sum(),
+                evictions.sum(), expirations.sum());
+    }
+
+    /** Вытеснить заказы, простаивающие дольше своего срока. */
+    int evictExpired() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Map.Entry<String, Node> e : map.entrySet()) {
+            Node n = e.getValue();
+            long idle = isTerminal(n.order) ? terminalIdleNanos : openIdleNanos;
+            if (now - n.lastAccessNanos > idle && evict(e.getKey(), n)) {
+                expirations.increment();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private void evictIfFull() {
+        if (map.size() <= maxSize + slack || !evictLock.tryLock()) return;
+        try {
+            int excess = map.size() - maxSize;
+            if (excess <= 0) return;
+            // снимок: lastAccess меняется конкурентно, а сортировке нужны стабильные ключи
+            List<Candidate> all = new ArrayList<>(map.size());
+            map.forEach((id, n) -> all.add(new Candidate(id, n, isTerminal(n.order), n.lastAccessNanos)));
+            all.sort(EVICTION_ORDER);
+            for (int i = 0; i < all.size() && excess > 0; i++) {
+                Candidate c = all.get(i);
+                if (evict(c.id(), c.node())) {
+                    evictions.increment();
+                    excess--;
+                }
+            }
+        } finally {
+            evictLock.unlock();
+        }
+    }
+
+    private boolean evict(String id, Node expected) {
+        boolean[] removed = new boolean[1];
+        map.computeIfPresent(id, (k, cur) -> {
+            if (cur != expected) return cur;
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    private static boolean isTerminal(Order o) {
+        return o.getStatus() != null && o.getStatus().isTerminal();
+    }
+
+    private record Candidate(String id, Node node, boolean terminal, long lastAccessNanos) {}
+
+    private static final class Node {
+        final Order order;
+        final long storedNanos;
+        volatile long lastAccessNanos;
+
+        Node(Order order) {
+            this.order = order;
+            this.storedNanos = System.nanoTime();
+            this.lastAccessNanos = storedNanos;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.bot.orders;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/** /actuator/ordercache — размер и hit/miss/eviction счётчики кэша заказов. */
+@Component
+@Endpoint(id = "ordercache")
+@RequiredArgsConstructor
+public class OrderCacheEndpoint {
+
+    private final OrderService orderService;
+
+    @ReadOperation
+    public OrderCacheStats stats() {
+        return orderService.cacheStats();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.bot.orders;
+
+/**
+ * Счётчики кэша заказов OrderService.
+ *
+ * @param loads       промахи, закрытые чтением из H2
+ * @param evictions   вытеснено по размеру
+ * @param expirations вытеснено по времени простоя
+ */
+public record OrderCacheStats(int size,
+                              int maxSize,
+                              long hits,
+                              long misses,
+                              long loads,
+                              long evictions,
+                              long expirations) {
+}
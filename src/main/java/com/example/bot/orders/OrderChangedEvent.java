@@ -0,0 +1,16 @@
+package com.example.bot.orders;
+
+/**
+ * Статус заказа изменился. Публикуется {@link OrderService} через ApplicationEventPublisher
+ * после того, как изменение записано; слушатели не должны блокировать поток, который его вызвал.
+ *
+ * @param order снимок заказа после изменения
+ * @param from  прежний статус; null — заказ только что создан
+ */
+public record OrderChangedEvent(Order order, OrderStatus from) {
+
+    /** Клиент оформил заявку: черновик (или ничего) превратился в рабочий статус. */
+    public boolean submitted() {
+        return (from == null || from == OrderStatus.DRAFT) && order.getStatus() != OrderStatus.DRAFT;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.bot.orders;
+
+import java.time.OffsetDateTime;
+
+/** Позиция в списке заказов, упорядоченном по (createdAt, id). */
+public record OrderCursor(OffsetDateTime createdAt, String id) {
+
+    public static OrderCursor of(Order o) {
+        return new OrderCursor(o.getCreatedAt(), o.getId());
+    }
+}
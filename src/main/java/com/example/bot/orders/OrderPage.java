@@ -0,0 +1,15 @@
+package com.example.bot.orders;
+
+import java.util.List;
+
+/** Страница заказов, от новых к старым. */
+public record OrderPage(List<Order> items, boolean hasNewer, boolean hasOlder) {
+
+    public OrderCursor first() {
+        return items.isEmpty() ? null : OrderCursor.of(items.get(0));
+    }
+
+    public OrderCursor last() {
+        return items.isEmpty() ? null : OrderCursor.of(items.get(items.size() - 1));
+    }
+}
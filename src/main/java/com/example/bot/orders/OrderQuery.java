@@ -0,0 +1,15 @@
+package com.example.bot.orders;
+
+import java.util.Set;
+
+/**
+ * Фильтр для постраничного списка заказов; null/пусто — без ограничения по полю.
+ */
+public record OrderQuery(Set<OrderStatus> statuses, String service, Long chatId) {
+
+    public static final OrderQuery ALL = new OrderQuery(Set.of(), null, null);
+
+    public OrderQuery {
+        statuses = statuses == null ? Set.of() : Set.copyOf(statuses);
+    }
+}
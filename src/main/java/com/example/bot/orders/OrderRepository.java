@@ -1,9 +1,31 @@
 package com.example.bot.orders;
 
 import com.example.bot.jpa.OrderEntity;
+import com.example.bot.jpa.OrderPageQueries;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
 import java.util.List;
 
-public interface OrderRepository extends JpaRepository<OrderEntity, String> {
+public interface OrderRepository extends JpaRepository<OrderEntity, String>, OrderPageQueries {
     List<OrderEntity> findByChatId(Long chatId);
-}
\ No newline at end of file
+
+    /** Следующие различные chat_id строго после afterChatId — идёт по индексу idx_orders_chat (V4). */
+    @Query("select distinct o.chatId from OrderEntity o where o.chatId > :after order by o.chatId asc")
+    List<Long> findChatIdsAfter(@Param("after") long afterChatId, Limit limit);
+
+    /** Число заказов по (status, service, subtype) — для пересчёта статистики при старте. */
+    @Query("select o.status, o.service, o.subtype, count(o) from OrderEntity o group by o.status, o.service, o.subtype")
+    List<Object[]> countByStatusAndService();
+
+    /** Отправленные заявки (не черновики), созданные после since, по часам: (номер часа от эпохи, число). */
+    @Query(value = """
+            select floor(extract(epoch from created_at) / 3600), count(*)
+            from orders
+            where status <> 'DRAFT' and created_at >= :since
+            group by floor(extract(epoch from created_at) / 3600)""", nativeQuery = true)
+    List<Object[]> countSubmittedByHour(@Param("since") OffsetDateTime since);
+}
@@ -1,40 +1,88 @@
 package com.example.bot.orders;
 
+import com.example.bot.config.OrderCacheProperties;
+import com.example.bot.journal.OrderJournal;
 import com.example.bot.jpa.OrderPersistence;
+import com.example.bot.search.OrderSearchIndex;
+import com.example.bot.search.SearchHit;
+import com.example.bot.stats.OrderStats;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
 
+/**
+ * Заказы в памяти поверх H2 и журнала.
+ * Изменения заказов одного чата сериализованы замком чата ({@link ChatLocks}); читатели получают
+ * неизменяемые снимки {@link Order} и замков не берут. Смена статуса публикуется как
+ * {@link OrderChangedEvent} уже после снятия замка.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OrderService {
 
-    /** Основное оперативное хранилище заказов (без Redis). */
-    private final ConcurrentMap<String, Order> store = new ConcurrentHashMap<>();
+    /** Попыток изменить черновик, если другая реплика меняет его одновременно. */
+    private static final int DRAFT_ATTEMPTS = 5;
 
-    /** Индекс активного черновика по чату. */
-    private final ConcurrentMap<Long, String> activeDraftByChat = new ConcurrentHashMap<>();
+    /**
+     * Оперативное хранилище заказов: ограниченный кэш поверх H2.
+     * При общем {@link OrderStateStore} — near-cache перед ним.
+     */
+    private OrderCache store;
+
+    /** Общее состояние для нескольких реплик и указатели на активные черновики. */
+    private final OrderStateStore state;
+
+    /** Замки по чату: создание, изменение и закрытие черновика атомарны в пределах чата. */
+    private final ChatLocks locks = new ChatLocks();
 
     /** Персист на H2 (как и раньше). */
     private final OrderPersistence orderPersistence;
 
+    /** Журнал событий: быстрый рестарт и история статусов. */
+    private final OrderJournal journal;
+
+    private final OrderCacheProperties cacheProps;
+
+    /** Смены статусов — для уведомлений ({@link OrderChangedEvent}). */
+    private final ApplicationEventPublisher events;
+
+    /** Полнотекстовый индекс для /find: по всем заказам, а не только по лежащим в памяти. */
+    private final OrderSearchIndex searchIndex;
+
+    /** Счётчики для /stats: обновляются разностью снимков до и после изменения. */
+    private final OrderStats stats;
+
+    @PostConstruct
+    void init() {
+        store = new OrderCache(cacheProps.getMaxSize(),
+                cacheProps.getTerminalIdle().toNanos(),
+                cacheProps.getOpenIdle().toNanos());
+        // заказ изменила другая реплика — локальная копия устарела
+        state.onInvalidate(store::remove);
+    }
+
     /** Возвращает id активного черновика для чата, если есть. */
     public Optional<String> getActiveDraftId(Long chatId) {
-        return Optional.ofNullable(activeDraftByChat.get(chatId));
+        return Optional.ofNullable(state.activeDraft(chatId));
     }
 
     /**
      * Создаёт/обновляет черновик.
-     * Если existingOrderIdOrNull пуст — создаём новый DRAFT.
-     * Если передан description/status — применяем к объекту.
+     * Если existingOrderIdOrNull пуст — создаём новый DRAFT; если у чата уже есть активный
+     * черновик (повторное нажатие кнопки), он переиспользуется с новыми полями, а не плодится второй.
+     * Если передан description/status — применяем к снимку.
+     * При общем хранилище черновик меняется атомарно в нём, а новый заводится, только если указатель
+     * чата за это время не сменила другая реплика — иначе попытка повторяется с её черновиком.
      */
     public Order beginOrUpdateDraft(Long chatId,
                                     String service,
@@ -43,110 +91,291 @@ public class OrderService {
                                     OrderStatus statusOrNull,
                                     String existingOrderIdOrNull) {
 
-        // 1) загрузить существующий (из in-memory) или создать новый
-        Order o = null;
-        if (existingOrderIdOrNull != null && !existingOrderIdOrNull.isBlank()) {
-            o = store.get(existingOrderIdOrNull);
-        }
-        if (o == null) {
-            o = new Order();
-            o.setId(UUID.randomUUID().toString());
-            o.setChatId(chatId);
-            o.setCreatedAt(OffsetDateTime.now(ZoneOffset.UTC));
-            o.setStatus(statusOrNull != null ? statusOrNull : OrderStatus.DRAFT);
-        }
+        Order saved = null;
+        OrderStatus from = null;
+        String pointer = null;
+        ReentrantLock lock = locks.of(chatId);
+        lock.lock();
+        try {
+            // замок чата — только в этом процессе; с другой репликой разбираются попытки ниже
+            for (int attempt = 1; saved == null; attempt++) {
+                if (attempt > DRAFT_ATTEMPTS) {
+                    throw new IllegalStateException("Draft of chat " + chatId + " is changed concurrently, gave up after "
+                            + DRAFT_ATTEMPTS + " attempts");
+                }
+                OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+
+                // 1) загрузить существующий (из памяти или H2) или начать новый
+                Order existing = null;
+                if (existingOrderIdOrNull != null && !existingOrderIdOrNull.isBlank()) {
+                    existing = loadThrough(existingOrderIdOrNull);
+                }
+                boolean reuseDraft = false;
+                if (existing == null) {
+                    pointer = state.activeDraft(chatId);
+                    if (statusOrNull == null || statusOrNull == OrderStatus.DRAFT) {
+                        existing = draftOf(pointer);
+                        reuseDraft = existing != null;
+                    }
+                }
 
-        // 2) применить изменения
-        o.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
-        if (service != null) o.setService(service);
-        if (subtype != null) o.setSubtype(subtype);
-        if (descriptionOrNull != null) o.setDescription(descriptionOrNull);
-        if (statusOrNull != null) o.setStatus(statusOrNull);
+                // 2) изменения — функцией от текущего снимка: при общем хранилище она применяется к его версии
+                boolean reuse = reuseDraft;
+                UnaryOperator<Order> change = o -> {
+                    // черновик, который переиспользуем, другая реплика успела закрыть — начать заново
+                    if (reuse && o.getStatus() != OrderStatus.DRAFT) return null;
+                    Order.OrderBuilder b = reuse
+                            ? Order.builder().id(o.getId()).chatId(chatId).status(OrderStatus.DRAFT).createdAt(o.getCreatedAt())
+                            : o.toBuilder();
+                    b.updatedAt(now);
+                    if (service != null) b.service(service);
+                    if (subtype != null) b.subtype(subtype);
+                    if (descriptionOrNull != null) b.description(descriptionOrNull);
+                    if (statusOrNull != null) b.status(statusOrNull);
+                    return b.build();
+                };
 
-        // 3) сохранить
-        Order saved = save(o);
+                // 3) сохранить
+                if (existing != null && state.shared()) {
+                    String id = existing.getId();
+                    Order[] prev = new Order[1];
+                    saved = state.update(id, () -> orderPersistence.findById(id).orElse(null), o -> change.apply(prev[0] = o));
+                    if (saved != null) {
+                        from = prev[0].getStatus();
+                        record(prev[0], saved);
+                    } else {
+                        // локальная копия устарела (заказ закрыт или удалён другой репликой)
+                        store.remove(id);
+                    }
+                } else if (existing != null) {
+                    from = existing.getStatus();
+                    saved = save(change.apply(existing));
+                } else {
+                    Order created = change.apply(Order.builder().id(UUID.randomUUID().toString()).chatId(chatId)
+                            .status(OrderStatus.DRAFT).createdAt(now).build());
+                    if (created.getStatus() != OrderStatus.DRAFT) {
+                        saved = save(created, true);
+                    } else if (state.putDraftIfPointer(chatId, pointer, created)) {
+                        // указатель и сам черновик уже записаны одной операцией
+                        pointer = created.getId();
+                        record(null, created);
+                        saved = created;
+                    }
+                    // иначе другая реплика успела завести черновик — следующая попытка обновит его
+                }
+            }
 
-        // 4) обновить указатель на черновик
-        if (saved.getStatus() == OrderStatus.DRAFT) {
-            activeDraftByChat.put(chatId, saved.getId());
-        } else {
-            // финализирован — черновик больше не актуален
-            activeDraftByChat.compute(chatId, (k, v) -> (saved.getId().equals(v) ? null : v));
+            // 4) обновить указатель на черновик
+            if (saved.getStatus() == OrderStatus.DRAFT) {
+                if (!saved.getId().equals(pointer)) state.setActiveDraft(chatId, saved.getId());
+            } else {
+                // финализирован — черновик больше не актуален
+                state.clearActiveDraft(chatId, saved.getId());
+            }
+        } finally {
+            lock.unlock();
         }
+        if (saved.getStatus() != from) events.publishEvent(new OrderChangedEvent(saved, from));
         return saved;
     }
 
-    /** Универсальное сохранение заказа: in-memory + H2. */
+    /** Черновик по указателю чата, если он ещё черновик. Вызывается под замком чата. */
+    private Order draftOf(String id) {
+        if (id == null) return null;
+        Order o = loadThrough(id);
+        return o != null && o.getStatus() == OrderStatus.DRAFT ? o : null;
+    }
+
+    /** Универсальное сохранение снимка заказа: in-memory (и общее состояние) + H2. */
     public Order save(Order o) {
-        if (o.getId() == null || o.getId().isBlank()) {
-            o.setId(UUID.randomUUID().toString());
+        return save(o, o.getId() == null || o.getId().isBlank());
+    }
+
+    /** created — заказа точно ещё нет нигде, прежний снимок искать не нужно. */
+    private Order save(Order o, boolean created) {
+        if (o.getId() == null || o.getId().isBlank() || o.getCreatedAt() == null || o.getUpdatedAt() == null) {
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+            o = o.toBuilder()
+                    .id(o.getId() == null || o.getId().isBlank() ? UUID.randomUUID().toString() : o.getId())
+                    .createdAt(o.getCreatedAt() != null ? o.getCreatedAt() : now)
+                    .updatedAt(o.getUpdatedAt() != null ? o.getUpdatedAt() : now)
+                    .build();
         }
-        if (o.getCreatedAt() == null) {
-            o.setCreatedAt(OffsetDateTime.now(ZoneOffset.UTC));
+
+        // кэш, журнал и H2 видят изменения одного чата в одном порядке
+        ReentrantLock lock = locks.of(o.getChatId());
+        lock.lock();
+        try {
+            Order before = created ? null : previous(o.getId());
+            state.put(o);
+            record(before, o);
+        } finally {
+            lock.unlock();
         }
-        if (o.getUpdatedAt() == null) {
-            o.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
+        return o;
+    }
+
+    /**
+     * Прежний снимок заказа для счётчиков: из общего хранилища или памяти процесса, а если заказ
+     * оттуда вытеснен — из H2; без него изменение посчиталось бы новым заказом.
+     * Вызывается под замком чата до записи нового снимка.
+     */
+    private Order previous(String orderId) {
+        Order prev = state.shared() ? state.get(orderId) : store.peek(orderId);
+        if (prev != null) return prev;
+        try {
+            return orderPersistence.findById(orderId).orElse(null);
+        } catch (Exception ex) {
+            log.warn("H2 read failed for order {}", orderId, ex);
+            return null;
         }
+    }
 
+    /**
+     * Новый снимок уже в общем хранилище: разложить его по кэшу, поиску, счётчикам, журналу и H2.
+     * Вызывается под замком чата; before — предыдущий снимок (см. {@link #previous}), null — заказ новый.
+     */
+    private void record(Order before, Order o) {
         store.put(o.getId(), o);
+        searchIndex.index(o);
+        stats.changed(before, o);
+        journal.upserted(o);
         // write-through в H2
         try {
             orderPersistence.saveFromModel(o);
         } catch (Exception ex) {
             log.warn("H2 persistence failed for order {}", o.getId(), ex);
         }
-
         if (log.isDebugEnabled()) {
             log.debug("Saved order {} status={} chat={}", o.getId(), o.getStatus(), o.getChatId());
         }
-        return o;
     }
 
-    /** Получить заказ по id из in-memory. */
+    /** Положить в память заказ, уже сохранённый в H2 (warm start), без повторной записи. */
+    void restore(Order o) {
+        if (store.putIfAbsent(o.getId(), o) != null) return;
+        if (o.getStatus() != OrderStatus.DRAFT || o.getChatId() == null) return;
+        // у чата мог остаться не один черновик — активным считаем самый свежий, без даты — самым старым
+        state.mergeActiveDraft(o.getChatId(), o.getId(), (cur, cand) -> {
+            Order c = store.get(cur);
+            if (c == null || c.getCreatedAt() == null) return cand;
+            return o.getCreatedAt() != null && c.getCreatedAt().isBefore(o.getCreatedAt()) ? cand : cur;
+        });
+    }
+
+    /** Сколько чатов сейчас имеют незавершённый черновик. */
+    public int activeDraftCount() {
+        return state.activeDraftCount();
+    }
+
+    /** Получить заказ по id: из памяти, при промахе — из H2. */
     public Optional<Order> findById(String orderId) {
         if (orderId == null || orderId.isBlank()) return Optional.empty();
-        return Optional.ofNullable(store.get(orderId));
+        return Optional.ofNullable(loadThrough(orderId));
+    }
+
+    /** Read-through: промах кэша дочитывается из общего хранилища или H2 и кладётся обратно в память. */
+    private Order loadThrough(String orderId) {
+        Order o = store.get(orderId, state.nearCacheTtlNanos());
+        if (o != null) return o;
+        Order shared = state.get(orderId);
+        if (shared != null) {
+            store.put(orderId, shared);
+            return shared;
+        }
+        Optional<Order> fromDb;
+        try {
+            fromDb = orderPersistence.findById(orderId);
+        } catch (Exception ex) {
+            log.warn("H2 read failed for order {}", orderId, ex);
+            return null;
+        }
+        if (fromDb.isEmpty()) return null;
+        Order loaded = fromDb.get();
+        if (state.shared()) {
+            // в кэше может лежать устаревшая копия — её заменяем, а не возвращаем
+            store.put(orderId, loaded);
+            store.recordLoad();
+            return loaded;
+        }
+        Order raced = store.putIfAbsent(orderId, loaded);
+        if (raced != null) return raced;
+        store.recordLoad();
+        return loaded;
+    }
+
+    public OrderCacheStats cacheStats() {
+        return store.stats();
+    }
+
+    /** Вытеснение простаивающих заказов (завершённые уходят быстрее). */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdle() {
+        int n = store.evictExpired();
+        if (n > 0 && log.isDebugEnabled()) {
+            log.debug("Evicted {} idle orders, cache size={}", n, store.size());
+        }
+    }
+
+    /**
+     * Страница заказов по фильтру из H2 (а не из кэша): видны и вытесненные из памяти заказы.
+     * Стоимость не зависит от глубины листания — выборка идёт по индексу от курсора.
+     */
+    public OrderPage page(OrderQuery query, OrderCursor cursor, boolean older, int limit) {
+        return orderPersistence.findPage(query, cursor, older, clampLimit(limit));
     }
 
-    /** Последние N заказов (по дате создания), глобально. */
-    public List<Order> latest(int limit) {
-        int n = Math.max(1, Math.min(200, limit));
-        return store.values().stream()
-                .sorted(Comparator.comparing(Order::getCreatedAt,
-                        Comparator.nullsLast(Comparator.naturalOrder())).reversed())
-                .limit(n)
-                .collect(Collectors.toList());
+    /** Поиск по словам из описания, услуги и подтипа; лучшие совпадения первыми. */
+    public List<Order> search(String query, int limit) {
+        List<SearchHit> hits = searchIndex.search(query, clampLimit(limit));
+        List<Order> out = new ArrayList<>(hits.size());
+        for (SearchHit h : hits) {
+            Order o = loadThrough(h.orderId());
+            if (o != null) out.add(o);
+        }
+        return out;
     }
 
-    /** Последние N заказов по конкретному чату. */
-    public List<Order> latestByChat(Long chatId, int limit) {
-        int n = Math.max(1, Math.min(200, limit));
-        return store.values().stream()
-                .filter(o -> Objects.equals(o.getChatId(), chatId))
-                .sorted(Comparator.comparing(Order::getCreatedAt,
-                        Comparator.nullsLast(Comparator.naturalOrder())).reversed())
-                .limit(n)
-                .collect(Collectors.toList());
+    private static int clampLimit(int limit) {
+        return Math.max(1, Math.min(200, limit));
     }
 
     /**
      * Отмена черновика по его orderId.
      * Удаляет объект из in-memory, чистит указатель черновика и удаляет запись из H2.
+     * Заказ, который уже не черновик (заявку успели отправить), не трогает.
      */
     public void cancelDraft(String orderId) {
         if (orderId == null || orderId.isBlank()) return;
 
-        Order removed = store.remove(orderId);
-        if (removed == null) return;
+        // черновик мог быть вытеснен из памяти — подтягиваем, чтобы корректно снять указатель
+        Order current = loadThrough(orderId);
+        if (current == null) return;
+        Order removed;
+        ReentrantLock lock = locks.of(current.getChatId());
+        lock.lock();
+        try {
+            // под замком чата — актуальный снимок: отправка могла опередить отмену
+            removed = state.shared() ? state.get(orderId) : null;
+            if (removed == null) removed = store.peek(orderId);
+            if (removed == null || removed.getStatus() != OrderStatus.DRAFT) return;
+            store.remove(orderId);
+            searchIndex.remove(orderId);
+            stats.removed(removed);
+            state.remove(orderId);
+            journal.deleted(orderId);
 
-        // убрать указатель на черновик, если он на нас указывает
-        activeDraftByChat.compute(removed.getChatId(), (k, v) -> (orderId.equals(v) ? null : v));
+            // убрать указатель на черновик, если он на нас указывает
+            if (removed.getChatId() != null) state.clearActiveDraft(removed.getChatId(), orderId);
 
-        // удалить из H2
-        try {
-            orderPersistence.deleteById(orderId);
-        } catch (Exception ex) {
-            log.warn("H2 delete failed for order {}", orderId, ex);
+            // удалить из H2
+            try {
+                orderPersistence.deleteById(orderId);
+            } catch (Exception ex) {
+                log.warn("H2 delete failed for order {}", orderId, ex);
+            }
+        } finally {
+            lock.unlock();
         }
 
         if (log.isDebugEnabled()) {
@@ -156,9 +385,15 @@ public class OrderService {
 
     /** Обратная совместимость: отменить черновик по chatId. */
     public void cancelDraft(Long chatId) {
-        String draftId = activeDraftByChat.get(chatId);
-        if (draftId != null) {
-            cancelDraft(draftId);
+        ReentrantLock lock = locks.of(chatId);
+        lock.lock();
+        try {
+            String draftId = state.activeDraft(chatId);
+            if (draftId != null) {
+                cancelDraft(draftId);
+            }
+        } finally {
+            lock.unlock();
         }
         if (log.isDebugEnabled()) {
             log.debug("Cancel draft requested for chat={}", chatId);
@@ -170,29 +405,57 @@ public class OrderService {
         if (orderId == null || orderId.isBlank() || newStatus == null) {
             return Optional.empty();
         }
-        Order updated = store.computeIfPresent(orderId, (id, o) -> {
-            o.setStatus(newStatus);
-            o.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
-
-            if (newStatus == OrderStatus.DRAFT) {
-                activeDraftByChat.put(o.getChatId(), o.getId());
-            } else {
-                activeDraftByChat.compute(o.getChatId(), (k, v) -> (o.getId().equals(v) ? null : v));
-            }
-            return o;
-        });
-
-        if (updated == null) {
+        // chatId у заказа не меняется — по нему берём замок до чтения актуального снимка
+        Order current = loadThrough(orderId);
+        if (current == null) {
             log.warn("updateStatus: order {} not found", orderId);
             return Optional.empty();
         }
-
-        // персист в H2
+        Order[] before = new Order[1];
+        Order updated;
+        ReentrantLock lock = locks.of(current.getChatId());
+        lock.lock();
         try {
-            orderPersistence.saveFromModel(updated);
-        } catch (Exception ex) {
-            log.warn("H2 persistence failed on updateStatus for order {}", orderId, ex);
+            UnaryOperator<Order> change = o -> {
+                before[0] = o;
+                return o.toBuilder()
+                        .status(newStatus)
+                        .updatedAt(OffsetDateTime.now(ZoneOffset.UTC))
+                        .build();
+            };
+            if (state.shared()) {
+                // изменение атомарно применяется в общем хранилище (промах дочитывается из H2 под WATCH),
+                // локальная копия просто заменяется; в обход общего хранилища не пишем
+                updated = state.update(orderId, () -> orderPersistence.findById(orderId).orElse(null), change);
+                if (updated != null) store.put(orderId, updated);
+            } else {
+                updated = store.computeIfPresent(orderId, (id, o) -> change.apply(o));
+            }
+
+            if (updated == null) {
+                log.warn("updateStatus: order {} not found", orderId);
+                return Optional.empty();
+            }
+            if (updated.getChatId() != null) {
+                if (newStatus == OrderStatus.DRAFT) {
+                    state.setActiveDraft(updated.getChatId(), orderId);
+                } else {
+                    state.clearActiveDraft(updated.getChatId(), orderId);
+                }
+            }
+            stats.changed(before[0], updated);
+            journal.statusChanged(orderId, before[0].getStatus(), newStatus, updated.getUpdatedAt());
+
+            // персист в H2
+            try {
+                orderPersistence.saveFromModel(updated);
+            } catch (Exception ex) {
+                log.warn("H2 persistence failed on updateStatus for order {}", orderId, ex);
+            }
+        } finally {
+            lock.unlock();
         }
+        if (before[0].getStatus() != newStatus) events.publishEvent(new OrderChangedEvent(updated, before[0].getStatus()));
         return Optional.of(updated);
     }
 }
\ No newline at end of file
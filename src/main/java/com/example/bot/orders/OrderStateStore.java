@@ -0,0 +1,62 @@
+package com.example.bot.orders;
+
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Общий уровень оперативного состояния заказов поверх локального кэша OrderService.
+ * <p>
+ * OrderService всегда держит заказы в своём ограниченном кэше. Для одного экземпляра
+ * ({@link LocalOrderStateStore}) кэш и есть всё состояние: общий уровень пуст, указатели
+ * на черновики — в памяти. Для нескольких реплик (Redis) локальный кэш становится near-cache:
+ * промах читается из общего хранилища, каждое изменение пишется туда же, а остальные реплики
+ * получают сигнал сбросить свою копию.
+ */
+public interface OrderStateStore {
+
+    /** Видят ли изменения другие экземпляры; false — локальный кэш авторитетен. */
+    boolean shared();
+
+    /** Сколько локальная копия заказа отдаётся без сверки с общим хранилищем. */
+    long nearCacheTtlNanos();
+
+    /** Заказ из общего хранилища или null. */
+    Order get(String orderId);
+
+    void put(Order o);
+
+    void remove(String orderId);
+
+    /**
+     * Атомарно изменить заказ в общем хранилище. Если там его нет (истёк срок), он читается через load
+     * и записывается уже изменённым в той же оптимистичной транзакции. change может вернуть null —
+     * тогда ничего не пишется.
+     * @return новое состояние; null — заказа нет и в load или change отказался. Локальное хранилище
+     *         всегда возвращает null: там изменение применяется к кэшу OrderService
+     */
+    Order update(String orderId, Supplier<Order> load, UnaryOperator<Order> change);
+
+    /** Активный черновик чата или null. */
+    String activeDraft(long chatId);
+
+    void setActiveDraft(long chatId, String orderId);
+
+    /**
+     * Завести черновик: одной операцией записать его и сделать активным, только если указатель чата
+     * всё ещё expected (null — указателя нет). false — указатель успела сменить другая реплика.
+     */
+    boolean putDraftIfPointer(long chatId, String expected, Order draft);
+
+    /** Снять указатель, только если он всё ещё указывает на orderId. */
+    void clearActiveDraft(long chatId, String orderId);
+
+    /** Warm start: записать указатель, при конфликте выбрать через pick(текущий, кандидат). */
+    void mergeActiveDraft(long chatId, String orderId, BinaryOperator<String> pick);
+
+    int activeDraftCount();
+
+    /** Подписка на изменения заказов другими экземплярами (id заказа, чью копию надо сбросить). */
+    void onInvalidate(Consumer<String> listener);
+}
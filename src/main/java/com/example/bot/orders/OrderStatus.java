@@ -1,2 +1,18 @@
 package com.example.bot.orders;
-public enum OrderStatus { DRAFT, NEW, WAITING_DISPATCHER, IN_PROGRESS, COMPLETED, CANCELED }
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum OrderStatus {
+    DRAFT, NEW, WAITING_DISPATCHER, IN_PROGRESS, COMPLETED, CANCELED;
+
+    /** Заявки, которые ещё ждут работы диспетчера. */
+    public static final Set<OrderStatus> OPEN =
+            Collections.unmodifiableSet(EnumSet.of(NEW, WAITING_DISPATCHER, IN_PROGRESS));
+
+    /** Работа по заявке закончена — больше не меняется. */
+    public boolean isTerminal() {
+        return this == COMPLETED || this == CANCELED;
+    }
+}
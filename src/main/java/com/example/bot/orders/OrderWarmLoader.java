@@ -0,0 +1,199 @@
+package com.example.bot.orders;
+
+import com.example.bot.config.WarmupProperties;
+import com.example.bot.journal.OrderJournal;
+import com.example.bot.journal.ReplayedOrder;
+import com.example.bot.jpa.BotStateEntity;
+import com.example.bot.jpa.BotStateJpaRepository;
+import com.example.bot.jpa.OrderEntity;
+import com.example.bot.jpa.OrderJpaRepository;
+import com.example.bot.jpa.OrderPersistence;
+import com.example.bot.jpa.OrderWriteBehind;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Warm start: после рестарта восстанавливает in-memory хранилище OrderService.
+ * Если есть журнал заказов — из него (снапшот + хвост событий, без запросов к H2).
+ * Иначе из H2: строки читаются keyset-страницами (без findAll в один список), каждая страница
+ * раскладывается по store/индексам в пуле потоков, пока читается следующая. Строки без created_at
+ * (окно по времени к ним неприменимо, как и при загрузке из журнала) читаются отдельным проходом по id.
+ * Загруженное из H2 сразу записывается снапшотом в журнал — следующий старт пойдёт через него.
+ * Выполняется до старта веб-сервера, поэтому первые апдейты уже видят заказы.
+ * <p>
+ * Журнал берётся, только если его поколение совпадает с записанным в H2 (bot_state): процесс
+ * с выключенным журналом поколение в H2 стирает, журнал с упавшей записью — у себя, и тогда
+ * прогрев идёт из H2 с новым снапшотом. После падения при write-behind часть изменений могла
+ * остаться только в журнале: всё, что менялось в журнале позже отметки последнего сброса
+ * write-behind (минус запас), заново ставится в запись — MERGE и DELETE повторять безопасно.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderWarmLoader {
+
+    static final String JOURNAL_GENERATION_KEY = "journal.generation";
+    /** Запас к отметке write-behind: время события и время сброса берутся в разных потоках. */
+    static final Duration RESYNC_MARGIN = Duration.ofMinutes(1);
+
+    private final OrderJpaRepository repo;
+    private final OrderService orderService;
+    private final WarmupProperties props;
+    private final OrderJournal journal;
+    private final BotStateJpaRepository stateRepo;
+    private final OrderPersistence persistence;
+
+    @PostConstruct
+    void load() {
+        // без журнала H2 получит изменения, которых он не увидит
+        if (!journal.enabled()) stateRepo.deleteById(JOURNAL_GENERATION_KEY);
+        if (!props.isEnabled()) {
+            log.info("Warm start disabled");
+            return;
+        }
+        long t0 = System.nanoTime();
+        Set<OrderStatus> statuses = props.getStatuses() == null || props.getStatuses().isEmpty()
+                ? EnumSet.allOf(OrderStatus.class)
+                : EnumSet.copyOf(props.getStatuses());
+        OffsetDateTime afterTs = props.getWindow() != null
+                ? OffsetDateTime.now(ZoneOffset.UTC).minus(props.getWindow())
+                : OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        if (journal.hasState()) {
+            Long expected = stateRepo.findById(JOURNAL_GENERATION_KEY).map(BotStateEntity::getValue).orElse(null);
+            if (expected != null && Objects.equals(expected, journal.generation())) {
+                loadFromJournal(statuses, afterTs, t0);
+                return;
+            }
+            log.warn("Order journal is out of sync with H2 (generation {} vs {} in H2), warming up from H2",
+                    journal.generation(), expected);
+        }
+        String afterId = "";
+        // для начального снапшота журнала; без журнала не копим
+        Queue<Order> loaded = journal.enabled() ? new ConcurrentLinkedQueue<>() : null;
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, props.getParallelism()));
+        List<Future<?>> tasks = new ArrayList<>();
+        long rows = 0;
+        try {
+            while (true) {
+                List<OrderEntity> page = repo.findUndatedPageAfter(statuses, afterId, Limit.of(props.getPageSize()));
+                if (page.isEmpty()) break;
+                rows += page.size();
+                afterId = page.get(page.size() - 1).getId();
+                tasks.add(pool.submit(() -> restore(page, loaded)));
+                if (page.size() < props.getPageSize()) break;
+            }
+            afterId = "";
+            while (true) {
+                List<OrderEntity> page = repo.findPageAfter(statuses, afterTs, afterId, Limit.of(props.getPageSize()));
+                if (page.isEmpty()) break;
+                rows += page.size();
+                OrderEntity last = page.get(page.size() - 1);
+                afterTs = last.getCreatedAt();
+                afterId = last.getId();
+                tasks.add(pool.submit(() -> restore(page, loaded)));
+                if (page.size() < props.getPageSize()) break;
+            }
+            for (Future<?> f : tasks) f.get();
+        } catch (Exception e) {
+            throw new IllegalStateException("Warm start from H2 failed after " + rows + " rows", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        log.info("Warm start: loaded {} orders ({} active drafts) in {} ms, window={}, statuses={}",
+                rows, orderService.activeDraftCount(), (System.nanoTime() - t0) / 1_000_000, props.getWindow(), statuses);
+        if (loaded != null && journal.seed(loaded)) {
+            long generation = ThreadLocalRandom.current().nextLong();
+            stateRepo.save(new BotStateEntity(JOURNAL_GENERATION_KEY, generation));
+            journal.markInSync(generation);
+        }
+        // H2 только что прочитана целиком — всё, что было до этой минуты, в ней есть
+        resetSyncedAt();
+    }
+
+    private void restore(List<OrderEntity> page, Queue<Order> loaded) {
+        for (OrderEntity e : page) {
+            Order o = e.toModel();
+            orderService.restore(o);
+            if (loaded != null) loaded.add(o);
+        }
+    }
+
+    private void loadFromJournal(Set<OrderStatus> statuses, OffsetDateTime after, long t0) {
+        List<ReplayedOrder> all;
+        try {
+            all = journal.replay();
+        } catch (Exception e) {
+            throw new IllegalStateException("Warm start from order journal failed", e);
+        }
+        int rows = 0;
+        int live = 0;
+        for (ReplayedOrder r : all) {
+            if (r.deleted()) continue;
+            live++;
+            Order o = r.order();
+            if (!statuses.contains(o.getStatus())) continue;
+            if (o.getCreatedAt() != null && o.getCreatedAt().isBefore(after)) continue;
+            orderService.restore(o);
+            rows++;
+        }
+        log.info("Warm start from journal: loaded {} of {} orders ({} active drafts) in {} ms, window={}, statuses={}",
+                rows, live, orderService.activeDraftCount(), (System.nanoTime() - t0) / 1_000_000,
+                props.getWindow(), statuses);
+        resync(all);
+    }
+
+    /**
+     * Довести до H2 изменения, которые после падения есть только в журнале: всё, что менялось
+     * позже отметки последнего сброса write-behind. Отметки нет — write-behind не отставал.
+     */
+    private void resync(List<ReplayedOrder> all) {
+        Long syncedAt = stateRepo.findById(OrderWriteBehind.SYNCED_AT_KEY).map(BotStateEntity::getValue).orElse(null);
+        if (syncedAt != null) {
+            OffsetDateTime since = Instant.ofEpochMilli(syncedAt).atOffset(ZoneOffset.UTC).minus(RESYNC_MARGIN);
+            int saved = 0;
+            int deleted = 0;
+            for (ReplayedOrder r : all) {
+                if (r.changedAt() != null && r.changedAt().isBefore(since)) continue;
+                if (r.deleted()) {
+                    persistence.deleteById(r.id());
+                    deleted++;
+                } else {
+                    persistence.saveFromModel(r.order());
+                    saved++;
+                }
+            }
+            log.info("Re-persisting orders changed in the journal since {}: {} saved, {} deleted", since, saved, deleted);
+        }
+        // при write-behind отметку двинет сброс повторённых записей
+        if (syncedAt == null || !persistence.writeBehindEnabled()) resetSyncedAt();
+    }
+
+    /** Всё, что было до этой минуты, в H2 есть: при write-behind — отметка «сейчас», без него отметка не нужна. */
+    private void resetSyncedAt() {
+        if (persistence.writeBehindEnabled()) {
+            stateRepo.save(new BotStateEntity(OrderWriteBehind.SYNCED_AT_KEY, System.currentTimeMillis()));
+        } else {
+            stateRepo.deleteById(OrderWriteBehind.SYNCED_AT_KEY);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.bot.outbound;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/** /actuator/outbound — глубина очереди и счётчики троттлинга исходящих сообщений. */
+@Component
+@Endpoint(id = "outbound")
+@RequiredArgsConstructor
+public class OutboundEndpoint {
+
+    private final OutboundSender sender;
+
+    @ReadOperation
+    public OutboundStats stats() {
+        return sender.stats();
+    }
+}
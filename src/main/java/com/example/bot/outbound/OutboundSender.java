@@ -0,0 +1,375 @@
+package com.example.bot.outbound;
+
+import com.example.bot.config.OutboundProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.botapimethods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.botapimethods.PartialBotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendDocument;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.message.Message;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+import org.telegram.telegrambots.meta.generics.TelegramClient;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Очередь исходящих вызовов Telegram API с учётом лимитов.
+ * <p>
+ * В каждом чате одновременно "в полёте" не больше одного вызова, следующий планируется
+ * только после завершения предыдущего — так сохраняется порядок сообщений и работает
+ * лимит на чат. Поверх этого все вызовы проходят через общий глобальный бакет.
+ * На 429 вызов повторяется через retry_after, не теряя места в очереди чата.
+ * Вызовы асинхронные: рабочие потоки только выдерживают лимиты и отдают запрос OkHttp,
+ * поэтому задержка сети не ограничивает пропускную способность.
+ * <p>
+ * Массовые рассылки ({@link #submitBulk}) идут отдельной полосой: воркер берёт их, только когда
+ * нет готовых интерактивных вызовов, и не чаще bulk-rate — остаток глобального лимита
+ * всегда достаётся ответам пользователям.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboundSender {
+
+    private final TelegramClient client;
+    private final OutboundProperties props;
+    private final MeterRegistry meterRegistry;
+
+    // ключ чата (см. chatKey) -> очередь чата; удаляется, когда пуста и её бакет восстановился
+    private final ConcurrentMap<Object, ChatQueue> chats = new ConcurrentHashMap<>();
+    // вызовы, уже прошедшие лимит чата, упорядоченные по времени готовности
+    private final DelayQueue<Ready> ready = new DelayQueue<>();
+    // то же для рассылок; выбираются после ready
+    private final DelayQueue<Ready> bulkReady = new DelayQueue<>();
+    private final AtomicLong seq = new AtomicLong();
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong throttledByChat = new AtomicLong();
+    private final AtomicLong throttledGlobal = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+
+    private TokenBucket global;
+    private TokenBucket bulk;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        global = new TokenBucket(props.getGlobalRate(), props.getGlobalBurst());
+        bulk = new TokenBucket(Math.min(props.getBulkRate(), props.getGlobalRate()), 1);
+        running = true;
+        for (int i = 0; i < props.getWorkers(); i++) {
+            Thread t = Thread.ofPlatform().daemon().name("tg-out-" + i).start(this::workLoop);
+            workers.add(t);
+        }
+        log.info("OutboundSender started: global {}/s, per chat {}/s, {} workers",
+                props.getGlobalRate(), props.getChatRate(), props.getWorkers());
+    }
+
+    /** Отправить сообщение; чат берётся из самого SendMessage. */
+    public CompletableFuture<Message> send(SendMessage message) {
+        return enqueue(new Task<>(chatKey(message.getChatId()), message, false));
+    }
+
+    /**
+     * Ключ очереди чата: числовой id — Long (как у {@link #submit}), "@username" канала — сама строка.
+     * Числом такой id не разбирается, но лимит и порядок на чат ему нужны так же.
+     */
+    static Object chatKey(String chatId) {
+        if (chatId == null) return null;
+        if (!chatId.startsWith("@")) {
+            try {
+                return Long.valueOf(chatId);
+            } catch (NumberFormatException ignored) {
+                // не число и не @username — очередь под исходной строкой
+            }
+        }
+        return chatId;
+    }
+
+    /**
+     * Поставить вызов в очередь.
+     * @param chatId чат для лимита и порядка; null — вызов не привязан к чату (только глобальный лимит).
+     */
+    public <T extends Serializable> CompletableFuture<T> submit(Long chatId, BotApiMethod<T> method) {
+        return enqueue(new Task<>(chatId, method, false));
+    }
+
+    /**
+     * Поставить вызов массовой рассылки: после интерактивных и не быстрее bulk-rate.
+     * Порядок и лимит чата общие с обычными вызовами.
+     */
+    public <T extends Serializable> CompletableFuture<T> submitBulk(long chatId, BotApiMethod<T> method) {
+        return enqueue(new Task<>(chatId, method, true));
+    }
+
+    /**
+     * Отправить файл в чат в общей очереди чата. Документ должен читаться повторно (файл на диске,
+     * а не поток): после 429 вызов повторяется.
+     */
+    public CompletableFuture<Message> sendDocument(long chatId, SendDocument document) {
+        return enqueue(new Task<>(chatId, document, false));
+    }
+
+    private <T extends Serializable> CompletableFuture<T> enqueue(Task<T> task) {
+        Object chatId = task.chatId;
+        if (!running) {
+            task.future.completeExceptionally(new IllegalStateException("OutboundSender is stopped"));
+            return task.future;
+        }
+        submitted.incrementAndGet();
+        queued.incrementAndGet();
+        if (chatId == null) {
+            lane(task).add(new Ready(System.nanoTime(), seq.incrementAndGet(), task));
+            return task.future;
+        }
+        long now = System.nanoTime();
+        Ready[] next = new Ready[1];
+        chats.compute(chatId, (k, q) -> {
+            if (q == null) q = new ChatQueue(new TokenBucket(props.getChatRate(), props.getChatBurst()));
+            if (q.busy) {
+                q.pending.addLast(task);
+            } else {
+                q.busy = true;
+                next[0] = schedule(q, task, now);
+            }
+            return q;
+        });
+        if (next[0] != null) lane(task).add(next[0]);
+        return task.future;
+    }
+
+    /** Текущее состояние очереди — для мониторинга и подбора лимитов. */
+    public OutboundStats stats() {
+        return new OutboundStats(queued.get(), ready.size(), bulkReady.size(), chats.size(),
+                submitted.get(), sent.get(), failed.get(),
+                throttledByChat.get(), throttledGlobal.get(), retried.get());
+    }
+
+    private Ready schedule(ChatQueue q, Task<?> task, long now) {
+        long wait = q.bucket.reserve(now);
+        if (wait > 0) throttledByChat.incrementAndGet();
+        return new Ready(now + wait, seq.incrementAndGet(), task);
+    }
+
+    private DelayQueue<Ready> lane(Task<?> task) {
+        return task.bulk ? bulkReady : ready;
+    }
+
+    private void workLoop() {
+        while (running || queued.get() > 0) {
+            Ready r;
+            try {
+                r = ready.poll();
+                if (r == null) r = pollBulk();
+                if (r == null) r = ready.poll(bulkWait(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (r == null) continue;
+            long wait = global.reserve(System.nanoTime());
+            if (wait > 0) {
+                throttledGlobal.incrementAndGet();
+                LockSupport.parkNanos(wait);
+            }
+            execute(r.task);
+        }
+    }
+
+    /** Готовый вызов рассылки, если интерактивных нет и бакет рассылок дал слот. */
+    private Ready pollBulk() {
+        Ready head = bulkReady.peek();
+        if (head == null || head.getDelay(TimeUnit.NANOSECONDS) > 0) return null;
+        if (bulk.tryReserve(System.nanoTime()) > 0) return null;
+        // слот занят, а вызов мог забрать соседний воркер — тогда слот просто пропадает
+        return bulkReady.poll();
+    }
+
+    /** Сколько ждать интерактивных, прежде чем снова проверить полосу рассылок. */
+    private long bulkWait() {
+        long max = TimeUnit.MILLISECONDS.toNanos(200);
+        Ready head = bulkReady.peek();
+        if (head == null) return max;
+        long wait = Math.max(head.getDelay(TimeUnit.NANOSECONDS), bulk.delay(System.nanoTime()));
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(1), Math.min(max, wait));
+    }
+
+    /** Асинхронный вызов: рабочий поток не ждёт ответа, параллельность ограничивает диспетчер OkHttp. */
+    @SuppressWarnings("unchecked")
+    private <T extends Serializable> void execute(Task<T> task) {
+        long t0 = System.nanoTime();
+        CompletableFuture<T> call;
+        try {
+            // multipart-методы у клиента отдельными перегрузками
+            call = task.method instanceof SendDocument d
+                    ? (CompletableFuture<T>) client.executeAsync(d)
+                    : client.executeAsync((BotApiMethod<T>) task.method);
+        } catch (Exception e) {
+            onFailure(task, e, t0);
+            return;
+        }
+        call.whenComplete((result, err) -> {
+            if (err == null) {
+                record(task, "ok", t0);
+                sent.incrementAndGet();
+                done(task);
+                task.future.complete(result);
+            } else {
+                onFailure(task, err instanceof CompletionException && err.getCause() != null ? err.getCause() : err, t0);
+            }
+        });
+    }
+
+    private void onFailure(Task<?> task, Throwable e, long t0) {
+        if (e instanceof TelegramApiRequestException re) {
+            Integer code = re.getErrorCode();
+            record(task, code != null && code == 429 ? "too_many_requests" : "error", t0);
+            if (code != null && code == 429 && task.attempts < props.getMaxRetries()) {
+                task.attempts++;
+                retried.incrementAndGet();
+                long delaySec = retryAfter(re);
+                log.warn("429 from Telegram for chat {}, retry #{} in {}s", task.chatId, task.attempts, delaySec);
+                // чат остаётся занят — следующие сообщения ждут этот повтор
+                lane(task).add(new Ready(System.nanoTime() + TimeUnit.SECONDS.toNanos(delaySec), seq.incrementAndGet(), task));
+                return;
+            }
+        } else {
+            record(task, "error", t0);
+        }
+        fail(task, e);
+    }
+
+    private void record(Task<?> task, String outcome, long t0) {
+        Timer.builder("telegram.api.latency")
+                .tag("method", task.method.getMethod())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+    }
+
+    private static long retryAfter(TelegramApiRequestException e) {
+        var p = e.getParameters();
+        Integer sec = p != null ? p.getRetryAfter() : null;
+        return sec != null && sec > 0 ? sec : 1;
+    }
+
+    private void fail(Task<?> task, Throwable e) {
+        failed.incrementAndGet();
+        log.warn("Telegram call {} for chat {} failed: {}", task.method.getMethod(), task.chatId, e.toString());
+        done(task);
+        task.future.completeExceptionally(e);
+    }
+
+    /** Вызов завершён: освобождаем чат и планируем его следующее сообщение. */
+    private void done(Task<?> task) {
+        queued.decrementAndGet();
+        if (task.chatId == null) return;
+        long now = System.nanoTime();
+        Ready[] next = new Ready[1];
+        chats.computeIfPresent(task.chatId, (k, q) -> {
+            Task<?> t = q.pending.pollFirst();
+            if (t == null) {
+                q.busy = false;
+            } else {
+                next[0] = schedule(q, t, now);
+            }
+            return q;
+        });
+        if (next[0] != null) lane(next[0].task).add(next[0]);
+    }
+
+    /** Выбросить очереди простаивающих чатов, чьи бакеты уже восстановились. */
+    @Scheduled(fixedDelay = 30_000)
+    public void evictIdleChats() {
+        long now = System.nanoTime();
+        for (Object chatId : chats.keySet()) {
+            chats.computeIfPresent(chatId, (k, q) -> q.canEvict(now) ? null : q);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        long deadline = System.nanoTime() + props.getShutdownTimeout().toNanos();
+        for (Thread t : workers) {
+            try {
+                long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (left > 0) t.join(left);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.forEach(Thread::interrupt);
+        if (queued.get() > 0) {
+            log.warn("OutboundSender stopped with {} unsent calls", queued.get());
+        }
+    }
+
+    private static final class Task<T extends Serializable> {
+        final Object chatId;
+        final PartialBotApiMethod<T> method;
+        final boolean bulk;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        int attempts;
+
+        Task(Object chatId, PartialBotApiMethod<T> method, boolean bulk) {
+            this.chatId = chatId;
+            this.method = method;
+            this.bulk = bulk;
+        }
+    }
+
+    /** Очередь одного чата. Доступ только внутри chats.compute*(). */
+    private static final class ChatQueue {
+        final TokenBucket bucket;
+        final ArrayDeque<Task<?>> pending = new ArrayDeque<>(2);
+        boolean busy;
+
+        ChatQueue(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+
+        boolean canEvict(long now) {
+            return !busy && pending.isEmpty() && bucket.isIdle(now);
+        }
+    }
+
+    private record Ready(long readyAtNanos, long seq, Task<?> task) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(readyAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            Ready other = (Ready) o;
+            int c = Long.compare(readyAtNanos, other.readyAtNanos);
+            return c != 0 ? c : Long.compare(seq, other.seq);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.bot.outbound;
+
+/**
+ * Снимок состояния {@link OutboundSender}.
+ *
+ * @param queued          вызовы, принятые в очередь и ещё не завершённые
+ * @param ready           вызовы, прошедшие лимит чата и ждущие свободного воркера/глобального токена
+ * @param bulkReady       то же для массовых рассылок — они ждут ещё и свой бакет bulk-rate
+ * @param chats           чаты с активной очередью или не восстановившимся бакетом
+ * @param throttledByChat сколько раз вызов отложен лимитом чата
+ * @param throttledGlobal сколько раз воркер ждал глобальный токен
+ * @param retried         повторы после 429
+ */
+public record OutboundStats(int queued,
+                            int ready,
+                            int bulkReady,
+                            int chats,
+                            long submitted,
+                            long sent,
+                            long failed,
+                            long throttledByChat,
+                            long throttledGlobal,
+                            long retried) {
+}
@@ -0,0 +1,43 @@
+package com.example.bot.outbound;
+
+/**
+ * Token bucket в форме GCRA: вместо счётчика токенов хранится "теоретическое время прибытия"
+ * следующего вызова. reserve() резервирует слот и говорит, сколько до него ждать.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private long tat;
+
+    TokenBucket(double perSecond, int burst) {
+        this.intervalNanos = (long) (1_000_000_000L / perSecond);
+        this.toleranceNanos = intervalNanos * Math.max(0, burst - 1);
+        this.tat = System.nanoTime();
+    }
+
+    /** Занять слот; возвращает задержку в наносекундах (0 — можно сразу). */
+    synchronized long reserve(long nowNanos) {
+        long wait = Math.max(0, tat - toleranceNanos - nowNanos);
+        tat = Math.max(tat, nowNanos) + intervalNanos;
+        return wait;
+    }
+
+    /** Сколько ждать ближайшего слота, ничего не занимая. */
+    synchronized long delay(long nowNanos) {
+        return Math.max(0, tat - toleranceNanos - nowNanos);
+    }
+
+    /** Занять слот, только если он свободен прямо сейчас; иначе — сколько ждать (бакет не меняется). */
+    synchronized long tryReserve(long nowNanos) {
+        long wait = tat - toleranceNanos - nowNanos;
+        if (wait > 0) return wait;
+        tat = Math.max(tat, nowNanos) + intervalNanos;
+        return 0;
+    }
+
+    /** Бакет полностью восстановился — состояние можно выбросить без потери лимита. */
+    synchronized boolean isIdle(long nowNanos) {
+        return tat - nowNanos <= 0;
+    }
+}
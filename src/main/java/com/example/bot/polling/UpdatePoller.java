@@ -0,0 +1,165 @@
+package com.example.bot.polling;
+
+import com.example.bot.config.BotProperties;
+import com.example.bot.config.IngestProperties;
+import com.example.bot.core.UpdateDispatcher;
+import com.example.bot.jpa.BotStateEntity;
+import com.example.bot.jpa.BotStateJpaRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.updates.DeleteWebhook;
+import org.telegram.telegrambots.meta.api.methods.updates.GetUpdates;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+import org.telegram.telegrambots.meta.generics.TelegramClient;
+
+import java.util.List;
+
+/**
+ * Получение апдейтов через getUpdates вместо вебхука (telegram.ingest.mode=polling).
+ * <p>
+ * Один поток забирает пачки long polling'ом и отдаёт их в UpdateDispatcher — дальше всё как у вебхука
+ * (отсев повторов, очереди по чатам). Offset — id следующего нужного апдейта — хранится в H2,
+ * поэтому после рестарта чтение продолжается с того же места. Если диспетчер переполнен,
+ * offset не сдвигается и непринятые апдейты будут получены снова.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "telegram.ingest", name = "mode", havingValue = "polling")
+public class UpdatePoller {
+
+    static final String OFFSET_KEY = "get_updates_offset";
+
+    private final TelegramClient client;
+    private final UpdateDispatcher dispatcher;
+    private final BotStateJpaRepository state;
+    private final IngestProperties props;
+    private final BotProperties botProps;
+    private final MeterRegistry meterRegistry;
+
+    private volatile boolean running;
+    private Thread thread;
+    private long offset;
+    private long savedOffset;
+    private DistributionSummary batchSize;
+
+    @PostConstruct
+    void start() {
+        var readTimeout = botProps.getHttp().getReadTimeout();
+        if (!readTimeout.isZero() && readTimeout.compareTo(props.getTimeout().plusSeconds(1)) < 0) {
+            log.warn("telegram.ingest.timeout={} is not below telegram.bot.http.read-timeout={}: long polls will time out",
+                    props.getTimeout(), readTimeout);
+        }
+        offset = state.findById(OFFSET_KEY).map(BotStateEntity::getValue).orElse(0L);
+        savedOffset = offset;
+        batchSize = DistributionSummary.builder("bot.polling.batch.size")
+                .description("Апдейтов в одном ответе getUpdates").register(meterRegistry);
+        running = true;
+        thread = Thread.ofPlatform().name("tg-poll").start(this::pollLoop);
+        log.info("Polling getUpdates from offset {} (limit={}, timeout={})", offset, props.getLimit(), props.getTimeout());
+    }
+
+    private void pollLoop() {
+        // пока у бота есть вебхук, getUpdates отвечает 409
+        try {
+            client.execute(new DeleteWebhook());
+        } catch (TelegramApiException e) {
+            log.warn("deleteWebhook failed: {}", e.getMessage());
+        }
+        long backoffMs = props.getBackoff().toMillis();
+        while (running) {
+            try {
+                List<Update> batch = client.execute(request());
+                batchSize.record(batch == null ? 0 : batch.size());
+                boolean accepted = dispatchAll(batch);
+                saveOffset();
+                backoffMs = props.getBackoff().toMillis();
+                if (!accepted) pause(backoffMs);
+            } catch (TelegramApiRequestException e) {
+                if (!running) break;
+                Integer code = e.getErrorCode();
+                if (code != null && code == 409) {
+                    log.warn("getUpdates conflict: another instance is polling or a webhook is set — {}", e.getMessage());
+                } else {
+                    log.warn("getUpdates failed ({}): {}", code, e.getMessage());
+                }
+                pause(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, props.getMaxBackoff().toMillis());
+            } catch (Exception e) {
+                if (!running) break;
+                log.warn("getUpdates failed: {}", e.toString());
+                pause(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, props.getMaxBackoff().toMillis());
+            }
+        }
+        saveOffset();
+    }
+
+    private GetUpdates request() {
+        var b = GetUpdates.builder()
+                .offset((int) offset)
+                .limit(props.getLimit())
+                .timeout((int) props.getTimeout().toSeconds());
+        if (!props.getAllowedUpdates().isEmpty()) {
+            b.allowedUpdates(props.getAllowedUpdates());
+        }
+        return b.build();
+    }
+
+    /** @return false — диспетчер не принял очередной апдейт, остаток пачки придёт в следующем запросе. */
+    private boolean dispatchAll(List<Update> batch) {
+        if (batch == null) return true;
+        for (Update u : batch) {
+            if (!dispatcher.dispatch(u)) {
+                log.warn("Dispatcher is full, pause polling at upd#{}", u.getUpdateId());
+                return false;
+            }
+            offset = Math.max(offset, u.getUpdateId() + 1L);
+        }
+        return true;
+    }
+
+    private void saveOffset() {
+        if (offset == savedOffset) return;
+        try {
+            state.save(new BotStateEntity(OFFSET_KEY, offset));
+            savedOffset = offset;
+        } catch (Exception e) {
+            // не страшно: Telegram сам помнит подтверждённый offset, а повторы отсеет диспетчер
+            log.warn("Failed to persist getUpdates offset {}: {}", offset, e.toString());
+        }
+    }
+
+    private void pause(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (thread == null) return;
+        try {
+            // текущий long poll сам завершится не позже чем через timeout
+            thread.join(props.getTimeout().toMillis() + 2_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            thread.interrupt();
+            log.warn("Poller did not stop in time, offset {} may be re-read", offset);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.bot.redis;
+
+import com.example.bot.config.OrderCacheProperties;
+import com.example.bot.config.StateProperties;
+import com.example.bot.orders.Order;
+import com.example.bot.orders.OrderStateStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Оперативное состояние заказов в Redis (bot.state.store=redis).
+ * <ul>
+ *   <li>{@code <prefix>order:<id>} — JSON заказа; TTL как у локального кэша: открытые живут
+ *       order-cache.open-idle, завершённые — terminal-idle (потом читаются из H2);</li>
+ *   <li>{@code <prefix>drafts} — hash chatId → id активного черновика.</li>
+ * </ul>
+ * Смена статуса — оптимистичная транзакция WATCH/MULTI с повтором при конфликте,
+ * так две реплики не затрут изменения друг друга. Заказ, которого в Redis уже нет, дочитывается
+ * из H2 под тем же WATCH: если другая реплика успела его записать, попытка повторяется с её версией.
+ * Новый черновик и указатель на него пишутся одним скриптом, только если указатель чата не сменился.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "bot.state", name = "store", havingValue = "redis")
+@RequiredArgsConstructor
+public class RedisOrderStateStore implements OrderStateStore {
+
+    private static final String KIND = "order";
+
+    // снять указатель, только если он всё ещё на этот заказ
+    private static final RedisScript<Long> CLEAR_DRAFT = new DefaultRedisScript<>("""
+            if redis.call('HGET', KEYS[1], ARGV[1]) == ARGV[2] then
+              return redis.call('HDEL', KEYS[1], ARGV[1])
+            end
+            return 0""", Long.class);
+
+    // завести черновик, только если указатель чата не сменился (пустая строка — указателя не было)
+    private static final RedisScript<Long> PUT_DRAFT = new DefaultRedisScript<>("""
+            local cur = redis.call('HGET', KEYS[1], ARGV[1])
+            if (cur or '') ~= ARGV[2] then
+              return 0
+            end
+            redis.call('SET', KEYS[2], ARGV[4], 'PX', ARGV[5])
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[3])
+            return 1""", Long.class);
+
+    // исходы одной попытки update(), отличимые от настоящего заказа по ссылке
+    private static final Order MISSING = Order.builder().build();
+    private static final Order CONFLICT = Order.builder().build();
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper mapper;
+    private final StateInvalidationBus bus;
+    private final StateProperties props;
+    private final OrderCacheProperties cacheProps;
+
+    private String draftsKey;
+
+    @PostConstruct
+    void init() {
+        draftsKey = props.getKeyPrefix() + "drafts";
+    }
+
+    @Override
+    public boolean shared() {
+        return true;
+    }
+
+    @Override
+    public long nearCacheTtlNanos() {
+        return props.getNearCacheTtl().toNanos();
+    }
+
+    @Override
+    public Order get(String orderId) {
+        String json = redis.opsForValue().get(key(orderId));
+        return json != null ? read(orderId, json) : null;
+    }
+
+    @Override
+    public void put(Order o) {
+        redis.opsForValue().set(key(o.getId()), write(o), ttl(o));
+        bus.publish(KIND, o.getId());
+    }
+
+    @Override
+    public void remove(String orderId) {
+        redis.delete(key(orderId));
+        bus.publish(KIND, orderId);
+    }
+
+    @Override
+    public Order update(String orderId, Supplier<Order> load, UnaryOperator<Order> change) {
+        String key = key(orderId);
+        for (int attempt = 1; attempt <= props.getMaxUpdateAttempts(); attempt++) {
+            Order result = redis.execute(new SessionCallback<Order>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Order execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    ops.watch(key);
+                    String json = ops.opsForValue().get(key);
+                    Order current = json != null ? read(orderId, json) : load.get();
+                    if (current == null) {
+                        ops.unwatch();
+                        return MISSING;
+                    }
+                    Order next = change.apply(current);
+                    if (next == null) {
+                        ops.unwatch();
+                        return MISSING;
+                    }
+                    ops.multi();
+                    ops.opsForValue().set(key, write(next), ttl(next));
+                    List<Object> done = ops.exec();
+                    // ключ изменили между WATCH и EXEC — транзакция отброшена
+                    return done == null || done.isEmpty() ? CONFLICT : next;
+                }
+            });
+            if (result == MISSING || result == null) return null;
+            if (result != CONFLICT) {
+                bus.publish(KIND, orderId);
+                return result;
+            }
+            log.debug("Concurrent update of order {}, attempt {}", orderId, attempt);
+        }
+        throw new IllegalStateException("Order " + orderId + " is updated concurrently, gave up after "
+                + props.getMaxUpdateAttempts() + " attempts");
+    }
+
+    @Override
+    public String activeDraft(long chatId) {
+        return redis.<String, String>opsForHash().get(draftsKey, Long.toString(chatId));
+    }
+
+    @Override
+    public void setActiveDraft(long chatId, String orderId) {
+        redis.<String, String>opsForHash().put(draftsKey, Long.toString(chatId), orderId);
+    }
+
+    @Override
+    public boolean putDraftIfPointer(long chatId, String expected, Order draft) {
+        Long done = redis.execute(PUT_DRAFT, List.of(draftsKey, key(draft.getId())), Long.toString(chatId),
+                expected != null ? expected : "", draft.getId(), write(draft), Long.toString(ttl(draft).toMillis()));
+        if (done == null || done == 0) return false;
+        bus.publish(KIND, draft.getId());
+        return true;
+    }
+
+    @Override
+    public void clearActiveDraft(long chatId, String orderId) {
+        redis.execute(CLEAR_DRAFT, List.of(draftsKey), Long.toString(chatId), orderId);
+    }
+
+    @Override
+    public void mergeActiveDraft(long chatId, String orderId, BinaryOperator<String> pick) {
+        // только warm start, до приёма апдейтов — атомарность здесь не нужна
+        String cur = activeDraft(chatId);
+        String chosen = cur == null ? orderId : pick.apply(cur, orderId);
+        if (!chosen.equals(cur)) setActiveDraft(chatId, chosen);
+    }
+
+    @Override
+    public int activeDraftCount() {
+        Long n = redis.opsForHash().size(draftsKey);
+        return n != null ? n.intValue() : 0;
+    }
+
+    @Override
+    public void onInvalidate(Consumer<String> listener) {
+        bus.subscribe(KIND, listener);
+    }
+
+    private Duration ttl(Order o) {
+        return o.getStatus() != null && o.getStatus().isTerminal() ? cacheProps.getTerminalIdle() : cacheProps.getOpenIdle();
+    }
+
+    private String key(String orderId) {
+        return props.getKeyPrefix() + "order:" + orderId;
+    }
+
+    private Order read(String orderId, String json) {
+        try {
+            return mapper.readValue(json, Order.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable order " + orderId + " in Redis", e);
+        }
+    }
+
+    private String write(Order o) {
+        try {
+            return mapper.writeValueAsString(o);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize order " + o.getId(), e);
+        }
+    }
+}
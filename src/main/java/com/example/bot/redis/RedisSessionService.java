@@ -0,0 +1,145 @@
+package com.example.bot.redis;
+
+import com.example.bot.config.SessionProperties;
+import com.example.bot.config.StateProperties;
+import com.example.bot.flow.ConversationSession;
+import com.example.bot.flow.SessionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Сессии в Redis — общие для всех реплик (bot.state.store=redis).
+ * <p>
+ * Ключ {@code <prefix>session:<chatId>} с JSON сессии; TTL bot.session.ttl выставляет Redis
+ * и продлевает каждый save(). Перед Redis — near-cache: копия отдаётся без запроса, пока
+ * не старше bot.state.near-cache-ttl и пока другая реплика не сообщила об изменении.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "bot.state", name = "store", havingValue = "redis")
+@RequiredArgsConstructor
+public class RedisSessionService implements SessionService {
+
+    private static final String KIND = "session";
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper mapper;
+    private final StateInvalidationBus bus;
+    private final StateProperties props;
+    private final SessionProperties sessionProps;
+
+    // chatId -> копия сессии и когда она прочитана
+    private final ConcurrentMap<Long, Near> near = new ConcurrentHashMap<>();
+    private long nearTtlNanos;
+
+    @PostConstruct
+    void init() {
+        nearTtlNanos = props.getNearCacheTtl().toNanos();
+        bus.subscribe(KIND, key -> near.remove(Long.parseLong(key)));
+        log.info("Sessions in Redis: ttl={} near-cache ttl={}", sessionProps.getTtl(), props.getNearCacheTtl());
+    }
+
+    @Override
+    public ConversationSession get(long chatId) {
+        ConversationSession s = load(chatId);
+        if (s != null) {
+            s.setLastActivityTs(nowSec());
+            return s;
+        }
+        s = ConversationSession.of(chatId);
+        write(s);
+        log.debug("Create new session for chat {}", chatId);
+        return s;
+    }
+
+    @Override
+    public void save(ConversationSession s) {
+        if (s == null) return;
+        s.setLastActivityTs(nowSec());
+        write(s);
+        bus.publish(KIND, Long.toString(s.getChatId()));
+    }
+
+    @Override
+    public void reset(long chatId) {
+        redis.delete(key(chatId));
+        near.remove(chatId);
+        bus.publish(KIND, Long.toString(chatId));
+    }
+
+    @Override
+    public Optional<ConversationSession> find(long chatId) {
+        return Optional.ofNullable(load(chatId));
+    }
+
+    /** Сессий в near-cache этого экземпляра. */
+    @Override
+    public int size() {
+        return near.size();
+    }
+
+    private ConversationSession load(long chatId) {
+        long now = System.nanoTime();
+        Near n = near.get(chatId);
+        if (n != null && now - n.loadedNanos() < nearTtlNanos) return n.session();
+        String json = redis.opsForValue().get(key(chatId));
+        if (json == null) {
+            near.remove(chatId);
+            return null;
+        }
+        ConversationSession s;
+        try {
+            s = mapper.readValue(json, ConversationSession.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable session for chat {} in Redis, starting a new one: {}", chatId, e.getOriginalMessage());
+            return null;
+        }
+        remember(chatId, s, now);
+        return s;
+    }
+
+    private void write(ConversationSession s) {
+        String json;
+        try {
+            json = mapper.writeValueAsString(s);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize session of chat " + s.getChatId(), e);
+        }
+        redis.opsForValue().set(key(s.getChatId()), json, sessionProps.getTtl());
+        remember(s.getChatId(), s, System.nanoTime());
+    }
+
+    private void remember(long chatId, ConversationSession s, long now) {
+        // переполненный near-cache просто не растёт — следующий запрос уйдёт в Redis
+        if (near.size() >= props.getNearCacheMaxSize() && !near.containsKey(chatId)) return;
+        near.put(chatId, new Near(s, now));
+    }
+
+    /** Выбросить устаревшие копии, чтобы near-cache не держал место под давно неактивные чаты. */
+    @Scheduled(fixedDelayString = "${bot.state.near-cache-ttl:5s}")
+    public void sweep() {
+        long now = System.nanoTime();
+        near.values().removeIf(n -> now - n.loadedNanos() >= nearTtlNanos);
+    }
+
+    private String key(long chatId) {
+        return props.getKeyPrefix() + "session:" + chatId;
+    }
+
+    private static long nowSec() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private record Near(ConversationSession session, long loadedNanos) {}
+}
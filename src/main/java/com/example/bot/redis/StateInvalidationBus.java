@@ -0,0 +1,80 @@
+package com.example.bot.redis;
+
+import com.example.bot.config.StateProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Сигналы «запись изменилась» между репликами через Redis pub/sub.
+ * Сообщение: {@code <id экземпляра> <вид> <ключ>}; свои сообщения игнорируются.
+ * Pub/sub не гарантирует доставку — поэтому у near-cache есть ещё и срок жизни копии.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "bot.state", name = "store", havingValue = "redis")
+@RequiredArgsConstructor
+public class StateInvalidationBus implements MessageListener {
+
+    private final StringRedisTemplate redis;
+    private final StateProperties props;
+    private final MeterRegistry meterRegistry;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+
+    private Counter sent;
+    private Counter received;
+
+    @PostConstruct
+    void init() {
+        sent = meterRegistry.counter("bot.state.invalidations", "direction", "sent");
+        received = meterRegistry.counter("bot.state.invalidations", "direction", "received");
+        log.info("State invalidation bus on channel '{}', instance {}", props.getChannel(), instanceId);
+    }
+
+    public void subscribe(String kind, Consumer<String> listener) {
+        listeners.computeIfAbsent(kind, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /** Сообщить остальным репликам, что запись изменилась. Ошибка не роняет саму запись. */
+    public void publish(String kind, String key) {
+        try {
+            redis.convertAndSend(props.getChannel(), instanceId + ' ' + kind + ' ' + key);
+            sent.increment();
+        } catch (RuntimeException e) {
+            log.warn("Invalidation {} {} not published, replicas will catch up by near-cache ttl: {}", kind, key, e.toString());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] p = new String(message.getBody(), StandardCharsets.UTF_8).split(" ", 3);
+        if (p.length < 3 || instanceId.equals(p[0])) return;
+        received.increment();
+        List<Consumer<String>> ls = listeners.get(p[1]);
+        if (ls == null) return;
+        for (Consumer<String> l : ls) {
+            try {
+                l.accept(p[2]);
+            } catch (RuntimeException e) {
+                log.warn("Invalidation listener for {} {} failed", p[1], p[2], e);
+            }
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.example.bot.search;
+
+import com.example.bot.orders.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Обратный индекс по тексту заказов (описание, услуга, подтип) для поиска диспетчером.
+ * <p>
+ * Каждая версия заказа получает номер документа по возрастанию; списки документов по терму
+ * растут только дописыванием в конец и остаются отсортированными. Изменённый заказ получает новый
+ * номер, старый помечается мёртвым; когда мёртвых набирается четверть, списки уплотняются.
+ * Поиск — пересечение списков от самого короткого (все слова запроса), если пусто — объединение;
+ * ранжирование BM25, услуга и подтип весят как три вхождения, при равенстве выше новый заказ.
+ * Индекс обновляет {@link com.example.bot.orders.OrderService}, при старте его наполняет
+ * {@link OrderSearchLoader} из H2.
+ */
+@Component
+public class OrderSearchIndex {
+
+    /** Вес слова из услуги и подтипа относительно слова из описания. */
+    private static final int TITLE_WEIGHT = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int COMPACT_MIN_DEAD = 4096;
+    private static final int MAX_QUERY_TERMS = 32;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    /** Текущий документ заказа. */
+    private final Map<String, Doc> docs = new HashMap<>();
+    /** Номер документа → id заказа; null — документ мёртв. */
+    private String[] orderIds = new String[1024];
+    private int[] lengths = new int[1024];
+    private int nextDoc;
+    private int dead;
+    private long totalLength;
+    /** Заказы, удалённые во время начальной загрузки: загрузчик не должен вернуть их из H2. */
+    private Set<String> removedDuringBuild;
+
+    /** Проиндексировать свежую версию заказа. */
+    public void index(Order o) {
+        if (o == null || o.getId() == null) return;
+        Map<String, Integer> tf = termFrequencies(o);
+        int hash = textHash(o);
+        lock.writeLock().lock();
+        try {
+            Doc prev = docs.get(o.getId());
+            if (prev != null && prev.textHash == hash) return;   // сменился статус, текст тот же
+            add(o.getId(), tf, hash);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Заказ из начальной загрузки: пропускается, если индекс уже видел его изменение или удаление. */
+    void indexLoaded(Order o) {
+        if (o == null || o.getId() == null) return;
+        Map<String, Integer> tf = termFrequencies(o);
+        lock.writeLock().lock();
+        try {
+            if (docs.containsKey(o.getId())) return;
+            if (removedDuringBuild != null && removedDuringBuild.contains(o.getId())) return;
+            add(o.getId(), tf, textHash(o));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String orderId) {
+        if (orderId == null) return;
+        lock.writeLock().lock();
+        try {
+            if (removedDuringBuild != null) removedDuringBuild.add(orderId);
+            Doc prev = docs.remove(orderId);
+            if (prev != null) kill(prev.doc);
+            maybeCompact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void beginBuild() {
+        lock.writeLock().lock();
+        try {
+            removedDuringBuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void endBuild() {
+        lock.writeLock().lock();
+        try {
+            removedDuringBuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Идёт начальная загрузка: результаты поиска могут быть неполными. */
+    public boolean building() {
+        lock.readLock().lock();
+        try {
+            return removedDuringBuild != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Заказов в индексе. */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Лучшие совпадения, от лучшего к худшему. */
+    public List<SearchHit> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.terms(query)));
+        if (terms.isEmpty() || limit <= 0) return List.of();
+        if (terms.size() > MAX_QUERY_TERMS) terms = terms.subList(0, MAX_QUERY_TERMS);
+        lock.readLock().lock();
+        try {
+            int n = docs.size();
+            if (n == 0) return List.of();
+            double avgLength = Math.max(1.0, (double) totalLength / n);
+            List<Postings> lists = new ArrayList<>(terms.size());
+            List<Double> idfs = new ArrayList<>(terms.size());
+            boolean all = true;
+            for (String t : terms) {
+                Postings p = postings.get(t);
+                if (p == null) {
+                    all = false;
+                    continue;
+                }
+                lists.add(p);
+                idfs.add(Math.log(1 + (n - p.size + 0.5) / (p.size + 0.5)));
+            }
+            if (lists.isEmpty()) return List.of();
+            PriorityQueue<Scored> top = new PriorityQueue<>(limit + 1, Scored.ORDER);
+            if (all) intersect(lists, idfs, avgLength, limit, top);
+            if (top.isEmpty() && terms.size() > 1) union(lists, idfs, avgLength, limit, top);
+            SearchHit[] out = new SearchHit[top.size()];
+            for (int i = out.length - 1; i >= 0; i--) {
+                Scored s = top.poll();
+                out[i] = new SearchHit(orderIds[s.doc], s.matched, s.score);
+            }
+            return Arrays.asList(out);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+
+    private void intersect(List<Postings> lists, List<Double> idfs, double avgLength, int limit, PriorityQueue<Scored> top) {
+        Integer[] order = new Integer[lists.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingInt(i -> lists.get(i).size));
+        Postings first = lists.get(order[0]);
+        int[] pos = new int[order.length];
+        docs:
+        for (int i = 0; i < first.size; i++) {
+            int doc = first.docs[i];
+            if (orderIds[doc] == null) continue;
+            double score = bm25(first.tf(i), doc, idfs.get(order[0]), avgLength);
+            for (int k = 1; k < order.length; k++) {
+                Postings p = lists.get(order[k]);
+                int at = lowerBound(p.docs, pos[k], p.size, doc);
+                pos[k] = at;
+                if (at == p.size) break docs;   // дальше пересечений нет
+                if (p.docs[at] != doc) continue docs;
+                score += bm25(p.tf(at), doc, idfs.get(order[k]), avgLength);
+            }
+            offer(top, limit, doc, order.length, score);
+        }
+    }
+
+    private void union(List<Postings> lists, List<Double> idfs, double avgLength, int limit, PriorityQueue<Scored> top) {
+        float[] scores = new float[nextDoc];
+        byte[] matched = new byte[nextDoc];
+        for (int k = 0; k < lists.size(); k++) {
+            Postings p = lists.get(k);
+            double idf = idfs.get(k);
+            for (int i = 0; i < p.size; i++) {
+                int doc = p.docs[i];
+                if (orderIds[doc] == null) continue;
+                scores[doc] += (float) bm25(p.tf(i), doc, idf, avgLength);
+                matched[doc]++;
+            }
+        }
+        for (int doc = 0; doc < nextDoc; doc++) {
+            if (matched[doc] > 0) offer(top, limit, doc, matched[doc], scores[doc]);
+        }
+    }
+
+    private double bm25(int tf, int doc, double idf, double avgLength) {
+        return idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * lengths[doc] / avgLength));
+    }
+
+    private static void offer(PriorityQueue<Scored> top, int limit, int doc, int matched, double score) {
+        if (top.size() < limit) {
+            top.add(new Scored(doc, matched, score));
+            return;
+        }
+        // худший из лучших — в голове очереди; объект создаётся только для проходящих
+        Scored worst = top.peek();
+        if (matched < worst.matched || matched == worst.matched
+                && (score < worst.score || score == worst.score && doc < worst.doc)) return;
+        top.poll();
+        top.add(new Scored(doc, matched, score));
+    }
+
+    /** Первая позиция в [from, to) со значением не меньше key: галоп, затем двоичный поиск. */
+    private static int lowerBound(int[] a, int from, int to, int key) {
+        int step = 1;
+        int lo = from;
+        int hi = from;
+        while (hi < to && a[hi] < key) {
+            lo = hi + 1;
+            hi += step;
+            step <<= 1;
+        }
+        hi = Math.min(hi, to);
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private void add(String orderId, Map<String, Integer> tf, int hash) {
+        Doc prev = docs.get(orderId);
+        if (prev != null) kill(prev.doc);
+        int doc = nextDoc++;
+        if (doc == orderIds.length) {
+            orderIds = Arrays.copyOf(orderIds, doc * 2);
+            lengths = Arrays.copyOf(lengths, doc * 2);
+        }
+        int length = 0;
+        for (Map.Entry<String, Integer> e : tf.entrySet()) {
+            postings.computeIfAbsent(e.getKey(), k -> new Postings()).add(doc, e.getValue());
+            length += e.getValue();
+        }
+        orderIds[doc] = orderId;
+        lengths[doc] = length;
+        totalLength += length;
+        docs.put(orderId, new Doc(doc, hash));
+        maybeCompact();
+    }
+
+    private void kill(int doc) {
+        orderIds[doc] = null;
+        totalLength -= lengths[doc];
+        dead++;
+    }
+
+    /** Перенумеровать живые документы подряд и выбросить мёртвые из списков. */
+    private void maybeCompact() {
+        if (dead < COMPACT_MIN_DEAD || dead * 4 < nextDoc) return;
+        int[] remap = new int[nextDoc];
+        int live = 0;
+        for (int d = 0; d < nextDoc; d++) {
+            if (orderIds[d] != null) {
+                remap[d] = live;
+                orderIds[live] = orderIds[d];
+                lengths[live] = lengths[d];
+                live++;
+            } else {
+                remap[d] = -1;
+            }
+        }
+        Arrays.fill(orderIds, live, nextDoc, null);
+        for (Iterator<Postings> it = postings.values().iterator(); it.hasNext(); ) {
+            Postings p = it.next();
+            p.remap(remap);
+            if (p.size == 0) it.remove();
+        }
+        docs.replaceAll((id, d) -> new Doc(remap[d.doc], d.textHash));
+        nextDoc = live;
+        dead = 0;
+    }
+
+    private static Map<String, Integer> termFrequencies(Order o) {
+        Map<String, Integer> tf = new HashMap<>();
+        for (String t : TextAnalyzer.terms(o.getService())) tf.merge(t, TITLE_WEIGHT, Integer::sum);
+        for (String t : TextAnalyzer.terms(o.getSubtype())) tf.merge(t, TITLE_WEIGHT, Integer::sum);
+        for (String t : TextAnalyzer.terms(o.getDescription())) tf.merge(t, 1, Integer::sum);
+        return tf;
+    }
+
+    private static int textHash(Order o) {
+        return Objects.hash(o.getService(), o.getSubtype(), o.getDescription());
+    }
+
+    private record Doc(int doc, int textHash) {}
+
+    private record Scored(int doc, int matched, double score) {
+        /** Хуже — меньше: меньше совпавших слов, ниже балл, старше документ. */
+        static final Comparator<Scored> ORDER = Comparator.comparingInt(Scored::matched)
+                .thenComparingDouble(Scored::score)
+                .thenComparingInt(Scored::doc);
+    }
+
+    /** Документы терма по возрастанию номера и частоты терма в них. */
+    private static final class Postings {
+        int[] docs = new int[2];
+        byte[] tf = new byte[2];
+        int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                tf = Arrays.copyOf(tf, size * 2);
+            }
+            docs[size] = doc;
+            tf[size] = (byte) Math.min(freq, 255);
+            size++;
+        }
+
+        int tf(int i) {
+            return tf[i] & 0xff;
+        }
+
+        void remap(int[] remap) {
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                int d = remap[docs[i]];
+                if (d < 0) continue;
+                docs[j] = d;
+                tf[j] = tf[i];
+                j++;
+            }
+            size = j;
+            if (docs.length > 16 && docs.length > size * 4) {
+                docs = Arrays.copyOf(docs, Math.max(2, size * 2));
+                tf = Arrays.copyOf(tf, docs.length);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.bot.search;
+
+import com.example.bot.config.SearchProperties;
+import com.example.bot.jpa.OrderEntity;
+import com.example.bot.jpa.OrderJpaRepository;
+import com.example.bot.orders.OrderStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Начальное построение поискового индекса по всей таблице заказов, включая вытесненные из памяти
+ * и не попавшие в окно warm start. Идёт в фоне keyset-страницами, бот в это время уже отвечает;
+ * изменения, пришедшие во время загрузки, индекс не даёт перезаписать старыми строками из H2.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderSearchLoader {
+
+    private final OrderJpaRepository repo;
+    private final OrderSearchIndex index;
+    private final SearchProperties props;
+
+    private volatile boolean stopped;
+
+    @PostConstruct
+    void start() {
+        if (!props.isLoadOnStart()) {
+            log.info("Order search index starts empty: load on start disabled");
+            return;
+        }
+        index.beginBuild();
+        Thread.ofPlatform().daemon().name("search-index").start(this::load);
+    }
+
+    void load() {
+        long t0 = System.nanoTime();
+        Set<OrderStatus> statuses = EnumSet.allOf(OrderStatus.class);
+        OffsetDateTime afterTs = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        String afterId = "";
+        long rows = 0;
+        try {
+            // строки без created_at в keyset по дате не попадают — их отдельным проходом по id
+            while (!stopped) {
+                List<OrderEntity> page = repo.findUndatedPageAfter(statuses, afterId, Limit.of(props.getPageSize()));
+                for (OrderEntity e : page) index.indexLoaded(e.toModel());
+                rows += page.size();
+                if (page.size() < props.getPageSize()) break;
+                afterId = page.get(page.size() - 1).getId();
+            }
+            afterId = "";
+            while (!stopped) {
+                List<OrderEntity> page = repo.findPageAfter(statuses, afterTs, afterId, Limit.of(props.getPageSize()));
+                for (OrderEntity e : page) index.indexLoaded(e.toModel());
+                rows += page.size();
+                if (page.size() < props.getPageSize()) break;
+                OrderEntity last = page.get(page.size() - 1);
+                afterTs = last.getCreatedAt();
+                afterId = last.getId();
+            }
+            log.info("Order search index: {} orders from {} rows in {} ms",
+                    index.size(), rows, (System.nanoTime() - t0) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Order search index build stopped after {} rows; search covers only orders changed since start", rows, e);
+        } finally {
+            index.endBuild();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        stopped = true;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.bot.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Стеммер Портера для русского языка (алгоритм Snowball): «собаки», «собакой», «собаку» → «собак».
+ * Слово — в нижнем регистре, «ё» уже заменена на «е».
+ * <p>
+ * RV — часть слова после первой гласной, R2 — вторая область R алгоритма; окончания снимаются
+ * только внутри них. Среди окончаний группы берётся самое длинное подходящее; окончания
+ * первой группы снимаются, только если перед ними «а» или «я».
+ */
+final class RussianStemmer {
+
+    private static final Ending[] PERFECTIVE_GERUND = among(
+            new String[]{"в", "вши", "вшись"},
+            new String[]{"ив", "ивши", "ившись", "ыв", "ывши", "ывшись"});
+    private static final Ending[] REFLEXIVE = among(null, new String[]{"ся", "сь"});
+    private static final Ending[] ADJECTIVE = among(null, new String[]{
+            "ее", "ие", "ые", "ое", "ими", "ыми", "ей", "ий", "ый", "ой", "ем", "им", "ым", "ом",
+            "его", "ого", "ему", "ому", "их", "ых", "ую", "юю", "ая", "яя", "ою", "ею"});
+    private static final Ending[] PARTICIPLE = among(
+            new String[]{"ем", "нн", "вш", "ющ", "щ"},
+            new String[]{"ивш", "ывш", "ующ"});
+    private static final Ending[] VERB = among(
+            new String[]{"ла", "на", "ете", "йте", "ли", "й", "л", "ем", "н", "ло", "но", "ет", "ют", "ны", "ть", "ешь", "нно"},
+            new String[]{"ила", "ыла", "ена", "ейте", "уйте", "ите", "или", "ыли", "ей", "уй", "ил", "ыл", "им", "ым", "ен",
+                    "ило", "ыло", "ено", "ят", "ует", "уют", "ит", "ыт", "ены", "ить", "ыть", "ишь", "ую", "ю"});
+    private static final Ending[] NOUN = among(null, new String[]{
+            "а", "ев", "ов", "ие", "ье", "е", "иями", "ями", "ами", "еи", "ии", "и", "ией", "ей", "ой", "ий", "й",
+            "иям", "ям", "ием", "ем", "ам", "ом", "о", "у", "ах", "иях", "ях", "ы", "ь", "ию", "ью", "ю", "ия", "ья", "я"});
+    private static final Ending[] SUPERLATIVE = among(null, new String[]{"ейш", "ейше"});
+    private static final Ending[] DERIVATIONAL = among(null, new String[]{"ост", "ость"});
+
+    private RussianStemmer() {}
+
+    static String stem(String word) {
+        int rv = rv(word);
+        if (rv >= word.length()) return word;
+        int r2 = r2(word);
+        String w = word;
+
+        // шаг 1: деепричастие, иначе возвратность + прилагательное/глагол/существительное
+        int n = match(w, rv, PERFECTIVE_GERUND);
+        if (n > 0) {
+            w = cut(w, n);
+        } else {
+            n = match(w, rv, REFLEXIVE);
+            if (n > 0) w = cut(w, n);
+            n = match(w, rv, ADJECTIVE);
+            if (n > 0) {
+                w = cut(w, n);
+                n = match(w, rv, PARTICIPLE);
+                if (n > 0) w = cut(w, n);
+            } else if ((n = match(w, rv, VERB)) > 0) {
+                w = cut(w, n);
+            } else if ((n = match(w, rv, NOUN)) > 0) {
+                w = cut(w, n);
+            }
+        }
+        // шаг 2: «и» на конце
+        if (w.length() - 1 >= rv && w.endsWith("и")) w = cut(w, 1);
+        // шаг 3: словообразовательное «ость» в R2
+        n = match(w, r2, DERIVATIONAL);
+        if (n > 0) w = cut(w, n);
+        // шаг 4: «нн» → «н», превосходная степень, мягкий знак
+        if (w.length() - 2 >= rv && w.endsWith("нн")) {
+            w = cut(w, 1);
+        } else if ((n = match(w, rv, SUPERLATIVE)) > 0) {
+            w = cut(w, n);
+            if (w.length() - 2 >= rv && w.endsWith("нн")) w = cut(w, 1);
+        } else if (w.length() - 1 >= rv && w.endsWith("ь")) {
+            w = cut(w, 1);
+        }
+        return w;
+    }
+
+    /** Длина самого длинного окончания внутри области [from, ...); 0 — не нашлось или не выполнено условие «а/я». */
+    private static int match(String w, int from, Ending[] endings) {
+        for (Ending e : endings) {
+            int start = w.length() - e.text.length();
+            if (start < from || !w.endsWith(e.text)) continue;
+            if (!e.afterAYa) return e.text.length();
+            int p = start - 1;
+            return p >= from && (w.charAt(p) == 'а' || w.charAt(p) == 'я') ? e.text.length() : 0;
+        }
+        return 0;
+    }
+
+    private static String cut(String w, int n) {
+        return w.substring(0, w.length() - n);
+    }
+
+    private static boolean vowel(char c) {
+        return "аеиоуыэюя".indexOf(c) >= 0;
+    }
+
+    /** Позиция сразу после первой гласной. */
+    private static int rv(String w) {
+        for (int i = 0; i < w.length(); i++) {
+            if (vowel(w.charAt(i))) return i + 1;
+        }
+        return w.length();
+    }
+
+    /** R1 — после первой согласной, идущей за гласной; R2 — то же, начиная с R1. */
+    private static int r2(String w) {
+        return region(w, region(w, 0));
+    }
+
+    private static int region(String w, int from) {
+        for (int i = from + 1; i < w.length(); i++) {
+            if (!vowel(w.charAt(i)) && vowel(w.charAt(i - 1))) return i + 1;
+        }
+        return w.length();
+    }
+
+    /** Окончания обеих групп одним списком от длинных к коротким. */
+    private static Ending[] among(String[] afterAYa, String[] plain) {
+        List<Ending> all = new ArrayList<>();
+        if (afterAYa != null) for (String s : afterAYa) all.add(new Ending(s, true));
+        for (String s : plain) all.add(new Ending(s, false));
+        Ending[] out = all.toArray(Ending[]::new);
+        Arrays.sort(out, Comparator.comparingInt((Ending e) -> e.text.length()).reversed());
+        return out;
+    }
+
+    private record Ending(String text, boolean afterAYa) {}
+}
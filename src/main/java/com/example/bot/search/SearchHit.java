@@ -0,0 +1,6 @@
+package com.example.bot.search;
+
+/**
+ * Найденный заказ: сколько слов запроса совпало и балл BM25.
+ */
+public record SearchHit(String orderId, int matched, double score) {}
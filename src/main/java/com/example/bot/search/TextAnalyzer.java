@@ -0,0 +1,55 @@
+package com.example.bot.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Разбор текста заказа и запроса в термы: слова из букв и цифр, нижний регистр, «ё» → «е»,
+ * без служебных слов; кириллица приводится к основе {@link RussianStemmer}, латиница и числа — как есть.
+ * Запрос и заказ разбираются одинаково, поэтому «шпицы» находит «шпиц», а «Бутово» — «бутово».
+ */
+public final class TextAnalyzer {
+
+    private static final Locale RU = Locale.forLanguageTag("ru");
+
+    private static final Set<String> STOP = Set.of(
+            "а", "без", "бы", "в", "во", "вот", "вы", "да", "для", "до", "его", "ее", "если", "есть", "же",
+            "за", "и", "из", "или", "им", "их", "к", "как", "ко", "ли", "мне", "мы", "на", "над", "не", "нет",
+            "но", "о", "об", "он", "она", "они", "оно", "от", "очень", "по", "под", "при", "с", "со", "так",
+            "то", "у", "уже", "что", "это", "я");
+
+    private TextAnalyzer() {}
+
+    /** Термы текста в порядке следования, с повторами (частота терма важна для ранжирования). */
+    public static List<String> terms(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null || text.isEmpty()) return out;
+        StringBuilder word = new StringBuilder();
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char c = i < n ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c == 'ё' || c == 'Ё' ? 'е' : c);
+            } else if (!word.isEmpty()) {
+                String t = term(word.toString().toLowerCase(RU));
+                if (t != null) out.add(t);
+                word.setLength(0);
+            }
+        }
+        return out;
+    }
+
+    private static String term(String w) {
+        if (STOP.contains(w)) return null;
+        return cyrillic(w) ? RussianStemmer.stem(w) : w;
+    }
+
+    private static boolean cyrillic(String w) {
+        for (int i = 0; i < w.length(); i++) {
+            char c = w.charAt(i);
+            if (c < 'а' || c > 'я') return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.bot.stats;
+
+import com.example.bot.config.StatsProperties;
+import com.example.bot.jpa.BotStateEntity;
+import com.example.bot.jpa.BotStateJpaRepository;
+import com.example.bot.jpa.OrderPersistence;
+import com.example.bot.orders.Order;
+import com.example.bot.orders.OrderStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики заказов, которые {@link com.example.bot.orders.OrderService} обновляет на каждом
+ * изменении: по статусам, по услуге/подтипу, по часам и дням создания, брошенные черновики.
+ * /stats и /actuator/orderstats читают их за время, не зависящее от числа заказов.
+ * <p>
+ * Изменение учитывается разностью: старый снимок заказа вычитается, новый прибавляется.
+ * При старте всё пересчитывается из H2 группировками. Отменённые черновики из H2 удаляются,
+ * поэтому их число по дням копится в bot_state и дописывается туда раз в несколько секунд.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderStats {
+
+    static final String CANCELED_KEY = "stats.drafts_canceled.";
+    private static final long HOUR = 3600;
+    private static final long DAY = 86400;
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final OrderPersistence persistence;
+    private final BotStateJpaRepository stateRepo;
+    private final StatsProperties props;
+
+    private final LongAdder[] byStatus = new LongAdder[STATUSES.length];
+    private final Map<String, LongAdder> byService = new ConcurrentHashMap<>();
+    /** Отменённые черновики по дню создания, ещё не записанные в bot_state. */
+    private final Map<LocalDate, LongAdder> unsaved = new ConcurrentHashMap<>();
+
+    private TimeRing hourly;
+    private TimeRing daily;
+    private TimeRing canceledDaily;
+    private volatile OffsetDateTime since;
+
+    @PostConstruct
+    void init() {
+        for (int i = 0; i < byStatus.length; i++) byStatus[i] = new LongAdder();
+        hourly = new TimeRing(HOUR, props.getHours());
+        daily = new TimeRing(DAY, props.getDays());
+        canceledDaily = new TimeRing(DAY, props.getDays());
+        since = OffsetDateTime.now(ZoneOffset.UTC);
+        if (props.isRebuildOnStart()) rebuild();
+    }
+
+    /** Пересчёт из H2: до приёма апдейтов, поэтому с живыми изменениями не пересекается. */
+    private void rebuild() {
+        long t0 = System.nanoTime();
+        try {
+            long orders = 0;
+            for (Object[] r : persistence.countByStatusAndService()) {
+                OrderStatus status = (OrderStatus) r[0];
+                long n = ((Number) r[3]).longValue();
+                if (status == null) continue;
+                byStatus[status.ordinal()].add(n);
+                if (status != OrderStatus.DRAFT) service((String) r[1], (String) r[2]).add(n);
+                orders += n;
+            }
+            OffsetDateTime from = OffsetDateTime.now(ZoneOffset.UTC).minusDays(props.getDays());
+            for (Object[] r : persistence.countSubmittedByHour(from)) {
+                long hour = ((Number) r[0]).longValue();
+                long n = ((Number) r[1]).longValue();
+                hourly.add(hour, n);
+                daily.add(daily.unitOf(hour * HOUR), n);
+            }
+            for (BotStateEntity s : stateRepo.findByNameStartingWith(CANCELED_KEY)) {
+                LocalDate day = LocalDate.parse(s.getName().substring(CANCELED_KEY.length()));
+                if (s.getValue() != null) canceledDaily.add(day.toEpochDay(), s.getValue());
+            }
+            since = null;   // счётчики покрывают всю таблицу
+            log.info("Order stats rebuilt from H2: {} orders in {} ms", orders, (System.nanoTime() - t0) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Order stats rebuild from H2 failed; counting from now on", e);
+        }
+    }
+
+    /** Заказ создан или изменён; before — предыдущий снимок, null для нового. */
+    public void changed(Order before, Order after) {
+        if (after == null || before != null && sameBuckets(before, after)) return;
+        if (before != null) apply(before, -1);
+        apply(after, 1);
+    }
+
+    /** Заказ удалён; удалённый черновик — брошенный. */
+    public void removed(Order o) {
+        if (o == null) return;
+        apply(o, -1);
+        if (o.getStatus() != OrderStatus.DRAFT) return;
+        OffsetDateTime created = o.getCreatedAt() != null ? o.getCreatedAt() : OffsetDateTime.now(ZoneOffset.UTC);
+        long day = canceledDaily.unitOf(created.toEpochSecond());
+        canceledDaily.add(day, 1);
+        unsaved.computeIfAbsent(LocalDate.ofEpochDay(day), d -> new LongAdder()).increment();
+    }
+
+    private void apply(Order o, int sign) {
+        if (o.getStatus() == null) return;
+        byStatus[o.getStatus().ordinal()].add(sign);
+        if (o.getStatus() == OrderStatus.DRAFT) return;
+        service(o.getService(), o.getSubtype()).add(sign);
+        if (o.getCreatedAt() != null) {
+            long t = o.getCreatedAt().toEpochSecond();
+            hourly.add(hourly.unitOf(t), sign);
+            daily.add(daily.unitOf(t), sign);
+        }
+    }
+
+    private static boolean sameBuckets(Order a, Order b) {
+        return a.getStatus() == b.getStatus()
+                && Objects.equals(a.getService(), b.getService())
+                && Objects.equals(a.getSubtype(), b.getSubtype())
+                && Objects.equals(a.getCreatedAt(), b.getCreatedAt());
+    }
+
+    private LongAdder service(String service, String subtype) {
+        String key = (service != null ? service : "—") + (subtype != null ? " • " + subtype : "");
+        return byService.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    public OrderStatsSnapshot snapshot() {
+        Map<OrderStatus, Long> statuses = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus s : STATUSES) statuses.put(s, byStatus[s.ordinal()].sum());
+
+        Map<String, Long> services = new LinkedHashMap<>();
+        byService.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().sum()))
+                .filter(e -> e.getValue() > 0)
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(e -> services.put(e.getKey(), e.getValue()));
+
+        long now = Instant.now().getEpochSecond();
+        long[] days = daily.counts(daily.unitOf(now));
+        long[] canceled = canceledDaily.counts(canceledDaily.unitOf(now));
+        long submitted = 0;
+        long abandoned = 0;
+        for (long n : days) submitted += n;
+        for (long n : canceled) abandoned += n;
+        double rate = submitted + abandoned > 0 ? (double) abandoned / (submitted + abandoned) : 0;
+        return new OrderStatsSnapshot(statuses, services, buckets(hourly, now), buckets(daily, now),
+                submitted, abandoned, rate, since);
+    }
+
+    private static List<OrderStatsSnapshot.Bucket> buckets(TimeRing ring, long now) {
+        long last = ring.unitOf(now);
+        long[] counts = ring.counts(last);
+        List<OrderStatsSnapshot.Bucket> out = new ArrayList<>(counts.length);
+        for (int k = 0; k < counts.length; k++) {
+            long start = (last - counts.length + 1 + k) * ring.unitSeconds();
+            out.add(new OrderStatsSnapshot.Bucket(OffsetDateTime.ofInstant(Instant.ofEpochSecond(start), ZoneOffset.UTC), counts[k]));
+        }
+        return out;
+    }
+
+    /** Дописать накопленные отмены черновиков в bot_state (атомарным приращением — реплик может быть несколько). */
+    @Scheduled(fixedDelayString = "${bot.stats.flush-interval:10s}")
+    public void flush() {
+        for (Map.Entry<LocalDate, LongAdder> e : unsaved.entrySet()) {
+            long delta = e.getValue().sumThenReset();
+            if (delta == 0) continue;
+            String name = CANCELED_KEY + e.getKey();
+            try {
+                if (stateRepo.increment(name, delta) == 0) stateRepo.save(new BotStateEntity(name, delta));
+            } catch (Exception ex) {
+                e.getValue().add(delta);   // попробуем в следующий раз
+                log.warn("Failed to persist canceled drafts for {}", e.getKey(), ex);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        flush();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.bot.stats;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/** /actuator/orderstats — заказы по статусам, услугам, часам и дням, доля брошенных черновиков. */
+@Component
+@Endpoint(id = "orderstats")
+@RequiredArgsConstructor
+public class OrderStatsEndpoint {
+
+    private final OrderStats stats;
+
+    @ReadOperation
+    public OrderStatsSnapshot stats() {
+        return stats.snapshot();
+    }
+}
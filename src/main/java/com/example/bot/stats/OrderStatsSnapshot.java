@@ -0,0 +1,31 @@
+package com.example.bot.stats;
+
+import com.example.bot.orders.OrderStatus;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Срез счётчиков заказов.
+ * @param byStatus        заказов сейчас в каждом статусе
+ * @param byService       отправленных заявок (не черновиков) по «услуга • подтип», больше — выше
+ * @param hourly          отправленные заявки по часу создания, от старых к новым
+ * @param daily           то же по дням
+ * @param draftsSubmitted черновиков, ставших заявками, за дневное окно
+ * @param draftsCanceled  черновиков, отменённых клиентом, за дневное окно
+ * @param abandonmentRate доля брошенных: canceled / (canceled + submitted)
+ * @param since           с какого момента ведутся счётчики, если пересчёта из H2 не было; null — по всей таблице
+ */
+public record OrderStatsSnapshot(Map<OrderStatus, Long> byStatus,
+                                 Map<String, Long> byService,
+                                 List<Bucket> hourly,
+                                 List<Bucket> daily,
+                                 long draftsSubmitted,
+                                 long draftsCanceled,
+                                 double abandonmentRate,
+                                 OffsetDateTime since) {
+
+    /** Интервал, начинающийся в start (UTC). */
+    public record Bucket(OffsetDateTime start, long count) {}
+}
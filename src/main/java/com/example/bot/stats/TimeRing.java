@@ -0,0 +1,63 @@
+package com.example.bot.stats;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики по последним N интервалам (часам, дням) в кольце фиксированного размера.
+ * Интервал — номер от эпохи (секунды / длина интервала); ячейка нового интервала заменяет
+ * ячейку того, что был N интервалов назад. Изменения слишком старых интервалов отбрасываются.
+ */
+final class TimeRing {
+
+    private final long unitSeconds;
+    private final AtomicReferenceArray<Slot> slots;
+
+    TimeRing(long unitSeconds, int size) {
+        this.unitSeconds = unitSeconds;
+        this.slots = new AtomicReferenceArray<>(Math.max(1, size));
+    }
+
+    long unitOf(long epochSecond) {
+        return Math.floorDiv(epochSecond, unitSeconds);
+    }
+
+    long unitSeconds() {
+        return unitSeconds;
+    }
+
+    int size() {
+        return slots.length();
+    }
+
+    void add(long unit, long delta) {
+        int i = (int) Math.floorMod(unit, slots.length());
+        while (true) {
+            Slot s = slots.get(i);
+            if (s != null && s.unit == unit) {
+                s.count.add(delta);
+                return;
+            }
+            if (s != null && s.unit > unit) return;
+            Slot fresh = new Slot(unit, new LongAdder());
+            if (slots.compareAndSet(i, s, fresh)) {
+                fresh.count.add(delta);
+                return;
+            }
+        }
+    }
+
+    /** Счётчики интервалов lastUnit-N+1 .. lastUnit, от старых к новым. */
+    long[] counts(long lastUnit) {
+        int n = slots.length();
+        long[] out = new long[n];
+        for (int k = 0; k < n; k++) {
+            long unit = lastUnit - n + 1 + k;
+            Slot s = slots.get((int) Math.floorMod(unit, n));
+            if (s != null && s.unit == unit) out[k] = s.count.sum();
+        }
+        return out;
+    }
+
+    private record Slot(long unit, LongAdder count) {}
+}
@@ -0,0 +1,83 @@
+package com.example.bot.ui;
+
+import com.example.bot.config.UiProperties;
+import com.example.bot.util.Reply;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardRow;
+
+import java.util.List;
+
+import static java.util.List.of;
+
+/**
+ * Статические инлайн-клавиатуры, собранные один раз при старте.
+ * Один экземпляр уходит во все сообщения, поэтому менять их нельзя:
+ * список рядов неизменяемый, ряды и кнопки после сборки никто не трогает.
+ */
+@Getter
+@Component
+@RequiredArgsConstructor
+public class Menus {
+
+    private final UiProperties ui;
+
+    private InlineKeyboardMarkup main;
+    private InlineKeyboardMarkup services;
+    private InlineKeyboardMarkup walk;
+    private InlineKeyboardMarkup faq;
+    /** Под черновиком: в меню / отменить / диспетчер. */
+    private InlineKeyboardMarkup draftActions;
+    /** Одна кнопка "в меню" под итогом заявки. */
+    private InlineKeyboardMarkup toMainMenu;
+    /** Одна кнопка "назад" к главному меню. */
+    private InlineKeyboardMarkup back;
+
+    @PostConstruct
+    void init() {
+        var m = ui.getMainMenu().getButtons();
+        main = frozen(of(
+                Reply.row(Reply.btn(m.getServices(), "SERVICES"), Reply.btn(m.getWork(), "WORK")),
+                Reply.row(Reply.btn(m.getCallManager(), "CALL_MANAGER"), Reply.btn(m.getGeneral(), "GENERAL"))
+        ));
+
+        var s = ui.getServicesMenu().getButtons();
+        services = frozen(of(
+                Reply.row(Reply.btn(s.getWalk(), "S_WALK")),
+                Reply.row(Reply.btn(s.getBoarding(), "S_BOARDING")),
+                Reply.row(Reply.btn(s.getNanny(), "S_NANNY")),
+                Reply.row(Reply.btn(s.getBack(), "BACK_MAIN"))
+        ));
+
+        var w = ui.getWalkMenu().getButtons();
+        walk = frozen(of(
+                Reply.row(Reply.btn(w.getNormal(), "WALK_NORMAL"), Reply.btn(w.getActive(), "WALK_ACTIVE")),
+                Reply.row(Reply.btn(w.getBack(), "SERVICES")),
+                Reply.row(Reply.btn(w.getCancel(), "CANCEL_DRAFT"))
+        ));
+
+        faq = frozen(of(
+                Reply.row(Reply.btn("Стоимость", "GQ_COST"), Reply.btn("Оплата", "GQ_PAY")),
+                Reply.row(Reply.btn("Ключи", "GQ_KEYS"), Reply.btn("Аптечка", "GQ_MEDKIT")),
+                Reply.row(Reply.btn("Мытьё лап", "GQ_WASHPAWS"), Reply.btn("Кормление", "GQ_FEED")),
+                Reply.row(Reply.btn("Договор", "GQ_CONTRACT")),
+                Reply.row(Reply.btn("⬅️ Назад", "BACK_MAIN"))
+        ));
+
+        draftActions = frozen(of(
+                Reply.row(Reply.btn("⬅️ В меню", "BACK_MAIN")),
+                Reply.row(Reply.btn(w.getCancel(), "CANCEL_DRAFT")),
+                Reply.row(Reply.btn("📲 Связаться с диспетчером", "CALL_MANAGER"))
+        ));
+
+        toMainMenu = frozen(of(Reply.row(Reply.btn("⬅️ В меню", "BACK_MAIN"))));
+        back = frozen(of(Reply.row(Reply.btn("⬅️ Назад", "BACK_MAIN"))));
+    }
+
+    private static InlineKeyboardMarkup frozen(List<InlineKeyboardRow> rows) {
+        return Reply.buttons(List.copyOf(rows));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.bot.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Текстовый шаблон с плейсхолдерами вида {name}, разобранный один раз.
+ * <p>
+ * Шаблон хранится как чередование литералов и номеров аргументов, поэтому рендер —
+ * один проход с точно посчитанной ёмкостью буфера, без промежуточных строк.
+ * Неизвестный плейсхолдер — ошибка компиляции шаблона (и, значит, старта приложения).
+ * Фигурные скобки без имени внутри ({}, { x }) остаются текстом.
+ */
+public final class MessageTemplate {
+
+    private final String name;
+    private final List<String> params;
+    // literals[i] идёт перед аргументом slots[i]; последний литерал — хвост шаблона
+    private final String[] literals;
+    private final int[] slots;
+    private final int literalLength;
+
+    private MessageTemplate(String name, List<String> params, String[] literals, int[] slots) {
+        this.name = name;
+        this.params = params;
+        this.literals = literals;
+        this.slots = slots;
+        int len = 0;
+        for (String l : literals) len += l.length();
+        this.literalLength = len;
+    }
+
+    /**
+     * @param name   имя шаблона для сообщений об ошибках (например, "ui.messages.summary")
+     * @param source текст шаблона
+     * @param params допустимые плейсхолдеры; их порядок — порядок аргументов {@link #render}
+     */
+    public static MessageTemplate compile(String name, String source, String... params) {
+        if (source == null) {
+            throw new IllegalStateException("Template " + name + " is not configured");
+        }
+        List<String> names = List.of(params);
+        List<String> lits = new ArrayList<>();
+        List<Integer> slotList = new ArrayList<>();
+        StringBuilder lit = new StringBuilder();
+        int i = 0;
+        int n = source.length();
+        while (i < n) {
+            char c = source.charAt(i);
+            int end = c == '{' ? placeholderEnd(source, i) : -1;
+            if (end < 0) {
+                lit.append(c);
+                i++;
+                continue;
+            }
+            String p = source.substring(i + 1, end);
+            int slot = names.indexOf(p);
+            if (slot < 0) {
+                throw new IllegalStateException("Unknown placeholder {" + p + "} in template " + name
+                        + ", allowed: " + names);
+            }
+            lits.add(lit.toString());
+            lit.setLength(0);
+            slotList.add(slot);
+            i = end + 1;
+        }
+        lits.add(lit.toString());
+        return new MessageTemplate(name, names, lits.toArray(String[]::new),
+                slotList.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /** Индекс закрывающей '}' для {identifier}, иначе -1. */
+    private static int placeholderEnd(String s, int open) {
+        int i = open + 1;
+        if (i >= s.length() || !Character.isLetter(s.charAt(i))) return -1;
+        while (i < s.length() && (Character.isLetterOrDigit(s.charAt(i)) || s.charAt(i) == '_')) i++;
+        return i < s.length() && s.charAt(i) == '}' ? i : -1;
+    }
+
+    /** Подставить аргументы в порядке объявленных плейсхолдеров; null подставляется как пустая строка. */
+    public String render(String... args) {
+        if (args.length != params.size()) {
+            throw new IllegalArgumentException("Template " + name + " expects " + params + ", got " + args.length + " args");
+        }
+        if (slots.length == 0) return literals[0];
+        int len = literalLength;
+        for (int slot : slots) {
+            String a = args[slot];
+            if (a != null) len += a.length();
+        }
+        StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < slots.length; i++) {
+            sb.append(literals[i]);
+            String a = args[slots[i]];
+            if (a != null) sb.append(a);
+        }
+        return sb.append(literals[slots.length]).toString();
+    }
+
+    public String name() {
+        return name;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.bot.ui;
+
+import com.example.bot.config.UiProperties;
+import com.example.bot.orders.Order;
+import com.example.bot.orders.OrderStatus;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Шаблоны сообщений из ui.messages, скомпилированные при старте.
+ * Опечатка в плейсхолдере валит запуск, а не уходит клиенту как "{foo}".
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UiTemplates {
+
+    private final UiProperties ui;
+
+    private MessageTemplate draftPrompt;
+    private MessageTemplate summary;
+    private MessageTemplate statusChanged;
+    private MessageTemplate newOrder;
+    private MessageTemplate newOrdersDigest;
+    private MessageTemplate newOrdersDigestLine;
+
+    // " • Обычный" и т.п. — подтипов единицы, строки суффиксов переиспользуются
+    private final ConcurrentMap<String, String> subtypeSuffixes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        var m = ui.getMessages();
+        if (m == null) throw new IllegalStateException("ui.messages is not configured");
+        // подсказка без плейсхолдеров — проверяем отдельно, затем склеиваем с заголовком в один шаблон
+        MessageTemplate.compile("ui.messages.draftTip", m.getDraftTip());
+        draftPrompt = MessageTemplate.compile("ui.messages.draftHeader + draftTip",
+                m.getDraftHeader() + "\n\n" + m.getDraftTip(),
+                "id", "service", "subtypeSuffix");
+        summary = MessageTemplate.compile("ui.messages.summary", m.getSummary(),
+                "id", "status", "service", "subtypeSuffix", "description");
+        statusChanged = MessageTemplate.compile("ui.messages.statusChanged", m.getStatusChanged(),
+                "id", "status", "service", "subtypeSuffix");
+        newOrder = MessageTemplate.compile("ui.messages.newOrder", m.getNewOrder(),
+                "id", "service", "subtypeSuffix", "chatId", "description");
+        newOrdersDigest = MessageTemplate.compile("ui.messages.newOrdersDigest", m.getNewOrdersDigest(), "count");
+        newOrdersDigestLine = MessageTemplate.compile("ui.messages.newOrdersDigestLine", m.getNewOrdersDigestLine(),
+                "id", "service", "subtypeSuffix");
+        log.info("UI templates compiled");
+    }
+
+    /** Заголовок черновика и подсказка, что написать дальше. */
+    public String draftPrompt(Order draft) {
+        return draftPrompt.render(draft.getId(), draft.getService(), subtypeSuffix(draft.getSubtype()));
+    }
+
+    /** Итог по оформленной заявке. */
+    public String summary(Order order) {
+        return summary.render(order.getId(),
+                order.getStatus() != null ? order.getStatus().name() : null,
+                order.getService(),
+                subtypeSuffix(order.getSubtype()),
+                order.getDescription());
+    }
+
+    /** Клиенту: заявка перешла в новый статус. */
+    public String statusChanged(Order order) {
+        return statusChanged.render(order.getId(), statusName(order.getStatus()),
+                order.getService(), subtypeSuffix(order.getSubtype()));
+    }
+
+    /** Администраторам: одна новая заявка. Описание пишет клиент — разметку в нём экранируем. */
+    public String newOrder(Order order) {
+        return newOrder.render(order.getId(), order.getService(), subtypeSuffix(order.getSubtype()),
+                String.valueOf(order.getChatId()), escapeMarkdown(order.getDescription()));
+    }
+
+    /** Администраторам: пачка новых заявок одним сообщением; сверх orders — только счётчик до total. */
+    public String newOrdersDigest(List<Order> orders, int total) {
+        StringBuilder sb = new StringBuilder(newOrdersDigest.render(String.valueOf(total)));
+        for (Order o : orders) {
+            sb.append('\n').append(newOrdersDigestLine.render(o.getId(), o.getService(), subtypeSuffix(o.getSubtype())));
+        }
+        if (total > orders.size()) sb.append("\n… и ещё ").append(total - orders.size()).append(" — /orders");
+        return sb.toString();
+    }
+
+    private String statusName(OrderStatus status) {
+        if (status == null) return null;
+        return ui.getMessages().getStatuses().getOrDefault(status.name(), status.name());
+    }
+
+    /** Legacy Markdown Telegram: _ * ` [ вне сущностей экранируются обратной косой. */
+    public static String escapeMarkdown(String s) {
+        if (s == null) return null;
+        StringBuilder sb = null;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '_' || c == '*' || c == '`' || c == '[') {
+                if (sb == null) sb = new StringBuilder(s.length() + 8).append(s, 0, i);
+                sb.append('\\');
+            }
+            if (sb != null) sb.append(c);
+        }
+        return sb != null ? sb.toString() : s;
+    }
+
+    private String subtypeSuffix(String subtype) {
+        if (subtype == null) return "";
+        String s = subtypeSuffixes.get(subtype);
+        if (s != null) return s;
+        s = " • " + subtype;
+        // подтипы приходят из кнопок, но на всякий случай не даём кэшу расти бесконечно
+        if (subtypeSuffixes.size() < 256) subtypeSuffixes.putIfAbsent(subtype, s);
+        return s;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.bot.util;
+
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+public final class Updates {
+    private Updates() {}
+
+    /** Тип апдейта для логов и метрик. */
+    public static String type(Update u) {
+        if (u == null) return "null";
+        if (u.hasMessage()) return "message";
+        if (u.hasCallbackQuery()) return "callback_query";
+        if (u.hasEditedMessage()) return "edited_message";
+        if (u.hasInlineQuery()) return "inline_query";
+        return "other";
+    }
+
+    /** Чат, к которому относится апдейт; null — если апдейт не привязан к чату (inline и т.п.). */
+    public static Long chatId(Update u) {
+        if (u == null) return null;
+        if (u.hasMessage()) return u.getMessage().getChatId();
+        if (u.hasCallbackQuery()) {
+            var cq = u.getCallbackQuery();
+            if (cq.getMessage() != null) return cq.getMessage().getChatId();
+            return cq.getFrom() != null ? cq.getFrom().getId() : null;
+        }
+        if (u.hasEditedMessage()) return u.getEditedMessage().getChatId();
+        return null;
+    }
+}
@@ -1,34 +1,49 @@
 package com.example.bot.webhook;
 
 import com.example.bot.config.WebhookProperties;
-import com.example.bot.core.UpdateRouter;
+import com.example.bot.core.UpdateDispatcher;
+import com.example.bot.core.UpdateEnvelope;
+import com.example.bot.core.UpdatePreDecoder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.telegram.telegrambots.meta.api.objects.Update;
-
+import java.io.IOException;
 import java.util.Objects;
 
 @Slf4j
 @RestController
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "telegram.ingest", name = "mode", havingValue = "webhook", matchIfMissing = true)
 @RequestMapping("${telegram.webhook.path:/webhook/telegram}")
 public class TelegramWebhookController {
 
-    private final UpdateRouter router;
+    private final UpdateDispatcher dispatcher;
+    private final UpdatePreDecoder preDecoder;
     private final WebhookProperties props;
 
+    /** Тело принимается байтами: Update связывается позже и только если апдейт кому-то нужен. */
     @PostMapping
-    public ResponseEntity<String> onUpdate(@RequestBody Update update,
+    public ResponseEntity<String> onUpdate(@RequestBody byte[] body,
                                            @RequestHeader(value = "X-Telegram-Bot-Api-Secret-Token", required = false) String token) {
         String expected = props.getSecretToken();
         if (expected != null && !expected.isBlank() && !Objects.equals(expected, token)) {
             log.warn("Reject webhook: bad secret");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("bad secret");
         }
-        router.consume(update);
+        UpdateEnvelope update;
+        try {
+            update = preDecoder.decode(body);
+        } catch (IOException e) {
+            log.warn("Reject webhook: malformed update ({})", e.getMessage());
+            return ResponseEntity.badRequest().body("bad update");
+        }
+        if (!dispatcher.dispatch(update)) {
+            // перегрузка — Telegram повторит доставку позже
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("busy");
+        }
         return ResponseEntity.ok("ok");
     }
 
@@ -0,0 +1,17 @@
+-- Исходная схема (раньше её создавал hibernate ddl-auto: update).
+-- IF NOT EXISTS: на уже существующей базе Flyway ставит baseline 0 и этот скрипт ничего не меняет.
+CREATE TABLE IF NOT EXISTS orders (
+    id          VARCHAR(255) PRIMARY KEY,
+    chat_id     BIGINT,
+    status      VARCHAR(32),
+    service     VARCHAR(255),
+    subtype     VARCHAR(255),
+    description CLOB,
+    created_at  TIMESTAMP(6) WITH TIME ZONE,
+    updated_at  TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS bot_state (
+    name        VARCHAR(255) PRIMARY KEY,
+    state_value BIGINT
+);
@@ -0,0 +1,5 @@
+-- Индексы под keyset-листание /orders: фильтр по равенству, затем (created_at, id) в порядке выдачи.
+CREATE INDEX IF NOT EXISTS idx_orders_created ON orders (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_chat_created ON orders (chat_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_status_created ON orders (status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_service_created ON orders (service, created_at, id);
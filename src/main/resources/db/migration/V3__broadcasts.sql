@@ -0,0 +1,18 @@
+-- Рассылки: текст, прогресс по аудитории (chat_id по возрастанию) и итоги.
+-- last_chat_id — последний чат, чья отправка завершена (NULL — ещё ни одного); после рестарта
+-- рассылка продолжается после него.
+CREATE TABLE broadcasts (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    text         CLOB         NOT NULL,
+    status       VARCHAR(16)  NOT NULL,
+    requested_by BIGINT,
+    last_chat_id BIGINT,
+    delivered    BIGINT       NOT NULL DEFAULT 0,
+    failed       BIGINT       NOT NULL DEFAULT 0,
+    blocked      BIGINT       NOT NULL DEFAULT 0,
+    created_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    version      BIGINT       NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_broadcasts_status ON broadcasts (status);
@@ -0,0 +1,3 @@
+-- Аудитория рассылок: select distinct chat_id ... where chat_id > ? order by chat_id limit ?
+-- идёт по узкому индексу только из chat_id, а не по (chat_id, created_at, id).
+CREATE INDEX IF NOT EXISTS idx_orders_chat ON orders (chat_id);
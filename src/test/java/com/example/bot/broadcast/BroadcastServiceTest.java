@@ -0,0 +1,49 @@
+package com.example.bot.broadcast;
+
+import com.example.bot.config.BroadcastProperties;
+import com.example.bot.jpa.BroadcastEntity;
+import com.example.bot.jpa.BroadcastJpaRepository;
+import com.example.bot.jpa.OrderPersistence;
+import com.example.bot.outbound.OutboundSender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BroadcastServiceTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2026, 9, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    private final BroadcastJpaRepository repo = mock(BroadcastJpaRepository.class);
+    private final BroadcastService service = new BroadcastService(repo, mock(OrderPersistence.class),
+            mock(OutboundSender.class), new BroadcastProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void runningRowWithoutRunnerBlocksNewBroadcastUntilStopped() {
+        // рассылка упала с ошибкой: поток завершился, строка осталась RUNNING
+        BroadcastEntity orphan = BroadcastEntity.builder().id(7L).text("Привет")
+                .status(BroadcastEntity.Status.RUNNING).lastChatId(42L).createdAt(T0).updatedAt(T0).build();
+        when(repo.findByStatus(BroadcastEntity.Status.RUNNING)).thenReturn(List.of(orphan));
+        when(repo.findById(7L)).thenReturn(Optional.of(orphan));
+        when(repo.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        assertThatThrownBy(() -> service.start("Ещё раз", 1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("#7");
+        verify(repo, never()).save(any());
+
+        assertThat(service.active()).map(BroadcastProgress::id).contains(7L);
+        assertThat(service.cancel(7L)).map(BroadcastProgress::status).contains(BroadcastEntity.Status.CANCELED);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.bot.export;
+
+import com.example.bot.jpa.OrderEntity;
+import com.example.bot.jpa.OrderJpaRepository;
+import com.example.bot.jpa.OrderWriteBehind;
+import com.example.bot.orders.OrderStatus;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:export;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderExporterTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2026, 9, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private OrderJpaRepository repo;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    private OrderExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new OrderExporter(mock(OrderWriteBehind.class), Jackson2ObjectMapperBuilder.json().build(), tx);
+        ReflectionTestUtils.setField(exporter, "em", em);
+        exporter.init();
+    }
+
+    @Test
+    void escapesCsvFieldsAndFormulas() throws IOException {
+        repo.saveAndFlush(entity("plain", T0, "Выгул", "шпиц, 2 года"));
+        repo.saveAndFlush(entity("quote", T0.plusMinutes(1), "Няня", "зовут \"Бим\"\nвторая строка"));
+        repo.saveAndFlush(entity("formula", T0.plusMinutes(2), "=HYPERLINK(\"x\")", "+7 900"));
+        repo.saveAndFlush(entity("minus", T0.plusMinutes(3), "-1", "@SUM(A1)"));
+        repo.saveAndFlush(entity("tab", T0.plusMinutes(4), "\t=1+1", "\r=1+1"));
+        repo.saveAndFlush(entity("empty", T0.plusMinutes(5), null, ""));
+
+        String csv = export(new OrderExportFilter(null, null, Set.of()));
+
+        assertThat(csv).startsWith("\uFEFFid,chat_id,status,service,subtype,description,created_at,updated_at\r\n");
+        assertThat(csv).contains("plain,7,NEW,Выгул,,\"шпиц, 2 года\",2026-09-01T12:00Z,2026-09-01T12:00Z\r\n");
+        assertThat(csv).contains("quote,7,NEW,Няня,,\"зовут \"\"Бим\"\"\nвторая строка\",");
+        assertThat(csv).contains("formula,7,NEW,\"'=HYPERLINK(\"\"x\"\")\",,'+7 900,");
+        assertThat(csv).contains("minus,7,NEW,'-1,,'@SUM(A1),");
+        assertThat(csv).contains("tab,7,NEW,'\t=1+1,,\"'\r=1+1\",");
+        assertThat(csv).contains("empty,7,NEW,,,,");
+    }
+
+    @Test
+    void unboundedExportKeepsOrdersWithoutCreatedAt() throws IOException {
+        repo.saveAndFlush(entity("sep", T0, "Выгул", "а"));
+        repo.saveAndFlush(entity("oct", T0.plusMonths(1), "Выгул", "б"));
+        repo.saveAndFlush(entity("undated", null, "Выгул", "в"));
+
+        assertThat(ids(new OrderExportFilter(null, null, Set.of()))).containsExactlyInAnyOrder("sep", "oct", "undated");
+        assertThat(ids(new OrderExportFilter(OrderExportFilter.bound("2026-09", false), OrderExportFilter.bound("2026-09", true),
+                Set.of()))).containsExactly("sep");
+        assertThat(ids(new OrderExportFilter(OrderExportFilter.bound("2026-10-01", false), null, Set.of()))).containsExactly("oct");
+        assertThat(ids(new OrderExportFilter(null, null, Set.of(OrderStatus.COMPLETED)))).isEmpty();
+    }
+
+    private List<String> ids(OrderExportFilter filter) throws IOException {
+        String[] lines = export(filter).split("\r\n");
+        return Arrays.stream(lines).skip(1).map(l -> l.substring(0, l.indexOf(','))).toList();
+    }
+
+    private String export(OrderExportFilter filter) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(filter, ExportFormat.CSV, false, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static OrderEntity entity(String id, OffsetDateTime createdAt, String service, String description) {
+        return OrderEntity.builder().id(id).chatId(7L).status(OrderStatus.NEW).service(service).description(description)
+                .createdAt(createdAt).updatedAt(createdAt).build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.bot.handlers;
+
+import com.example.bot.orders.OrderStatus;
+import com.example.bot.stats.OrderStatsSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdminStatsCommandTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2026, 9, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void statusNamesAndServicesDoNotBreakMarkdown() {
+        Map<OrderStatus, Long> byStatus = new EnumMap<>(OrderStatus.class);
+        byStatus.put(OrderStatus.NEW, 3L);
+        byStatus.put(OrderStatus.WAITING_DISPATCHER, 1L);
+        byStatus.put(OrderStatus.IN_PROGRESS, 2L);
+        byStatus.put(OrderStatus.CANCELED, 0L);
+        Map<String, Long> byService = new LinkedHashMap<>();
+        byService.put("dog_walk • *long*", 4L);
+        List<OrderStatsSnapshot.Bucket> hourly = List.of(new OrderStatsSnapshot.Bucket(T0, 5));
+        List<OrderStatsSnapshot.Bucket> daily = List.of(new OrderStatsSnapshot.Bucket(T0, 5));
+
+        String text = AdminStatsCommand.render(new OrderStatsSnapshot(byStatus, byService, hourly, daily,
+                4, 1, 0.2, null));
+
+        assertThat(text).contains("Сейчас: `NEW` 3, `WAITING_DISPATCHER` 1, `IN_PROGRESS` 2\n");
+        assertThat(text).doesNotContain("CANCELED");
+        assertThat(text).contains("• dog\\_walk • \\*long\\* — 4\n");
+        assertThat(text).endsWith("20% (1 из 5)");
+    }
+}
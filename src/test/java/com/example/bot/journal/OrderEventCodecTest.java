@@ -0,0 +1,142 @@
+package com.example.bot.journal;
+
+import com.example.bot.orders.Order;
+import com.example.bot.orders.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderEventCodecTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2026, 9, 1, 12, 0, 0, 123_456_000, ZoneOffset.UTC);
+
+    private final OrderEventCodec codec = new OrderEventCodec();
+
+    @Test
+    void roundTripsEveryEventType() {
+        Order o = order("o-1", "Нужен выгул, \"шпиц\"\nвечером");
+        List<StatusChange> history = List.of(
+                new StatusChange(null, OrderStatus.DRAFT, T0),
+                new StatusChange(OrderStatus.DRAFT, OrderStatus.NEW, T0.plusMinutes(1)));
+        ByteBuffer file = frames(
+                OrderEvent.upsert(1, T0, o),
+                OrderEvent.status(2, T0.plusSeconds(1), "o-1", OrderStatus.NEW, OrderStatus.IN_PROGRESS),
+                OrderEvent.delete(3, T0.plusSeconds(2), "o-2"),
+                OrderEvent.snapshot(4, T0.plusSeconds(3), o, history));
+
+        List<OrderEvent> read = new ArrayList<>();
+        int end = OrderEventCodec.scan(file, file.limit(), read::add);
+
+        assertThat(end).isEqualTo(file.limit());
+        assertThat(read).extracting(OrderEvent::type).containsExactly(
+                OrderEvent.Type.UPSERT, OrderEvent.Type.STATUS, OrderEvent.Type.DELETE, OrderEvent.Type.SNAPSHOT);
+        assertThat(read).extracting(OrderEvent::seq).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(read.get(0).order()).isEqualTo(o);
+        assertThat(read.get(0).at()).isEqualTo(T0);
+        assertThat(read.get(1).from()).isEqualTo(OrderStatus.NEW);
+        assertThat(read.get(1).to()).isEqualTo(OrderStatus.IN_PROGRESS);
+        assertThat(read.get(2).orderId()).isEqualTo("o-2");
+        assertThat(read.get(3).order()).isEqualTo(o);
+        assertThat(read.get(3).at()).isEqualTo(T0.plusSeconds(3));
+        assertThat(read.get(3).history()).isEqualTo(history);
+    }
+
+    @Test
+    void keepsNullFields() {
+        Order o = Order.builder().id("o-1").build();
+        ByteBuffer file = frames(OrderEvent.upsert(1, T0, o));
+
+        List<OrderEvent> read = new ArrayList<>();
+        OrderEventCodec.scan(file, file.limit(), read::add);
+
+        assertThat(read).singleElement().extracting(OrderEvent::order).isEqualTo(o);
+    }
+
+    @Test
+    void stopsAtTornFrame() {
+        ByteBuffer file = frames(OrderEvent.upsert(1, T0, order("o-1", "a")), OrderEvent.upsert(2, T0, order("o-2", "b")));
+        int first = frameLength(file, 0);
+
+        List<OrderEvent> read = new ArrayList<>();
+        // второй кадр дописан не до конца — упали посреди записи
+        int end = OrderEventCodec.scan(file, file.limit() - 3, read::add);
+
+        assertThat(end).isEqualTo(first);
+        assertThat(read).extracting(OrderEvent::seq).containsExactly(1L);
+    }
+
+    @Test
+    void stopsAtCrcMismatch() {
+        ByteBuffer file = frames(OrderEvent.upsert(1, T0, order("o-1", "a")), OrderEvent.upsert(2, T0, order("o-2", "b")));
+        int first = frameLength(file, 0);
+        int last = file.limit() - 1;
+        file.put(last, (byte) (file.get(last) ^ 0x01));
+
+        List<OrderEvent> read = new ArrayList<>();
+        int end = OrderEventCodec.scan(file, file.limit(), read::add);
+
+        assertThat(end).isEqualTo(first);
+        assertThat(read).extracting(OrderEvent::seq).containsExactly(1L);
+    }
+
+    @Test
+    void stopsAtZeroLengthTerminator() {
+        ByteBuffer one = frames(OrderEvent.upsert(1, T0, order("o-1", "a")));
+        ByteBuffer file = ByteBuffer.allocate(one.limit() + 64);   // хвост нулями, как у свежего сегмента
+        file.put(one).clear();
+
+        List<OrderEvent> read = new ArrayList<>();
+        int end = OrderEventCodec.scan(file, file.capacity(), read::add);
+
+        assertThat(end).isEqualTo(one.limit());
+        assertThat(read).hasSize(1);
+    }
+
+    @Test
+    void visitorCanStopTheScan() {
+        ByteBuffer file = frames(OrderEvent.upsert(1, T0, order("o-1", "a")), OrderEvent.upsert(3, T0, order("o-2", "b")));
+
+        // как при восстановлении сегмента: разрыв seq — конец данных
+        long[] last = {0};
+        int end = OrderEventCodec.scan(file, file.limit(), e -> {
+            if (e.seq() != last[0] + 1) return false;
+            last[0] = e.seq();
+            return true;
+        });
+
+        assertThat(end).isEqualTo(frameLength(file, 0));
+        assertThat(last[0]).isEqualTo(1);
+    }
+
+    @Test
+    void growsBufferForLargeEvents() {
+        Order o = order("o-1", "ш".repeat(5_000));
+        ByteBuffer file = frames(OrderEvent.upsert(1, T0, o));
+
+        List<OrderEvent> read = new ArrayList<>();
+        OrderEventCodec.scan(file, file.limit(), read::add);
+
+        assertThat(read).singleElement().extracting(e -> e.order().getDescription()).isEqualTo(o.getDescription());
+    }
+
+    private ByteBuffer frames(OrderEvent... events) {
+        ByteBuffer out = ByteBuffer.allocate(64 * 1024);
+        for (OrderEvent e : events) out.put(codec.encode(e));
+        return out.flip();
+    }
+
+    private static int frameLength(ByteBuffer file, int pos) {
+        return OrderEventCodec.HEADER + file.getInt(pos);
+    }
+
+    private static Order order(String id, String description) {
+        return Order.builder().id(id).chatId(42L).status(OrderStatus.NEW).service("Выгул").subtype("1 час")
+                .description(description).createdAt(T0).updatedAt(T0.plusSeconds(5)).build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.bot.journal;
+
+import com.example.bot.config.JournalProperties;
+import com.example.bot.orders.Order;
+import com.example.bot.orders.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class OrderJournalTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2026, 9, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @TempDir
+    Path dir;
+
+    private OrderJournal journal;
+
+    @AfterEach
+    void close() {
+        if (journal != null) journal.shutdown();
+    }
+
+    @Test
+    void replaysStateAndTombstonesAfterReopen() {
+        journal = open(DataSize.ofMegabytes(1));
+        journal.upserted(order("a", OrderStatus.DRAFT));
+        journal.upserted(order("a", OrderStatus.NEW));
+        journal.upserted(order("b", OrderStatus.DRAFT));
+        journal.statusChanged("a", OrderStatus.NEW, OrderStatus.IN_PROGRESS, T0.plusHours(1));
+        journal.deleted("b");
+        reopen(DataSize.ofMegabytes(1));
+
+        Map<String, ReplayedOrder> state = byId(journal.replay());
+
+        assertThat(state.get("a").order().getStatus()).isEqualTo(OrderStatus.IN_PROGRESS);
+        assertThat(state.get("a").changedAt()).isEqualTo(T0.plusHours(1));
+        assertThat(state.get("b").deleted()).isTrue();
+        assertThat(state.get("b").changedAt()).isNotNull();
+        assertThat(journal.history("a")).extracting(StatusChange::to)
+                .containsExactly(OrderStatus.DRAFT, OrderStatus.NEW, OrderStatus.IN_PROGRESS);
+        assertThat(journal.history("b")).isEmpty();
+    }
+
+    @Test
+    void tombstonesSurviveCompaction() {
+        journal = open(DataSize.ofKilobytes(4));
+        journal.upserted(order("gone", OrderStatus.DRAFT));
+        journal.deleted("gone");
+        // несколько сегментов по 4 КБ — сработает сжатие в снапшот
+        for (int i = 0; i < 200; i++) journal.upserted(order("o-" + (i % 10), OrderStatus.NEW));
+        await().until(() -> journal.stats().snapshotSeq() > 2);
+        reopen(DataSize.ofKilobytes(4));
+
+        Map<String, ReplayedOrder> state = byId(journal.replay());
+
+        assertThat(state).hasSize(11);
+        assertThat(state.get("gone").deleted()).isTrue();
+        assertThat(state.get("o-3").order().getStatus()).isEqualTo(OrderStatus.NEW);
+    }
+
+    @Test
+    void generationSurvivesRestartAndIsDroppedWhenAppendFails() {
+        journal = open(DataSize.ofKilobytes(4));
+        assertThat(journal.generation()).isNull();
+        assertThat(journal.markInSync(42)).isTrue();
+        reopen(DataSize.ofKilobytes(4));
+        assertThat(journal.generation()).isEqualTo(42);
+
+        // событие больше сегмента не пишется — журнал отстал от H2
+        journal.upserted(order("huge", OrderStatus.NEW).toBuilder().description("x".repeat(8_000)).build());
+        assertThat(journal.generation()).isNull();
+        reopen(DataSize.ofKilobytes(4));
+        assertThat(journal.generation()).isNull();
+    }
+
+    @Test
+    void seedReplacesEarlierEvents() {
+        journal = open(DataSize.ofMegabytes(1));
+        journal.upserted(order("stale", OrderStatus.NEW));
+
+        assertThat(journal.seed(List.of(order("fresh", OrderStatus.NEW)))).isTrue();
+        reopen(DataSize.ofMegabytes(1));
+
+        assertThat(journal.replay()).extracting(ReplayedOrder::id).containsExactly("fresh");
+    }
+
+    private OrderJournal open(DataSize segmentSize) {
+        JournalProperties props = new JournalProperties();
+        props.setEnabled(true);
+        props.setDir(dir.toString());
+        props.setSegmentSize(segmentSize);
+        props.setCompactAfterSegments(2);
+        OrderJournal j = new OrderJournal(props, new SimpleMeterRegistry());
+        j.init();
+        return j;
+    }
+
+    private void reopen(DataSize segmentSize) {
+        journal.shutdown();
+        journal = open(segmentSize);
+    }
+
+    private static Map<String, ReplayedOrder> byId(List<ReplayedOrder> replayed) {
+        return replayed.stream().collect(Collectors.toMap(ReplayedOrder::id, Function.identity()));
+    }
+
+    private static Order order(String id, OrderStatus status) {
+        return Order.builder().id(id).chatId(1L).status(status).service("Выгул")
+                .description("описание заявки " + id).createdAt(T0).updatedAt(T0).build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.bot.jpa;
+
+import com.example.bot.orders.OrderRepository;
+import com.example.bot.orders.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:broadcasts;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BroadcastQueriesTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2026, 9, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private OrderRepository orders;
+
+    @Autowired
+    private BroadcastJpaRepository broadcasts;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void audienceIsDistinctChatIdsInOrderAfterCursor() {
+        List<OrderEntity> rows = new ArrayList<>();
+        // по нескольку заказов на чат, вперемешку
+        long[] chats = {30, 10, 20, 10, 30, 40, 20, 10, -5};
+        for (int i = 0; i < chats.length; i++) {
+            rows.add(OrderEntity.builder().id("o" + i).chatId(chats[i]).status(OrderStatus.NEW).service("Выгул")
+                    .createdAt(i % 3 == 0 ? null : T0.plusMinutes(i)).updatedAt(T0).build());
+        }
+        orders.saveAllAndFlush(rows);
+
+        assertThat(orders.findChatIdsAfter(Long.MIN_VALUE, Limit.of(3))).containsExactly(-5L, 10L, 20L);
+        assertThat(orders.findChatIdsAfter(20L, Limit.of(3))).containsExactly(30L, 40L);
+        assertThat(orders.findChatIdsAfter(40L, Limit.of(3))).isEmpty();
+    }
+
+    @Test
+    void chatIdIndexExists() {
+        assertThat(jdbc.queryForList("select index_name from information_schema.indexes where table_name = 'orders'",
+                String.class)).contains("idx_orders_chat");
+    }
+
+    @Test
+    void batchIsClaimedByOneInstanceOnly() {
+        BroadcastEntity b = broadcasts.saveAndFlush(BroadcastEntity.builder().text("Привет")
+                .status(BroadcastEntity.Status.RUNNING).createdAt(T0).updatedAt(T0).build());
+        long version = b.getVersion();
+
+        // обе реплики подняли рассылку с одной и той же version — порцию получает одна
+        assertThat(broadcasts.claim(b.getId(), version, BroadcastEntity.Status.RUNNING, T0)).isEqualTo(1);
+        assertThat(broadcasts.claim(b.getId(), version, BroadcastEntity.Status.RUNNING, T0)).isZero();
+        assertThat(broadcasts.claim(b.getId(), version + 1, BroadcastEntity.Status.RUNNING, T0)).isEqualTo(1);
+
+        jdbc.update("update broadcasts set status = 'CANCELED' where id = ?", b.getId());
+        assertThat(broadcasts.claim(b.getId(), version + 2, BroadcastEntity.Status.RUNNING, T0)).isZero();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.bot.jpa;
+
+import com.example.bot.orders.OrderCursor;
+import com.example.bot.orders.OrderQuery;
+import com.example.bot.orders.OrderRepository;
+import com.example.bot.orders.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:paging;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderPageQueriesTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2026, 9, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+    /** От новых к старым; без createdAt — после всех, между собой по id. */
+    private static final Comparator<OrderEntity> NEWEST_FIRST = Comparator
+            .comparing(OrderEntity::getCreatedAt, Comparator.nullsFirst(Comparator.<OffsetDateTime>naturalOrder()))
+            .thenComparing(OrderEntity::getId)
+            .reversed();
+
+    @Autowired
+    private OrderRepository repo;
+
+    private final List<OrderEntity> all = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // по три заказа на одно время создания — курсору нужен id, чтобы их различить
+        for (int i = 0; i < 21; i++) {
+            all.add(entity("o" + (char) ('a' + i), T0.plusMinutes(i / 3), i % 2 == 0 ? OrderStatus.NEW : OrderStatus.COMPLETED));
+        }
+        for (int i = 0; i < 5; i++) {
+            all.add(entity("u" + i, null, i % 2 == 0 ? OrderStatus.NEW : OrderStatus.COMPLETED));
+        }
+        repo.saveAllAndFlush(all);
+    }
+
+    @Test
+    void pagesOlderThenNewerWithoutGapsOrDuplicates() {
+        walk(OrderQuery.ALL, 4);
+        walk(OrderQuery.ALL, 1);
+        walk(OrderQuery.ALL, 30);
+    }
+
+    @Test
+    void pagesWithFilter() {
+        walk(new OrderQuery(Set.of(OrderStatus.NEW), null, null), 3);
+        walk(new OrderQuery(Set.of(), "Груминг", 7L), 2);
+    }
+
+    /** Листает от самых новых до конца, затем обратно, и сравнивает с полной сортировкой. */
+    private void walk(OrderQuery query, int limit) {
+        List<String> expected = all.stream()
+                .filter(e -> query.statuses().isEmpty() || query.statuses().contains(e.getStatus()))
+                .filter(e -> query.service() == null || query.service().equals(e.getService()))
+                .filter(e -> query.chatId() == null || query.chatId().equals(e.getChatId()))
+                .sorted(NEWEST_FIRST)
+                .map(OrderEntity::getId)
+                .toList();
+
+        List<String> older = new ArrayList<>();
+        OrderCursor cursor = null;
+        while (true) {
+            List<OrderEntity> page = repo.findPage(query, cursor, true, limit);
+            page.forEach(e -> older.add(e.getId()));
+            if (page.size() < limit) break;
+            cursor = cursor(page.get(page.size() - 1));
+        }
+        assertThat(older).containsExactlyElementsOf(expected);
+
+        // обратно: от самого старого к самому новому
+        List<String> newer = new ArrayList<>();
+        cursor = null;
+        while (true) {
+            List<OrderEntity> page = repo.findPage(query, cursor, false, limit);
+            page.forEach(e -> newer.add(e.getId()));
+            if (page.size() < limit) break;
+            cursor = cursor(page.get(page.size() - 1));
+        }
+        Collections.reverse(newer);
+        assertThat(newer).containsExactlyElementsOf(expected);
+    }
+
+    private static OrderCursor cursor(OrderEntity e) {
+        return new OrderCursor(e.getCreatedAt(), e.getId());
+    }
+
+    private static OrderEntity entity(String id, OffsetDateTime createdAt, OrderStatus status) {
+        return OrderEntity.builder().id(id).chatId(id.hashCode() % 2 == 0 ? 7L : 8L).status(status)
+                .service("Груминг").createdAt(createdAt).updatedAt(createdAt).build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.bot.jpa;
+
+import com.example.bot.config.PersistenceProperties;
+import com.example.bot.orders.Order;
+import com.example.bot.orders.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderWriteBehindTest {
+
+    private final DriverManagerDataSource ds = new DriverManagerDataSource("jdbc:h2:mem:write-behind;DB_CLOSE_DELAY=-1");
+    private final JdbcTemplate jdbc = new JdbcTemplate(ds);
+    private final PersistenceProperties props = new PersistenceProperties();
+    private OrderWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("""
+                CREATE TABLE orders (id VARCHAR(255) PRIMARY KEY, chat_id BIGINT, status VARCHAR(32),
+                    service VARCHAR(255), subtype VARCHAR(255), description CLOB,
+                    created_at TIMESTAMP(6) WITH TIME ZONE, updated_at TIMESTAMP(6) WITH TIME ZONE)""");
+        jdbc.execute("CREATE TABLE bot_state (name VARCHAR(255) PRIMARY KEY, state_value BIGINT)");
+        props.setBatchSize(1000);
+        props.setMaxPending(3);
+        writeBehind = new OrderWriteBehind(jdbc, new TransactionTemplate(new DataSourceTransactionManager(ds)),
+                props, new SimpleMeterRegistry());
+        writeBehind.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void changesToPendingOrderAreCoalesced() {
+        writeBehind.save(order("a", OrderStatus.DRAFT));
+        writeBehind.save(order("a", OrderStatus.NEW));
+
+        assertThat(writeBehind.pendingCount()).isEqualTo(1);
+        assertThat(writeBehind.flush()).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT status FROM orders WHERE id = 'a'", String.class)).isEqualTo("NEW");
+    }
+
+    @Test
+    void batchMovesSyncedAtMarkInTheSameTransaction() {
+        long before = System.currentTimeMillis();
+        writeBehind.save(order("a", OrderStatus.NEW));
+        writeBehind.flush();
+
+        assertThat(syncedAt()).isBetween(before, System.currentTimeMillis());
+
+        long mark = syncedAt();
+        writeBehind.save(order("b", OrderStatus.NEW));
+        jdbc.execute("ALTER TABLE orders RENAME TO orders_offline");
+        writeBehind.flush();
+
+        // batch не записан — отметка осталась прежней
+        assertThat(syncedAt()).isEqualTo(mark);
+    }
+
+    @Test
+    void fullQueueIsWrittenByCallerAndDoesNotGrowWhileDatabaseIsDown() {
+        for (String id : new String[]{"a", "b", "c"}) writeBehind.save(order(id, OrderStatus.NEW));
+        jdbc.execute("ALTER TABLE orders RENAME TO orders_offline");
+
+        // flush по таймеру проглатывает ошибку и повторит позже
+        assertThat(writeBehind.flush()).isZero();
+        // новый заказ при полной очереди: запись в потоке вызывающего, ошибка — ему
+        assertThatThrownBy(() -> writeBehind.save(order("d", OrderStatus.NEW))).isInstanceOf(DataAccessException.class);
+        assertThat(writeBehind.pendingCount()).isEqualTo(3);
+        // изменение уже ожидающего заказа очередь не растит и не блокирует
+        writeBehind.save(order("a", OrderStatus.COMPLETED));
+        assertThat(writeBehind.pendingCount()).isEqualTo(3);
+        assertThat(writeBehind.backpressureCount()).isEqualTo(1);
+        assertThat(writeBehind.failureCount()).isEqualTo(2);
+
+        jdbc.execute("ALTER TABLE orders_offline RENAME TO orders");
+        writeBehind.save(order("e", OrderStatus.NEW));
+
+        assertThat(writeBehind.pendingCount()).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM orders", Integer.class)).isEqualTo(3);
+        assertThat(jdbc.queryForObject("SELECT status FROM orders WHERE id = 'a'", String.class)).isEqualTo("COMPLETED");
+    }
+
+    private long syncedAt() {
+        return jdbc.queryForObject("SELECT state_value FROM bot_state WHERE name = ?", Long.class,
+                OrderWriteBehind.SYNCED_AT_KEY);
+    }
+
+    private static Order order(String id, OrderStatus status) {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        return Order.builder().id(id).chatId(1L).status(status).service("Груминг").createdAt(now).updatedAt(now).build();
+    }
+}
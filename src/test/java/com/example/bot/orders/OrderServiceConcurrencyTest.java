@@ -0,0 +1,111 @@
+package com.example.bot.orders;
+
+import com.example.bot.config.JournalProperties;
+import com.example.bot.config.OrderCacheProperties;
+import com.example.bot.journal.OrderJournal;
+import com.example.bot.jpa.OrderPersistence;
+import com.example.bot.search.OrderSearchIndex;
+import com.example.bot.stats.OrderStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/** Двойные нажатия в один чат из многих потоков — то же, что OrderContentionBenchmark с chats=1. */
+class OrderServiceConcurrencyTest {
+
+    private static final long CHAT = 100_000_000L;
+
+    @Test
+    void doubleTapsOnOneChatKeepOneDraftAndSubmittedOrders() throws Exception {
+        OrderService service = orderService();
+        int threads = 8;
+        int taps = 2_000;
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        Set<String> submitted = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom rnd = new SplittableRandom(t);
+            done.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < taps; i++) {
+                    Order draft = service.beginOrUpdateDraft(CHAT, "Выгул", rnd.nextBoolean() ? "Обычный" : "Долгий",
+                            null, null, null);
+                    assertThat(draft.getStatus()).isEqualTo(OrderStatus.DRAFT);
+                    seen.add(draft.getId());
+                    // отправка, запоздалая отмена и просто отмена гонятся с нажатиями соседних потоков
+                    switch (rnd.nextInt(4)) {
+                        case 0 -> {
+                            if (service.updateStatus(draft.getId(), OrderStatus.NEW).isPresent()) submitted.add(draft.getId());
+                            service.cancelDraft(draft.getId());
+                        }
+                        case 1 -> service.cancelDraft(draft.getId());
+                        default -> { }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : done) f.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertThat(submitted).isNotEmpty();
+        for (String id : submitted) {
+            assertThat(service.findById(id)).map(Order::getStatus).contains(OrderStatus.NEW);
+        }
+        List<String> drafts = seen.stream()
+                .filter(id -> service.findById(id).map(o -> o.getStatus() == OrderStatus.DRAFT).orElse(false))
+                .toList();
+        assertThat(drafts).hasSizeLessThanOrEqualTo(1);
+        assertThat(service.activeDraftCount()).isLessThanOrEqualTo(1);
+        assertThat(service.getActiveDraftId(CHAT)).isEqualTo(drafts.stream().findFirst());
+    }
+
+    @Test
+    void cancelAfterSubmitKeepsOrder() {
+        OrderService service = orderService();
+        Order draft = service.beginOrUpdateDraft(CHAT, "Выгул", "Обычный", null, null, null);
+        service.updateStatus(draft.getId(), OrderStatus.NEW);
+
+        service.cancelDraft(draft.getId());
+
+        assertThat(service.findById(draft.getId())).map(Order::getStatus).contains(OrderStatus.NEW);
+    }
+
+    @Test
+    void tapAfterFinalizeStartsNewDraft() {
+        OrderService service = orderService();
+        Order first = service.beginOrUpdateDraft(CHAT, "Выгул", "Обычный", null, null, null);
+        assertThat(service.beginOrUpdateDraft(CHAT, "Выгул", "Долгий", null, null, null).getId()).isEqualTo(first.getId());
+
+        service.updateStatus(first.getId(), OrderStatus.NEW);
+        Order second = service.beginOrUpdateDraft(CHAT, "Няня", null, null, null, null);
+
+        assertThat(second.getId()).isNotEqualTo(first.getId());
+        assertThat(service.getActiveDraftId(CHAT)).contains(second.getId());
+        assertThat(service.findById(first.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.NEW);
+    }
+
+    private static OrderService orderService() {
+        OrderService service = new OrderService(new LocalOrderStateStore(), mock(OrderPersistence.class),
+                new OrderJournal(new JournalProperties(), new SimpleMeterRegistry()), new OrderCacheProperties(),
+                event -> { }, new OrderSearchIndex(), mock(OrderStats.class));
+        service.init();
+        return service;
+    }
+}
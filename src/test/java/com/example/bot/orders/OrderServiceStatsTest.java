@@ -0,0 +1,61 @@
+package com.example.bot.orders;
+
+import com.example.bot.config.JournalProperties;
+import com.example.bot.config.OrderCacheProperties;
+import com.example.bot.journal.OrderJournal;
+import com.example.bot.jpa.OrderPersistence;
+import com.example.bot.search.OrderSearchIndex;
+import com.example.bot.stats.OrderStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** Счётчики /stats получают прежний снимок заказа, даже если он вытеснен из памяти. */
+class OrderServiceStatsTest {
+
+    private final Map<String, Order> h2 = new ConcurrentHashMap<>();
+    private final OrderPersistence persistence = mock(OrderPersistence.class);
+    private final OrderStats stats = mock(OrderStats.class);
+
+    @Test
+    void changeOfEvictedOrderIsNotCountedAsNew() {
+        doAnswer(inv -> h2.put(inv.<Order>getArgument(0).getId(), inv.getArgument(0))).when(persistence).saveFromModel(any());
+        when(persistence.findById(anyString())).thenAnswer(inv -> Optional.ofNullable(h2.get(inv.<String>getArgument(0))));
+        OrderCacheProperties props = new OrderCacheProperties();
+        props.setMaxSize(1);
+        OrderService service = new OrderService(new LocalOrderStateStore(), persistence,
+                new OrderJournal(new JournalProperties(), new SimpleMeterRegistry()), props,
+                event -> { }, new OrderSearchIndex(), stats);
+        service.init();
+
+        // черновиков больше, чем влезает в кэш: первые вытесняются
+        List<Order> drafts = new ArrayList<>();
+        for (long chat = 1; chat <= 40; chat++) drafts.add(service.beginOrUpdateDraft(chat, "Выгул", null, null, null, null));
+        Order evicted = drafts.get(0);
+        assertThat(service.cacheStats().evictions()).isPositive();
+        clearInvocations(stats);
+
+        service.save(evicted.toBuilder().status(OrderStatus.NEW).build());
+
+        verify(stats).changed(argThat(before -> before != null && before.getId().equals(evicted.getId())
+                && before.getStatus() == OrderStatus.DRAFT), argThat(after -> after.getStatus() == OrderStatus.NEW));
+        verify(stats, never()).changed(isNull(), any());
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.bot.orders;
+
+import com.example.bot.config.WarmupProperties;
+import com.example.bot.journal.OrderJournal;
+import com.example.bot.journal.ReplayedOrder;
+import com.example.bot.jpa.BotStateEntity;
+import com.example.bot.jpa.BotStateJpaRepository;
+import com.example.bot.jpa.OrderEntity;
+import com.example.bot.jpa.OrderJpaRepository;
+import com.example.bot.jpa.OrderPersistence;
+import com.example.bot.jpa.OrderWriteBehind;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:warm;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderWarmLoaderTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2026, 9, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private OrderJpaRepository repo;
+
+    @Autowired
+    private BotStateJpaRepository stateRepo;
+
+    private final OrderPersistence persistence = mock(OrderPersistence.class);
+
+    @Test
+    void loadsDatedAndUndatedRowsAcrossPages() {
+        for (int i = 0; i < 5; i++) repo.save(entity("dated-" + i, T0.plusMinutes(i % 2)));
+        for (int i = 0; i < 3; i++) repo.save(entity("undated-" + i, null));
+        repo.flush();
+
+        WarmupProperties props = new WarmupProperties();
+        props.setPageSize(2);
+        props.setParallelism(2);
+
+        assertThat(load(props)).containsExactlyInAnyOrder(
+                "dated-0", "dated-1", "dated-2", "dated-3", "dated-4", "undated-0", "undated-1", "undated-2");
+    }
+
+    @Test
+    void windowSkipsOldRowsButKeepsUndated() {
+        repo.save(entity("old", OffsetDateTime.now(ZoneOffset.UTC).minusDays(10)));
+        repo.save(entity("fresh", OffsetDateTime.now(ZoneOffset.UTC).minusHours(1)));
+        repo.save(entity("undated", null));
+        repo.flush();
+
+        WarmupProperties props = new WarmupProperties();
+        props.setWindow(Duration.ofDays(1));
+
+        assertThat(load(props)).containsExactlyInAnyOrder("fresh", "undated");
+    }
+
+    @Test
+    void journalOutOfSyncWithH2FallsBackToH2AndReseeds() {
+        repo.save(entity("in-h2", T0));
+        repo.flush();
+        // журнал был согласован с H2, потом процесс работал без него и стёр поколение в H2
+        OrderJournal journal = journal(7L);
+        when(journal.seed(anyCollection())).thenReturn(true);
+
+        assertThat(load(new WarmupProperties(), journal)).containsExactly("in-h2");
+
+        verify(journal, never()).replay();
+        Long generation = stateRepo.findById(OrderWarmLoader.JOURNAL_GENERATION_KEY).orElseThrow().getValue();
+        assertThat(generation).isNotEqualTo(7L);
+        verify(journal).markInSync(generation);
+    }
+
+    @Test
+    void journalInSyncRepersistsChangesAfterWriteBehindWatermark() {
+        OffsetDateTime synced = OffsetDateTime.now(ZoneOffset.UTC).minusHours(1);
+        stateRepo.save(new BotStateEntity(OrderWarmLoader.JOURNAL_GENERATION_KEY, 7L));
+        stateRepo.save(new BotStateEntity(OrderWriteBehind.SYNCED_AT_KEY, synced.toInstant().toEpochMilli()));
+        Order old = model("old");
+        Order fresh = model("fresh");
+        OrderJournal journal = journal(7L);
+        when(journal.replay()).thenReturn(List.of(
+                new ReplayedOrder("old", old, synced.minusHours(2)),
+                new ReplayedOrder("fresh", fresh, synced.plusSeconds(1)),
+                new ReplayedOrder("gone", null, synced.minusSeconds(10))));
+        when(persistence.writeBehindEnabled()).thenReturn(true);
+
+        assertThat(load(new WarmupProperties(), journal)).containsExactlyInAnyOrder("old", "fresh");
+
+        // до H2 доводится только то, что менялось после отметки (с запасом)
+        verify(persistence).saveFromModel(fresh);
+        verify(persistence, never()).saveFromModel(old);
+        verify(persistence).deleteById("gone");
+        verify(journal, never()).seed(anyCollection());
+        // отметку двинет сброс write-behind, когда запишет повторённое
+        assertThat(stateRepo.findById(OrderWriteBehind.SYNCED_AT_KEY).orElseThrow().getValue())
+                .isEqualTo(synced.toInstant().toEpochMilli());
+    }
+
+    @Test
+    void journalDisabledForgetsGeneration() {
+        stateRepo.save(new BotStateEntity(OrderWarmLoader.JOURNAL_GENERATION_KEY, 7L));
+
+        load(new WarmupProperties());
+
+        assertThat(stateRepo.findById(OrderWarmLoader.JOURNAL_GENERATION_KEY)).isEmpty();
+    }
+
+    private List<String> load(WarmupProperties props) {
+        return load(props, mock(OrderJournal.class));
+    }
+
+    private List<String> load(WarmupProperties props, OrderJournal journal) {
+        List<String> restored = new CopyOnWriteArrayList<>();
+        OrderService orders = mock(OrderService.class);
+        doAnswer(inv -> restored.add(inv.<Order>getArgument(0).getId())).when(orders).restore(any());
+        new OrderWarmLoader(repo, orders, props, journal, stateRepo, persistence).load();
+        return restored;
+    }
+
+    private static OrderJournal journal(Long generation) {
+        OrderJournal journal = mock(OrderJournal.class);
+        when(journal.enabled()).thenReturn(true);
+        when(journal.hasState()).thenReturn(true);
+        when(journal.generation()).thenReturn(generation);
+        when(journal.markInSync(anyLong())).thenReturn(true);
+        return journal;
+    }
+
+    private static Order model(String id) {
+        return entity(id, T0).toModel();
+    }
+
+    private static OrderEntity entity(String id, OffsetDateTime createdAt) {
+        return OrderEntity.builder().id(id).chatId(1L).status(OrderStatus.NEW).service("Груминг")
+                .createdAt(createdAt).updatedAt(createdAt).build();
+    }
+}
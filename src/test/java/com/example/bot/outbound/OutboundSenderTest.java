@@ -0,0 +1,74 @@
+package com.example.bot.outbound;
+
+import com.example.bot.config.OutboundProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.methods.botapimethods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.message.Message;
+import org.telegram.telegrambots.meta.generics.TelegramClient;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboundSenderTest {
+
+    private final TelegramClient client = mock(TelegramClient.class);
+    private final List<String> sentTo = new CopyOnWriteArrayList<>();
+    private OutboundSender sender;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        when(client.executeAsync(any(BotApiMethod.class))).thenAnswer(inv -> {
+            SendMessage m = inv.getArgument(0);
+            sentTo.add(m.getChatId() + ":" + m.getText());
+            return CompletableFuture.completedFuture(new Message());
+        });
+        OutboundProperties props = new OutboundProperties();
+        props.setGlobalRate(1000);
+        props.setChatRate(1000);
+        props.setWorkers(2);
+        sender = new OutboundSender(client, props, new SimpleMeterRegistry());
+        sender.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.stop();
+    }
+
+    @Test
+    void chatKeyKeepsUsernamesAsStrings() {
+        assertThat(OutboundSender.chatKey("42")).isEqualTo(42L);
+        assertThat(OutboundSender.chatKey("-1001234567890")).isEqualTo(-1001234567890L);
+        assertThat(OutboundSender.chatKey("@channel")).isEqualTo("@channel");
+        assertThat(OutboundSender.chatKey("not-a-number")).isEqualTo("not-a-number");
+        assertThat(OutboundSender.chatKey(null)).isNull();
+    }
+
+    @Test
+    void sendsToChannelUsernameInOrder() throws Exception {
+        CompletableFuture<Message> first = sender.send(message("@channel", "1"));
+        CompletableFuture<Message> second = sender.send(message("@channel", "2"));
+        CompletableFuture<Message> numeric = sender.send(message("42", "3"));
+
+        CompletableFuture.allOf(first, second, numeric).get(5, TimeUnit.SECONDS);
+
+        assertThat(sentTo).containsSubsequence("@channel:1", "@channel:2").contains("42:3");
+        assertThat(sender.stats().failed()).isZero();
+    }
+
+    private static SendMessage message(String chatId, String text) {
+        return SendMessage.builder().chatId(chatId).text(text).build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.bot.outbound;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void burstPassesThenCallsAreSpacedByInterval() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+        long now = System.nanoTime();   // бакет отсчитывает от момента создания
+
+        assertThat(bucket.reserve(now)).isZero();
+        assertThat(bucket.reserve(now)).isZero();
+        assertThat(bucket.reserve(now)).isZero();
+        assertThat(bucket.reserve(now)).isEqualTo(INTERVAL);
+        assertThat(bucket.reserve(now)).isEqualTo(2 * INTERVAL);
+    }
+
+    @Test
+    void tryReserveDoesNotTakeBusySlot() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        long now = System.nanoTime();
+
+        assertThat(bucket.tryReserve(now)).isZero();
+        assertThat(bucket.tryReserve(now)).isEqualTo(INTERVAL);
+        assertThat(bucket.delay(now)).isEqualTo(INTERVAL);
+        // отказ ничего не занял — через интервал слот свободен
+        assertThat(bucket.tryReserve(now + INTERVAL)).isZero();
+    }
+
+    @Test
+    void refillsAfterIdleTime() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        long now = System.nanoTime();
+        bucket.reserve(now);
+        bucket.reserve(now);
+        assertThat(bucket.isIdle(now)).isFalse();
+
+        long later = now + 2 * INTERVAL;
+        assertThat(bucket.isIdle(later)).isTrue();
+        // простой не копит слоты сверх burst
+        assertThat(bucket.reserve(later + TimeUnit.SECONDS.toNanos(10))).isZero();
+        assertThat(bucket.reserve(later + TimeUnit.SECONDS.toNanos(10))).isZero();
+        assertThat(bucket.reserve(later + TimeUnit.SECONDS.toNanos(10))).isEqualTo(INTERVAL);
+    }
+}
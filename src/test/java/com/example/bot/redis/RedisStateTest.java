@@ -0,0 +1,310 @@
+package com.example.bot.redis;
+
+import com.example.bot.config.JournalProperties;
+import com.example.bot.config.OrderCacheProperties;
+import com.example.bot.config.RedisStateConfig;
+import com.example.bot.config.SessionProperties;
+import com.example.bot.config.StateProperties;
+import com.example.bot.flow.ConversationSession;
+import com.example.bot.flow.FlowState;
+import com.example.bot.journal.OrderJournal;
+import com.example.bot.jpa.OrderPersistence;
+import com.example.bot.orders.Order;
+import com.example.bot.orders.OrderService;
+import com.example.bot.orders.OrderStatus;
+import com.example.bot.search.OrderSearchIndex;
+import com.example.bot.stats.OrderStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+
+/**
+ * bot.state.store=redis на настоящем Redis (встроенный сервер): две «реплики» со своими
+ * подключениями, near-cache и подпиской на канал сброса делят одно хранилище.
+ */
+class RedisStateTest {
+
+    private static final long CHAT = 42L;
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    private static RedisServer server;
+    private static int port;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        try (ServerSocket s = new ServerSocket(0)) {
+            port = s.getLocalPort();
+        }
+        server = new RedisServer(port);
+        server.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        if (server != null) server.stop();
+    }
+
+    @BeforeEach
+    void clean() {
+        replica().redis.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @AfterEach
+    void closeReplicas() {
+        replicas.forEach(Replica::close);
+    }
+
+    @Test
+    void doubleTapsOnTwoReplicasLeaveOneDraft() throws Exception {
+        Replica a = replica();
+        Replica b = replica();
+        int threads = 8;
+        int taps = 40;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Replica r = t % 2 == 0 ? a : b;
+            String subtype = "подтип-" + t;
+            done.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < taps; i++) {
+                    try {
+                        r.orders.beginOrUpdateDraft(CHAT, "Выгул", subtype, null, null, null);
+                    } catch (IllegalStateException giveUp) {
+                        // исчерпаны попытки WATCH — нажатие отклонено целиком, ничего не записано
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : done) f.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        List<Order> drafts = ordersInRedis(a).stream()
+                .filter(o -> o.getChatId() == CHAT && o.getStatus() == OrderStatus.DRAFT).toList();
+        assertThat(rejected.get()).isLessThan(threads * taps);
+        assertThat(drafts).hasSize(1);
+        assertThat(a.store.activeDraft(CHAT)).isEqualTo(drafts.get(0).getId());
+        assertThat(b.orders.getActiveDraftId(CHAT)).contains(drafts.get(0).getId());
+    }
+
+    @Test
+    void concurrentUpdatesFromTwoStoresAreNotLost() throws Exception {
+        Replica a = replica();
+        Replica b = replica();
+        a.store.put(order("o-1", OrderStatus.DRAFT, ""));
+        int threads = 4;
+        int updates = 50;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            RedisOrderStateStore store = t % 2 == 0 ? a.store : b.store;
+            done.add(pool.submit(() -> {
+                for (int i = 0; i < updates; i++) {
+                    // конфликт WATCH повторяется внутри update; при сильной гонке отказ — повторяем сами
+                    while (true) {
+                        try {
+                            store.update("o-1", () -> null,
+                                    o -> o.toBuilder().description(o.getDescription() + "x").build());
+                            break;
+                        } catch (IllegalStateException retry) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : done) f.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertThat(b.store.get("o-1").getDescription()).hasSize(threads * updates);
+    }
+
+    @Test
+    void updateLoadsOrderMissingInRedisInsteadOfWritingLocally() {
+        Replica a = replica();
+        Order inH2 = order("o-1", OrderStatus.NEW, "из H2");
+
+        Order updated = a.store.update("o-1", () -> inH2, o -> o.toBuilder().status(OrderStatus.IN_PROGRESS).build());
+
+        assertThat(updated.getStatus()).isEqualTo(OrderStatus.IN_PROGRESS);
+        assertThat(a.store.get("o-1")).isEqualTo(updated);
+        // нет ни в Redis, ни в H2 — ничего не пишется
+        assertThat(a.store.update("o-2", () -> null, o -> o)).isNull();
+        assertThat(a.store.get("o-2")).isNull();
+    }
+
+    @Test
+    void draftPointerIsClaimedOnlyWhenUnchanged() {
+        Replica a = replica();
+        Replica b = replica();
+
+        assertThat(a.store.putDraftIfPointer(CHAT, null, order("d-1", OrderStatus.DRAFT, ""))).isTrue();
+        // вторая реплика тоже видела «черновика нет» — проигрывает и ничего не пишет
+        assertThat(b.store.putDraftIfPointer(CHAT, null, order("d-2", OrderStatus.DRAFT, ""))).isFalse();
+        assertThat(b.store.get("d-2")).isNull();
+        assertThat(b.store.putDraftIfPointer(CHAT, "d-1", order("d-2", OrderStatus.DRAFT, ""))).isTrue();
+        assertThat(a.store.activeDraft(CHAT)).isEqualTo("d-2");
+        assertThat(a.store.get("d-2")).isNotNull();
+    }
+
+    @Test
+    void nearCachesAreInvalidatedAcrossReplicas() {
+        Replica a = replica();
+        Replica b = replica();
+
+        ConversationSession s = a.sessions.get(CHAT);
+        s.setService("Выгул");
+        a.sessions.save(s);
+        assertThat(b.sessions.get(CHAT).getService()).isEqualTo("Выгул");   // теперь в near-cache реплики b
+        s.setService("Няня");
+        a.sessions.save(s);
+        await().atMost(Duration.ofSeconds(5)).until(() -> "Няня".equals(b.sessions.find(CHAT).orElseThrow().getService()));
+
+        Order draft = a.orders.beginOrUpdateDraft(CHAT, "Выгул", null, null, null, null);
+        assertThat(b.orders.findById(draft.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.DRAFT);
+        a.orders.updateStatus(draft.getId(), OrderStatus.NEW);
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> b.orders.findById(draft.getId()).orElseThrow().getStatus() == OrderStatus.NEW);
+    }
+
+    @Test
+    void sessionRoundTripsThroughRedis() {
+        Replica a = replica();
+        ConversationSession s = ConversationSession.builder().chatId(CHAT).state(FlowState.AWAITING_DESCRIPTION)
+                .service("Передержка").subtype("неделя").descriptionDraft("кот, 5 лет\n«без прививок»")
+                .currentOrderId("o-1").build();
+        a.sessions.save(s);
+
+        // свежая реплика с пустым near-cache читает из Redis
+        Replica b = replica();
+        assertThat(b.sessions.find(CHAT)).contains(s);
+
+        b.sessions.reset(CHAT);
+        assertThat(b.sessions.find(CHAT)).isEmpty();
+        await().atMost(Duration.ofSeconds(5)).until(() -> a.sessions.find(CHAT).isEmpty());
+    }
+
+    @Test
+    void redisStoreRefusesToStartWithJournal() {
+        JournalProperties journal = new JournalProperties();
+        journal.setEnabled(true);
+
+        assertThatThrownBy(() -> init(new RedisStateConfig(journal)))
+                .hasRootCauseInstanceOf(IllegalStateException.class)
+                .rootCause().hasMessageContaining("bot.journal.enabled=false");
+    }
+
+    private List<Order> ordersInRedis(Replica r) {
+        List<Order> out = new ArrayList<>();
+        for (String key : Objects.requireNonNull(r.redis.keys("bot:order:*"))) {
+            out.add(r.store.get(key.substring("bot:order:".length())));
+        }
+        return out;
+    }
+
+    private Replica replica() {
+        Replica r = new Replica();
+        replicas.add(r);
+        return r;
+    }
+
+    private static Order order(String id, OrderStatus status, String description) {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        return Order.builder().id(id).chatId(CHAT).status(status).service("Выгул").description(description)
+                .createdAt(now).updatedAt(now).build();
+    }
+
+    /** Вызвать @PostConstruct, как это сделал бы контейнер. */
+    private static <T> T init(T bean) {
+        try {
+            for (Method m : bean.getClass().getDeclaredMethods()) {
+                if (!m.isAnnotationPresent(PostConstruct.class)) continue;
+                m.setAccessible(true);
+                m.invoke(bean);
+            }
+            return bean;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Экземпляр бота: своё подключение, шина, near-cache и OrderService поверх общего Redis. */
+    private static final class Replica {
+
+        final LettuceConnectionFactory connections;
+        final StringRedisTemplate redis;
+        final RedisMessageListenerContainer listener;
+        final RedisOrderStateStore store;
+        final RedisSessionService sessions;
+        final OrderService orders;
+
+        Replica() {
+            StateProperties props = new StateProperties();
+            props.setNearCacheTtl(Duration.ofHours(1));   // видно только сброс через канал, а не истечение копии
+            connections = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+            connections.afterPropertiesSet();
+            connections.start();
+            redis = new StringRedisTemplate(connections);
+            StateInvalidationBus bus = init(new StateInvalidationBus(redis, props, new SimpleMeterRegistry()));
+            listener = new RedisMessageListenerContainer();
+            listener.setConnectionFactory(connections);
+            listener.addMessageListener(bus, new ChannelTopic(props.getChannel()));
+            listener.afterPropertiesSet();
+            listener.start();
+            store = init(new RedisOrderStateStore(redis, MAPPER, bus, props, new OrderCacheProperties()));
+            sessions = init(new RedisSessionService(redis, MAPPER, bus, props, new SessionProperties()));
+            OrderPersistence persistence = mock(OrderPersistence.class);
+            orders = init(new OrderService(store, persistence, new OrderJournal(new JournalProperties(), new SimpleMeterRegistry()),
+                    new OrderCacheProperties(), event -> { }, mock(OrderSearchIndex.class), mock(OrderStats.class)));
+        }
+
+        void close() {
+            try {
+                listener.destroy();
+            } catch (Exception ignored) {
+            }
+            connections.destroy();
+        }
+    }
+}
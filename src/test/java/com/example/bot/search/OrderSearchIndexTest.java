@@ -0,0 +1,94 @@
+package com.example.bot.search;
+
+import com.example.bot.orders.Order;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderSearchIndexTest {
+
+    private final OrderSearchIndex index = new OrderSearchIndex();
+
+    @Test
+    void findsWordFormsOfQuery() {
+        index.index(order("o-1", "Выгул", "Нужно выгулять шпица в Бутово"));
+        index.index(order("o-2", "Выгул", "Два больших пса"));
+
+        assertThat(ids("шпицы бутово")).containsExactly("o-1");
+        assertThat(index.search("шпицы бутово", 10)).singleElement().extracting(SearchHit::matched).isEqualTo(2);
+    }
+
+    @Test
+    void ordersMatchingAllWordsComeFirstThenFallsBackToAnyWord() {
+        index.index(order("all", "Передержка", "кот и попугай"));
+        index.index(order("cat", "Передержка", "кот"));
+        index.index(order("bird", "Передержка", "попугай"));
+
+        assertThat(ids("кот попугай")).containsExactly("all");
+        // никто не содержит все слова — частичные совпадения
+        assertThat(ids("кот хомяк")).containsExactlyInAnyOrder("all", "cat");
+        assertThat(ids("хомяк")).isEmpty();
+    }
+
+    @Test
+    void serviceOutweighsDescriptionAndNewerWinsTies() {
+        index.index(order("desc", "Передержка", "после передержки нужна няня"));
+        index.index(order("title", "Няня", "на вечер"));
+        index.index(order("old", "Выгул", "шпиц"));
+        index.index(order("new", "Выгул", "шпиц"));
+
+        assertThat(ids("няня")).containsExactly("title", "desc");
+        assertThat(ids("шпиц")).containsExactly("new", "old");
+    }
+
+    @Test
+    void reindexReplacesOldTextAndRemoveDropsOrder() {
+        index.index(order("o-1", "Выгул", "шпиц"));
+        index.index(order("o-1", "Выгул", "такса"));
+
+        assertThat(ids("шпиц")).isEmpty();
+        assertThat(ids("такса")).containsExactly("o-1");
+
+        index.remove("o-1");
+        assertThat(ids("такса")).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void survivesCompaction() {
+        index.index(order("keep", "Выгул", "такса"));
+        // тысячи мёртвых версий одного заказа — срабатывает уплотнение списков
+        for (int i = 0; i < 10_000; i++) index.index(order("busy", "Выгул", i % 2 == 0 ? "шпиц" : "корги"));
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(ids("такса")).containsExactly("keep");
+        assertThat(ids("корги")).containsExactly("busy");
+        assertThat(ids("шпиц")).isEmpty();
+    }
+
+    @Test
+    void loaderDoesNotResurrectOrdersChangedDuringBuild() {
+        index.beginBuild();
+        index.index(order("changed", "Выгул", "такса"));
+        index.remove("removed");
+
+        index.indexLoaded(order("changed", "Выгул", "шпиц"));
+        index.indexLoaded(order("removed", "Выгул", "шпиц"));
+        index.indexLoaded(order("loaded", "Выгул", "корги"));
+        index.endBuild();
+
+        assertThat(ids("шпиц")).isEmpty();
+        assertThat(ids("такса")).containsExactly("changed");
+        assertThat(ids("корги")).containsExactly("loaded");
+    }
+
+    private List<String> ids(String query) {
+        return index.search(query, 10).stream().map(SearchHit::orderId).toList();
+    }
+
+    private static Order order(String id, String service, String description) {
+        return Order.builder().id(id).chatId(1L).service(service).description(description).build();
+    }
+}
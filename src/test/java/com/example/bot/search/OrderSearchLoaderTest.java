@@ -0,0 +1,48 @@
+package com.example.bot.search;
+
+import com.example.bot.config.SearchProperties;
+import com.example.bot.jpa.OrderEntity;
+import com.example.bot.jpa.OrderJpaRepository;
+import com.example.bot.orders.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:searchload;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderSearchLoaderTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2026, 9, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private OrderJpaRepository repo;
+
+    @Test
+    void indexesDatedAndUndatedRowsAcrossPages() {
+        for (int i = 0; i < 5; i++) repo.save(entity("dated-" + i, T0.plusMinutes(i % 2)));
+        for (int i = 0; i < 3; i++) repo.save(entity("undated-" + i, null));
+        repo.flush();
+        SearchProperties props = new SearchProperties();
+        props.setPageSize(2);
+        OrderSearchIndex index = new OrderSearchIndex();
+
+        index.beginBuild();
+        new OrderSearchLoader(repo, index, props).load();
+
+        assertThat(index.building()).isFalse();
+        assertThat(index.size()).isEqualTo(8);
+        assertThat(index.search("груминг", 10)).extracting(SearchHit::orderId).containsExactlyInAnyOrder(
+                "dated-0", "dated-1", "dated-2", "dated-3", "dated-4", "undated-0", "undated-1", "undated-2");
+    }
+
+    private static OrderEntity entity(String id, OffsetDateTime createdAt) {
+        return OrderEntity.builder().id(id).chatId(1L).status(OrderStatus.NEW).service("Груминг")
+                .createdAt(createdAt).updatedAt(createdAt).build();
+    }
+}
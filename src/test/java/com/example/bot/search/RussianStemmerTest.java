@@ -0,0 +1,46 @@
+package com.example.bot.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RussianStemmerTest {
+
+    @Test
+    void nounFormsShareStem() {
+        assertThat(RussianStemmer.stem("собаки")).isEqualTo("собак");
+        assertThat(RussianStemmer.stem("собакой")).isEqualTo("собак");
+        assertThat(RussianStemmer.stem("собаку")).isEqualTo("собак");
+        assertThat(RussianStemmer.stem("шпицы")).isEqualTo("шпиц");
+        assertThat(RussianStemmer.stem("шпица")).isEqualTo("шпиц");
+        assertThat(RussianStemmer.stem("прогулками")).isEqualTo("прогулк");
+    }
+
+    @Test
+    void adjectiveAndVerbEndings() {
+        assertThat(RussianStemmer.stem("красивая")).isEqualTo("красив");
+        assertThat(RussianStemmer.stem("красивого")).isEqualTo("красив");
+        // окончание первой группы снимается только после «а»/«я»
+        assertThat(RussianStemmer.stem("гуляли")).isEqualTo("гуля");
+        assertThat(RussianStemmer.stem("гуляла")).isEqualTo("гуля");
+    }
+
+    @Test
+    void derivationalSuffixOnlyInR2() {
+        assertThat(RussianStemmer.stem("радостью")).isEqualTo("радост");
+        assertThat(RussianStemmer.stem("активность")).isEqualTo("активн");
+    }
+
+    @Test
+    void wordsWithoutVowelOrEndingStayAsIs() {
+        assertThat(RussianStemmer.stem("вк")).isEqualTo("вк");
+        assertThat(RussianStemmer.stem("кот")).isEqualTo("кот");
+    }
+
+    @Test
+    void analyzerNormalizesCaseYoAndStopWords() {
+        assertThat(TextAnalyzer.terms("Шпицы, ЁЖИК и кот!")).containsExactly("шпиц", "ежик", "кот");
+        assertThat(TextAnalyzer.terms("Poodle 2 раза")).containsExactly("poodle", "2", "раз");
+        assertThat(TextAnalyzer.terms(null)).isEmpty();
+    }
+}